@@ -0,0 +1,115 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The outcome of updating a fleet of devices with {@link DeviceFleet#updateAll(int, Duration)}: which devices have
+ * been updated, which failed and why, how long every device took and which devices were skipped because the
+ * deadline had passed before their turn.
+ * <p>
+ * A device counts as failed when one of its endpoints failed, see {@link UpdateResult}. The endpoints that didn't
+ * fail have been updated anyway.
+ *
+ * @author Thijzert123
+ * @see DeviceFleet
+ * @since 2.1.0
+ */
+public final class BulkUpdateReport {
+    private final List<Device> succeeded;
+    private final Map<Device, HomeWizardApiException> failures;
+    private final Map<Device, UpdateResult> results;
+    private final Map<Device, Duration> latencies;
+    private final List<Device> skipped;
+    private final Duration elapsed;
+
+    BulkUpdateReport(final List<Device> succeeded,
+                     final Map<Device, HomeWizardApiException> failures,
+                     final Map<Device, UpdateResult> results,
+                     final Map<Device, Duration> latencies,
+                     final List<Device> skipped,
+                     final Duration elapsed) {
+        this.succeeded = Collections.unmodifiableList(succeeded);
+        this.failures = Collections.unmodifiableMap(failures);
+        this.results = Collections.unmodifiableMap(results);
+        this.latencies = Collections.unmodifiableMap(latencies);
+        this.skipped = Collections.unmodifiableList(skipped);
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Returns whether all devices have been updated completely.
+     *
+     * @return {@code true} if no device failed or was skipped
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty() && skipped.isEmpty();
+    }
+
+    /**
+     * Returns the devices of which all endpoints have been updated.
+     *
+     * @return the updated devices
+     */
+    public List<Device> getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Returns the devices that failed, with the exception of their first failed endpoint.
+     * Use {@link #getResult(Device)} to see all failed endpoints of a device.
+     *
+     * @return the failed devices and their exceptions
+     */
+    public Map<Device, HomeWizardApiException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the result per endpoint of a device that has been updated, whether it succeeded or failed.
+     *
+     * @param device the device
+     * @return the result of the device, or {@link Optional#empty()} if it was skipped or isn't part of the fleet
+     */
+    public Optional<UpdateResult> getResult(final Device device) {
+        return Optional.ofNullable(results.get(device));
+    }
+
+    /**
+     * Returns how long updating every device took, for the devices that weren't skipped.
+     *
+     * @return the latency per device
+     */
+    public Map<Device, Duration> getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Returns the devices that haven't been updated, because the deadline had passed before their turn.
+     *
+     * @return the skipped devices
+     */
+    public List<Device> getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns how long updating the whole fleet took.
+     *
+     * @return the time from the start of the update until the last device was done
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkUpdateReport{succeeded=" + succeeded.size()
+                + ", failed=" + failures.size()
+                + ", skipped=" + skipped.size()
+                + ", elapsed=" + elapsed.toMillis() + " ms}";
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Publishes items to subscribers that only want the latest item per key. Every subscription keeps at most one
+ * pending item per key: when a subscriber is slower than the publisher, a newer item replaces the pending one instead
+ * of being queued. Items are delivered on the executor of the subscription, so {@link #offer(Object)} never waits for
+ * a subscriber, and a slow subscriber doesn't hold up the others.
+ * <p>
+ * The signals to a subscriber are serialized by a work-in-progress counter: only one task per subscription runs on
+ * its executor at a time, and it delivers items as long as there is demand and there are pending items.
+ *
+ * @param <T> the type of the items
+ * @author Thijzert123
+ */
+final class ConflatingPublisher<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final Object SINGLE_KEY = new Object();
+
+    private final Function<? super T, ?> keyFunction;
+    private volatile List<ConflatingSubscription> subscriptions = List.of();
+
+    /**
+     * Creates a publisher that conflates all items, so a slow subscriber only gets the latest item.
+     */
+    ConflatingPublisher() {
+        this(item -> SINGLE_KEY);
+    }
+
+    /**
+     * Creates a publisher that conflates the items with the same key, so a slow subscriber gets the latest item
+     * of every key.
+     *
+     * @param keyFunction returns the key of an item
+     */
+    ConflatingPublisher(final Function<? super T, ?> keyFunction) {
+        this.keyFunction = keyFunction;
+    }
+
+    /**
+     * Returns a view of this publisher that delivers the items to its subscribers on the provided executor.
+     *
+     * @param executor          the executor to deliver items on
+     * @param initialItemSource returns the item a new subscriber gets first, if there is one
+     * @return the publisher
+     */
+    Flow.Publisher<T> withExecutor(final Executor executor, final Supplier<Optional<T>> initialItemSource) {
+        return subscriber -> subscribe(subscriber, executor, initialItemSource);
+    }
+
+    /**
+     * Subscribes a subscriber. {@link Flow.Subscriber#onSubscribe(Flow.Subscription)} is called on the executor.
+     *
+     * @param subscriber        the subscriber
+     * @param executor          the executor to deliver items on
+     * @param initialItemSource returns the item the subscriber gets first, as soon as it requests items
+     */
+    void subscribe(final Flow.Subscriber<? super T> subscriber,
+                   final Executor executor,
+                   final Supplier<Optional<T>> initialItemSource) {
+        final ConflatingSubscription subscription = new ConflatingSubscription(subscriber, executor);
+        synchronized (this) {
+            final List<ConflatingSubscription> newSubscriptions = new ArrayList<>(subscriptions);
+            newSubscriptions.add(subscription);
+            subscriptions = List.copyOf(newSubscriptions);
+        }
+        // Read after the subscription is added, so an item offered in between isn't missed,
+        // and only used when no newer item is pending
+        initialItemSource.get().ifPresent(subscription::offerIfAbsent);
+        subscription.schedule();
+    }
+
+    /**
+     * Returns whether there are subscribers, so callers can skip creating items nobody receives.
+     *
+     * @return {@code true} if there is at least one subscriber
+     */
+    boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Offers an item to all subscribers. This method never blocks.
+     *
+     * @param item the item
+     */
+    void offer(final T item) {
+        final List<ConflatingSubscription> current = subscriptions;
+        for (int i = 0; i < current.size(); i++) {
+            current.get(i).offer(item);
+        }
+    }
+
+    private synchronized void remove(final ConflatingSubscription subscription) {
+        final List<ConflatingSubscription> newSubscriptions = new ArrayList<>(subscriptions);
+        newSubscriptions.remove(subscription);
+        subscriptions = List.copyOf(newSubscriptions);
+    }
+
+    private final class ConflatingSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final Executor executor;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger workInProgress = new AtomicInteger();
+        // Guarded by this
+        private final Map<Object, T> pending = new LinkedHashMap<>();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException requestError;
+        // Only accessed by the task that delivers the signals
+        private boolean subscribed;
+
+        private ConflatingSubscription(final Flow.Subscriber<? super T> subscriber, final Executor executor) {
+            this.subscriber = subscriber;
+            this.executor = executor;
+        }
+
+        private void offer(final T item) {
+            if (cancelled) return;
+            synchronized (this) {
+                pending.put(keyFunction.apply(item), item);
+            }
+            if (demand.get() > 0) {
+                schedule();
+            }
+        }
+
+        private void offerIfAbsent(final T item) {
+            if (cancelled) return;
+            synchronized (this) {
+                pending.putIfAbsent(keyFunction.apply(item), item);
+            }
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Requested amount must be positive, but was " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (cancelled) return;
+            cancelled = true;
+            remove(this);
+            synchronized (this) {
+                pending.clear();
+            }
+        }
+
+        private void schedule() {
+            if (workInProgress.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (final RejectedExecutionException rejectedExecutionException) {
+                    LOGGER.warn("Executor rejected delivery to subscriber, cancelling subscription",
+                            rejectedExecutionException);
+                    cancel();
+                }
+            }
+        }
+
+        private T poll() {
+            synchronized (this) {
+                final Iterator<T> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) return null;
+                final T item = iterator.next();
+                iterator.remove();
+                return item;
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            while (true) {
+                if (!subscribed) {
+                    subscribed = true;
+                    try {
+                        subscriber.onSubscribe(this);
+                    } catch (final RuntimeException runtimeException) {
+                        LOGGER.warn("Subscriber threw an exception in onSubscribe, cancelling subscription",
+                                runtimeException);
+                        cancel();
+                    }
+                }
+                deliver();
+                missed = workInProgress.addAndGet(-missed);
+                if (missed == 0) return;
+            }
+        }
+
+        private void deliver() {
+            while (!cancelled) {
+                final IllegalArgumentException error = requestError;
+                if (error != null) {
+                    cancel();
+                    subscriber.onError(error);
+                    return;
+                }
+                if (demand.get() == 0) return;
+                final T item = poll();
+                if (item == null) return;
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(item);
+                } catch (final RuntimeException runtimeException) {
+                    LOGGER.warn("Subscriber threw an exception in onNext, cancelling subscription", runtimeException);
+                    cancel();
+                }
+            }
+        }
+    }
+}
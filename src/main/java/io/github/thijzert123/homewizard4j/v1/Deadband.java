@@ -0,0 +1,83 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+/**
+ * How much the value of a {@link Metric} has to change before a {@link MetricListener} is called.
+ * The value is compared with the value of the previous call to the listener, not with the previous measurement,
+ * so a value that slowly drifts away also calls the listener once it has moved far enough.
+ * <p>
+ * The listener is also called when a value appears or disappears, for example when the first measurements
+ * have been read. The previous or new value is {@link Double#NaN} then.
+ *
+ * @author Thijzert123
+ * @see Device#addMetricListener(Metric, Deadband, MetricListener)
+ * @since 2.1.0
+ */
+public final class Deadband {
+    /**
+     * Calls the listener on every change of the value.
+     */
+    public static final Deadband ANY_CHANGE = new Deadband(0, false);
+
+    private final double amount;
+    private final boolean relative;
+
+    private Deadband(final double amount, final boolean relative) {
+        this.amount = amount;
+        this.relative = relative;
+    }
+
+    /**
+     * Calls the listener when the value has changed by more than the provided amount.
+     * For example, {@code absolute(20)} for {@link Metric#ACTIVE_POWER_W} calls the listener when the power
+     * has changed by more than 20 W.
+     *
+     * @param amount the amount, in the unit of the metric, must not be negative
+     * @return the deadband
+     */
+    public static Deadband absolute(final double amount) {
+        return new Deadband(requireNotNegative(amount), false);
+    }
+
+    /**
+     * Calls the listener when the value has changed by more than the provided fraction of the previous value.
+     * For example, {@code relative(0.05)} calls the listener when the value has changed by more than 5%.
+     * When the previous value was zero, every change calls the listener.
+     *
+     * @param fraction the fraction of the previous value, must not be negative
+     * @return the deadband
+     */
+    public static Deadband relative(final double fraction) {
+        return new Deadband(requireNotNegative(fraction), true);
+    }
+
+    /**
+     * Returns whether the value has moved past this deadband. This method does not allocate any objects.
+     *
+     * @param previous the value of the previous call to the listener, {@link Double#NaN} if there was none
+     * @param value    the new value, {@link Double#NaN} if there is none
+     * @return {@code true} if the listener has to be called
+     */
+    boolean isExceeded(final double previous, final double value) {
+        final boolean previousPresent = !Double.isNaN(previous);
+        if (previousPresent != !Double.isNaN(value)) {
+            return true;
+        }
+        if (!previousPresent) {
+            return false;
+        }
+        final double threshold = relative ? amount * Math.abs(previous) : amount;
+        return Math.abs(value - previous) > threshold;
+    }
+
+    @Override
+    public String toString() {
+        return relative ? "Deadband{" + amount * 100 + "%}" : "Deadband{" + amount + "}";
+    }
+
+    private static double requireNotNegative(final double amount) {
+        if (!(amount >= 0) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Deadband must not be negative, but was " + amount);
+        }
+        return amount;
+    }
+}
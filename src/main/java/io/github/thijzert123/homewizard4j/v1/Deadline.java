@@ -0,0 +1,51 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.time.Duration;
+
+/**
+ * A moment before which a group of requests has to be done. The time that is left is split among the requests
+ * that still have to be made, so one slow request can't use up the time of the others.
+ *
+ * @author Thijzert123
+ */
+final class Deadline {
+    private final long deadlineNanos;
+
+    private Deadline(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline that is the provided duration from now.
+     *
+     * @param duration time until the deadline
+     * @return the deadline
+     */
+    static Deadline after(final Duration duration) {
+        DeviceTimeouts.requirePositive(duration);
+        return new Deadline(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * Returns the time until the deadline.
+     *
+     * @return the time until the deadline, or {@link Duration#ZERO} if it has passed
+     */
+    Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Returns the timeout of the next request: an equal share of the time that is left,
+     * but never more than the normal timeout of the request. Time that an earlier request didn't use
+     * is available for the requests after it.
+     *
+     * @param requestsLeft   the amount of requests that still have to be made, including the next one
+     * @param requestTimeout the normal timeout of the next request
+     * @return the timeout of the next request, or {@link Duration#ZERO} if the deadline has passed
+     */
+    Duration share(final int requestsLeft, final Duration requestTimeout) {
+        final Duration share = remaining().dividedBy(Math.max(1, requestsLeft));
+        return share.compareTo(requestTimeout) > 0 ? requestTimeout : share;
+    }
+}
@@ -1,14 +1,28 @@
 package io.github.thijzert123.homewizard4j.v1;
 
+import com.fasterxml.jackson.annotation.JsonMerge;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * A HomeWizard device, such as a Water meter or P1-meter. To get an instance, you can use {@link HomeWizardDiscoverer}
@@ -23,6 +37,9 @@ import java.util.OptionalDouble;
  * @author Thijzert123
  * @see Optional
  */
+@JsonPropertyOrder({"service_name", "api_enabled", "host_address", "port", "api_path",
+        "product_type", "product_name", "serial", "firmware_version", "api_version",
+        "wifi_ssid", "wifi_strength", "system_configuration"})
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public abstract class Device extends Updatable {
     /**
@@ -38,36 +55,45 @@ public abstract class Device extends Updatable {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
     @JsonProperty("service_name")
-    private final Optional<String> serviceName;
+    private Optional<String> serviceName;
     @JsonProperty("api_enabled")
-    private final boolean apiEnabled;
+    private boolean apiEnabled;
+    // Volatile, because the discoverer changes them when a device gets another address
     @JsonProperty("host_address")
-    private final String hostAddress;
+    private volatile String hostAddress;
     @JsonProperty("port")
-    private final int port;
+    private volatile int port;
     @JsonProperty("api_path")
-    private final String apiPath;
+    private String apiPath;
 
+    // Volatile, because the device info can be updated on a transport thread, like when the discoverer warms it up
     @JsonProperty("product_type")
-    private final Optional<String> productType;
+    private volatile Optional<String> productType;
     @JsonProperty("product_name")
-    private final Optional<String> productName;
+    private volatile Optional<String> productName;
     @JsonProperty("serial")
-    private final Optional<String> serial;
+    private volatile Optional<String> serial;
 
     @JsonProperty("firmware_version")
-    private final Optional<String> firmwareVersion = Optional.empty();
+    private volatile Optional<String> firmwareVersion = Optional.empty();
     @JsonProperty("api_version")
-    private final Optional<String> apiVersion = Optional.empty();
-
-    @JsonProperty("wifi_ssid")
-    private final Optional<String> wifiSsid = Optional.empty();
-    @JsonProperty("wifi_strength")
-    private final OptionalDouble wifiStrength = OptionalDouble.empty();
-
+    private volatile Optional<String> apiVersion = Optional.empty();
+
+    private final DeviceTransport transport;
+    private final DeviceHealth health = new DeviceHealth();
+    private final DeviceTimeouts timeouts = new DeviceTimeouts(health);
+    private final RefreshPolicy refreshPolicy = new RefreshPolicy();
+    private final Map<Endpoint, Long> updatedNanos = new ConcurrentHashMap<>();
+    // Merged, so the configuration that callers already hold is updated instead of replaced
     @JsonProperty("system_configuration")
+    @JsonMerge
     private final SystemConfiguration systemConfiguration;
 
+    private volatile MeasurementSnapshot snapshot;
+    private volatile MetricSubscription[] metricSubscriptions = new MetricSubscription[0];
+    private final ConflatingPublisher<MeasurementSnapshot> snapshotPublisher = new ConflatingPublisher<>();
+    private final List<ConflatingPublisher<DeviceSnapshot>> groupSnapshotPublishers = new CopyOnWriteArrayList<>();
+
     Device(final Optional<String> serviceName,
            final boolean apiEnabled,
            final String hostAddress,
@@ -75,7 +101,9 @@ public abstract class Device extends Updatable {
            final String apiPath,
            final Optional<String> productType,
            final Optional<String> productName,
-           final Optional<String> serial) {
+           final Optional<String> serial,
+           final DeviceTransport transport,
+           final MeasurementSnapshot emptySnapshot) {
         LOGGER.trace("Initializing Device...");
 
         this.serviceName = serviceName;
@@ -88,7 +116,9 @@ public abstract class Device extends Updatable {
         this.productName = productName;
         this.serial = serial;
 
+        this.transport = transport;
         systemConfiguration = new SystemConfiguration(this);
+        snapshot = emptySnapshot;
     }
 
     /**
@@ -105,7 +135,7 @@ public abstract class Device extends Updatable {
     public String toJson() throws HomeWizardApiException {
         LOGGER.trace("Mapping Device to JSON...");
         try {
-            final String json = objectMapper.writeValueAsString(this);
+            final String json = JsonMappers.writerFor(getClass()).writeValueAsString(this);
             LOGGER.debug("Mapped Device to JSON from JSON: '{}'", json);
             return json;
         } catch (final JsonProcessingException jsonProcessingException) {
@@ -123,7 +153,7 @@ public abstract class Device extends Updatable {
     public void updateFromJson(final String json) throws HomeWizardApiException {
         LOGGER.trace("Updating Device from JSON: '{}'", json);
         try {
-            final Device device = objectMapper.readerForUpdating(this).readValue(json);
+            final Device device = JsonMappers.readerForUpdating(this).readValue(json);
             LOGGER.debug("Updated Device from JSON");
 
             // done to make sure the configuration has access to fields of this instance
@@ -149,6 +179,34 @@ public abstract class Device extends Updatable {
         update(getFullAddress() + "/api");
     }
 
+    /**
+     * Asynchronous version of {@link #updateDeviceInfo()}. The returned future completes exceptionally with a
+     * {@link HomeWizardApiException} when something has gone wrong while updating.
+     * Cancelling the future aborts the request.
+     *
+     * @return future that completes when the device info has been updated
+     * @see #updateDeviceInfo()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateDeviceInfoAsync() {
+        return updateDeviceInfoAsync(timeouts.getRequestTimeout());
+    }
+
+    /**
+     * Same as {@link #updateDeviceInfoAsync()}, but with a timeout for this call only,
+     * instead of the timeout of {@link #getTimeouts()}.
+     *
+     * @param timeout the timeout of the request, must be positive
+     * @return future that completes when the device info has been updated
+     * @see #updateDeviceInfo()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateDeviceInfoAsync(final Duration timeout) {
+        LOGGER.trace("Updating device info asynchronously...");
+        DeviceTimeouts.requirePositive(timeout);
+        return updateAsync(getFullAddress() + "/api", timeout);
+    }
+
     /**
      * Updates the fields related to measurements. Requires {@link #isApiEnabled()} to be <code>true</code>.
      * <p>
@@ -159,21 +217,201 @@ public abstract class Device extends Updatable {
      */
     public void updateMeasurements() throws HomeWizardApiException {
         LOGGER.trace("Updating measurements...");
-        update(getFullApiAddress() + "/data");
+        HttpUtils.await(updateMeasurementsAsync());
+    }
+
+    /**
+     * Same as {@link #updateMeasurements()}, but with a timeout for this call only,
+     * instead of the timeout of {@link #getTimeouts()}.
+     *
+     * @param timeout the timeout of the request, must be positive
+     * @throws HomeWizardApiException when something has gone wrong while updating, or the request timed out
+     * @since 2.1.0
+     */
+    public void updateMeasurements(final Duration timeout) throws HomeWizardApiException {
+        LOGGER.trace("Updating measurements...");
+        HttpUtils.await(updateMeasurementsAsync(timeout));
+    }
+
+    /**
+     * Asynchronous version of {@link #updateMeasurements()}. The returned future completes exceptionally with a
+     * {@link HomeWizardApiException} when something has gone wrong while updating.
+     * Cancelling the future aborts the request.
+     *
+     * @return future that completes when the measurements have been updated
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateMeasurementsAsync() {
+        return updateMeasurementsAsync(timeouts.getRequestTimeout());
+    }
+
+    /**
+     * Same as {@link #updateMeasurementsAsync()}, but with a timeout for this call only,
+     * instead of the timeout of {@link #getTimeouts()}.
+     *
+     * @param timeout the timeout of the request, must be positive
+     * @return future that completes when the measurements have been updated
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateMeasurementsAsync(final Duration timeout) {
+        LOGGER.trace("Updating measurements asynchronously...");
+        DeviceTimeouts.requirePositive(timeout);
+        // Runs once per request, so callers that share a request don't publish the same snapshot more than once
+        final CompletableFuture<? extends MeasurementSnapshot> snapshotFuture =
+                readAsync(getFullApiAddress() + "/data", snapshot.getClass(), timeout, newSnapshot -> {
+                    setSnapshot(newSnapshot);
+                    markUpdated(Endpoint.MEASUREMENTS);
+                    notifyMetricListeners(newSnapshot);
+                    publishSnapshot(newSnapshot);
+                });
+        return HttpUtils.cancelling(snapshotFuture.thenApply(newSnapshot -> null), snapshotFuture);
     }
 
     /**
      * Calls {@link #updateDeviceInfo()} and {@link #updateMeasurements()}.
      * It retrieves the system configuration vis {@link #getSystemConfiguration()}
      * and calls {@link SystemConfiguration#update()}.
+     * <p>
+     * Endpoints that have been read more recently than the maximum age of {@link #getRefreshPolicy()} are skipped.
+     * By default, all endpoints are read.
      *
      * @throws HomeWizardApiException when something has gone wrong while updating
      */
     public void updateAll() throws HomeWizardApiException {
         LOGGER.trace("Updating all...");
-        updateDeviceInfo();
-        updateMeasurements();
-        getSystemConfiguration().update();
+        HttpUtils.await(updateAllAsync());
+    }
+
+    /**
+     * Same as {@link #updateAll()}, but all requests together have to be done within the provided deadline.
+     * The time that is left is split among the requests that still have to be made, so one slow request
+     * can't use up the time of the others. A request never gets more time than the timeout of {@link #getTimeouts()}.
+     *
+     * @param deadline the time all requests together may take, must be positive
+     * @throws HomeWizardApiException when something has gone wrong while updating, or the deadline has passed
+     * @since 2.1.0
+     */
+    public void updateAll(final Duration deadline) throws HomeWizardApiException {
+        LOGGER.trace("Updating all...");
+        HttpUtils.await(updateAllAsync(deadline));
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll()}. The updates are done one after another, just like with
+     * {@link #updateAll()}. The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something has gone wrong while updating. Cancelling the future aborts the request that is running.
+     *
+     * @return future that completes when all data has been updated
+     * @see #updateAll()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateAllAsync() {
+        LOGGER.trace("Updating all asynchronously...");
+        return HttpUtils.runSequentially(List.copyOf(getStaleUpdateAllSteps().values()), timeouts::getRequestTimeout,
+                Optional.empty());
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll(Duration)}.
+     *
+     * @param deadline the time all requests together may take, must be positive
+     * @return future that completes when all data has been updated
+     * @see #updateAll(Duration)
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateAllAsync(final Duration deadline) {
+        LOGGER.trace("Updating all asynchronously with deadline of {} ms...", deadline.toMillis());
+        return HttpUtils.runSequentially(List.copyOf(getStaleUpdateAllSteps().values()), timeouts::getRequestTimeout,
+                Optional.of(Deadline.after(deadline)));
+    }
+
+    /**
+     * Updates the same data as {@link #updateAll()}, but sends all requests at the same time instead of one after
+     * another. This takes about as long as the slowest request, instead of all requests together.
+     * <p>
+     * A failing request doesn't stop the others. Instead of throwing the first exception, the returned
+     * {@link UpdateResult} tells which endpoints have been updated and why the others failed.
+     * Endpoints that are skipped because of {@link #getRefreshPolicy()} are neither updated nor failed.
+     * Use {@link UpdateResult#throwIfFailed()} if you want an exception anyway.
+     *
+     * @return which endpoints have been updated and which failed
+     * @throws HomeWizardApiException only when the current thread was interrupted while waiting
+     * @see #updateAll()
+     * @since 2.1.0
+     */
+    public UpdateResult updateAllConcurrently() throws HomeWizardApiException {
+        LOGGER.trace("Updating all concurrently...");
+        return HttpUtils.await(updateAllConcurrentlyAsync());
+    }
+
+    /**
+     * Same as {@link #updateAllConcurrently()}, but all requests have to be done within the provided deadline.
+     * Because the requests run at the same time, every request gets the whole deadline,
+     * but never more than the timeout of {@link #getTimeouts()}.
+     *
+     * @param deadline the time all requests together may take, must be positive
+     * @return which endpoints have been updated and which failed
+     * @throws HomeWizardApiException only when the current thread was interrupted while waiting
+     * @since 2.1.0
+     */
+    public UpdateResult updateAllConcurrently(final Duration deadline) throws HomeWizardApiException {
+        LOGGER.trace("Updating all concurrently...");
+        return HttpUtils.await(updateAllConcurrentlyAsync(deadline));
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAllConcurrently()}. The returned future completes with the result
+     * when all requests are done, also when some of them failed. Cancelling the future aborts all requests.
+     *
+     * @return future of which endpoints have been updated and which failed
+     * @see #updateAllConcurrently()
+     * @since 2.1.0
+     */
+    public CompletableFuture<UpdateResult> updateAllConcurrentlyAsync() {
+        LOGGER.trace("Updating all concurrently asynchronously...");
+        return HttpUtils.runConcurrently(getStaleUpdateAllSteps(), timeouts::getRequestTimeout, Optional.empty());
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAllConcurrently(Duration)}.
+     *
+     * @param deadline the time all requests together may take, must be positive
+     * @return future of which endpoints have been updated and which failed
+     * @see #updateAllConcurrently(Duration)
+     * @since 2.1.0
+     */
+    public CompletableFuture<UpdateResult> updateAllConcurrentlyAsync(final Duration deadline) {
+        LOGGER.trace("Updating all concurrently asynchronously with deadline of {} ms...", deadline.toMillis());
+        return HttpUtils.runConcurrently(getStaleUpdateAllSteps(), timeouts::getRequestTimeout,
+                Optional.of(Deadline.after(deadline)));
+    }
+
+    /**
+     * Returns the updates that {@link #updateAll()} and {@link #updateAllConcurrently()} do, per endpoint,
+     * in the order {@link #updateAll()} does them. Every update takes the timeout of its request.
+     *
+     * @return the updates to do when updating all data
+     */
+    Map<Endpoint, Function<Duration, CompletableFuture<Void>>> getUpdateAllSteps() {
+        final Map<Endpoint, Function<Duration, CompletableFuture<Void>>> steps = new EnumMap<>(Endpoint.class);
+        steps.put(Endpoint.DEVICE_INFO, this::updateDeviceInfoAsync);
+        steps.put(Endpoint.MEASUREMENTS, this::updateMeasurementsAsync);
+        steps.put(Endpoint.SYSTEM_CONFIGURATION, getSystemConfiguration()::updateAsync);
+        return steps;
+    }
+
+    /**
+     * Returns the updates of {@link #getUpdateAllSteps()} of the endpoints that are older than the maximum age of
+     * {@link #getRefreshPolicy()}.
+     *
+     * @return the updates to do when updating all data
+     */
+    private Map<Endpoint, Function<Duration, CompletableFuture<Void>>> getStaleUpdateAllSteps() {
+        final Map<Endpoint, Function<Duration, CompletableFuture<Void>>> steps = getUpdateAllSteps();
+        steps.keySet().removeIf(endpoint -> refreshPolicy.isFresh(endpoint, getAge(endpoint)));
+        return steps;
     }
 
     /**
@@ -186,7 +424,22 @@ public abstract class Device extends Updatable {
      */
     public void identify() throws HomeWizardApiException {
         LOGGER.debug("Identify Device");
-        HttpUtils.getBody("PUT", getFullApiAddress() + "/identify");
+        HttpUtils.await(identifyAsync());
+    }
+
+    /**
+     * Asynchronous version of {@link #identify()}. The returned future completes exceptionally with a
+     * {@link HomeWizardApiException} when something has gone wrong when requesting blinking the status light.
+     *
+     * @return future that completes when the device has accepted the request
+     * @see #identify()
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> identifyAsync() {
+        LOGGER.debug("Identify Device asynchronously");
+        final CompletableFuture<ResponseBody> responseFuture = HttpUtils.requestAsync(this, "PUT", getFullApiAddress() + "/identify",
+                timeouts.getRequestTimeout());
+        return HttpUtils.cancelling(responseFuture.thenAccept(body -> {}), responseFuture);
     }
 
     /**
@@ -282,6 +535,103 @@ public abstract class Device extends Updatable {
         return apiPath;
     }
 
+    /**
+     * Changes the address of this device, when the discoverer found it at another address.
+     *
+     * @param hostAddress the new host address
+     * @param port        the new port
+     */
+    void setAddress(final String hostAddress, final int port) {
+        LOGGER.debug("Address of device changed from {}:{} to {}:{}", this.hostAddress, this.port, hostAddress, port);
+        this.hostAddress = hostAddress;
+        this.port = port;
+        systemConfiguration.updatePrivateFields(this);
+        if (this instanceof EnergySocket energySocket) {
+            energySocket.getEnergySocketState().updatePrivateFields(this);
+        }
+    }
+
+    /**
+     * Returns the transport that sends the requests to this device.
+     *
+     * @return the transport of this device
+     * @see DeviceTransport
+     * @since 2.1.0
+     */
+    public DeviceTransport getTransport() {
+        return transport;
+    }
+
+    @Override
+    Device getDevice() {
+        return this;
+    }
+
+    @Override
+    Endpoint getUpdateEndpoint() {
+        return Endpoint.DEVICE_INFO;
+    }
+
+    /**
+     * Returns the health of this device. It keeps track of whether the device is reachable.
+     * When requests to the device fail several times in a row, the next requests fail fast with a
+     * {@link DeviceUnavailableException}, until the device has been reachable again.
+     * This applies to all requests to the device, including the ones of {@link #getSystemConfiguration()}.
+     *
+     * @return the health of this device
+     * @since 2.1.0
+     */
+    public DeviceHealth getHealth() {
+        return health;
+    }
+
+    /**
+     * Returns the timeouts of the requests to this device. By default, every request has a timeout of
+     * {@link DeviceTimeouts#DEFAULT_REQUEST_TIMEOUT}. You can change the timeout, or let it follow
+     * the latency of the device.
+     *
+     * @return the timeouts of this device
+     * @since 2.1.0
+     */
+    public DeviceTimeouts getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Returns the refresh policy of this device. It decides which endpoints {@link #updateAll()} and
+     * {@link #updateAllConcurrently()} read, based on how long ago they have been read.
+     * By default, all endpoints are read on every call.
+     *
+     * @return the refresh policy of this device
+     * @since 2.1.0
+     */
+    public RefreshPolicy getRefreshPolicy() {
+        return refreshPolicy;
+    }
+
+    /**
+     * Returns how long ago the data of an endpoint has been read successfully,
+     * by any of the update methods of this device, its system configuration or its energy socket state.
+     *
+     * @param endpoint the endpoint
+     * @return the time since the latest successful update, or an empty {@link Optional} if it has never been updated
+     * @see #getRefreshPolicy()
+     * @since 2.1.0
+     */
+    public Optional<Duration> getAge(final Endpoint endpoint) {
+        final Long nanos = updatedNanos.get(endpoint);
+        return nanos == null ? Optional.empty() : Optional.of(Duration.ofNanos(System.nanoTime() - nanos));
+    }
+
+    /**
+     * Records that the data of an endpoint has just been read successfully.
+     *
+     * @param endpoint the endpoint that has been read
+     */
+    void markUpdated(final Endpoint endpoint) {
+        updatedNanos.put(endpoint, System.nanoTime());
+    }
+
     /**
      * Returns the system configuration. You can change the values with the returned class.
      * <p>
@@ -380,8 +730,9 @@ public abstract class Device extends Updatable {
      * @return the SSID of the Wi-Fi network the device is connected to
      * @see #updateMeasurements()
      */
+    @JsonProperty("wifi_ssid")
     public Optional<String> getWifiSsid() {
-        return wifiSsid;
+        return getSnapshot().getWifiSsid();
     }
 
     /**
@@ -394,7 +745,277 @@ public abstract class Device extends Updatable {
      * @return the Wi-Fi strength
      * @see #updateMeasurements()
      */
+    @JsonProperty("wifi_strength")
     public OptionalDouble getWifiStrength() {
-        return wifiStrength;
+        return getSnapshot().getWifiStrength();
+    }
+
+    /**
+     * Returns the snapshot of the measurements from the latest call to {@link #updateMeasurements()}.
+     * The snapshot is immutable and all values in it come from the same response of the device.
+     * Getters of the measurements read from the snapshot that is current at the moment they are called,
+     * so if you need multiple values that belong together, read all of them from the same snapshot.
+     * <p>
+     * Before the first call to {@link #updateMeasurements()}, all values in the snapshot are empty.
+     *
+     * @return the current snapshot of the measurements
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    public MeasurementSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the snapshot of the measurements, and first updates the measurements if they are older than
+     * {@code maxAge} or haven't been updated yet. If a dashboard reads a value every 100 ms with a maximum age
+     * of 1 second, only one in ten reads sends a request.
+     *
+     * @param maxAge the maximum age of the returned snapshot, zero to always update, must not be negative
+     * @return a snapshot of the measurements that is not older than {@code maxAge}
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @see #getAge(Endpoint)
+     * @since 2.1.0
+     */
+    public MeasurementSnapshot getSnapshot(final Duration maxAge) throws HomeWizardApiException {
+        return HttpUtils.await(getSnapshotAsync(maxAge));
+    }
+
+    /**
+     * Asynchronous version of {@link #getSnapshot(Duration)}. The returned future is already completed when the
+     * measurements are recent enough. Otherwise, it completes when they have been updated, or exceptionally with a
+     * {@link HomeWizardApiException} when something has gone wrong while updating.
+     *
+     * @param maxAge the maximum age of the snapshot, zero to always update, must not be negative
+     * @return future of a snapshot of the measurements that is not older than {@code maxAge}
+     * @see #getSnapshot(Duration)
+     * @since 2.1.0
+     */
+    public CompletableFuture<MeasurementSnapshot> getSnapshotAsync(final Duration maxAge) {
+        RefreshPolicy.requireNotNegative(maxAge);
+        final Optional<Duration> age = getAge(Endpoint.MEASUREMENTS);
+        if (age.isPresent() && RefreshPolicy.isFresh(age.get(), maxAge)) {
+            return CompletableFuture.completedFuture(getSnapshot());
+        }
+        LOGGER.trace("Measurements are older than {} ms, updating...", maxAge.toMillis());
+        final CompletableFuture<Void> updateFuture = updateMeasurementsAsync();
+        return HttpUtils.cancelling(updateFuture.thenApply(ignored -> getSnapshot()), updateFuture);
+    }
+
+    /**
+     * Returns the latest value of a metric, without creating an {@link OptionalDouble}.
+     * This is the same as {@code getSnapshot().get(metric)}.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     *
+     * @param metric the metric to get the value of
+     * @return the value of the metric, or {@link Double#NaN} if there is no value for the metric
+     * @see #has(Metric)
+     * @see MeasurementSnapshot#get(Metric)
+     * @since 2.1.0
+     */
+    public double get(final Metric metric) {
+        return getSnapshot().get(metric);
+    }
+
+    /**
+     * Returns the value of a metric, and first updates the measurements if they are older than {@code maxAge}.
+     * This is the same as {@code getSnapshot(maxAge).get(metric)}.
+     *
+     * @param metric the metric to get the value of
+     * @param maxAge the maximum age of the value, zero to always update, must not be negative
+     * @return the value of the metric, or {@link Double#NaN} if there is no value for the metric
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @see #getSnapshot(Duration)
+     * @since 2.1.0
+     */
+    public double get(final Metric metric, final Duration maxAge) throws HomeWizardApiException {
+        return getSnapshot(maxAge).get(metric);
+    }
+
+    /**
+     * Returns whether the latest measurements have a value for a metric.
+     * This is the same as {@code getSnapshot().has(metric)}.
+     *
+     * @param metric the metric to check
+     * @return {@code true} if there is a value for the metric
+     * @see MeasurementSnapshot#has(Metric)
+     * @since 2.1.0
+     */
+    public boolean has(final Metric metric) {
+        return getSnapshot().has(metric);
+    }
+
+    /**
+     * Adds a listener that is called when the value of a metric has moved past a deadband after an update
+     * of the measurements. The new measurements are compared with the value of the previous call to the listener,
+     * without allocating any objects, so listeners add little cost to updates in which nothing changed much.
+     * The listener is called for the first time when the measurements first contain the metric.
+     * <p>
+     * This code example prints the active power whenever it has changed by more than 20 W:
+     *
+     * <pre>
+     * p1Meter.addMetricListener(Metric.ACTIVE_POWER_W, Deadband.absolute(20),
+     *         (device, metric, previousValue, value) -&gt; System.out.println(value + " W"));
+     * </pre>
+     *
+     * @param metric   the metric to listen to, which must be measured by this type of device
+     * @param deadband how much the value has to change before the listener is called
+     * @param listener the listener
+     * @see MeasurementSnapshot#getMetrics()
+     * @since 2.1.0
+     */
+    public synchronized void addMetricListener(final Metric metric,
+                                               final Deadband deadband,
+                                               final MetricListener listener) {
+        if (!getSnapshot().getMetrics().contains(metric)) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " doesn't measure " + metric);
+        }
+        final MetricSubscription[] subscriptions = Arrays.copyOf(metricSubscriptions, metricSubscriptions.length + 1);
+        subscriptions[subscriptions.length - 1] = new MetricSubscription(metric, deadband, listener);
+        metricSubscriptions = subscriptions;
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addMetricListener(Metric, Deadband, MetricListener)},
+     * for all metrics it was added for.
+     *
+     * @param listener the listener to remove
+     * @since 2.1.0
+     */
+    public synchronized void removeMetricListener(final MetricListener listener) {
+        metricSubscriptions = Arrays.stream(metricSubscriptions)
+                .filter(subscription -> subscription.listener != listener)
+                .toArray(MetricSubscription[]::new);
+    }
+
+    /**
+     * Returns a publisher of the snapshots of this device. Every successful update of the measurements, for example
+     * by a {@link FleetPoller}, publishes the new snapshot to all subscribers. When the measurements have been updated
+     * before, a new subscriber first gets the current snapshot. The publisher never completes.
+     * <p>
+     * Subscribers get snapshots as they request them with {@link Flow.Subscription#request(long)}. A subscriber that is
+     * slower than the updates only gets the latest snapshot: a newer snapshot replaces the one it hasn't received yet,
+     * instead of being queued. The snapshots are delivered on {@link ForkJoinPool#commonPool()}, so a slow subscriber
+     * doesn't hold up the updates or the other subscribers. Use {@link #getSnapshotPublisher(Executor)} for
+     * subscribers that block, like one that writes to a database.
+     *
+     * @return publisher of the snapshots of this device
+     * @see HomeWizardDiscoverer#getSnapshotPublisher()
+     * @since 2.1.0
+     */
+    public Flow.Publisher<MeasurementSnapshot> getSnapshotPublisher() {
+        return getSnapshotPublisher(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #getSnapshotPublisher()}, but delivers the snapshots to its subscribers on the provided executor.
+     *
+     * @param executor the executor to deliver the snapshots on
+     * @return publisher of the snapshots of this device
+     * @since 2.1.0
+     */
+    public Flow.Publisher<MeasurementSnapshot> getSnapshotPublisher(final Executor executor) {
+        return snapshotPublisher.withExecutor(executor, () ->
+                getAge(Endpoint.MEASUREMENTS).isPresent() ? Optional.of(getSnapshot()) : Optional.empty());
+    }
+
+    /**
+     * Publishes the snapshots of this device to a publisher of a group of devices, like a discoverer.
+     *
+     * @param publisher the publisher of the group
+     */
+    void addGroupSnapshotPublisher(final ConflatingPublisher<DeviceSnapshot> publisher) {
+        groupSnapshotPublishers.add(publisher);
+    }
+
+    /**
+     * Stops publishing the snapshots of this device to a publisher of a group of devices.
+     *
+     * @param publisher the publisher of the group
+     */
+    void removeGroupSnapshotPublisher(final ConflatingPublisher<DeviceSnapshot> publisher) {
+        groupSnapshotPublishers.remove(publisher);
+    }
+
+    /**
+     * Publishes a snapshot that has just been read to the subscribers of this device and its groups.
+     *
+     * @param newSnapshot the snapshot that has just been published
+     */
+    private void publishSnapshot(final MeasurementSnapshot newSnapshot) {
+        snapshotPublisher.offer(newSnapshot);
+        for (final ConflatingPublisher<DeviceSnapshot> publisher : groupSnapshotPublishers) {
+            if (publisher.hasSubscribers()) {
+                publisher.offer(new DeviceSnapshot(this, newSnapshot));
+            }
+        }
+    }
+
+    /**
+     * Calls the metric listeners whose metric has moved past their deadband.
+     *
+     * @param newSnapshot the snapshot that has just been published
+     */
+    private void notifyMetricListeners(final MeasurementSnapshot newSnapshot) {
+        for (final MetricSubscription subscription : metricSubscriptions) {
+            subscription.check(this, newSnapshot);
+        }
+    }
+
+    /**
+     * Publishes a new snapshot. Because the field is volatile,
+     * threads that read the new snapshot also see all values that were written into it.
+     *
+     * @param snapshot the new snapshot
+     */
+    void setSnapshot(final MeasurementSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Publishes a snapshot that Jackson has read as part of this device. Jackson also creates a snapshot for JSON
+     * without measurements, like the device info, so an empty snapshot doesn't replace the current one.
+     *
+     * @param snapshot the snapshot that has been read
+     */
+    void setSnapshotFromJson(final MeasurementSnapshot snapshot) {
+        if (!snapshot.isEmpty()) {
+            setSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * A metric listener with the value of its previous call.
+     */
+    private static final class MetricSubscription {
+        private final Metric metric;
+        private final Deadband deadband;
+        private final MetricListener listener;
+        private double previousValue = Double.NaN;
+
+        private MetricSubscription(final Metric metric, final Deadband deadband, final MetricListener listener) {
+            this.metric = metric;
+            this.deadband = deadband;
+            this.listener = listener;
+        }
+
+        /**
+         * Calls the listener if the value in the snapshot has moved past the deadband. Calls for the same listener
+         * don't overlap, so the listener sees the values in the order they have been compared.
+         */
+        private synchronized void check(final Device device, final MeasurementSnapshot snapshot) {
+            final double value = snapshot.get(metric);
+            if (!deadband.isExceeded(previousValue, value)) {
+                return;
+            }
+            final double previous = previousValue;
+            previousValue = value;
+            try {
+                listener.onChange(device, metric, previous, value);
+            } catch (final RuntimeException runtimeException) {
+                LOGGER.warn("Metric listener for {} threw an exception", metric, runtimeException);
+            }
+        }
     }
 }
@@ -0,0 +1,31 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.Optional;
+
+/**
+ * Everything that is known about a device before its first request: how it was announced, and how to reach it.
+ * A {@link DeviceFactory} creates a device from it.
+ *
+ * @param serviceName the mDNS service name, empty if the device wasn't found by mDNS
+ * @param apiEnabled  whether the API is enabled on the device
+ * @param hostAddress host address, like {@code 192.168.1.123}
+ * @param port        port, normally {@link Device#DEFAULT_PORT}
+ * @param apiPath     API path, normally {@link Device#DEFAULT_API_PATH}
+ * @param productType the product type, like <code>HWE-P1</code>
+ * @param productName the product name, if known
+ * @param serial      the serial, if known
+ * @param transport   transport that sends the requests to the device
+ * @author Thijzert123
+ * @since 2.1.0
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public record DeviceDescriptor(Optional<String> serviceName,
+                               boolean apiEnabled,
+                               String hostAddress,
+                               int port,
+                               String apiPath,
+                               String productType,
+                               Optional<String> productName,
+                               Optional<String> serial,
+                               DeviceTransport transport) {
+}
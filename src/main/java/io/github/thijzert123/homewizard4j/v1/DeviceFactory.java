@@ -0,0 +1,80 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.Optional;
+
+/**
+ * Creates a device of a product type. The discoverer, the discovery cache and the {@link SubnetScanner} look up
+ * the factory of a product type, instead of checking the product type against every type of device.
+ * <p>
+ * The factories of the product types in {@link P1Meter#PRODUCT_TYPES}, {@link KWhMeter#PRODUCT_TYPES},
+ * {@link EnergySocket#PRODUCT_TYPES} and {@link WaterMeter#PRODUCT_TYPES} are registered by default.
+ * To support a product type this library doesn't know yet, like a new revision of a meter,
+ * register the factory of the type of device it behaves like:
+ *
+ * <pre>
+ * DeviceFactory.register("HWE-P1-2", DeviceFactory.of(HomeWizardDiscoverer.DeviceType.P1_METER));
+ * </pre>
+ * <p>
+ * Factories can also be registered by a {@link DeviceFactoryProvider}, which is loaded with
+ * {@link java.util.ServiceLoader}.
+ *
+ * @author Thijzert123
+ * @see DeviceFactoryProvider
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface DeviceFactory {
+    /**
+     * Creates a device.
+     *
+     * @param descriptor how the device was announced, and how to reach it
+     * @return the new device
+     */
+    Device create(DeviceDescriptor descriptor);
+
+    /**
+     * Returns the factory of a type of device.
+     *
+     * @param deviceType the type of device, not {@link HomeWizardDiscoverer.DeviceType#ALL}
+     * @return the factory that creates devices of the type
+     */
+    static DeviceFactory of(final HomeWizardDiscoverer.DeviceType deviceType) {
+        return switch (deviceType) {
+            case P1_METER -> P1Meter.FACTORY;
+            case KWH_METER -> KWhMeter.FACTORY;
+            case ENERGY_SOCKET -> EnergySocket.FACTORY;
+            case WATER_METER -> WaterMeter.FACTORY;
+            case ALL -> throw new IllegalArgumentException("There is no factory for all types of devices");
+        };
+    }
+
+    /**
+     * Registers the factory of a product type. It replaces the factory that was registered for the product type
+     * before, also a default one.
+     *
+     * @param productType the product type, like <code>HWE-P1</code>
+     * @param factory     the factory that creates devices of the product type
+     */
+    static void register(final String productType, final DeviceFactory factory) {
+        DeviceFactoryRegistry.register(productType, factory);
+    }
+
+    /**
+     * Removes the factory of a product type, also a default one. Devices of the product type aren't created anymore.
+     *
+     * @param productType the product type, like <code>HWE-P1</code>
+     */
+    static void unregister(final String productType) {
+        DeviceFactoryRegistry.unregister(productType);
+    }
+
+    /**
+     * Returns the factory of a product type.
+     *
+     * @param productType the product type, like <code>HWE-P1</code>
+     * @return the factory, or an empty {@link Optional} if no factory has been registered for the product type
+     */
+    static Optional<DeviceFactory> forProductType(final String productType) {
+        return DeviceFactoryRegistry.get(productType);
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.Map;
+
+/**
+ * Registers factories of product types when this library is loaded. Implementations are found with
+ * {@link java.util.ServiceLoader}: on the module path with a <code>provides</code> clause in the
+ * <code>module-info.java</code> of your module, and on the class path with a
+ * <code>META-INF/services/io.github.thijzert123.homewizard4j.v1.DeviceFactoryProvider</code> file.
+ *
+ * <pre>
+ * public class BetaDevices implements DeviceFactoryProvider {
+ *     &#64;Override
+ *     public Map&lt;String, DeviceFactory&gt; getFactories() {
+ *         return Map.of("HWE-P1-2", DeviceFactory.of(HomeWizardDiscoverer.DeviceType.P1_METER));
+ *     }
+ * }
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see DeviceFactory
+ * @since 2.1.0
+ */
+public interface DeviceFactoryProvider {
+    /**
+     * Returns the factories to register. They replace the default factories of the same product types.
+     *
+     * @return the factories by product type
+     */
+    Map<String, DeviceFactory> getFactories();
+}
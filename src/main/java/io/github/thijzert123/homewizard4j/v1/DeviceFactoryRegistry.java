@@ -0,0 +1,87 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The factories of all product types. Looking up a factory is a single map lookup, so it is cheap enough for
+ * every resolve event. The default factories are registered first, then those of every {@link DeviceFactoryProvider}.
+ *
+ * @author Thijzert123
+ */
+final class DeviceFactoryRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final Map<String, DeviceFactory> FACTORIES = new ConcurrentHashMap<>();
+
+    static {
+        registerAll(WaterMeter.PRODUCT_TYPES, WaterMeter.FACTORY);
+        registerAll(P1Meter.PRODUCT_TYPES, P1Meter.FACTORY);
+        registerAll(EnergySocket.PRODUCT_TYPES, EnergySocket.FACTORY);
+        registerAll(KWhMeter.PRODUCT_TYPES, KWhMeter.FACTORY);
+        loadProviders();
+    }
+
+    private DeviceFactoryRegistry() {
+    }
+
+    static void register(final String productType, final DeviceFactory factory) {
+        if (FACTORIES.put(productType, factory) != null) {
+            LOGGER.debug("Replaced factory of product type '{}'", productType);
+        }
+    }
+
+    static void unregister(final String productType) {
+        if (FACTORIES.remove(productType) != null) {
+            LOGGER.debug("Removed factory of product type '{}'", productType);
+        }
+    }
+
+    static Optional<DeviceFactory> get(final String productType) {
+        return productType == null ? Optional.empty() : Optional.ofNullable(FACTORIES.get(productType));
+    }
+
+    /**
+     * Creates a device with a factory, and checks that it is the device the descriptor describes. The discoverer
+     * deduplicates devices on the serial they were announced with, so a device with another serial or product type
+     * would be added twice.
+     *
+     * @param factory    the factory of the product type of the descriptor
+     * @param descriptor how the device was announced, and how to reach it
+     * @return the new device, or an empty {@link Optional} if its product type or serial doesn't match the descriptor
+     */
+    static Optional<Device> create(final DeviceFactory factory, final DeviceDescriptor descriptor) {
+        final Device device = factory.create(descriptor);
+        if (!device.getProductType().equals(Optional.of(descriptor.productType()))
+                || descriptor.serial().isPresent() && !device.getSerial().equals(descriptor.serial())) {
+            LOGGER.warn("Factory of product type '{}' created a device with product type {} and serial {}, expected serial {}",
+                    descriptor.productType(), device.getProductType(), device.getSerial(), descriptor.serial());
+            return Optional.empty();
+        }
+        return Optional.of(device);
+    }
+
+    private static void registerAll(final List<String> productTypes, final DeviceFactory factory) {
+        for (final String productType : productTypes) {
+            FACTORIES.put(productType, factory);
+        }
+    }
+
+    private static void loadProviders() {
+        try {
+            for (final DeviceFactoryProvider provider : ServiceLoader.load(DeviceFactoryProvider.class)) {
+                LOGGER.debug("Registering factories of {}", provider.getClass().getName());
+                provider.getFactories().forEach(DeviceFactoryRegistry::register);
+            }
+        } catch (final ServiceConfigurationError serviceConfigurationError) {
+            LOGGER.warn("Could not load device factory providers", serviceConfigurationError);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A group of devices that are updated together. Instead of a loop that updates one device after another and stops at
+ * the first unreachable device, {@link #updateAll(int, Duration)} updates many devices at the same time and returns a
+ * {@link BulkUpdateReport} with the outcome of every device.
+ * <p>
+ * No threads are used for waiting: at most {@code parallelism} devices are updated at the same time, and a device
+ * starts as soon as another one is done. Every device is updated with {@link Device#updateAllConcurrently(Duration)}.
+ * <p>
+ * This code example updates all discovered devices within 5 seconds, 16 devices at a time:
+ *
+ * <pre>
+ * final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(1000);
+ * final BulkUpdateReport report = new DeviceFleet(discoverer.getAllDevices()).updateAll(16, Duration.ofSeconds(5));
+ * report.getFailures().forEach((device, exception) -&gt; System.out.println(device.getHostAddress() + " failed"));
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see HomeWizardDiscoverer#updateAll(int, Duration)
+ * @since 2.1.0
+ */
+public final class DeviceFleet {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final List<Device> devices;
+
+    /**
+     * Creates a fleet of the provided devices.
+     *
+     * @param devices the devices of the fleet
+     */
+    public DeviceFleet(final Collection<? extends Device> devices) {
+        this.devices = List.copyOf(devices);
+    }
+
+    /**
+     * Returns the devices of this fleet.
+     *
+     * @return the devices
+     */
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    /**
+     * Updates all devices, at most {@code parallelism} at the same time, and blocks until all devices are done.
+     * This method doesn't throw when devices fail; the returned report contains their exceptions.
+     * Devices whose turn comes after the deadline has passed are skipped.
+     *
+     * @param parallelism the maximum amount of devices to update at the same time, at least 1
+     * @param deadline    the time updating all devices may take, must be positive
+     * @return the outcome of every device
+     * @throws HomeWizardApiException only when the current thread was interrupted while waiting
+     */
+    public BulkUpdateReport updateAll(final int parallelism, final Duration deadline) throws HomeWizardApiException {
+        return HttpUtils.await(updateAllAsync(parallelism, deadline));
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll(int, Duration)}. The returned future completes with the report
+     * when all devices are done, also when some of them failed. Cancelling it aborts the updates that are running
+     * and skips the devices that haven't started.
+     *
+     * @param parallelism the maximum amount of devices to update at the same time, at least 1
+     * @param deadline    the time updating all devices may take, must be positive
+     * @return future of the outcome of every device
+     */
+    public CompletableFuture<BulkUpdateReport> updateAllAsync(final int parallelism, final Duration deadline) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        LOGGER.debug("Updating {} devices, {} at a time, with deadline of {} ms",
+                devices.size(), parallelism, deadline.toMillis());
+        final BulkUpdate bulkUpdate = new BulkUpdate(Deadline.after(deadline));
+        bulkUpdate.start(parallelism);
+        return bulkUpdate.result;
+    }
+
+    /**
+     * One run of {@link #updateAllAsync(int, Duration)}. Every device that is done starts the next one.
+     */
+    private final class BulkUpdate {
+        private final Deadline deadline;
+        private final long startNanos = System.nanoTime();
+        private final CompletableFuture<BulkUpdateReport> result = new CompletableFuture<>();
+
+        // Guarded by this
+        private final Map<Device, CompletableFuture<UpdateResult>> running = new LinkedHashMap<>();
+        private final List<Device> succeeded = new ArrayList<>();
+        private final Map<Device, HomeWizardApiException> failures = new LinkedHashMap<>();
+        private final Map<Device, UpdateResult> results = new LinkedHashMap<>();
+        private final Map<Device, Duration> latencies = new LinkedHashMap<>();
+        private final List<Device> skipped = new ArrayList<>();
+        private int nextIndex;
+        private int done;
+        private final AtomicInteger pendingStarts = new AtomicInteger();
+
+        private BulkUpdate(final Deadline deadline) {
+            this.deadline = deadline;
+            result.whenComplete((ignored, throwable) -> {
+                if (result.isCancelled()) {
+                    final List<CompletableFuture<UpdateResult>> toCancel;
+                    synchronized (this) {
+                        toCancel = new ArrayList<>(running.values());
+                    }
+                    toCancel.forEach(future -> future.cancel(true));
+                }
+            });
+        }
+
+        private void start(final int parallelism) {
+            if (devices.isEmpty()) {
+                complete();
+                return;
+            }
+            for (int i = 0; i < parallelism; i++) {
+                startNext();
+            }
+        }
+
+        /**
+         * Starts the next device. When a device completes on the thread that started it, the next device is started
+         * by the loop of the first call instead of recursively, so a large fleet can't overflow the stack.
+         */
+        private void startNext() {
+            if (pendingStarts.getAndIncrement() != 0) return;
+            do {
+                startOne();
+            } while (pendingStarts.decrementAndGet() != 0);
+        }
+
+        private void startOne() {
+            Device device = null;
+            Duration timeLeft = Duration.ZERO;
+            synchronized (this) {
+                while (device == null && nextIndex < devices.size()) {
+                    final Device candidate = devices.get(nextIndex++);
+                    timeLeft = deadline.remaining();
+                    if (!timeLeft.isZero() && !result.isDone()) {
+                        device = candidate;
+                    } else {
+                        skipped.add(candidate);
+                        done++;
+                    }
+                }
+            }
+            if (device == null) {
+                // All devices have been started, and the last ones might have been skipped
+                if (isAllDone()) {
+                    complete();
+                }
+                return;
+            }
+            update(device, timeLeft);
+        }
+
+        private void update(final Device device, final Duration timeLeft) {
+            final long deviceStartNanos = System.nanoTime();
+            CompletableFuture<UpdateResult> future;
+            try {
+                future = device.updateAllConcurrentlyAsync(timeLeft);
+            } catch (final RuntimeException runtimeException) {
+                future = CompletableFuture.failedFuture(runtimeException);
+            }
+            synchronized (this) {
+                running.put(device, future);
+            }
+            future.whenComplete((updateResult, throwable) -> {
+                synchronized (this) {
+                    running.remove(device);
+                    latencies.put(device, Duration.ofNanos(System.nanoTime() - deviceStartNanos));
+                    if (throwable != null) {
+                        failures.put(device, HttpUtils.toApiException(throwable));
+                    } else {
+                        results.put(device, updateResult);
+                        if (updateResult.isSuccessful()) {
+                            succeeded.add(device);
+                        } else {
+                            failures.put(device, updateResult.getFailures().values().iterator().next());
+                        }
+                    }
+                    done++;
+                }
+                if (isAllDone()) {
+                    complete();
+                } else {
+                    startNext();
+                }
+            });
+        }
+
+        private synchronized boolean isAllDone() {
+            return done == devices.size();
+        }
+
+        private void complete() {
+            final BulkUpdateReport report;
+            synchronized (this) {
+                report = new BulkUpdateReport(new ArrayList<>(succeeded), new LinkedHashMap<>(failures),
+                        new LinkedHashMap<>(results), new LinkedHashMap<>(latencies), new ArrayList<>(skipped),
+                        Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+            LOGGER.debug("Updated fleet: {}", report);
+            result.complete(report);
+        }
+    }
+}
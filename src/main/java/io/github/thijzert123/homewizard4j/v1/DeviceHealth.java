@@ -0,0 +1,324 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Tracks whether a {@link Device} is reachable, so requests to a device that dropped off the network fail fast
+ * instead of waiting for the connection to time out every time. Every device has its own health,
+ * which you can get with {@link Device#getHealth()}.
+ * <p>
+ * The health works like a circuit breaker with three states:
+ * <ul>
+ *     <li>{@link State#CLOSED}: the device is reachable and all requests are sent.</li>
+ *     <li>{@link State#OPEN}: the device failed {@link #getFailureThreshold()} times in a row. Requests fail
+ *     immediately with a {@link DeviceUnavailableException}, without touching the network.</li>
+ *     <li>{@link State#HALF_OPEN}: the backoff has passed and one request is sent as probe. If the probe succeeds,
+ *     the state becomes {@link State#CLOSED}. If it fails, the state becomes {@link State#OPEN} again
+ *     and the backoff is doubled, up to the maximum backoff.</li>
+ * </ul>
+ * Only failures to reach the device count. When the device responds with an error, it is reachable.
+ * <p>
+ * The health also keeps the latencies of the recent requests, which {@link DeviceTimeouts} uses in adaptive mode.
+ * <p>
+ * When a request fails with a {@link StaleConnectionException}, because the device closed a kept-alive connection,
+ * it is retried once if it is idempotent. GET requests are always retried. Saving a {@link SystemConfiguration} or
+ * {@link EnergySocketState} is only retried after {@link #setRetryIdempotentPuts(boolean)}.
+ * These retries are counted by {@link #getRetryCount()}, and don't count as failure.
+ *
+ * @author Thijzert123
+ * @see Device#getHealth()
+ * @since 2.1.0
+ */
+public final class DeviceHealth {
+    /**
+     * The states of the health of a device.
+     */
+    public enum State {
+        /**
+         * The device is reachable and all requests are sent.
+         */
+        CLOSED,
+        /**
+         * The device is unreachable and requests fail immediately.
+         */
+        OPEN,
+        /**
+         * A probe is sent to check whether the device is reachable again.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The default amount of failures in a row after which requests fail fast.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    /**
+     * The default time requests fail fast after the device became unreachable, before a probe is sent.
+     */
+    public static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(5);
+    /**
+     * The default maximum time between probes.
+     */
+    public static final Duration DEFAULT_MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int LATENCY_SAMPLES = 64;
+    private static final int MIN_LATENCY_SAMPLES = 8;
+
+    private final Map<State, Long> transitionCounts = new EnumMap<>(State.class);
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+    private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+    private Duration backoff = Duration.ZERO;
+    private long nextProbeNanos;
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int nextLatency;
+    private long retryCount;
+    private boolean retryIdempotentPuts;
+
+    DeviceHealth() {
+        for (final State value : State.values()) {
+            transitionCounts.put(value, 0L);
+        }
+    }
+
+    /**
+     * Returns the current state. A device stays {@link State#OPEN} after the backoff has passed,
+     * until the next request is sent as probe.
+     *
+     * @return the current state
+     */
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns how many requests in a row failed to reach the device.
+     *
+     * @return amount of failures since the last successful request
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Returns how many times the health went to a state.
+     * For example, {@code getTransitionCount(State.OPEN)} is how many times the device became unreachable.
+     *
+     * @param state the state
+     * @return how many times the health went to the state
+     */
+    public synchronized long getTransitionCount(final State state) {
+        return transitionCounts.get(state);
+    }
+
+    /**
+     * Returns the time until the next request is sent as probe.
+     *
+     * @return time until the next probe, or {@link Duration#ZERO} if requests are sent
+     */
+    public synchronized Duration getRetryIn() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, nextProbeNanos - System.nanoTime()));
+    }
+
+    /**
+     * Returns how many requests were retried, because the device had closed the connection they were sent on.
+     *
+     * @return amount of retries
+     */
+    public synchronized long getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Returns whether saving a {@link SystemConfiguration} or {@link EnergySocketState} is retried
+     * when the device had closed the connection. It is {@code false} by default.
+     *
+     * @return whether idempotent PUT requests are retried
+     */
+    public synchronized boolean isRetryIdempotentPuts() {
+        return retryIdempotentPuts;
+    }
+
+    /**
+     * Sets whether saving a {@link SystemConfiguration} or {@link EnergySocketState} is retried when the device had
+     * closed the connection. Saving these is idempotent, since the same values are sent again.
+     * Identifying the device is never retried.
+     *
+     * @param retryIdempotentPuts whether idempotent PUT requests are retried
+     */
+    public synchronized void setRetryIdempotentPuts(final boolean retryIdempotentPuts) {
+        this.retryIdempotentPuts = retryIdempotentPuts;
+    }
+
+    /**
+     * Returns a percentile of the latencies of the recent successful requests.
+     * For example, {@code getLatencyPercentile(0.5)} returns the median latency.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the latency, or {@link Optional#empty()} if too few requests have been made
+     */
+    public synchronized Optional<Duration> getLatencyPercentile(final double percentile) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1, but was " + percentile);
+        }
+        if (latencyCount < MIN_LATENCY_SAMPLES) {
+            return Optional.empty();
+        }
+        final long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile * latencyCount) - 1;
+        return Optional.of(Duration.ofNanos(sorted[Math.max(0, rank)]));
+    }
+
+    /**
+     * Returns the amount of failures in a row after which requests fail fast.
+     *
+     * @return the failure threshold
+     */
+    public synchronized int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Sets the amount of failures in a row after which requests fail fast.
+     *
+     * @param failureThreshold the failure threshold, at least 1
+     */
+    public synchronized void setFailureThreshold(final int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1");
+        }
+        this.failureThreshold = failureThreshold;
+    }
+
+    /**
+     * Sets the time requests fail fast before the first probe, and the maximum time between probes.
+     * The time between probes doubles after every failed probe.
+     *
+     * @param initialBackoff time before the first probe
+     * @param maxBackoff     maximum time between probes
+     */
+    public synchronized void setBackoff(final Duration initialBackoff, final Duration maxBackoff) {
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+            throw new IllegalArgumentException("Backoff must not be negative and the maximum must not be less than the initial backoff");
+        }
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Marks the device as reachable, so the next request is sent immediately.
+     */
+    public synchronized void reset() {
+        consecutiveFailures = 0;
+        backoff = Duration.ZERO;
+        transition(State.CLOSED);
+    }
+
+    /**
+     * Checks whether a request may be sent. When the backoff has passed, the request is let through as probe.
+     *
+     * @return {@code true} if the request may be sent
+     */
+    synchronized boolean tryAcquire() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> false; // a probe is already in flight
+            case OPEN -> {
+                if (System.nanoTime() - nextProbeNanos < 0) {
+                    yield false;
+                }
+                transition(State.HALF_OPEN);
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * Records that the device responded.
+     *
+     * @param latencyNanos how long it took before the device responded
+     */
+    synchronized void onSuccess(final long latencyNanos) {
+        latencies[nextLatency] = latencyNanos;
+        nextLatency = (nextLatency + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        consecutiveFailures = 0;
+        backoff = Duration.ZERO;
+        if (state != State.CLOSED) {
+            LOGGER.info("Device is reachable again");
+            transition(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records that a request is retried, because the device had closed the connection.
+     */
+    synchronized void onRetry() {
+        retryCount++;
+    }
+
+    /**
+     * Records that a request didn't reach the device. Cancelled requests don't count.
+     *
+     * @param fullAddress the address of the request, for logging
+     * @param throwable   the reason the request failed
+     */
+    synchronized void onFailure(final String fullAddress, final Throwable throwable) {
+        if (isCancellation(throwable)) {
+            if (state == State.HALF_OPEN) {
+                // The probe didn't get an answer, so the next request may probe again
+                nextProbeNanos = System.nanoTime();
+                transition(State.OPEN);
+            }
+            return;
+        }
+
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+            open(fullAddress);
+        } else if (state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            backoff = initialBackoff;
+            open(fullAddress);
+        }
+    }
+
+    private void open(final String fullAddress) {
+        nextProbeNanos = System.nanoTime() + backoff.toNanos();
+        LOGGER.warn("Device at '{}' failed {} times in a row, requests fail fast for {} ms",
+                fullAddress, consecutiveFailures, backoff.toMillis());
+        transition(State.OPEN);
+    }
+
+    private void transition(final State newState) {
+        if (state != newState) {
+            state = newState;
+            transitionCounts.merge(newState, 1L, Long::sum);
+        }
+    }
+
+    private static boolean isCancellation(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable instanceof CancellationException;
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The devices of a {@link HomeWizardDiscoverer}, indexed by serial, host address, service name, product type and
+ * type of device. The mDNS thread registers devices while application threads read them, so all lookups are lock-free:
+ * the indexes are concurrent maps, and the lists of devices are immutable snapshots that are replaced on every change.
+ * Changes are rare compared to reads, so copying a list when a device is added is cheap.
+ * <p>
+ * Registering is serialized, so two resolve events of the same device can't both add it. A device that is resolved
+ * again is found by its serial in constant time, without creating or copying anything.
+ *
+ * @author Thijzert123
+ */
+final class DeviceRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Map<String, Device> bySerial = new ConcurrentHashMap<>();
+    private final Map<String, Device> byHostAddress = new ConcurrentHashMap<>();
+    private final Map<String, Device> byServiceName = new ConcurrentHashMap<>();
+    private final Map<String, List<Device>> byProductType = new ConcurrentHashMap<>();
+    private final Map<HomeWizardDiscoverer.DeviceType, List<Device>> byDeviceType = new ConcurrentHashMap<>();
+
+    DeviceRegistry() {
+        for (final HomeWizardDiscoverer.DeviceType deviceType : HomeWizardDiscoverer.DeviceType.values()) {
+            byDeviceType.put(deviceType, List.of());
+        }
+    }
+
+    /**
+     * Adds a device, unless a device with the same serial, or the same instance, has already been added.
+     *
+     * @param device the device to add
+     * @return {@code true} if the device has been added
+     */
+    synchronized boolean register(final Device device) {
+        final Optional<String> serial = device.getSerial();
+        if (serial.isPresent() ? bySerial.containsKey(serial.get()) : contains(device)) {
+            LOGGER.trace("Device with serial {} was already registered", serial);
+            return false;
+        }
+        serial.ifPresent(value -> bySerial.put(value, device));
+        byHostAddress.put(device.getHostAddress(), device);
+        device.getServiceName().ifPresent(serviceName -> byServiceName.put(serviceName, device));
+        device.getProductType().ifPresent(productType ->
+                byProductType.put(productType, append(byProductType.getOrDefault(productType, List.of()), device)));
+        final HomeWizardDiscoverer.DeviceType deviceType = typeOf(device);
+        byDeviceType.put(deviceType, append(byDeviceType.get(deviceType), device));
+        byDeviceType.put(HomeWizardDiscoverer.DeviceType.ALL, concatenateTypes());
+        LOGGER.trace("Registered device with serial {}", serial);
+        return true;
+    }
+
+    /**
+     * Removes a device.
+     *
+     * @param device the device to remove
+     * @return {@code true} if the device had been added
+     */
+    synchronized boolean unregister(final Device device) {
+        final HomeWizardDiscoverer.DeviceType deviceType = typeOf(device);
+        if (!byDeviceType.get(deviceType).contains(device)) {
+            return false;
+        }
+        device.getSerial().ifPresent(serial -> bySerial.remove(serial, device));
+        byHostAddress.remove(device.getHostAddress(), device);
+        device.getServiceName().ifPresent(serviceName -> byServiceName.remove(serviceName, device));
+        device.getProductType().ifPresent(productType ->
+                byProductType.computeIfPresent(productType, (key, devices) -> {
+                    final List<Device> remaining = without(devices, device);
+                    return remaining.isEmpty() ? null : remaining;
+                }));
+        byDeviceType.put(deviceType, without(byDeviceType.get(deviceType), device));
+        byDeviceType.put(HomeWizardDiscoverer.DeviceType.ALL, concatenateTypes());
+        LOGGER.trace("Unregistered device with serial {}", device.getSerial());
+        return true;
+    }
+
+    /**
+     * Updates the host address index after the address of a device has changed.
+     *
+     * @param device              the device, which already has its new address
+     * @param previousHostAddress the host address the device had before
+     */
+    synchronized void addressChanged(final Device device, final String previousHostAddress) {
+        byHostAddress.remove(previousHostAddress, device);
+        byHostAddress.put(device.getHostAddress(), device);
+    }
+
+    Optional<Device> getBySerial(final String serial) {
+        return serial == null ? Optional.empty() : Optional.ofNullable(bySerial.get(serial));
+    }
+
+    Optional<Device> getByHostAddress(final String hostAddress) {
+        return Optional.ofNullable(byHostAddress.get(hostAddress));
+    }
+
+    Optional<Device> getByServiceName(final String serviceName) {
+        return Optional.ofNullable(byServiceName.get(serviceName));
+    }
+
+    List<Device> getByProductType(final String productType) {
+        return byProductType.getOrDefault(productType, List.of());
+    }
+
+    /**
+     * Returns the devices of a type, as an immutable snapshot.
+     *
+     * @param deviceType the type of device
+     * @param <T>        the class of the type of device
+     * @return the devices of the type
+     */
+    @SuppressWarnings("unchecked")
+    <T extends Device> List<T> getDevices(final HomeWizardDiscoverer.DeviceType deviceType) {
+        return (List<T>) byDeviceType.get(deviceType);
+    }
+
+    private boolean contains(final Device device) {
+        return byDeviceType.get(typeOf(device)).contains(device);
+    }
+
+    /**
+     * Returns all devices grouped by type, in the order {@link HomeWizardDiscoverer#getAllDevices()} always had.
+     */
+    private List<Device> concatenateTypes() {
+        final List<Device> devices = new ArrayList<>();
+        devices.addAll(byDeviceType.get(HomeWizardDiscoverer.DeviceType.WATER_METER));
+        devices.addAll(byDeviceType.get(HomeWizardDiscoverer.DeviceType.P1_METER));
+        devices.addAll(byDeviceType.get(HomeWizardDiscoverer.DeviceType.ENERGY_SOCKET));
+        devices.addAll(byDeviceType.get(HomeWizardDiscoverer.DeviceType.KWH_METER));
+        return List.copyOf(devices);
+    }
+
+    private static List<Device> append(final List<Device> devices, final Device device) {
+        final List<Device> newDevices = new ArrayList<>(devices.size() + 1);
+        newDevices.addAll(devices);
+        newDevices.add(device);
+        return List.copyOf(newDevices);
+    }
+
+    private static List<Device> without(final List<Device> devices, final Device device) {
+        final List<Device> newDevices = new ArrayList<>(devices);
+        newDevices.remove(device);
+        return List.copyOf(newDevices);
+    }
+
+    private static HomeWizardDiscoverer.DeviceType typeOf(final Device device) {
+        if (device instanceof WaterMeter) {
+            return HomeWizardDiscoverer.DeviceType.WATER_METER;
+        } else if (device instanceof P1Meter) {
+            return HomeWizardDiscoverer.DeviceType.P1_METER;
+        } else if (device instanceof EnergySocket) {
+            return HomeWizardDiscoverer.DeviceType.ENERGY_SOCKET;
+        } else if (device instanceof KWhMeter) {
+            return HomeWizardDiscoverer.DeviceType.KWH_METER;
+        }
+        throw new IllegalArgumentException("Unknown type of device: " + device.getClass().getName());
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+/**
+ * A snapshot of the measurements together with the device that measured them,
+ * as published by {@link HomeWizardDiscoverer#getSnapshotPublisher()}.
+ *
+ * @param device   the device that measured the snapshot
+ * @param snapshot the measurements
+ * @author Thijzert123
+ * @since 2.1.0
+ */
+public record DeviceSnapshot(Device device, MeasurementSnapshot snapshot) {
+}
@@ -0,0 +1,123 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The timeouts of the requests to a {@link Device}. Every device has its own timeouts,
+ * which you can get with {@link Device#getTimeouts()}. The timeout of a request includes connecting to the device,
+ * so a device that dropped off the network can't block a thread for longer than the timeout.
+ * <p>
+ * By default, every request uses a fixed timeout of {@link #DEFAULT_REQUEST_TIMEOUT}.
+ * In adaptive mode, the timeout follows the latency of the device instead: it is a percentile of the latencies
+ * of the recent requests, multiplied by a factor and limited to a minimum and maximum.
+ * A device that normally responds in 20 ms then gets a timeout of, for example, 200 ms instead of 10 seconds.
+ * Until enough requests have been made to calculate the percentile, the fixed timeout is used.
+ * <p>
+ * Methods like {@link Device#updateMeasurements(Duration)} take a timeout for that call only,
+ * and {@link Device#updateAll(Duration)} takes a deadline that is split among its requests.
+ *
+ * @author Thijzert123
+ * @see Device#getTimeouts()
+ * @since 2.1.0
+ */
+public final class DeviceTimeouts {
+    /**
+     * The default timeout of a request.
+     */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final DeviceHealth health;
+    private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+    private boolean adaptive;
+    private double percentile;
+    private double multiplier;
+    private Duration minimum;
+    private Duration maximum;
+
+    DeviceTimeouts(final DeviceHealth health) {
+        this.health = health;
+    }
+
+    /**
+     * Returns the timeout the next request will use. In adaptive mode, this is calculated from the recent latencies.
+     *
+     * @return the timeout of the next request
+     */
+    public synchronized Duration getRequestTimeout() {
+        if (adaptive) {
+            final Optional<Duration> latency = health.getLatencyPercentile(percentile);
+            if (latency.isPresent()) {
+                final Duration timeout = Duration.ofNanos((long) (latency.get().toNanos() * multiplier));
+                if (timeout.compareTo(minimum) < 0) {
+                    return minimum;
+                }
+                return timeout.compareTo(maximum) > 0 ? maximum : timeout;
+            }
+        }
+        return requestTimeout;
+    }
+
+    /**
+     * Sets the fixed timeout of a request. In adaptive mode, it is used until enough requests have been made.
+     *
+     * @param requestTimeout the timeout of a request, must be positive
+     */
+    public synchronized void setRequestTimeout(final Duration requestTimeout) {
+        requirePositive(requestTimeout);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Returns whether the timeout is calculated from the recent latencies.
+     *
+     * @return {@code true} in adaptive mode
+     */
+    public synchronized boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Calculates the timeout from the recent latencies of the device. For example, {@code enableAdaptive(0.99, 3,
+     * Duration.ofMillis(100), Duration.ofSeconds(5))} sets the timeout to three times the 99th percentile latency,
+     * but at least 100 ms and at most 5 seconds.
+     *
+     * @param percentile the percentile of the latencies, between 0 and 1
+     * @param multiplier the factor the percentile is multiplied with, at least 1
+     * @param minimum    the minimum timeout, must be positive
+     * @param maximum    the maximum timeout, must not be less than the minimum
+     */
+    public synchronized void enableAdaptive(final double percentile,
+                                            final double multiplier,
+                                            final Duration minimum,
+                                            final Duration maximum) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1, but was " + percentile);
+        }
+        if (multiplier < 1) {
+            throw new IllegalArgumentException("Multiplier must be at least 1, but was " + multiplier);
+        }
+        requirePositive(minimum);
+        if (maximum.compareTo(minimum) < 0) {
+            throw new IllegalArgumentException("Maximum timeout must not be less than the minimum timeout");
+        }
+        this.percentile = percentile;
+        this.multiplier = multiplier;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        adaptive = true;
+    }
+
+    /**
+     * Uses the fixed timeout of {@link #setRequestTimeout(Duration)} again.
+     */
+    public synchronized void disableAdaptive() {
+        adaptive = false;
+    }
+
+    static void requirePositive(final Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive, but was " + timeout);
+        }
+    }
+}
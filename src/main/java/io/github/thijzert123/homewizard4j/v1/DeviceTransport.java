@@ -0,0 +1,91 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the requests of a {@link Device} to the device. Every device is constructed with a transport,
+ * so different groups of devices can use different connection pools, timeouts and executors.
+ * Devices that are created without a transport use {@link HttpUtils#getSharedTransport()}.
+ * <p>
+ * This library ships with these transports:
+ * <ul>
+ *     <li>{@link HttpClientTransport}: sends requests with a {@link java.net.http.HttpClient}.</li>
+ *     <li>{@link NioTransport}: sends requests for all devices with one selector thread, for large fleets.</li>
+ *     <li>{@link InMemoryTransport}: answers requests with responses you provide, without a network.
+ *     Useful for tests and for measuring the cost of parsing and scheduling without sockets.</li>
+ * </ul>
+ * <p>
+ * This code example gives a group of devices its own HTTP client:
+ *
+ * <pre>
+ * final DeviceTransport transport = new HttpClientTransport(HttpClient.newBuilder()
+ *         .version(HttpClient.Version.HTTP_1_1)
+ *         .executor(Executors.newFixedThreadPool(2))
+ *         .build());
+ * final P1Meter p1Meter = new P1Meter(true, "192.168.1.123", Device.DEFAULT_PORT, Device.DEFAULT_API_PATH, transport);
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see Device#getTransport()
+ * @since 2.1.0
+ */
+public interface DeviceTransport {
+    /**
+     * Sends a request. The returned future completes with the response, whatever its status code is,
+     * and completes exceptionally when the device couldn't be reached or the timeout passed.
+     * Cancelling the returned future should abort the request.
+     *
+     * @param request the request to send
+     * @return future of the response
+     */
+    CompletableFuture<Response> send(Request request);
+
+    /**
+     * Opens a connection to a device and keeps it open, so the first request to the device doesn't have to wait
+     * for the connection. Transports that can't open connections in advance, which is the default,
+     * return a future that is already completed.
+     *
+     * @param uri the address of the device, like {@code http://192.168.1.123:80}
+     * @return future that completes when the connection is open, or exceptionally when the device can't be reached
+     */
+    default CompletableFuture<Void> preconnect(final URI uri) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * A request to a device.
+     *
+     * @param method  request method, like {@code GET}
+     * @param uri     the full URI, like {@code http://192.168.1.123:80/api/v1/data}
+     * @param body    the body, empty if the request has none
+     * @param timeout the timeout of the request, including connecting to the device
+     * @since 2.1.0
+     */
+    record Request(String method, URI uri, byte[] body, Duration timeout) {
+    }
+
+    /**
+     * A response of a device.
+     *
+     * @param statusCode the HTTP status code
+     * @param body       the body, as the buffers it was received in
+     * @since 2.1.0
+     */
+    record Response(int statusCode, List<ByteBuffer> body) {
+        /**
+         * Creates a response with a body of UTF-8 text.
+         *
+         * @param statusCode the HTTP status code
+         * @param body       the body
+         * @return the response
+         */
+        public static Response of(final int statusCode, final String body) {
+            return new Response(statusCode, List.of(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+/**
+ * This exception is thrown when a request fails fast, because the {@link DeviceHealth} of the device is
+ * {@link DeviceHealth.State#OPEN}. No request has been sent. Unlike other {@link HomeWizardApiException} instances,
+ * this exception is only logged at debug level, so an unreachable device doesn't flood the logs.
+ *
+ * @author Thijzert123
+ * @see Device#getHealth()
+ * @since 2.1.0
+ */
+public class DeviceUnavailableException extends HomeWizardApiException {
+    private final Duration retryIn;
+
+    DeviceUnavailableException(final String fullAddress, final Duration retryIn, final Logger logger) {
+        super("Device at '" + fullAddress + "' is unreachable, next attempt in " + retryIn.toMillis() + " ms");
+        this.retryIn = retryIn;
+        logger.debug(getMessage());
+    }
+
+    /**
+     * Returns the time until the next request is sent to the device as probe.
+     *
+     * @return time until the next probe, at the moment this exception was created
+     */
+    public Duration getRetryIn() {
+        return retryIn;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads and writes the devices of a discoverer to a file, so a new process knows them before mDNS has found them.
+ * Only what is needed to reach a device is stored: its serial, product type and name, service name and address.
+ * Everything else is requested from the device itself, like for a device that mDNS has just found.
+ * <p>
+ * The file is written to a temporary file first and then moved over the old one, so a process that stops
+ * while saving never leaves a half-written cache behind.
+ *
+ * @author Thijzert123
+ */
+final class DiscoveryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final int VERSION = 1;
+
+    private DiscoveryCache() {
+    }
+
+    /**
+     * Writes the devices that have a serial and a product type to the file.
+     *
+     * @param file    the file to write
+     * @param devices the devices to write
+     * @throws IOException when the file cannot be written
+     */
+    static void write(final Path file, final List<? extends Device> devices) throws IOException {
+        final Path absoluteFile = file.toAbsolutePath();
+        final Path temporaryFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            int count = 0;
+            try (final OutputStream outputStream = Files.newOutputStream(temporaryFile);
+                 final JsonGenerator generator = JsonMappers.OBJECT_MAPPER.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeNumberField("version", VERSION);
+                generator.writeArrayFieldStart("devices");
+                for (final Device device : devices) {
+                    // Without a serial, a cached device can't be matched to the device that mDNS finds
+                    if (device.getSerial().isEmpty() || device.getProductType().isEmpty()) continue;
+                    generator.writeStartObject();
+                    generator.writeStringField("serial", device.getSerial().get());
+                    generator.writeStringField("product_type", device.getProductType().get());
+                    generator.writeStringField("product_name", device.getProductName().orElse(null));
+                    generator.writeStringField("service_name", device.getServiceName().orElse(null));
+                    generator.writeStringField("host_address", device.getHostAddress());
+                    generator.writeNumberField("port", device.getPort());
+                    generator.writeStringField("api_path", device.getApiPath());
+                    generator.writeBooleanField("api_enabled", device.isApiEnabled());
+                    generator.writeEndObject();
+                    count++;
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            Files.move(temporaryFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Wrote {} device(s) to discovery cache '{}'", count, absoluteFile);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads the devices from the file. Devices of an unknown product type are skipped.
+     *
+     * @param file      the file to read
+     * @param transport the transport of the created devices
+     * @return the devices, empty if the file doesn't exist
+     * @throws IOException when the file cannot be read, or isn't a discovery cache
+     */
+    static List<Device> read(final Path file, final DeviceTransport transport) throws IOException {
+        if (Files.notExists(file)) {
+            LOGGER.debug("Discovery cache '{}' doesn't exist yet", file);
+            return List.of();
+        }
+        final JsonNode root;
+        try (final InputStream inputStream = Files.newInputStream(file)) {
+            root = JsonMappers.OBJECT_MAPPER.readTree(inputStream);
+        }
+        if (root == null || root.path("version").asInt() != VERSION || !root.path("devices").isArray()) {
+            throw new IOException("File '" + file + "' isn't a discovery cache of version " + VERSION);
+        }
+
+        final List<Device> devices = new ArrayList<>();
+        for (final JsonNode node : root.path("devices")) {
+            final String productType = node.path("product_type").asText();
+            final Optional<DeviceFactory> factory = DeviceFactoryRegistry.get(productType);
+            if (factory.isEmpty() || !node.hasNonNull("serial") || !node.hasNonNull("host_address")) {
+                LOGGER.debug("Skipping cached device with product type '{}'", productType);
+                continue;
+            }
+            DeviceFactoryRegistry.create(factory.get(), new DeviceDescriptor(
+                    JsonMappers.optionalText(node, "service_name"),
+                    node.path("api_enabled").asBoolean(),
+                    node.path("host_address").asText(),
+                    node.path("port").asInt(Device.DEFAULT_PORT),
+                    node.path("api_path").asText(Device.DEFAULT_API_PATH),
+                    productType,
+                    JsonMappers.optionalText(node, "product_name"),
+                    Optional.of(node.path("serial").asText()),
+                    transport)).ifPresent(devices::add);
+        }
+        LOGGER.debug("Read {} device(s) from discovery cache '{}'", devices.size(), file);
+        return devices;
+    }
+
+    /**
+     * Returns the serial in the body of the <code>/api</code> endpoint.
+     *
+     * @param body the body of the device info
+     * @return the serial, or an empty {@link Optional} if the body doesn't contain one
+     * @throws IOException when the body isn't JSON
+     */
+    static Optional<String> readSerial(final String body) throws IOException {
+        return JsonMappers.optionalText(JsonMappers.OBJECT_MAPPER.readTree(body), "serial");
+    }
+}
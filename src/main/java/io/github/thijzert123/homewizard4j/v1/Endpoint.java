@@ -0,0 +1,28 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+/**
+ * The endpoints of a device that {@link Device#updateAll()} and {@link Device#updateAllConcurrently()} read.
+ *
+ * @author Thijzert123
+ * @see UpdateResult
+ * @since 2.1.0
+ */
+public enum Endpoint {
+    /**
+     * The device info at {@code /api}, read by {@link Device#updateDeviceInfo()}.
+     */
+    DEVICE_INFO,
+    /**
+     * The measurements at {@code /api/v1/data}, read by {@link Device#updateMeasurements()}.
+     */
+    MEASUREMENTS,
+    /**
+     * The system configuration at {@code /api/v1/system}, read by {@link SystemConfiguration#update()}.
+     */
+    SYSTEM_CONFIGURATION,
+    /**
+     * The state of an energy socket at {@code /api/v1/state}, read by {@link EnergySocketState#update()}.
+     * Only energy sockets have this endpoint.
+     */
+    ENERGY_SOCKET_STATE
+}
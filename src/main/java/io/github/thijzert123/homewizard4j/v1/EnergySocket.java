@@ -1,13 +1,20 @@
 package io.github.thijzert123.homewizard4j.v1;
 
+import com.fasterxml.jackson.annotation.JsonMerge;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 /**
  * A device helps you to understand the energy consumption of the devices you plug into the energy socket.
@@ -19,6 +26,24 @@ import java.util.OptionalDouble;
  */
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class EnergySocket extends Device {
+    /**
+     * Receives the changes of whether an energy socket is switched on, as read by {@link EnergySocketState#update()}.
+     * It is called on the thread that completed the update, so it should return quickly.
+     *
+     * @since 2.1.0
+     */
+    @FunctionalInterface
+    public interface PowerOnListener {
+        /**
+         * Called when the energy socket has been switched on or off, and after the state has been read
+         * for the first time.
+         *
+         * @param energySocket the energy socket
+         * @param powerOn      whether the energy socket is switched on now
+         */
+        void onPowerOnChange(EnergySocket energySocket, boolean powerOn);
+    }
+
     /**
      * Possible unique product identifiers for this device.
      *
@@ -26,27 +51,29 @@ public class EnergySocket extends Device {
      */
     public static final List<String> PRODUCT_TYPES = List.of("HWE-SKT");
 
+    /**
+     * Creates the devices of the product types in {@link #PRODUCT_TYPES}.
+     */
+    static final DeviceFactory FACTORY = descriptor -> new EnergySocket(
+            descriptor.serviceName(),
+            descriptor.apiEnabled(),
+            descriptor.hostAddress(),
+            descriptor.port(),
+            descriptor.apiPath(),
+            Optional.of(descriptor.productType()),
+            descriptor.productName(),
+            descriptor.serial(),
+            descriptor.transport());
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    // Merged, so the state that callers already hold is updated instead of replaced
     @JsonProperty("energy_socket_state")
+    @JsonMerge
     private final EnergySocketState energySocketState;
-
-    @JsonProperty("total_power_import_kwh")
-    private final OptionalDouble totalPowerImportKwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_kwh")
-    private final OptionalDouble totalPowerExportKwh = OptionalDouble.empty();
-    @JsonProperty("active_power_w")
-    private final OptionalDouble activePowerW = OptionalDouble.empty();
-    @JsonProperty("active_voltage_v")
-    private final OptionalDouble activeVoltageV = OptionalDouble.empty();
-    @JsonProperty("active_current_a")
-    private final OptionalDouble activeCurrentA = OptionalDouble.empty();
-    @JsonProperty("active_reactive_power_var")
-    private final OptionalDouble activeReactivePowerVar = OptionalDouble.empty();
-    @JsonProperty("active_apparent_power_va")
-    private final OptionalDouble activeApparentPowerVa = OptionalDouble.empty();
-    @JsonProperty("active_power_factor")
-    private final OptionalDouble activePowerFactor = OptionalDouble.empty();
-    @JsonProperty("active_frequency_hz")
-    private final OptionalDouble activeFrequencyHz = OptionalDouble.empty();
+    private final List<PowerOnListener> powerOnListeners = new CopyOnWriteArrayList<>();
+    // Guarded by powerOnListeners
+    private Optional<Boolean> reportedPowerOn = Optional.empty();
 
     EnergySocket(final Optional<String> serviceName,
                  final boolean apiEnabled,
@@ -55,7 +82,8 @@ public class EnergySocket extends Device {
                  final String apiPath,
                  final Optional<String> productType,
                  final Optional<String> productName,
-                 final Optional<String> serial) {
+                 final Optional<String> serial,
+                 final DeviceTransport transport) {
         super(
                 serviceName,
                 apiEnabled,
@@ -64,7 +92,9 @@ public class EnergySocket extends Device {
                 apiPath,
                 productType,
                 productName,
-                serial
+                serial,
+                transport,
+                EnergySocketSnapshot.EMPTY
         );
 
         energySocketState = new EnergySocketState(this);
@@ -84,6 +114,25 @@ public class EnergySocket extends Device {
                         final String hostAddress,
                         final int port,
                         final String apiPath) {
+        this(apiEnabled, hostAddress, port, apiPath, HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Manually create a {@link EnergySocket} that sends its requests with the provided {@link DeviceTransport},
+     * instead of the transport of {@link HttpUtils#getSharedTransport()}.
+     *
+     * @param apiEnabled  whether the API is enabled on the device: you have to check this yourself!
+     * @param hostAddress host address, like {@code 192.168.1.123}
+     * @param port        port, should be {@code 80}
+     * @param apiPath     API path, should be {@code /api/v1}
+     * @param transport   transport that sends the requests to the device
+     * @since 2.1.0
+     */
+    public EnergySocket(final boolean apiEnabled,
+                        final String hostAddress,
+                        final int port,
+                        final String apiPath,
+                        final DeviceTransport transport) {
         this(
                 Optional.empty(),
                 apiEnabled,
@@ -92,7 +141,8 @@ public class EnergySocket extends Device {
                 apiPath,
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty()
+                Optional.empty(),
+                transport
         );
     }
 
@@ -113,10 +163,105 @@ public class EnergySocket extends Device {
         );
     }
 
+    /**
+     * Adds a listener that is called when an update of the {@link #getEnergySocketState()} finds that the socket
+     * has been switched on or off, for example with the button on the socket or with the app.
+     * Changes that are only made with {@link EnergySocketState#setPowerOn(boolean)} don't call the listener.
+     *
+     * @param listener the listener
+     * @since 2.1.0
+     */
+    public void addPowerOnListener(final PowerOnListener listener) {
+        powerOnListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addPowerOnListener(PowerOnListener)}.
+     *
+     * @param listener the listener to remove
+     * @since 2.1.0
+     */
+    public void removePowerOnListener(final PowerOnListener listener) {
+        powerOnListeners.remove(listener);
+    }
+
+    /**
+     * Calls the power on listeners if the state that has just been read differs from the previous one.
+     *
+     * @param powerOn whether the socket is switched on, according to the device
+     */
+    void onPowerOnUpdated(final Optional<Boolean> powerOn) {
+        synchronized (powerOnListeners) {
+            if (powerOn.isEmpty() || powerOn.equals(reportedPowerOn)) {
+                return;
+            }
+            reportedPowerOn = powerOn;
+            for (final PowerOnListener listener : powerOnListeners) {
+                try {
+                    listener.onPowerOnChange(this, powerOn.get());
+                } catch (final RuntimeException runtimeException) {
+                    LOGGER.warn("Power on listener threw an exception", runtimeException);
+                }
+            }
+        }
+    }
+
+    @Override
+    Map<Endpoint, Function<Duration, CompletableFuture<Void>>> getUpdateAllSteps() {
+        final Map<Endpoint, Function<Duration, CompletableFuture<Void>>> steps = super.getUpdateAllSteps();
+        steps.put(Endpoint.ENERGY_SOCKET_STATE, getEnergySocketState()::updateAsync);
+        return steps;
+    }
+
+    /**
+     * Returns the snapshot of the measurements from the latest call to {@link #updateMeasurements()}.
+     * Getters like {@link #getTotalPowerImportKwh()} read from the snapshot that is current at the moment they are called.
+     * If you need multiple values that belong together, read all of them from the same snapshot.
+     *
+     * @return the current snapshot of the measurements
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    @Override
+    public EnergySocketSnapshot getSnapshot() {
+        return (EnergySocketSnapshot) super.getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @return the current snapshot
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private EnergySocketSnapshot getJsonSnapshot() {
+        return getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @param snapshot the snapshot to publish
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private void setJsonSnapshot(final EnergySocketSnapshot snapshot) {
+        setSnapshotFromJson(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of the measurements, and first updates the measurements if they are older than
+     * {@code maxAge}. For example, {@code getSnapshot(Duration.ofSeconds(1)).getActivePowerW()} reads the value
+     * from a response that is at most 1 second old.
+     *
+     * @param maxAge the maximum age of the returned snapshot, zero to always update, must not be negative
+     * @return a snapshot of the measurements that is not older than {@code maxAge}
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @since 2.1.0
+     */
     @Override
-    public void updateAll() throws HomeWizardApiException {
-        super.updateAll();
-        getEnergySocketState().update();
+    public EnergySocketSnapshot getSnapshot(final Duration maxAge) throws HomeWizardApiException {
+        return (EnergySocketSnapshot) super.getSnapshot(maxAge);
     }
 
     /**
@@ -130,7 +275,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportKwh() {
-        return totalPowerImportKwh;
+        return getSnapshot().getTotalPowerImportKwh();
     }
 
     /**
@@ -144,7 +289,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportKwh() {
-        return totalPowerExportKwh;
+        return getSnapshot().getTotalPowerExportKwh();
     }
 
     /**
@@ -158,7 +303,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerW() {
-        return activePowerW;
+        return getSnapshot().getActivePowerW();
     }
 
     /**
@@ -172,7 +317,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageV() {
-        return activeVoltageV;
+        return getSnapshot().getActiveVoltageV();
     }
 
     /**
@@ -186,7 +331,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentA() {
-        return activeCurrentA;
+        return getSnapshot().getActiveCurrentA();
     }
 
     /**
@@ -201,7 +346,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactivePowerVar() {
-        return activeReactivePowerVar;
+        return getSnapshot().getActiveReactivePowerVar();
     }
 
     /**
@@ -216,7 +361,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentPowerVa() {
-        return activeApparentPowerVa;
+        return getSnapshot().getActiveApparentPowerVa();
     }
 
     /**
@@ -231,7 +376,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerFactor() {
-        return activePowerFactor;
+        return getSnapshot().getActivePowerFactor();
     }
 
     /**
@@ -245,7 +390,7 @@ public class EnergySocket extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveFrequencyHz() {
-        return activeFrequencyHz;
+        return getSnapshot().getActiveFrequencyHz();
     }
 
     /**
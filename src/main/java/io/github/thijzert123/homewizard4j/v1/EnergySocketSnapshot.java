@@ -0,0 +1,148 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.OptionalDouble;
+
+/**
+ * An immutable snapshot of the measurements of a {@link EnergySocket},
+ * taken by one call to {@link EnergySocket#updateMeasurements()}.
+ * All values in a snapshot come from the same response of the energy socket.
+ *
+ * @author Thijzert123
+ * @see EnergySocket#getSnapshot()
+ * @since 2.1.0
+ */
+public final class EnergySocketSnapshot extends MeasurementSnapshot {
+    static final SnapshotLayout<EnergySocketSnapshot> LAYOUT = new SnapshotLayout<>(
+            EnergySocketSnapshot::new,
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_KWH),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_W),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_V),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_A),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_POWER_VAR),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_POWER_VA),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_FACTOR),
+            SnapshotLayout.metric(Metric.ACTIVE_FREQUENCY_HZ));
+    static final EnergySocketSnapshot EMPTY = LAYOUT.createEmpty();
+
+    private EnergySocketSnapshot(final double[] values, final long presence, final Object[] others) {
+        super(LAYOUT, values, presence, others);
+    }
+
+    /**
+     * Returns the energy usage meter reading in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading in kWh
+     * @see EnergySocket#getTotalPowerImportKwh()
+     */
+    public OptionalDouble getTotalPowerImportKwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading in kWh
+     * @see EnergySocket#getTotalPowerExportKwh()
+     */
+    public OptionalDouble getTotalPowerExportKwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_KWH);
+    }
+
+    /**
+     * Returns the total active usage in watt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return total active usage in watt
+     * @see EnergySocket#getActivePowerW()
+     */
+    public OptionalDouble getActivePowerW() {
+        return optional(Metric.ACTIVE_POWER_W);
+    }
+
+    /**
+     * Returns the active voltage in volts.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return active voltage in volts
+     * @see EnergySocket#getActiveVoltageV()
+     */
+    public OptionalDouble getActiveVoltageV() {
+        return optional(Metric.ACTIVE_VOLTAGE_V);
+    }
+
+    /**
+     * Returns the active current in amperes.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return active current in amperes
+     * @see EnergySocket#getActiveCurrentA()
+     */
+    public OptionalDouble getActiveCurrentA() {
+        return optional(Metric.ACTIVE_CURRENT_A);
+    }
+
+    /**
+     * Returns the reactive power in volt-amperes reactive.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * This information is only available for {@code HWE-SKT-21}.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return reactive power in volt-amperes reactive
+     * @see EnergySocket#getActiveReactivePowerVar()
+     */
+    public OptionalDouble getActiveReactivePowerVar() {
+        return optional(Metric.ACTIVE_REACTIVE_POWER_VAR);
+    }
+
+    /**
+     * Returns the apparent power in volt-amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * This information is only available for {@code HWE-SKT-21}.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return apparent power in volt-amperes
+     * @see EnergySocket#getActiveApparentPowerVa()
+     */
+    public OptionalDouble getActiveApparentPowerVa() {
+        return optional(Metric.ACTIVE_APPARENT_POWER_VA);
+    }
+
+    /**
+     * Returns the power factor.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * This information is only available for {@code HWE-SKT-21}.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return power factor
+     * @see EnergySocket#getActivePowerFactor()
+     */
+    public OptionalDouble getActivePowerFactor() {
+        return optional(Metric.ACTIVE_POWER_FACTOR);
+    }
+
+    /**
+     * Returns the frequency in hertz.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-1">Official API documentation related to this method</a>
+     *
+     * @return frequency in hertz
+     * @see EnergySocket#getActiveFrequencyHz()
+     */
+    public OptionalDouble getActiveFrequencyHz() {
+        return optional(Metric.ACTIVE_FREQUENCY_HZ);
+    }
+}
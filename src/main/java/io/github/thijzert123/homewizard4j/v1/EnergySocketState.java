@@ -5,8 +5,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents the actual state of an {@link EnergySocket}.
@@ -16,7 +18,8 @@ import java.util.OptionalInt;
  */
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class EnergySocketState extends Savable {
-    private String apiAddress;
+    private volatile String apiAddress;
+    private volatile Device device;
 
     @JsonProperty("power_on")
     private Optional<Boolean> powerOn = Optional.empty();
@@ -25,11 +28,6 @@ public class EnergySocketState extends Savable {
     @JsonProperty("brightness")
     private OptionalInt brightness = OptionalInt.empty();
 
-    /**
-     * For Jackson
-     */
-    private EnergySocketState() {}
-
     EnergySocketState(final Device device) {
         updatePrivateFields(device);
     }
@@ -42,6 +40,25 @@ public class EnergySocketState extends Savable {
      */
     void updatePrivateFields(final Device device) {
         apiAddress = device.getFullApiAddress() + "/state";
+        this.device = device;
+    }
+
+    @Override
+    Device getDevice() {
+        return device;
+    }
+
+    @Override
+    Endpoint getUpdateEndpoint() {
+        return Endpoint.ENERGY_SOCKET_STATE;
+    }
+
+    @Override
+    void onUpdated() {
+        super.onUpdated();
+        if (device instanceof EnergySocket energySocket) {
+            energySocket.onPowerOnUpdated(powerOn);
+        }
     }
 
     /**
@@ -53,11 +70,38 @@ public class EnergySocketState extends Savable {
         update(apiAddress);
     }
 
+    /**
+     * Updates all the data asynchronously. If you previously made changes, they will be discarded!
+     * The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something goes wrong while updating.
+     *
+     * @return future that completes when the data has been updated
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateAsync() {
+        return updateAsync(apiAddress);
+    }
+
+    /**
+     * Updates all the data asynchronously with the provided timeout, for {@link Device#updateAll(Duration)}.
+     *
+     * @param timeout the timeout of the request
+     * @return future that completes when the data has been updated
+     */
+    CompletableFuture<Void> updateAsync(final Duration timeout) {
+        return updateAsync(apiAddress, timeout);
+    }
+
     @Override
     public void save() throws HomeWizardApiException {
         save(apiAddress);
     }
 
+    @Override
+    public CompletableFuture<Void> saveAsync() {
+        return saveAsync(apiAddress);
+    }
+
     /**
      * Returns whether the switch is on.
      *
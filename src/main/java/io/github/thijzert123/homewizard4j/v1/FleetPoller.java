@@ -0,0 +1,391 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls the measurements of many devices, each on its own interval. This way you don't have to write your own loop
+ * around {@link Device#updateMeasurements()}.
+ * <p>
+ * Every device gets a default interval based on its type, see {@link #getDefaultInterval(Device)}.
+ * A random jitter is added to every interval, so the requests to all devices don't fire at the same moment.
+ * The requests are done by a bounded pool of worker threads. When the previous request for a device is still
+ * running when its next tick is due, that tick is skipped. Use {@link #getLag()} and {@link #getSkippedTicks()}
+ * to see if the poller is falling behind.
+ * <p>
+ * This code example polls all discovered devices and prints the active power of the P1 meters:
+ *
+ * <pre>
+ * final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(1000);
+ * final FleetPoller poller = new FleetPoller(4);
+ * poller.addListener(new FleetPoller.Listener() {
+ *     &#64;Override
+ *     public void onPoll(final Device device) {
+ *         if (device instanceof P1Meter p1Meter) {
+ *             System.out.println(p1Meter.getActivePowerW());
+ *         }
+ *     }
+ * });
+ * poller.addAll(discoverer.getAllDevices());
+ * </pre>
+ *
+ * @author Thijzert123
+ * @since 2.1.0
+ */
+public class FleetPoller implements AutoCloseable {
+    /**
+     * Receives the results of the polls. The methods are called on the worker thread that did the poll,
+     * so they should return quickly. Exceptions thrown by a listener are logged and don't affect the other listeners.
+     *
+     * @since 2.1.0
+     */
+    public interface Listener {
+        /**
+         * Called after the measurements of a device have been updated successfully.
+         *
+         * @param device the device that has been updated
+         */
+        default void onPoll(final Device device) {
+        }
+
+        /**
+         * Called when updating the measurements of a device has failed.
+         *
+         * @param device    the device that could not be updated
+         * @param exception the exception that was thrown while updating
+         */
+        default void onPollFailed(final Device device, final HomeWizardApiException exception) {
+        }
+    }
+
+    /**
+     * The default interval for P1 meters.
+     */
+    public static final Duration P1_METER_INTERVAL = Duration.ofSeconds(1);
+    /**
+     * The default interval for kWh meters.
+     */
+    public static final Duration KWH_METER_INTERVAL = Duration.ofSeconds(1);
+    /**
+     * The default interval for energy sockets.
+     */
+    public static final Duration ENERGY_SOCKET_INTERVAL = Duration.ofSeconds(5);
+    /**
+     * The default interval for water meters.
+     */
+    public static final Duration WATER_METER_INTERVAL = Duration.ofSeconds(30);
+    /**
+     * The default jitter, as a fraction of the interval.
+     */
+    public static final double DEFAULT_JITTER = 0.1;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final AtomicInteger POLLER_COUNT = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Map<Device, PolledDevice> polledDevices = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile double jitter = DEFAULT_JITTER;
+
+    /**
+     * Creates a poller with a pool of the specified amount of worker threads.
+     * The poller starts polling a device as soon as it is added.
+     *
+     * @param workerThreads maximum amount of requests that are running at the same time
+     */
+    public FleetPoller(final int workerThreads) {
+        LOGGER.trace("Initializing FleetPoller with {} worker threads...", workerThreads);
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("Worker thread count must be at least 1, but was " + workerThreads);
+        }
+
+        final int pollerNumber = POLLER_COUNT.incrementAndGet();
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory("homewizard4j-poller-" + pollerNumber + "-scheduler"));
+        workers = Executors.newFixedThreadPool(workerThreads, threadFactory("homewizard4j-poller-" + pollerNumber + "-worker"));
+    }
+
+    /**
+     * Returns the default interval for the provided device:
+     * {@link #P1_METER_INTERVAL}, {@link #KWH_METER_INTERVAL}, {@link #ENERGY_SOCKET_INTERVAL}
+     * or {@link #WATER_METER_INTERVAL}.
+     *
+     * @param device the device to get the interval for
+     * @return default interval for the device
+     */
+    public static Duration getDefaultInterval(final Device device) {
+        if (device instanceof P1Meter) {
+            return P1_METER_INTERVAL;
+        } else if (device instanceof KWhMeter) {
+            return KWH_METER_INTERVAL;
+        } else if (device instanceof WaterMeter) {
+            return WATER_METER_INTERVAL;
+        } else {
+            return ENERGY_SOCKET_INTERVAL;
+        }
+    }
+
+    /**
+     * Changes the jitter that is added to every interval. The jitter is a fraction of the interval:
+     * with an interval of 1 second and a jitter of {@code 0.1}, every tick is randomly moved by up to 100 milliseconds.
+     * The default value is {@link #DEFAULT_JITTER}.
+     *
+     * @param jitter fraction of the interval, from {@code 0} to {@code 1}
+     * @return this poller
+     */
+    public FleetPoller setJitter(final double jitter) {
+        if (jitter < 0 || jitter > 1) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1, but was " + jitter);
+        }
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Adds a listener that receives the results of all polls.
+     *
+     * @param listener the listener to add
+     * @return this poller
+     */
+    public FleetPoller addListener(final Listener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addListener(Listener)}.
+     *
+     * @param listener the listener to remove
+     * @return this poller
+     */
+    public FleetPoller removeListener(final Listener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+
+    /**
+     * Starts polling the device with its default interval, see {@link #getDefaultInterval(Device)}.
+     * If the device is already being polled, nothing happens.
+     *
+     * @param device the device to poll
+     * @return this poller
+     */
+    public FleetPoller add(final Device device) {
+        return add(device, getDefaultInterval(device));
+    }
+
+    /**
+     * Starts polling the device with the specified interval.
+     * If the device is already being polled, nothing happens.
+     *
+     * @param device   the device to poll
+     * @param interval the time between two polls
+     * @return this poller
+     */
+    public FleetPoller add(final Device device, final Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive, but was " + interval);
+        }
+
+        polledDevices.computeIfAbsent(device, key -> {
+            LOGGER.debug("Start polling device '{}' every {}", device.getHostAddress(), interval);
+            final PolledDevice polledDevice = new PolledDevice(device, interval.toNanos());
+            polledDevice.start();
+            return polledDevice;
+        });
+        return this;
+    }
+
+    /**
+     * Starts polling all provided devices with their default interval, for example all devices returned by
+     * {@link HomeWizardDiscoverer#getAllDevices()}.
+     *
+     * @param devices the devices to poll
+     * @return this poller
+     */
+    public FleetPoller addAll(final Collection<? extends Device> devices) {
+        for (final Device device : devices) {
+            add(device);
+        }
+        return this;
+    }
+
+    /**
+     * Stops polling the device. A request that is running for the device will still finish.
+     *
+     * @param device the device to stop polling
+     * @return whether the device was being polled
+     */
+    public boolean remove(final Device device) {
+        final PolledDevice polledDevice = polledDevices.remove(device);
+        if (polledDevice == null) return false;
+
+        LOGGER.debug("Stop polling device '{}'", device.getHostAddress());
+        polledDevice.stop();
+        return true;
+    }
+
+    /**
+     * Returns how far this poller is behind at the moment. It is the longest delay between the time a device
+     * should have been polled and the time the latest request for that device actually started, across all devices.
+     * If this keeps growing, there are not enough worker threads or the intervals are too short.
+     *
+     * @return how far this poller is behind
+     */
+    public Duration getLag() {
+        long lagNanos = 0;
+        for (final PolledDevice polledDevice : polledDevices.values()) {
+            lagNanos = Math.max(lagNanos, polledDevice.lagNanos);
+        }
+        return Duration.ofNanos(lagNanos);
+    }
+
+    /**
+     * Returns the longest lag that has been measured since this poller was created.
+     *
+     * @return the longest lag
+     * @see #getLag()
+     */
+    public Duration getMaxLag() {
+        return Duration.ofNanos(maxLagNanos.get());
+    }
+
+    /**
+     * Returns the amount of ticks that have been skipped, because the previous request for the device was
+     * still running or because the poller was too late for the tick.
+     *
+     * @return the amount of skipped ticks
+     */
+    public long getSkippedTicks() {
+        return skippedTicks.get();
+    }
+
+    /**
+     * Stops polling all devices and shuts down the threads of this poller.
+     */
+    @Override
+    public void close() {
+        LOGGER.debug("Closing...");
+        polledDevices.clear();
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static void notifyListener(final Listener listener, final String method, final Runnable notification) {
+        try {
+            notification.run();
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.warn("Listener {} threw an exception in {}", listener, method, runtimeException);
+        }
+    }
+
+    private static ThreadFactory threadFactory(final String namePrefix) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, namePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class PolledDevice {
+        private final Device device;
+        private final long intervalNanos;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile long lagNanos;
+        private volatile ScheduledFuture<?> nextTick;
+        private volatile boolean stopped;
+
+        private PolledDevice(final Device device, final long intervalNanos) {
+            this.device = device;
+            this.intervalNanos = intervalNanos;
+        }
+
+        private void start() {
+            // A random first tick spreads the devices over the interval
+            final long firstBaseNanos = System.nanoTime() + ThreadLocalRandom.current().nextLong(intervalNanos);
+            schedule(firstBaseNanos);
+        }
+
+        private void stop() {
+            stopped = true;
+            final ScheduledFuture<?> tick = nextTick;
+            if (tick != null) {
+                tick.cancel(false);
+            }
+        }
+
+        private void schedule(final long baseNanos) {
+            if (stopped) return;
+            // Jitter only moves this tick: the next one is based on the un-jittered time, so the schedule doesn't drift
+            final long tickNanos = baseNanos + randomJitterNanos();
+            nextTick = scheduler.schedule(() -> tick(baseNanos, tickNanos), tickNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        private void tick(final long baseNanos, final long tickNanos) {
+            final long now = System.nanoTime();
+            long nextBaseNanos = baseNanos + intervalNanos;
+            while (nextBaseNanos <= now) { // the scheduler itself was too late, skip the ticks that were missed
+                nextBaseNanos += intervalNanos;
+                skippedTicks.incrementAndGet();
+            }
+            schedule(nextBaseNanos);
+
+            if (!running.compareAndSet(false, true)) {
+                LOGGER.debug("Previous request for device '{}' is still running, skipping tick", device.getHostAddress());
+                skippedTicks.incrementAndGet();
+                return;
+            }
+            workers.execute(() -> poll(tickNanos));
+        }
+
+        private long randomJitterNanos() {
+            final long maxJitterNanos = (long) (intervalNanos * jitter);
+            return maxJitterNanos == 0 ? 0 : ThreadLocalRandom.current().nextLong(-maxJitterNanos, maxJitterNanos + 1);
+        }
+
+        private void poll(final long tickNanos) {
+            try {
+                if (stopped) return;
+
+                lagNanos = Math.max(0, System.nanoTime() - tickNanos);
+                maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+
+                try {
+                    device.updateMeasurements();
+                } catch (final HomeWizardApiException | RuntimeException exception) {
+                    final HomeWizardApiException homeWizardApiException = HttpUtils.toApiException(exception);
+                    for (final Listener listener : listeners) {
+                        notifyListener(listener, "onPollFailed", () -> listener.onPollFailed(device, homeWizardApiException));
+                    }
+                    return;
+                }
+                for (final Listener listener : listeners) {
+                    notifyListener(listener, "onPoll", () -> listener.onPoll(device));
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+}
@@ -27,4 +27,13 @@ public class HomeWizardApiException extends IOException {
         super(message);
         logger.error(message);
     }
+
+    /**
+     * For subclasses that log themselves, at a different level.
+     *
+     * @param message the detail message
+     */
+    HomeWizardApiException(final String message) {
+        super(message);
+    }
 }
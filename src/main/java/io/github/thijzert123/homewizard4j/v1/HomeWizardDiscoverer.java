@@ -6,9 +6,29 @@ import org.slf4j.LoggerFactory;
 import javax.jmdns.JmDNS;
 import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Discovers HomeWizard devices using mDNS. This class should be your starting point when using the API.
@@ -34,6 +54,9 @@ import java.util.List;
  * }
  * </pre>
  * <p>
+ * The lists returned by the getters are unmodifiable snapshots. You can iterate them while devices are being
+ * discovered, and devices that are discovered later show up in the next call to the getter.
+ * <p>
  * For more information, see <a href="https://github.com/Thijzert123/homewizard4j?tab=readme-ov-file#discovery">discovery</a>.
  *
  * @author Thijzert123
@@ -68,20 +91,98 @@ public class HomeWizardDiscoverer implements AutoCloseable {
         WATER_METER
     }
 
+    /**
+     * What the discoverer does with a device right after it has been discovered, so the first update of the device
+     * doesn't have to wait for a new connection.
+     *
+     * @see #HomeWizardDiscoverer(DeviceTransport, WarmUp)
+     * @since 2.1.0
+     */
+    public enum WarmUp {
+        /**
+         * Does nothing, which is the default
+         */
+        NONE,
+        /**
+         * Opens a connection to the device with {@link DeviceTransport#preconnect(URI)}. Only transports that keep
+         * connections open, like {@link NioTransport}, support this
+         */
+        CONNECT,
+        /**
+         * Updates the device info in the background, which also opens a connection to the device.
+         * The first {@link Device#updateAll()} then only has to wait for the measurements and system configuration
+         */
+        DEVICE_INFO
+    }
+
+    /**
+     * Listens to the devices of a discoverer. The methods can be called on different threads: usually the mDNS thread
+     * of the discoverer, but also the thread that calls {@link #addListener(Listener)} or {@link #loadCache(Path)},
+     * the thread that completes the request when a cached device is checked, and the thread that completes
+     * {@link #scanSubnetAsync(String)}. The calls are never made at the same time, but a listener that keeps state
+     * should not assume they come from a single thread. The discoverer holds a lock while it calls a listener,
+     * so the methods should return quickly. Exceptions thrown by a listener are logged and don't affect the other listeners.
+     *
+     * @see #addListener(Listener)
+     * @since 2.1.0
+     */
+    public interface Listener {
+        /**
+         * Called when a device has been discovered, and for every device that had already been discovered when this
+         * listener was added.
+         *
+         * @param device the device
+         */
+        default void onDeviceAdded(final Device device) {
+        }
+
+        /**
+         * Called when a device has announced that it is leaving the network. The device is removed from the discoverer,
+         * and is added again when it is discovered again.
+         *
+         * @param device the device
+         */
+        default void onDeviceRemoved(final Device device) {
+        }
+
+        /**
+         * Called when a device has been discovered again with a different address, for example after it got a new
+         * IP address from DHCP. The device already uses the new address when this method is called.
+         *
+         * @param device              the device
+         * @param previousHostAddress the host address the device had before
+         * @param previousPort        the port the device had before
+         */
+        default void onAddressChanged(final Device device, final String previousHostAddress, final int previousPort) {
+        }
+    }
+
     /**
      * Full service type. If a device on your local network has this service type, this discoverer will detect and register it.
      */
     public static final String SERVICE_TYPE = "_hwenergy._tcp.local.";
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    private final JmDNS jmDNS;
+    // One per network interface address, all sharing the registry, so a device that is seen on several
+    // interfaces is only added once
+    private final List<JmDNS> jmDNSInstances;
+
+    final DeviceTransport transport;
+    private final WarmUp warmUp;
 
-    final List<WaterMeter> waterMeters;
-    final List<P1Meter> p1Meters;
-    final List<EnergySocket> energySockets;
-    final List<KWhMeter> kWhMeters;
+    final DeviceRegistry registry = new DeviceRegistry();
 
     final Object deviceAddedNotifier = new Object();
 
+    // Registering a device and notifying the listeners happen under this lock, so a listener that is added
+    // concurrently gets every device exactly once
+    private final Object eventLock = new Object();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    // Conflates per device, so a slow subscriber gets the latest snapshot of every device
+    private final ConflatingPublisher<DeviceSnapshot> snapshotPublisher =
+            new ConflatingPublisher<>(DeviceSnapshot::device);
+
     /**
      * Initializes the discoverer and starts scanning for HomeWizard devices.
      * This discoverer starts with 0 devices.
@@ -89,15 +190,192 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @throws IOException when something has gone wrong while creating the mDNS discoverer
      */
     public HomeWizardDiscoverer() throws IOException {
-        LOGGER.trace("Initializing HomeWizardDiscoverer...");
+        this(HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Initializes the discoverer and starts scanning for HomeWizard devices.
+     * This discoverer starts with 0 devices. All devices it discovers send their requests with the provided transport.
+     *
+     * @param transport transport that sends the requests to the discovered devices
+     * @throws IOException when something has gone wrong while creating the mDNS discoverer
+     * @since 2.1.0
+     */
+    public HomeWizardDiscoverer(final DeviceTransport transport) throws IOException {
+        this(transport, WarmUp.NONE);
+    }
+
+    /**
+     * Initializes the discoverer and starts scanning for HomeWizard devices.
+     * This discoverer starts with 0 devices. All devices it discovers send their requests with the provided transport,
+     * and are warmed up right after they have been discovered.
+     *
+     * <pre>
+     * final NioTransport transport = new NioTransport();
+     * final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(transport, HomeWizardDiscoverer.WarmUp.DEVICE_INFO);
+     * </pre>
+     *
+     * @param transport transport that sends the requests to the discovered devices
+     * @param warmUp    what to do with a device right after it has been discovered
+     * @throws IOException when something has gone wrong while creating the mDNS discoverer
+     * @since 2.1.0
+     */
+    public HomeWizardDiscoverer(final DeviceTransport transport, final WarmUp warmUp) throws IOException {
+        this(transport, warmUp, List.of(InetAddress.getLocalHost()));
+    }
+
+    /**
+     * Initializes the discoverer and starts scanning for HomeWizard devices on every provided address at the same
+     * time. Use this on machines with several network interfaces, like a gateway with an interface for every VLAN,
+     * to discover the devices of all networks in one pass. A device that is seen on more than one interface is only
+     * added once. This discoverer starts with 0 devices.
+     *
+     * <pre>
+     * final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(HttpUtils.getSharedTransport(),
+     *         HomeWizardDiscoverer.WarmUp.NONE, HomeWizardDiscoverer.findInterfaceAddresses());
+     * </pre>
+     *
+     * @param transport transport that sends the requests to the discovered devices
+     * @param warmUp    what to do with a device right after it has been discovered
+     * @param addresses the addresses of the network interfaces to scan on, at least one
+     * @throws IOException when the mDNS discoverer couldn't be created on any of the addresses
+     * @see #findInterfaceAddresses()
+     * @since 2.1.0
+     */
+    public HomeWizardDiscoverer(final DeviceTransport transport,
+                                final WarmUp warmUp,
+                                final List<InetAddress> addresses) throws IOException {
+        LOGGER.trace("Initializing HomeWizardDiscoverer on {}...", addresses);
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one address is required");
+        }
+
+        this.transport = transport;
+        this.warmUp = warmUp;
+
+        // Creating a JmDNS instance probes the network, so the instances are created at the same time
+        final List<Callable<JmDNS>> creations = new ArrayList<>();
+        for (final InetAddress address : addresses) {
+            creations.add(() -> JmDNS.create(address));
+        }
+        final List<JmDNS> created = new ArrayList<>();
+        IOException lastException = null;
+        // An instance that is created after an interrupt is closed right away, because it isn't used
+        for (final Future<JmDNS> creation : runInParallel(creations, HomeWizardDiscoverer::closeAbandoned)) {
+            try {
+                created.add(creation.get());
+            } catch (final ExecutionException | InterruptedException exception) {
+                if (exception instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                lastException = new IOException("Could not create mDNS discoverer", exception);
+                LOGGER.warn("Could not create mDNS discoverer", exception);
+            }
+        }
+        if (created.isEmpty()) {
+            throw lastException;
+        }
+        jmDNSInstances = List.copyOf(created);
+
+        final HomeWizardServiceListener serviceListener = new HomeWizardServiceListener(this);
+        for (final JmDNS jmDNS : jmDNSInstances) {
+            jmDNS.addServiceListener(SERVICE_TYPE, serviceListener);
+        }
+    }
+
+    /**
+     * Returns the IPv4 addresses of all network interfaces that are up, support multicast and aren't a loopback
+     * interface. These are the addresses that HomeWizard devices can be discovered on. You can filter the list before
+     * passing it to {@link #HomeWizardDiscoverer(DeviceTransport, WarmUp, List)}.
+     *
+     * @return the addresses of the network interfaces, empty if there are none
+     * @throws IOException when the network interfaces couldn't be read
+     * @since 2.1.0
+     */
+    public static List<InetAddress> findInterfaceAddresses() throws IOException {
+        final List<InetAddress> addresses = new ArrayList<>();
+        for (final NetworkInterface networkInterface : NetworkInterface.networkInterfaces().toList()) {
+            try {
+                if (!networkInterface.isUp() || networkInterface.isLoopback() || !networkInterface.supportsMulticast()) {
+                    continue;
+                }
+            } catch (final SocketException socketException) {
+                LOGGER.debug("Could not read network interface {}", networkInterface.getName(), socketException);
+                continue;
+            }
+            networkInterface.inetAddresses()
+                    .filter(Inet4Address.class::isInstance)
+                    .forEach(addresses::add);
+        }
+        LOGGER.debug("Found interface addresses: {}", addresses);
+        return addresses;
+    }
 
-        waterMeters = new ArrayList<>();
-        p1Meters = new ArrayList<>();
-        energySockets = new ArrayList<>();
-        kWhMeters = new ArrayList<>();
+    /**
+     * Runs the tasks at the same time, each on its own thread, and waits until all of them are done.
+     *
+     * @param tasks the tasks
+     * @param <T>   the result of a task
+     * @return the done futures of the tasks, in the same order
+     */
+    private static <T> List<Future<T>> runInParallel(final List<Callable<T>> tasks) {
+        return runInParallel(tasks, result -> {
+        });
+    }
 
-        jmDNS = JmDNS.create(InetAddress.getLocalHost());
-        jmDNS.addServiceListener(SERVICE_TYPE, new HomeWizardServiceListener(this));
+    /**
+     * Same as {@link #runInParallel(List)}, but hands the results that nobody waits for anymore to the provided
+     * consumer, because the current thread has been interrupted while waiting. That happens exactly once for every
+     * task that completes, whether it completed before or after the interrupt.
+     *
+     * @param tasks     the tasks
+     * @param abandoned cleans up a result that nobody waits for anymore
+     * @param <T>       the result of a task
+     * @return the done futures of the tasks, in the same order
+     */
+    private static <T> List<Future<T>> runInParallel(final List<Callable<T>> tasks, final Consumer<T> abandoned) {
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        final List<T> results = new ArrayList<>();
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final List<Callable<T>> trackedTasks = new ArrayList<>();
+        for (final Callable<T> task : tasks) {
+            trackedTasks.add(() -> {
+                final T result = task.call();
+                synchronized (results) {
+                    if (interrupted.get()) {
+                        abandoned.accept(result);
+                    } else {
+                        results.add(result);
+                    }
+                }
+                return result;
+            });
+        }
+        try {
+            return executor.invokeAll(trackedTasks);
+        } catch (final InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            synchronized (results) {
+                interrupted.set(true);
+                results.forEach(abandoned);
+            }
+            final List<Future<T>> failed = new ArrayList<>();
+            for (int i = 0; i < tasks.size(); i++) {
+                failed.add(CompletableFuture.failedFuture(interruptedException));
+            }
+            return failed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void closeAbandoned(final JmDNS jmDNS) {
+        try {
+            jmDNS.close();
+        } catch (final IOException ioException) {
+            LOGGER.warn("Could not close mDNS discoverer", ioException);
+        }
     }
 
     /**
@@ -109,9 +387,11 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      */
     public HomeWizardDiscoverer(final HomeWizardDiscoverer discovererToMerge) throws IOException {
         this();
-        waterMeters.addAll(discovererToMerge.getWaterMeters());
-        p1Meters.addAll(discovererToMerge.getP1Meters());
-        energySockets.addAll(discovererToMerge.getEnergySockets());
+        for (final Device device : discovererToMerge.getAllDevices()) {
+            if (registry.register(device)) {
+                device.addGroupSnapshotPublisher(snapshotPublisher);
+            }
+        }
     }
 
     /**
@@ -165,6 +445,7 @@ public class HomeWizardDiscoverer implements AutoCloseable {
 
     /**
      * Blocks until a specific count of the specified device type is reached.
+     * If the current thread is interrupted, this method stops blocking and keeps the interrupt status of the thread.
      *
      * @param deviceType  type of device to wait for
      * @param deviceCount device count to wait for
@@ -179,8 +460,9 @@ public class HomeWizardDiscoverer implements AutoCloseable {
                 try {
                     deviceAddedNotifier.wait();
                 } catch (final InterruptedException interruptedException) {
-                    LOGGER.error(interruptedException.getMessage(), interruptedException);
+                    LOGGER.debug("Interrupted while waiting for devices, stopped blocking");
                     Thread.currentThread().interrupt();
+                    return this;
                 }
             }
         }
@@ -189,6 +471,92 @@ public class HomeWizardDiscoverer implements AutoCloseable {
         return this;
     }
 
+    /**
+     * Blocks until a specific count of the specified device type is reached, or until the timeout has passed.
+     * If the current thread is interrupted, this method stops blocking and keeps the interrupt status of the thread.
+     *
+     * @param deviceType  type of device to wait for
+     * @param deviceCount device count to wait for
+     * @param timeout     the maximum time to block, must be positive
+     * @return {@code true} if the device count has been reached, {@code false} if the timeout has passed or the
+     * thread has been interrupted
+     * @since 2.1.0
+     */
+    public boolean waitForDevices(final DeviceType deviceType, final int deviceCount, final Duration timeout) {
+        LOGGER.debug("Blocking until device count is {}, at most {}", deviceCount, timeout);
+        final Deadline deadline = Deadline.after(timeout);
+        synchronized (deviceAddedNotifier) {
+            while (getDevices(deviceType).size() < deviceCount) {
+                final long remainingNanos = deadline.remaining().toNanos();
+                if (remainingNanos <= 0) {
+                    LOGGER.debug("Timeout passed before device count {} was reached", deviceCount);
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(deviceAddedNotifier, remainingNanos);
+                } catch (final InterruptedException interruptedException) {
+                    LOGGER.debug("Interrupted while waiting for devices, stopped blocking");
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        LOGGER.trace("Device count {} reached, stopped blocking", deviceCount);
+        return true;
+    }
+
+    /**
+     * Completes when a specific count of the specified device type is reached, or when the timeout has passed.
+     * Unlike {@link #waitForDevices(DeviceType, int)}, this doesn't block a thread while waiting.
+     * When the timeout passes, the future completes normally with the devices that have been discovered so far,
+     * so you can check whether the list has the size you asked for. The stages you chain to the future don't run
+     * on the mDNS thread, so they can take their time without holding up discovery.
+     *
+     * <pre>
+     * discoverer.discoverAsync(HomeWizardDiscoverer.DeviceType.P1_METER, 1, Duration.ofSeconds(5))
+     *         .thenAccept(p1Meters -&gt; System.out.println("Found " + p1Meters.size() + " P1 meter(s)"));
+     * </pre>
+     *
+     * @param deviceType  type of device to wait for
+     * @param deviceCount device count to wait for
+     * @param timeout     the maximum time to wait, must be positive
+     * @return future of an unmodifiable snapshot of the devices of the type
+     * @since 2.1.0
+     */
+    public CompletableFuture<List<Device>> discoverAsync(final DeviceType deviceType,
+                                                         final int deviceCount,
+                                                         final Duration timeout) {
+        DeviceTimeouts.requirePositive(timeout);
+        LOGGER.debug("Discovering until device count is {}, at most {}", deviceCount, timeout);
+        final CompletableFuture<List<Device>> future = new CompletableFuture<>();
+        final Listener listener = new Listener() {
+            @Override
+            public void onDeviceAdded(final Device device) {
+                final List<? extends Device> devices = getDevices(deviceType);
+                if (devices.size() >= deviceCount && !future.isDone()) {
+                    // Listeners are called with the event lock held, often on the mDNS thread,
+                    // so the stages the caller chained to the future must not run here
+                    future.completeAsync(() -> List.copyOf(devices));
+                }
+            }
+        };
+        addListener(listener);
+        // The count may already have been reached, or may be 0
+        final List<? extends Device> devices = getDevices(deviceType);
+        if (devices.size() >= deviceCount) {
+            future.complete(List.copyOf(devices));
+        }
+        // Unlike a task of a delayed executor, this timeout is cancelled when it is cancelled itself
+        final CompletableFuture<Void> timeoutFuture = new CompletableFuture<Void>()
+                .completeOnTimeout(null, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        timeoutFuture.thenRun(() -> future.complete(List.copyOf(getDevices(deviceType))));
+        future.whenComplete((foundDevices, throwable) -> {
+            removeListener(listener);
+            timeoutFuture.cancel(false);
+        });
+        return future;
+    }
+
     /**
      * Returns a {@link List} of devices with the specified type.
      *
@@ -197,17 +565,7 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @since 2.0.0
      */
     public List<? extends Device> getDevices(final DeviceType deviceType) {
-        if (deviceType == DeviceType.ENERGY_SOCKET) {
-            return getEnergySockets();
-        } else if (deviceType == DeviceType.KWH_METER) {
-            return getKWhMeters();
-        } else if (deviceType == DeviceType.P1_METER) {
-            return getP1Meters();
-        } else if (deviceType == DeviceType.WATER_METER) {
-            return getWaterMeters();
-        } else {
-            return getAllDevices();
-        }
+        return registry.getDevices(deviceType);
     }
 
     /**
@@ -217,7 +575,29 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      */
     public void close() throws IOException {
         LOGGER.debug("Closing...");
-        jmDNS.close();
+        // Closing JmDNS unregisters its services, which must not remove the devices
+        closed = true;
+        final List<Callable<Void>> closings = new ArrayList<>();
+        for (final JmDNS jmDNS : jmDNSInstances) {
+            closings.add(() -> {
+                jmDNS.close();
+                return null;
+            });
+        }
+        IOException exception = null;
+        for (final Future<Void> closing : runInParallel(closings)) {
+            try {
+                closing.get();
+            } catch (final ExecutionException | InterruptedException closeException) {
+                if (closeException instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                exception = new IOException("Could not close mDNS discoverer", closeException);
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
     }
 
     /**
@@ -232,13 +612,328 @@ public class HomeWizardDiscoverer implements AutoCloseable {
         return this;
     }
 
+    /**
+     * Returns what this discoverer does with a device right after it has been discovered.
+     *
+     * @return the warm-up of discovered devices
+     * @since 2.1.0
+     */
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Updates all devices that have been discovered so far, at most {@code parallelism} at the same time.
+     * A device that fails doesn't stop the others. See {@link DeviceFleet#updateAll(int, Duration)}.
+     *
+     * @param parallelism the maximum amount of devices to update at the same time, at least 1
+     * @param deadline    the time updating all devices may take, must be positive
+     * @return the outcome of every device
+     * @throws HomeWizardApiException only when the current thread was interrupted while waiting
+     * @since 2.1.0
+     */
+    public BulkUpdateReport updateAll(final int parallelism, final Duration deadline) throws HomeWizardApiException {
+        return new DeviceFleet(getAllDevices()).updateAll(parallelism, deadline);
+    }
+
+    /**
+     * Asynchronous version of {@link #updateAll(int, Duration)}.
+     *
+     * @param parallelism the maximum amount of devices to update at the same time, at least 1
+     * @param deadline    the time updating all devices may take, must be positive
+     * @return future of the outcome of every device
+     * @since 2.1.0
+     */
+    public CompletableFuture<BulkUpdateReport> updateAllAsync(final int parallelism, final Duration deadline) {
+        return new DeviceFleet(getAllDevices()).updateAllAsync(parallelism, deadline);
+    }
+
+    /**
+     * Returns a publisher of the snapshots of all devices of this discoverer, also the ones that are discovered after
+     * subscribing. Every successful update of the measurements of a device, for example by a {@link FleetPoller},
+     * publishes the new snapshot together with the device. The publisher never completes, also not when this
+     * discoverer is closed, because its devices can still be updated.
+     * <p>
+     * A subscriber that is slower than the updates gets the latest snapshot of every device: a newer snapshot of
+     * a device replaces the one of the same device that the subscriber hasn't received yet. The snapshots are delivered
+     * on {@link ForkJoinPool#commonPool()}, so a slow subscriber doesn't hold up the updates or the other subscribers.
+     *
+     * <pre>
+     * discoverer.getSnapshotPublisher().subscribe(new Flow.Subscriber&lt;&gt;() {
+     *     private Flow.Subscription subscription;
+     *
+     *     &#64;Override
+     *     public void onSubscribe(final Flow.Subscription subscription) {
+     *         this.subscription = subscription;
+     *         subscription.request(1);
+     *     }
+     *
+     *     &#64;Override
+     *     public void onNext(final DeviceSnapshot deviceSnapshot) {
+     *         System.out.println(deviceSnapshot.device().getSerial() + ": " + deviceSnapshot.snapshot().getWifiStrength());
+     *         subscription.request(1);
+     *     }
+     *
+     *     // onError and onComplete
+     * });
+     * </pre>
+     *
+     * @return publisher of the snapshots of all devices
+     * @see Device#getSnapshotPublisher()
+     * @since 2.1.0
+     */
+    public Flow.Publisher<DeviceSnapshot> getSnapshotPublisher() {
+        return getSnapshotPublisher(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as {@link #getSnapshotPublisher()}, but delivers the snapshots to its subscribers on the provided executor.
+     *
+     * @param executor the executor to deliver the snapshots on
+     * @return publisher of the snapshots of all devices
+     * @since 2.1.0
+     */
+    public Flow.Publisher<DeviceSnapshot> getSnapshotPublisher(final Executor executor) {
+        return snapshotPublisher.withExecutor(executor, Optional::empty);
+    }
+
+    /**
+     * Adds a listener to the devices of this discoverer. The listener is first called with
+     * {@link Listener#onDeviceAdded(Device)} for every device that has already been discovered.
+     *
+     * @param listener the listener
+     * @since 2.1.0
+     */
+    public void addListener(final Listener listener) {
+        synchronized (eventLock) {
+            listeners.add(listener);
+            for (final Device device : getAllDevices()) {
+                notifyListener(listener, "onDeviceAdded", () -> listener.onDeviceAdded(device));
+            }
+        }
+    }
+
+    /**
+     * Removes a listener that was added with {@link #addListener(Listener)}.
+     *
+     * @param listener the listener
+     * @since 2.1.0
+     */
+    public void removeListener(final Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Writes the address of every device of this discoverer to a file, so {@link #loadCache(Path)} can add them
+     * right away in a new process. Only devices with a serial and product type are written.
+     * The file is replaced atomically, so it is never half-written.
+     *
+     * @param file the file to write, for example <code>homewizard-devices.json</code>
+     * @throws IOException when the file cannot be written
+     * @since 2.1.0
+     */
+    public void saveCache(final Path file) throws IOException {
+        DiscoveryCache.write(file, getAllDevices());
+    }
+
+    /**
+     * Adds the devices from a file written by {@link #saveCache(Path)}, without waiting for mDNS.
+     * Devices that have already been discovered are skipped, and nothing is added after this discoverer has been closed.
+     * <p>
+     * The cached addresses may be outdated, so every added device is checked in the background:
+     * a request to its <code>/api</code> endpoint checks that the device at the address still has the same serial.
+     * A device with another serial at the address is removed again. When mDNS finds a cached device at another
+     * address, its address is changed, just like for a device that has been discovered by mDNS.
+     *
+     * @param file the file to read
+     * @return the devices that have been added, empty if the file doesn't exist yet
+     * @throws IOException when the file cannot be read, or isn't written by {@link #saveCache(Path)}
+     * @since 2.1.0
+     */
+    public List<Device> loadCache(final Path file) throws IOException {
+        final List<Device> added = new ArrayList<>();
+        for (final Device device : DiscoveryCache.read(file, transport)) {
+            if (addDiscoveredDevice(device)) {
+                added.add(device);
+                revalidate(device);
+            }
+        }
+        LOGGER.debug("Added {} device(s) from cache", added.size());
+        return List.copyOf(added);
+    }
+
+    /**
+     * Scans an IPv4 range for devices with a {@link SubnetScanner} that uses the transport of this discoverer,
+     * and adds the devices it finds. Use this when mDNS doesn't work on a network, for example because the access
+     * points drop multicast traffic. Devices that have already been discovered are not added again.
+     *
+     * @param cidr the range in CIDR notation, for example <code>192.168.1.0/24</code>
+     * @return future of the devices in the range, which are the already discovered instances for devices that had
+     * already been discovered
+     * @see #scanSubnetAsync(SubnetScanner, String)
+     * @since 2.1.0
+     */
+    public CompletableFuture<List<Device>> scanSubnetAsync(final String cidr) {
+        return scanSubnetAsync(new SubnetScanner(transport), cidr);
+    }
+
+    /**
+     * Same as {@link #scanSubnetAsync(String)}, but with the provided scanner, for example with another timeout.
+     * The added devices use the transport of the scanner.
+     *
+     * @param scanner the scanner
+     * @param cidr    the range in CIDR notation, for example <code>192.168.1.0/24</code>
+     * @return future of the devices in the range
+     * @since 2.1.0
+     */
+    public CompletableFuture<List<Device>> scanSubnetAsync(final SubnetScanner scanner, final String cidr) {
+        return scanner.scanAsync(cidr).thenApply(scannedDevices -> {
+            final List<Device> devices = new ArrayList<>();
+            for (final Device device : scannedDevices) {
+                addDiscoveredDevice(device);
+                devices.add(device.getSerial().flatMap(registry::getBySerial).orElse(device));
+            }
+            return List.copyOf(devices);
+        });
+    }
+
+    /**
+     * Checks in the background that a device from the cache is still at its address, and removes it if another
+     * device is.
+     *
+     * @param device the device from the cache
+     */
+    private void revalidate(final Device device) {
+        if (!device.isApiEnabled()) return;
+        final String hostAddress = device.getHostAddress();
+        HttpUtils.getBodyAsync(device, "GET", device.getFullAddress() + "/api", device.getTimeouts().getRequestTimeout())
+                .whenComplete((body, throwable) -> {
+                    if (throwable != null) {
+                        LOGGER.debug("Cached device at '{}' didn't respond, waiting for mDNS", hostAddress);
+                        return;
+                    }
+                    final Optional<String> serial;
+                    try {
+                        serial = DiscoveryCache.readSerial(body);
+                    } catch (final IOException ioException) {
+                        LOGGER.debug("Cached device at '{}' responded with invalid device info", hostAddress, ioException);
+                        return;
+                    }
+                    // mDNS may have moved the device to its new address in the meantime
+                    if (serial.isPresent() && !serial.equals(device.getSerial())
+                            && hostAddress.equals(device.getHostAddress())) {
+                        LOGGER.debug("Another device with serial {} is at the cached address '{}'", serial.get(), hostAddress);
+                        removeDevice(device);
+                    }
+                });
+    }
+
+    /**
+     * Adds a device that has just been discovered, unless a device with the same serial has already been added.
+     * Ignored when this discoverer has been closed.
+     *
+     * @param device the discovered device
+     * @return {@code true} if the device has been added
+     */
+    boolean addDiscoveredDevice(final Device device) {
+        if (closed) return false;
+        synchronized (eventLock) {
+            // Another resolve event of the same device may have registered it in the meantime
+            if (!registry.register(device)) return false;
+            device.addGroupSnapshotPublisher(snapshotPublisher);
+            for (final Listener listener : listeners) {
+                notifyListener(listener, "onDeviceAdded", () -> listener.onDeviceAdded(device));
+            }
+        }
+        warmUp(device);
+        synchronized (deviceAddedNotifier) {
+            deviceAddedNotifier.notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Removes the device with the provided service name, because it has left the network.
+     * Ignored when this discoverer has been closed.
+     *
+     * @param serviceName the service name of the device
+     */
+    void removeDiscoveredDevice(final String serviceName) {
+        if (closed) return;
+        registry.getByServiceName(serviceName).ifPresent(device -> {
+            LOGGER.debug("Device with service name '{}' left the network", serviceName);
+            removeDevice(device);
+        });
+    }
+
+    private void removeDevice(final Device device) {
+        synchronized (eventLock) {
+            if (!registry.unregister(device)) return;
+            device.removeGroupSnapshotPublisher(snapshotPublisher);
+            for (final Listener listener : listeners) {
+                notifyListener(listener, "onDeviceRemoved", () -> listener.onDeviceRemoved(device));
+            }
+        }
+    }
+
+    /**
+     * Changes the address of a device that has been discovered again with a different address.
+     * Ignored when this discoverer has been closed.
+     *
+     * @param device      the device
+     * @param hostAddress the new host address
+     * @param port        the new port
+     */
+    void changeDiscoveredAddress(final Device device, final String hostAddress, final int port) {
+        if (closed) return;
+        synchronized (eventLock) {
+            final String previousHostAddress = device.getHostAddress();
+            final int previousPort = device.getPort();
+            device.setAddress(hostAddress, port);
+            registry.addressChanged(device, previousHostAddress);
+            for (final Listener listener : listeners) {
+                notifyListener(listener, "onAddressChanged",
+                        () -> listener.onAddressChanged(device, previousHostAddress, previousPort));
+            }
+        }
+    }
+
+    private static void notifyListener(final Listener listener, final String method, final Runnable notification) {
+        try {
+            notification.run();
+        } catch (final RuntimeException runtimeException) {
+            LOGGER.warn("Listener {} threw an exception in {}", listener, method, runtimeException);
+        }
+    }
+
+    /**
+     * Warms up a device that has just been discovered, in the background.
+     *
+     * @param device the discovered device
+     */
+    void warmUp(final Device device) {
+        if (warmUp == WarmUp.NONE || !device.isApiEnabled()) return;
+
+        LOGGER.debug("Warming up device at '{}': {}", device.getFullAddress(), warmUp);
+        if (warmUp == WarmUp.CONNECT) {
+            transport.preconnect(URI.create(device.getFullAddress())).whenComplete((ignored, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.debug("Could not connect to device at '{}'", device.getFullAddress(), throwable);
+                }
+            });
+        } else {
+            // Failures are logged by the exception itself
+            device.updateDeviceInfoAsync();
+        }
+    }
+
     /**
      * Returns all water meter devices.
      *
      * @return all water meter devices
      */
     public List<WaterMeter> getWaterMeters() {
-        return waterMeters;
+        return registry.getDevices(DeviceType.WATER_METER);
     }
 
     /**
@@ -247,7 +942,7 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @return all P1 meter devices
      */
     public List<P1Meter> getP1Meters() {
-        return p1Meters;
+        return registry.getDevices(DeviceType.P1_METER);
     }
 
     /**
@@ -256,7 +951,7 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @return all energy socket devices
      */
     public List<EnergySocket> getEnergySockets() {
-        return energySockets;
+        return registry.getDevices(DeviceType.ENERGY_SOCKET);
     }
 
     /**
@@ -265,7 +960,7 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @return all kWh meter devices
      */
     public List<KWhMeter> getKWhMeters() {
-        return kWhMeters;
+        return registry.getDevices(DeviceType.KWH_METER);
     }
 
     /**
@@ -274,11 +969,54 @@ public class HomeWizardDiscoverer implements AutoCloseable {
      * @return all devices
      */
     public List<Device> getAllDevices() {
-        final List<Device> devices = new ArrayList<>();
-        devices.addAll(getWaterMeters());
-        devices.addAll(getP1Meters());
-        devices.addAll(getEnergySockets());
-        devices.addAll(getKWhMeters());
-        return devices;
+        return registry.getDevices(DeviceType.ALL);
+    }
+
+    /**
+     * Returns the device with the provided serial. This lookup takes constant time, however many devices there are.
+     *
+     * @param serial the serial, for example <code>1a2b3c4d5e6f</code>
+     * @return the device, or an empty {@link Optional} if no device with the serial has been discovered
+     * @see Device#getSerial()
+     * @since 2.1.0
+     */
+    public Optional<Device> getDeviceBySerial(final String serial) {
+        return registry.getBySerial(serial);
+    }
+
+    /**
+     * Returns the device with the provided host address. This lookup takes constant time.
+     *
+     * @param hostAddress the host address, for example <code>192.168.1.123</code>
+     * @return the device, or an empty {@link Optional} if no device with the host address has been discovered
+     * @see Device#getHostAddress()
+     * @since 2.1.0
+     */
+    public Optional<Device> getDeviceByHostAddress(final String hostAddress) {
+        return registry.getByHostAddress(hostAddress);
+    }
+
+    /**
+     * Returns the device with the provided mDNS service name. This lookup takes constant time.
+     *
+     * @param serviceName the service name, for example <code>P1Meter._hwenergy._tcp.local.</code>
+     * @return the device, or an empty {@link Optional} if no device with the service name has been discovered
+     * @see Device#getServiceName()
+     * @since 2.1.0
+     */
+    public Optional<Device> getDeviceByServiceName(final String serviceName) {
+        return registry.getByServiceName(serviceName);
+    }
+
+    /**
+     * Returns the devices with the provided product type.
+     *
+     * @param productType the product type, for example <code>HWE-P1</code>
+     * @return unmodifiable snapshot of the devices with the product type, empty if there are none
+     * @see Device#getProductType()
+     * @since 2.1.0
+     */
+    public List<Device> getDevicesByProductType(final String productType) {
+        return registry.getByProductType(productType);
     }
 }
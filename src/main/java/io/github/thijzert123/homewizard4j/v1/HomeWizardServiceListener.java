@@ -3,12 +3,14 @@ package io.github.thijzert123.homewizard4j.v1;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceEvent;
 import javax.jmdns.ServiceInfo;
 import javax.jmdns.ServiceListener;
 import java.lang.invoke.MethodHandles;
-import java.lang.reflect.InvocationTargetException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -18,6 +20,16 @@ import java.util.Optional;
 class HomeWizardServiceListener implements ServiceListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     private final HomeWizardDiscoverer discoverer;
+    // The address every mDNS instance has resolved a service to, in the order in which the instances resolved it.
+    // The address of a device comes from the first instance, so a device that is seen on multiple network interfaces
+    // doesn't move back and forth between its addresses.
+    private final Map<String, Map<JmDNS, Address>> resolvedAddresses = new HashMap<>();
+
+    private record Address(String hostAddress, int port) {
+        boolean isAddressOf(final Device device) {
+            return hostAddress.equals(device.getHostAddress()) && port == device.getPort();
+        }
+    }
 
     HomeWizardServiceListener(final HomeWizardDiscoverer discoverer) {
         this.discoverer = discoverer;
@@ -31,6 +43,28 @@ class HomeWizardServiceListener implements ServiceListener {
     @Override
     public void serviceRemoved(final ServiceEvent serviceEvent) {
         LOGGER.trace("Service removed: {}", serviceEvent.getInfo());
+
+        final String serviceName = serviceEvent.getInfo().getQualifiedName();
+        synchronized (resolvedAddresses) {
+            final Map<JmDNS, Address> addresses = resolvedAddresses.get(serviceName);
+            if (addresses != null) {
+                final boolean first = addresses.keySet().iterator().next() == serviceEvent.getDNS();
+                addresses.remove(serviceEvent.getDNS());
+                if (!addresses.isEmpty()) {
+                    // The device is still seen on another network interface
+                    if (first) {
+                        final Address address = addresses.values().iterator().next();
+                        discoverer.registry.getByServiceName(serviceName)
+                                .filter(device -> !address.isAddressOf(device))
+                                .ifPresent(device -> discoverer.changeDiscoveredAddress(device,
+                                        address.hostAddress(), address.port()));
+                    }
+                    return;
+                }
+                resolvedAddresses.remove(serviceName);
+            }
+            discoverer.removeDiscoveredDevice(serviceName);
+        }
     }
 
     @Override
@@ -41,98 +75,41 @@ class HomeWizardServiceListener implements ServiceListener {
         final String productType = serviceInfo.getPropertyString("product_type");
         LOGGER.debug("Discovered device, product type: {}", productType);
 
-        if (isSerialRegistered(serviceInfo.getPropertyString("serial"))) {
-            return;
-        }
-
-        if (WaterMeter.PRODUCT_TYPES.contains(productType)) {
-            addWaterMeter(serviceInfo);
-        } else if (P1Meter.PRODUCT_TYPES.contains(productType)) {
-            addP1Meter(serviceInfo);
-        } else if (EnergySocket.PRODUCT_TYPES.contains(productType)) {
-            addEnergySocket(serviceInfo);
-        } else if (KWhMeter.PRODUCT_TYPES.contains(productType)) {
-            addKWhMeter(serviceInfo);
-        }
-
-        // Notify the discoverer that a new device has been added
-        synchronized (discoverer.deviceAddedNotifier) {
-            discoverer.deviceAddedNotifier.notifyAll();
-        }
-    }
-
-    /**
-     * Check if device is already registered in the discoverer. This is necessary because otherwise a discoverer
-     * can scan the same device twice if it was merged.
-     *
-     * @param serial serial to check
-     * @return whether the serial is registered in the discoverer
-     */
-    private boolean isSerialRegistered(final String serial) {
-        LOGGER.trace("Checking if serial is already registered...");
-
-        final List<Device> devices = discoverer.getAllDevices();
-        for (final Device device : devices) {
-            if (device.getSerial().isPresent()) {
-                // is serial the same as serial to check?
-                if (device.getSerial().get().equals(serial)) {
-                    LOGGER.trace("Serial was already registered");
-                    return true;
+        final Address address = new Address(serviceInfo.getHostAddresses()[0], serviceInfo.getPort());
+        synchronized (resolvedAddresses) {
+            final Map<JmDNS, Address> addresses =
+                    resolvedAddresses.computeIfAbsent(serviceInfo.getQualifiedName(), serviceName -> new LinkedHashMap<>());
+            addresses.put(serviceEvent.getDNS(), address);
+
+            // Resolve events repeat for every device, so this check has to be cheap
+            final Optional<Device> registeredDevice = discoverer.registry.getBySerial(serviceInfo.getPropertyString("serial"));
+            if (registeredDevice.isPresent()) {
+                LOGGER.trace("Serial was already registered");
+                final Device device = registeredDevice.get();
+                if (addresses.keySet().iterator().next() != serviceEvent.getDNS()) {
+                    LOGGER.trace("Device with serial {} is also seen on another network interface", device.getSerial());
+                } else if (!address.isAddressOf(device)) {
+                    LOGGER.debug("Device with serial {} moved to {}:{}", device.getSerial(), address.hostAddress(), address.port());
+                    discoverer.changeDiscoveredAddress(device, address.hostAddress(), address.port());
                 }
+                return;
             }
         }
-        LOGGER.trace("Serial is not registered");
-        return false;
-    }
 
-    private Object createDevice(final Class<?> clazz, final ServiceInfo serviceInfo) {
-        LOGGER.trace("Creating device, class name: '{}', service info: '{}'", clazz.getName(), serviceInfo);
-        try {
-            return clazz.getDeclaredConstructor(
-                    Optional.class,
-                    boolean.class,
-                    String.class,
-                    int.class,
-                    String.class,
-                    Optional.class,
-                    Optional.class,
-                    Optional.class
-            ).newInstance(
-                    Optional.of(serviceInfo.getQualifiedName()),
-                    Objects.equals(serviceInfo.getPropertyString("api_enabled"), "1"),
-                    serviceInfo.getHostAddresses()[0], // HomeWizard stuff should only have 1 host address
-                    serviceInfo.getPort(),
-                    serviceInfo.getPropertyString("path"),
-                    Optional.of(serviceInfo.getPropertyString("product_type")),
-                    Optional.of(serviceInfo.getPropertyString("product_name")),
-                    Optional.of(serviceInfo.getPropertyString("serial"))
-            );
-        } catch (final InstantiationException |
-                       IllegalAccessException |
-                       InvocationTargetException |
-                       NoSuchMethodException exception) {
-            LOGGER.error("Fatal error while creating device, please report this to the library developer(s)", exception);
-            throw new RuntimeException(exception);
+        final Optional<DeviceFactory> factory = DeviceFactoryRegistry.get(productType);
+        if (factory.isEmpty()) {
+            LOGGER.trace("No factory for product type {}", productType);
+            return;
         }
-    }
-
-    private void addWaterMeter(final ServiceInfo serviceInfo) {
-        LOGGER.trace("Adding WaterMeter...");
-        discoverer.waterMeters.add((WaterMeter) createDevice(WaterMeter.class, serviceInfo));
-    }
-
-    private void addP1Meter(final ServiceInfo serviceInfo) {
-        LOGGER.trace("Adding P1Meter...");
-        discoverer.p1Meters.add((P1Meter) createDevice(P1Meter.class, serviceInfo));
-    }
-
-    private void addEnergySocket(final ServiceInfo serviceInfo) {
-        LOGGER.trace("Adding EnergySocket...");
-        discoverer.energySockets.add((EnergySocket) createDevice(EnergySocket.class, serviceInfo));
-    }
-
-    private void addKWhMeter(final ServiceInfo serviceInfo) {
-        LOGGER.trace("Adding KWhMeter...");
-        discoverer.kWhMeters.add((KWhMeter) createDevice(KWhMeter.class, serviceInfo));
+        DeviceFactoryRegistry.create(factory.get(), new DeviceDescriptor(
+                Optional.of(serviceInfo.getQualifiedName()),
+                Objects.equals(serviceInfo.getPropertyString("api_enabled"), "1"),
+                address.hostAddress(), // HomeWizard stuff should only have 1 host address
+                address.port(),
+                serviceInfo.getPropertyString("path"),
+                productType,
+                Optional.ofNullable(serviceInfo.getPropertyString("product_name")),
+                Optional.ofNullable(serviceInfo.getPropertyString("serial")),
+                discoverer.transport)).ifPresent(discoverer::addDiscoveredDevice);
     }
 }
@@ -0,0 +1,140 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests with a {@link HttpClient}. The body of a response is kept as the buffers the client delivered,
+ * so it can be parsed without copying it.
+ * <p>
+ * Make sure the client uses {@link HttpClient.Version#HTTP_1_1}, otherwise requests won't work.
+ * <p>
+ * The client doesn't tell whether a connection was reused. A request that fails because the connection was closed
+ * before the response arrived therefore always fails with a {@link StaleConnectionException}.
+ *
+ * @author Thijzert123
+ * @see DeviceTransport
+ * @since 2.1.0
+ */
+public final class HttpClientTransport implements DeviceTransport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final Supplier<HttpClient> httpClient;
+
+    /**
+     * Creates a transport with its own {@link HttpClient}, which has a connect timeout of
+     * {@link HttpUtils#DEFAULT_CONNECT_TIMEOUT}.
+     */
+    public HttpClientTransport() {
+        this(HttpUtils.createDefaultHttpClient());
+    }
+
+    /**
+     * Creates a transport that sends requests with the provided client.
+     *
+     * @param httpClient the client to use, which should use {@link HttpClient.Version#HTTP_1_1}
+     */
+    public HttpClientTransport(final HttpClient httpClient) {
+        if (httpClient.version() != HttpClient.Version.HTTP_1_1) {
+            LOGGER.warn("HTTP client uses version {} instead of HTTP_1_1, requests might not work", httpClient.version());
+        }
+        this.httpClient = () -> httpClient;
+    }
+
+    /**
+     * Creates a transport that sends every request with the client the supplier returns at that moment.
+     *
+     * @param httpClient supplies the client to use
+     */
+    HttpClientTransport(final Supplier<HttpClient> httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public CompletableFuture<Response> send(final Request request) {
+        final HttpRequest httpRequest = HttpRequest.newBuilder()
+                .method(request.method(), request.body().length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()))
+                .uri(request.uri())
+                .timeout(request.timeout())
+                .build();
+
+        final CompletableFuture<HttpResponse<List<ByteBuffer>>> responseFuture =
+                httpClient.get().sendAsync(httpRequest, responseInfo -> new BuffersSubscriber());
+        return HttpUtils.cancelling(responseFuture.handle((response, throwable) -> {
+            if (throwable != null) {
+                throw new CompletionException(toStaleConnectionException(throwable));
+            }
+            return new Response(response.statusCode(), response.body());
+        }), responseFuture);
+    }
+
+    /**
+     * Converts the error of a connection that was closed before the response arrived to a
+     * {@link StaleConnectionException}. Other errors, like timeouts and refused connections, are returned as is.
+     *
+     * @param throwable the error of the request
+     * @return the converted error
+     */
+    private static Throwable toStaleConnectionException(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        final boolean closed = throwable instanceof EOFException
+                || (throwable instanceof SocketException && !(throwable instanceof ConnectException))
+                || (throwable instanceof IOException && throwable.getMessage() != null
+                && throwable.getMessage().contains("received no bytes"));
+        return closed ? new StaleConnectionException("Connection closed before the response", throwable) : throwable;
+    }
+
+    /**
+     * Collects the body into a list of buffers, without copying them.
+     */
+    private static final class BuffersSubscriber implements HttpResponse.BodySubscriber<List<ByteBuffer>> {
+        private final CompletableFuture<List<ByteBuffer>> body = new CompletableFuture<>();
+        private final List<ByteBuffer> buffers = new ArrayList<>();
+
+        @Override
+        public CompletionStage<List<ByteBuffer>> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(final List<ByteBuffer> item) {
+            buffers.addAll(item);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(buffers);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Parses an HTTP/1.1 response that arrives in pieces, for {@link NioTransport}. It supports bodies with
+ * a {@code Content-Length}, chunked bodies and bodies that end when the connection is closed.
+ * A parser is used for one response only.
+ *
+ * @author Thijzert123
+ */
+final class HttpResponseParser {
+    private static final int MAX_HEADER_LENGTH = 16 * 1024;
+    // Applies to every line, also the chunk sizes, which aren't part of the headers
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+    // The responses of a device are small JSON documents, so a larger body means the response is broken
+    private static final int MAX_BODY_LENGTH = 16 * 1024 * 1024;
+
+    private enum State {
+        HEADERS,
+        FIXED_BODY,
+        CHUNK_SIZE,
+        CHUNK_DATA,
+        CHUNK_DATA_END,
+        TRAILERS,
+        BODY_UNTIL_CLOSE,
+        DONE
+    }
+
+    private State state = State.HEADERS;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int headerLength;
+
+    private int statusCode;
+    private boolean keepAlive = true;
+    private long contentLength = -1;
+    private boolean chunked;
+    private byte[] body = new byte[0];
+    private int bodyLength;
+    private long remaining;
+
+    /**
+     * Reads the bytes of the buffer that belong to this response.
+     *
+     * @param buffer the bytes that were received
+     * @return {@code true} if the response is complete
+     * @throws IOException when the response isn't valid HTTP/1.1
+     */
+    boolean feed(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && state != State.DONE) {
+            switch (state) {
+                case HEADERS, CHUNK_SIZE, CHUNK_DATA_END, TRAILERS -> {
+                    if (readLine(buffer)) {
+                        onLine(new String(line, 0, lineLength, StandardCharsets.ISO_8859_1));
+                        lineLength = 0;
+                    }
+                }
+                case FIXED_BODY, CHUNK_DATA -> {
+                    final int count = (int) Math.min(remaining, buffer.remaining());
+                    appendBody(buffer, count);
+                    remaining -= count;
+                    if (remaining == 0) {
+                        state = state == State.FIXED_BODY ? State.DONE : State.CHUNK_DATA_END;
+                    }
+                }
+                case BODY_UNTIL_CLOSE -> appendBody(buffer, buffer.remaining());
+                default -> throw new IllegalStateException("Unexpected state " + state);
+            }
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * Tells the parser that the connection has been closed.
+     *
+     * @return {@code true} if the response is complete, because its body ends when the connection is closed
+     */
+    boolean onEndOfStream() {
+        if (state == State.BODY_UNTIL_CLOSE) {
+            state = State.DONE;
+            keepAlive = false;
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * Returns whether no bytes of the response have been received yet.
+     *
+     * @return {@code true} if nothing has been received
+     */
+    boolean isEmpty() {
+        return state == State.HEADERS && headerLength == 0 && lineLength == 0;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns whether the connection can be used for the next request after this response.
+     *
+     * @return {@code true} if the connection stays open
+     */
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    ByteBuffer getBody() {
+        return ByteBuffer.wrap(body, 0, bodyLength);
+    }
+
+    private boolean readLine(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            final byte next = buffer.get();
+            // The trailers are headers as well, so they count towards the same maximum
+            if ((state == State.HEADERS || state == State.TRAILERS) && ++headerLength > MAX_HEADER_LENGTH) {
+                throw new IOException("Response headers are longer than " + MAX_HEADER_LENGTH + " bytes");
+            }
+            if (next == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == MAX_LINE_LENGTH) {
+                throw new IOException("Response contains a line that is longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = next;
+        }
+        return false;
+    }
+
+    private void onLine(final String text) throws IOException {
+        switch (state) {
+            case HEADERS -> {
+                if (statusCode == 0) {
+                    parseStatusLine(text);
+                } else if (text.isEmpty()) {
+                    onHeadersDone();
+                } else {
+                    parseHeader(text);
+                }
+            }
+            case CHUNK_SIZE -> {
+                final int extension = text.indexOf(';');
+                final String size = (extension < 0 ? text : text.substring(0, extension)).trim();
+                try {
+                    remaining = Long.parseLong(size, 16);
+                } catch (final NumberFormatException numberFormatException) {
+                    throw new IOException("Invalid chunk size '" + size + "'", numberFormatException);
+                }
+                if (remaining < 0) {
+                    throw new IOException("Invalid chunk size '" + size + "'");
+                }
+                if (remaining == 0) {
+                    state = State.TRAILERS;
+                } else {
+                    ensureBodyCapacity(remaining);
+                    state = State.CHUNK_DATA;
+                }
+            }
+            case CHUNK_DATA_END -> {
+                if (!text.isEmpty()) {
+                    throw new IOException("Chunk is longer than its size");
+                }
+                state = State.CHUNK_SIZE;
+            }
+            case TRAILERS -> {
+                if (text.isEmpty()) {
+                    state = State.DONE;
+                }
+            }
+            default -> throw new IllegalStateException("Unexpected state " + state);
+        }
+    }
+
+    private void parseStatusLine(final String text) throws IOException {
+        // For example: HTTP/1.1 200 OK
+        final String[] parts = text.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Invalid status line '" + text + "'");
+        }
+        try {
+            statusCode = Integer.parseInt(parts[1]);
+        } catch (final NumberFormatException numberFormatException) {
+            throw new IOException("Invalid status line '" + text + "'", numberFormatException);
+        }
+        if (parts[0].equals("HTTP/1.0")) {
+            keepAlive = false;
+        }
+    }
+
+    private void parseHeader(final String text) throws IOException {
+        final int colon = text.indexOf(':');
+        if (colon <= 0) {
+            throw new IOException("Invalid header '" + text + "'");
+        }
+        final String name = text.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        final String value = text.substring(colon + 1).trim();
+        switch (name) {
+            case "content-length" -> {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (final NumberFormatException numberFormatException) {
+                    throw new IOException("Invalid Content-Length '" + value + "'", numberFormatException);
+                }
+                if (contentLength < 0) {
+                    throw new IOException("Invalid Content-Length '" + value + "'");
+                }
+            }
+            case "transfer-encoding" -> chunked = value.toLowerCase(Locale.ROOT).endsWith("chunked");
+            case "connection" -> {
+                final String connection = value.toLowerCase(Locale.ROOT);
+                if (connection.contains("close")) {
+                    keepAlive = false;
+                } else if (connection.contains("keep-alive")) {
+                    keepAlive = true;
+                }
+            }
+            default -> {
+                // other headers aren't needed
+            }
+        }
+    }
+
+    private void onHeadersDone() throws IOException {
+        if (statusCode >= 100 && statusCode < 200) {
+            // Informational response, the real response follows
+            statusCode = 0;
+            contentLength = -1;
+            chunked = false;
+            return;
+        }
+        if (statusCode == 204 || statusCode == 304) {
+            state = State.DONE;
+        } else if (chunked) { // takes precedence over Content-Length
+            state = State.CHUNK_SIZE;
+        } else if (contentLength >= 0) {
+            remaining = contentLength;
+            ensureBodyCapacity(remaining);
+            state = remaining == 0 ? State.DONE : State.FIXED_BODY;
+        } else {
+            keepAlive = false;
+            state = State.BODY_UNTIL_CLOSE;
+        }
+    }
+
+    private void ensureBodyCapacity(final long extra) throws IOException {
+        final long needed = bodyLength + extra;
+        if (needed > MAX_BODY_LENGTH) {
+            throw new IOException("Response body is larger than " + MAX_BODY_LENGTH + " bytes");
+        }
+        if (needed > body.length) {
+            body = Arrays.copyOf(body, (int) Math.max(needed, body.length * 2L));
+        }
+    }
+
+    private void appendBody(final ByteBuffer buffer, final int count) throws IOException {
+        ensureBodyCapacity(count);
+        buffer.get(body, bodyLength, count);
+        bodyLength += count;
+    }
+}
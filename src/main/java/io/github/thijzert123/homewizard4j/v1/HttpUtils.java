@@ -1,7 +1,5 @@
 package io.github.thijzert123.homewizard4j.v1;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,8 +7,20 @@ import java.io.IOException;
 import java.lang.invoke.MethodHandles;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Utility class for internal HTTP traffic. You should not have to use this, except for changing the {@link HttpClient}.
@@ -18,9 +28,18 @@ import java.net.http.HttpResponse;
  * @author Thijzert123
  */
 public class HttpUtils {
+    /**
+     * The connect timeout of the default {@link HttpClient}. Requests also have their own timeout,
+     * see {@link Device#getTimeouts()}.
+     *
+     * @since 2.1.0
+     */
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
-    private static HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    static final byte[] NO_BODY = new byte[0];
+    private static volatile HttpClient httpClient = createDefaultHttpClient();
+    private static final DeviceTransport SHARED_TRANSPORT = new HttpClientTransport(() -> httpClient);
 
     private HttpUtils() {
     }
@@ -31,6 +50,10 @@ public class HttpUtils {
      * When calling this method, it checks if you have set the correct {@link HttpClient.Version}.
      * If you have, it returns <code>true</code>, otherwise it returns <code>false.</code>.
      * You are allowed to set the client in both cases.
+     * <p>
+     * The client is used by {@link #getSharedTransport()}, so it applies to all devices that were created
+     * without their own {@link DeviceTransport}. To give a group of devices its own client,
+     * create them with a {@link HttpClientTransport} instead.
      *
      * @param httpClient the new HTTP client
      * @return whether the HTTP version is correct for this API
@@ -42,54 +65,417 @@ public class HttpUtils {
     }
 
     /**
-     * Makes an HTTP request and returns the body. If you input the fullAddress without <code>http://</code>,
+     * Returns the transport of all devices that were created without their own {@link DeviceTransport}.
+     * It sends requests with the {@link HttpClient} of {@link #setHttpClient(HttpClient)}.
+     *
+     * @return the shared transport
+     * @since 2.1.0
+     */
+    public static DeviceTransport getSharedTransport() {
+        return SHARED_TRANSPORT;
+    }
+
+    static HttpClient createDefaultHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+                .build();
+    }
+
+    /**
+     * Makes a request to a device and returns the body. If you input the fullAddress without <code>http://</code>,
      * it appends that at the front of the address.
      *
-     * @param method        request method
-     * @param fullAddress   full address, can be without <code>http://</code>
-     * @param bodyPublisher body publisher if necessary for the request method
+     * @param device      the device to make the request to, which provides the transport and health
+     * @param method      request method
+     * @param fullAddress full address, can be without <code>http://</code>
+     * @param timeout     timeout of the request, including connecting to the device
      * @return body of the request
      * @throws HomeWizardApiException when something goes wrong
      */
-    static String getBody(final String method, String fullAddress, final HttpRequest.BodyPublisher bodyPublisher)
-            throws HomeWizardApiException {
+    static String getBody(final Device device,
+                          final String method,
+                          final String fullAddress,
+                          final Duration timeout) throws HomeWizardApiException {
+        return await(getBodyAsync(device, method, fullAddress, timeout));
+    }
+
+    /**
+     * Makes an asynchronous request to a device and returns a future of the body as {@link String}.
+     * If you input the fullAddress without <code>http://</code>, it appends that at the front of the address.
+     * <p>
+     * The returned future completes exceptionally with a {@link HomeWizardApiException} when something goes wrong.
+     * Cancelling the returned future aborts the underlying request.
+     *
+     * @param device      the device to make the request to, which provides the transport and health
+     * @param method      request method
+     * @param fullAddress full address, can be without <code>http://</code>
+     * @param timeout     timeout of the request, including connecting to the device
+     * @return future of the body of the request
+     */
+    static CompletableFuture<String> getBodyAsync(final Device device,
+                                                  final String method,
+                                                  final String fullAddress,
+                                                  final Duration timeout) {
+        final CompletableFuture<ResponseBody> responseFuture = requestAsync(device, method, fullAddress, timeout);
+        return cancelling(responseFuture.thenApply(ResponseBody::asString), responseFuture);
+    }
+
+    /**
+     * Makes an asynchronous request to a device and returns a future of the raw body.
+     * If you input the fullAddress without <code>http://</code>, it appends that at the front of the address.
+     * <p>
+     * The returned future completes exceptionally with a {@link HomeWizardApiException} when something goes wrong.
+     * Cancelling the returned future aborts the underlying request.
+     * <p>
+     * When the request is idempotent and fails with a {@link StaleConnectionException}, it is sent once more
+     * within the time that is left of the timeout.
+     *
+     * @param device      the device to make the request to, which provides the transport and health
+     * @param method      request method
+     * @param fullAddress full address, can be without <code>http://</code>
+     * @param body        body of the request, empty if the request has none
+     * @param timeout     timeout of the request, including connecting to the device
+     * @param idempotent  whether sending the request twice has the same effect as sending it once
+     * @return future of the body of the request
+     */
+    static CompletableFuture<ResponseBody> requestAsync(final Device device,
+                                                        final String method,
+                                                        String fullAddress,
+                                                        final byte[] body,
+                                                        final Duration timeout,
+                                                        final boolean idempotent) {
         if (!fullAddress.startsWith("http://")) {
             fullAddress = "http://" + fullAddress;
         }
+        final String address = fullAddress;
 
         LOGGER.trace("Request body, method: '{}', fullAddress: '{}'", method, fullAddress);
-        final HttpRequest httpRequest = HttpRequest.newBuilder()
-                .method(method, bodyPublisher)
-                .uri(URI.create(fullAddress))
-                .build();
+        final DeviceTransport.Request request =
+                new DeviceTransport.Request(method, URI.create(fullAddress), body, timeout);
+
+        final DeviceHealth health = device.getHealth();
+        if (!health.tryAcquire()) {
+            return CompletableFuture.failedFuture(new DeviceUnavailableException(fullAddress, health.getRetryIn(), LOGGER));
+        }
+
+        LOGGER.trace("Sending request with timeout of {} ms", timeout.toMillis());
+        final long startNanos = System.nanoTime();
+        final CompletableFuture<DeviceTransport.Response> responseFuture = idempotent
+                ? sendWithRetry(device, request, startNanos)
+                : send(device, request);
+        // The outcome is recorded on the source future, so a cancelled request also reaches the health
+        final CompletableFuture<DeviceTransport.Response> recordedFuture = responseFuture.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                health.onFailure(address, throwable);
+            } else {
+                // The device responded, even if the response is an error
+                health.onSuccess(System.nanoTime() - startNanos);
+            }
+        });
+        return cancelling(recordedFuture.handle((response, throwable) -> {
+            if (throwable != null) {
+                throw new CompletionException(toApiException(throwable));
+            }
+            final ResponseBody responseBody = ResponseBody.of(response.body());
+            try {
+                checkErrors(response.statusCode(), responseBody);
+            } catch (final HomeWizardApiException homeWizardApiException) {
+                throw new CompletionException(homeWizardApiException);
+            }
+
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Body retrieved: '{}'", responseBody.asString());
+            }
+            return responseBody;
+        }), responseFuture);
+    }
+
+    /**
+     * Makes an asynchronous request to a device, which is idempotent if it is a GET request.
+     *
+     * @see #requestAsync(Device, String, String, byte[], Duration, boolean)
+     */
+    static CompletableFuture<ResponseBody> requestAsync(final Device device,
+                                                        final String method,
+                                                        final String fullAddress,
+                                                        final byte[] body,
+                                                        final Duration timeout) {
+        return requestAsync(device, method, fullAddress, body, timeout, method.equals("GET"));
+    }
+
+    static CompletableFuture<ResponseBody> requestAsync(final Device device,
+                                                        final String method,
+                                                        final String fullAddress,
+                                                        final Duration timeout) {
+        return requestAsync(device, method, fullAddress, NO_BODY, timeout);
+    }
+
+    private static CompletableFuture<DeviceTransport.Response> send(final Device device,
+                                                                    final DeviceTransport.Request request) {
+        try {
+            return device.getTransport().send(request);
+        } catch (final RuntimeException runtimeException) {
+            return CompletableFuture.failedFuture(runtimeException);
+        }
+    }
+
+    /**
+     * Sends the request, and sends it once more if it failed with a {@link StaleConnectionException}.
+     * The second attempt gets the time that is left of the timeout of the request.
+     * Cancelling the returned future cancels the attempt that is running.
+     *
+     * @param device     the device to make the request to
+     * @param request    the request
+     * @param startNanos when the request started
+     * @return future of the response of the last attempt
+     */
+    private static CompletableFuture<DeviceTransport.Response> sendWithRetry(final Device device,
+                                                                             final DeviceTransport.Request request,
+                                                                             final long startNanos) {
+        final CompletableFuture<DeviceTransport.Response> result = new CompletableFuture<>();
+        final CompletableFuture<DeviceTransport.Response> firstAttempt = send(device, request);
+        final AtomicReference<CompletableFuture<DeviceTransport.Response>> currentAttempt =
+                new AtomicReference<>(firstAttempt);
+        result.whenComplete((ignored, throwable) -> {
+            if (result.isCancelled()) {
+                currentAttempt.get().cancel(true);
+            }
+        });
+
+        firstAttempt.whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                result.complete(response);
+                return;
+            }
+            final Duration timeLeft = request.timeout().minusNanos(System.nanoTime() - startNanos);
+            if (result.isDone() || !isStaleConnection(throwable) || timeLeft.isNegative() || timeLeft.isZero()) {
+                result.completeExceptionally(throwable);
+                return;
+            }
 
+            LOGGER.debug("Connection to '{}' was closed by the device, sending the request once more", request.uri());
+            device.getHealth().onRetry();
+            final CompletableFuture<DeviceTransport.Response> secondAttempt = send(device,
+                    new DeviceTransport.Request(request.method(), request.uri(), request.body(), timeLeft));
+            currentAttempt.set(secondAttempt);
+            if (result.isCancelled()) { // cancelled before the second attempt was registered
+                secondAttempt.cancel(true);
+            }
+            secondAttempt.whenComplete((secondResponse, secondThrowable) -> {
+                if (secondThrowable == null) {
+                    result.complete(secondResponse);
+                } else {
+                    result.completeExceptionally(secondThrowable);
+                }
+            });
+        });
+        return result;
+    }
+
+    private static boolean isStaleConnection(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable instanceof StaleConnectionException;
+    }
+
+    /**
+     * Blocks until the future is done and returns its result.
+     * When the current thread is interrupted while waiting, the future gets cancelled.
+     *
+     * @param future the future to wait for
+     * @param <T>    type of the result
+     * @return the result of the future
+     * @throws HomeWizardApiException when the future completed exceptionally, got cancelled or waiting was interrupted
+     */
+    static <T> T await(final CompletableFuture<T> future) throws HomeWizardApiException {
         try {
-            LOGGER.trace("Sending request");
-            final HttpResponse<String> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            checkErrors(response);
-
-            final String body = response.body();
-            LOGGER.trace("GET body retrieved: '{}'", body);
-            return body;
-        } catch (final IOException | InterruptedException exception) {
-            throw new HomeWizardApiException(exception, LOGGER);
+            return future.get();
+        } catch (final InterruptedException interruptedException) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HomeWizardApiException(interruptedException, LOGGER);
+        } catch (final ExecutionException | CancellationException exception) {
+            throw toApiException(exception);
         }
     }
 
-    static String getBody(final String method, String fullAddress) throws HomeWizardApiException {
-        return getBody(method, fullAddress, HttpRequest.BodyPublishers.noBody());
+    /**
+     * Makes sure that cancelling the dependent future also cancels the source future.
+     *
+     * @param dependent future that depends on the source
+     * @param source    future that does the actual work
+     * @param <T>       type of the result of the dependent future
+     * @return the dependent future
+     */
+    static <T> CompletableFuture<T> cancelling(final CompletableFuture<T> dependent, final CompletableFuture<?> source) {
+        dependent.whenComplete((ignored, throwable) -> {
+            if (dependent.isCancelled()) {
+                LOGGER.trace("Dependent future cancelled, cancelling source future");
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    /**
+     * Runs the provided steps one after another. A step only starts when the previous step has completed normally.
+     * The returned future completes exceptionally with the exception of the first step that failed.
+     * Cancelling the returned future cancels the step that is currently running.
+     * <p>
+     * Every step gets the timeout of its request. Without a deadline, this is the normal request timeout.
+     * With a deadline, every step gets an equal share of the time that is left, see {@link Deadline#share(int, Duration)}.
+     *
+     * @param steps          the steps to run, which take the timeout of their request
+     * @param requestTimeout the normal timeout of a request
+     * @param deadline       the deadline of all steps together, if any
+     * @return future that completes when all steps are done
+     */
+    static CompletableFuture<Void> runSequentially(final List<Function<Duration, CompletableFuture<Void>>> steps,
+                                                   final Supplier<Duration> requestTimeout,
+                                                   final Optional<Deadline> deadline) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<Void>> currentStep = new AtomicReference<>();
+        result.whenComplete((ignored, throwable) -> {
+            final CompletableFuture<Void> step = currentStep.get();
+            if (result.isCancelled() && step != null) {
+                step.cancel(true);
+            }
+        });
+        runNextStep(steps, 0, requestTimeout, deadline, result, currentStep);
+        return result;
+    }
+
+    private static void runNextStep(final List<Function<Duration, CompletableFuture<Void>>> steps,
+                                    final int index,
+                                    final Supplier<Duration> requestTimeout,
+                                    final Optional<Deadline> deadline,
+                                    final CompletableFuture<Void> result,
+                                    final AtomicReference<CompletableFuture<Void>> currentStep) {
+        if (result.isDone()) return;
+        if (index == steps.size()) {
+            result.complete(null);
+            return;
+        }
+
+        final Duration timeout;
+        if (deadline.isPresent()) {
+            final int stepsLeft = steps.size() - index;
+            timeout = deadline.get().share(stepsLeft, requestTimeout.get());
+            if (timeout.isZero()) {
+                result.completeExceptionally(new HomeWizardApiException(
+                        "Deadline has passed with " + stepsLeft + " request(s) left", LOGGER));
+                return;
+            }
+        } else {
+            timeout = requestTimeout.get();
+        }
+
+        final CompletableFuture<Void> step = steps.get(index).apply(timeout);
+        currentStep.set(step);
+        if (result.isCancelled()) { // cancelled before the current step was registered
+            step.cancel(true);
+        }
+        step.whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                runNextStep(steps, index + 1, requestTimeout, deadline, result, currentStep);
+            } else if (!result.isDone()) {
+                result.completeExceptionally(toApiException(throwable));
+            }
+        });
+    }
+
+    /**
+     * Runs the provided steps at the same time. The returned future completes when all steps are done, with the
+     * steps that succeeded and the exceptions of the steps that failed. It only completes exceptionally when it is
+     * cancelled, which cancels all steps.
+     * <p>
+     * Every step gets the timeout of its request. With a deadline, this is the time that is left,
+     * but never more than the normal request timeout.
+     *
+     * @param steps          the steps to run per endpoint, which take the timeout of their request
+     * @param requestTimeout the normal timeout of a request
+     * @param deadline       the deadline of all steps together, if any
+     * @return future of the result of all steps
+     */
+    static CompletableFuture<UpdateResult> runConcurrently(final Map<Endpoint, Function<Duration, CompletableFuture<Void>>> steps,
+                                                           final Supplier<Duration> requestTimeout,
+                                                           final Optional<Deadline> deadline) {
+        final Duration timeout = deadline.isPresent()
+                ? deadline.get().share(1, requestTimeout.get())
+                : requestTimeout.get();
+        if (timeout.isZero()) {
+            // Nothing is sent, so the device isn't blamed for a deadline that has passed
+            final Map<Endpoint, HomeWizardApiException> failures = new EnumMap<>(Endpoint.class);
+            for (final Endpoint endpoint : steps.keySet()) {
+                failures.put(endpoint, new HomeWizardApiException(
+                        "Deadline has passed with " + steps.size() + " request(s) left", LOGGER));
+            }
+            return CompletableFuture.completedFuture(new UpdateResult(EnumSet.noneOf(Endpoint.class), failures));
+        }
+
+        final Map<Endpoint, CompletableFuture<Void>> futures = new EnumMap<>(Endpoint.class);
+        steps.forEach((endpoint, step) -> {
+            CompletableFuture<Void> future;
+            try {
+                future = step.apply(timeout);
+            } catch (final RuntimeException runtimeException) {
+                future = CompletableFuture.failedFuture(runtimeException);
+            }
+            futures.put(endpoint, future);
+        });
+
+        final CompletableFuture<Void> all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+        final CompletableFuture<UpdateResult> result = all.handle((ignored, throwable) -> {
+            final Set<Endpoint> updated = EnumSet.noneOf(Endpoint.class);
+            final Map<Endpoint, HomeWizardApiException> failures = new EnumMap<>(Endpoint.class);
+            futures.forEach((endpoint, future) -> {
+                try {
+                    future.join();
+                    updated.add(endpoint);
+                } catch (final CompletionException | CancellationException exception) {
+                    failures.put(endpoint, toApiException(exception));
+                }
+            });
+            return new UpdateResult(updated, failures);
+        });
+        result.whenComplete((ignored, throwable) -> {
+            if (result.isCancelled()) {
+                futures.values().forEach(future -> future.cancel(true));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Converts a {@link Throwable} from a future to a {@link HomeWizardApiException}.
+     * If the cause already is a {@link HomeWizardApiException}, it is returned as is, so it doesn't get logged twice.
+     *
+     * @param throwable the throwable to convert
+     * @return the converted exception
+     */
+    static HomeWizardApiException toApiException(final Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof HomeWizardApiException homeWizardApiException) {
+            return homeWizardApiException;
+        }
+        return new HomeWizardApiException(cause, LOGGER);
     }
 
     /**
      * <a href="https://api-documentation.homewizard.com/docs/v1/error-handling#error-codes">Official API documentation</a>
      *
-     * @param response the response to check
+     * @param statusCode the status code of the response
+     * @param body       the body of the response
      * @throws HomeWizardErrorResponseException when status code wasn't 200 or 400 and the error has been handled correctly
      * @throws HomeWizardApiException           when something else has gone wrong, or if status code was 400
      */
-    private static void checkErrors(final HttpResponse<String> response)
+    private static void checkErrors(final int statusCode, final ResponseBody body)
             throws HomeWizardApiException, HomeWizardErrorResponseException {
-        final int statusCode = response.statusCode();
         LOGGER.trace("Check errors, status code '{}'", statusCode);
 
         if (statusCode == 200) return; // success code
@@ -97,13 +483,13 @@ public class HttpUtils {
             throw new HomeWizardApiException("Got status code " + statusCode + ", is HttpClient.Version set to HTTP_1_1?", LOGGER);
         }
 
-        final String body = response.body();
+        final ErrorResponse errorResponse;
         try {
             LOGGER.trace("Mapping body to ErrorResponse");
-            final ErrorResponse errorResponse = OBJECT_MAPPER.readValue(body, ErrorResponse.class);
-            throw new HomeWizardErrorResponseException(errorResponse, LOGGER);
-        } catch (final JsonProcessingException jsonProcessingException) {
-            throw new HomeWizardApiException("While checkErrors, status code was: " + statusCode, jsonProcessingException, LOGGER);
+            errorResponse = JsonMappers.readerFor(ErrorResponse.class).readValue(body.asInputStream());
+        } catch (final IOException ioException) {
+            throw new HomeWizardApiException("While checkErrors, status code was: " + statusCode, ioException, LOGGER);
         }
+        throw new HomeWizardErrorResponseException(errorResponse, LOGGER);
     }
 }
@@ -0,0 +1,121 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Answers requests with responses you provide, without a network. The response is chosen by the path of the request,
+ * so one transport can serve many devices with the same API path. Requests to a path without a response
+ * get status code {@code 404}.
+ * <p>
+ * This transport is meant for tests, and for measuring the cost of parsing and scheduling without sockets:
+ *
+ * <pre>
+ * final InMemoryTransport transport = new InMemoryTransport()
+ *         .respond("/api/v1/data", "{\"active_power_w\": 123}");
+ * final P1Meter p1Meter = new P1Meter(true, "localhost", Device.DEFAULT_PORT, Device.DEFAULT_API_PATH, transport);
+ * p1Meter.updateMeasurements();
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see DeviceTransport
+ * @since 2.1.0
+ */
+public class InMemoryTransport implements DeviceTransport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final Response NOT_FOUND = new Response(404, List.of());
+
+    private final Map<String, Function<Request, Response>> handlers = new ConcurrentHashMap<>();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final Executor executor;
+
+    /**
+     * Creates a transport that completes every response immediately, on the thread that sends the request.
+     */
+    public InMemoryTransport() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Creates a transport that completes every response on the provided executor,
+     * like a real transport completes responses on its own threads.
+     *
+     * @param executor the executor to complete responses on
+     */
+    public InMemoryTransport(final Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Answers requests to the path with status code {@code 200} and the provided body.
+     *
+     * @param path the path, like {@code /api/v1/data}
+     * @param body the body of the response
+     * @return this transport
+     */
+    public InMemoryTransport respond(final String path, final String body) {
+        return respond(path, 200, body);
+    }
+
+    /**
+     * Answers requests to the path with the provided status code and body.
+     *
+     * @param path       the path, like {@code /api/v1/data}
+     * @param statusCode the HTTP status code of the response
+     * @param body       the body of the response
+     * @return this transport
+     */
+    public InMemoryTransport respond(final String path, final int statusCode, final String body) {
+        final Response response = Response.of(statusCode, body);
+        return handle(path, request -> response);
+    }
+
+    /**
+     * Answers requests to the path with the response the handler returns. The handler can also throw
+     * an exception, to simulate a device that can't be reached.
+     *
+     * @param path    the path, like {@code /api/v1/data}
+     * @param handler creates the response to a request
+     * @return this transport
+     */
+    public InMemoryTransport handle(final String path, final Function<Request, Response> handler) {
+        handlers.put(path, handler);
+        return this;
+    }
+
+    /**
+     * Returns how many requests this transport has answered.
+     *
+     * @return the amount of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public CompletableFuture<Response> send(final Request request) {
+        requestCount.incrementAndGet();
+        final String path = request.uri().getPath();
+        LOGGER.trace("Answering {} request to '{}'", request.method(), path);
+
+        final Function<Request, Response> handler = handlers.get(path);
+        final CompletableFuture<Response> response = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                response.complete(handler == null ? NOT_FOUND : handler.apply(request));
+            } catch (final RuntimeException runtimeException) {
+                response.completeExceptionally(runtimeException);
+            }
+        });
+        return response;
+    }
+}
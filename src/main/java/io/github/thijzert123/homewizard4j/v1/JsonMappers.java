@@ -0,0 +1,93 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+import java.util.Optional;
+
+/**
+ * Holds the {@link ObjectMapper} that is shared by all instances in this package.
+ * {@link ObjectReader} and {@link ObjectWriter} instances are immutable and thread-safe,
+ * so they are created once per class and reused for every request.
+ *
+ * @author Thijzert123
+ */
+final class JsonMappers {
+    /**
+     * Only (de)serializes annotated fields (@JsonProperty) and supports {@link java.util.Optional}.
+     * Measurement snapshots are read and written by {@link SnapshotCodec}.
+     */
+    static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .disable(MapperFeature.AUTO_DETECT_CREATORS,
+                    MapperFeature.AUTO_DETECT_FIELDS,
+                    MapperFeature.AUTO_DETECT_GETTERS,
+                    MapperFeature.AUTO_DETECT_IS_GETTERS)
+            .addModule(new Jdk8Module())
+            .addModule(SnapshotCodec.module())
+            .build();
+
+    private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+        @Override
+        protected ObjectReader computeValue(final Class<?> type) {
+            return OBJECT_MAPPER.readerFor(type);
+        }
+    };
+
+    private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+        @Override
+        protected ObjectWriter computeValue(final Class<?> type) {
+            return OBJECT_MAPPER.writerFor(type);
+        }
+    };
+
+    private JsonMappers() {
+    }
+
+    /**
+     * Returns the cached reader for the specified type.
+     *
+     * @param type the type to read
+     * @return reader for the type
+     */
+    static ObjectReader readerFor(final Class<?> type) {
+        return READERS.get(type);
+    }
+
+    /**
+     * Returns a reader that updates the provided instance instead of creating a new one.
+     * This reader is based on the cached reader of the class of the instance, so it is cheap to create.
+     *
+     * @param valueToUpdate the instance to update
+     * @return reader that updates the instance
+     */
+    static ObjectReader readerForUpdating(final Object valueToUpdate) {
+        return readerFor(valueToUpdate.getClass()).withValueToUpdate(valueToUpdate);
+    }
+
+    /**
+     * Returns the cached writer for the specified type.
+     *
+     * @param type the type to write
+     * @return writer for the type
+     */
+    static ObjectWriter writerFor(final Class<?> type) {
+        return WRITERS.get(type);
+    }
+
+    /**
+     * Returns the text of a field of the node.
+     *
+     * @param node the node that contains the field
+     * @param name the name of the field
+     * @return the text, or an empty {@link Optional} if the field is missing or null
+     */
+    static Optional<String> optionalText(final JsonNode node, final String name) {
+        final JsonNode value = node.get(name);
+        return value == null || value.isNull() ? Optional.empty() : Optional.of(value.asText());
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.thijzert123.homewizard4j.v1;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
@@ -27,76 +29,19 @@ public class KWhMeter extends Device {
      */
     public static final List<String> PRODUCT_TYPES = List.of("HWE-KWH1", "HWE-KWH3", "SDM230-wifi", "SDM630-wifi");
 
-    @JsonProperty("total_power_import_kwh")
-    private final OptionalDouble totalPowerImportKwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_kwh")
-    private final OptionalDouble totalPowerExportKwh = OptionalDouble.empty();
-    @JsonProperty("active_power_w")
-    private final OptionalDouble activePowerW = OptionalDouble.empty();
-    @JsonProperty("active_power_l1_w")
-    private final OptionalDouble activePowerL1W = OptionalDouble.empty();
-    @JsonProperty("active_power_l2_w")
-    private final OptionalDouble activePowerL2W = OptionalDouble.empty();
-    @JsonProperty("active_power_l3_w")
-    private final OptionalDouble activePowerL3W = OptionalDouble.empty();
-    @JsonProperty("active_voltage_v")
-    private final OptionalDouble activeVoltageV = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l1_v")
-    private final OptionalDouble activeVoltageL1V = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l2_v")
-    private final OptionalDouble activeVoltageL2V = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l3_v")
-    private final OptionalDouble activeVoltageL3V = OptionalDouble.empty();
-    @JsonProperty("active_current_a")
-    private final OptionalDouble activeCurrentA = OptionalDouble.empty();
-    @JsonProperty("active_current_l1_a")
-    private final OptionalDouble activeCurrentL1A = OptionalDouble.empty();
-    @JsonProperty("active_current_l2_a")
-    private final OptionalDouble activeCurrentL2A = OptionalDouble.empty();
-    @JsonProperty("active_current_l3_a")
-    private final OptionalDouble activeCurrentL3A = OptionalDouble.empty();
-    @JsonProperty("active_apparent_current_a")
-    private final OptionalDouble activeApparentCurrentA = OptionalDouble.empty();
-    @JsonProperty("active_apparent_current_l1_a")
-    private final OptionalDouble activeApparentCurrentL1A = OptionalDouble.empty();
-    @JsonProperty("active_apparent_current_l2_a")
-    private final OptionalDouble activeApparentCurrentL2A = OptionalDouble.empty();
-    @JsonProperty("active_apparent_current_l3_a")
-    private final OptionalDouble activeApparentCurrentL3A = OptionalDouble.empty();
-    @JsonProperty("active_reactive_current_a")
-    private final OptionalDouble activeReactiveCurrentA = OptionalDouble.empty();
-    @JsonProperty("active_reactive_current_l1_a")
-    private final OptionalDouble activeReactiveCurrentL1A = OptionalDouble.empty();
-    @JsonProperty("active_reactive_current_l2_a")
-    private final OptionalDouble activeReactiveCurrentL2A = OptionalDouble.empty();
-    @JsonProperty("active_reactive_current_l3_a")
-    private final OptionalDouble activeReactiveCurrentL3A = OptionalDouble.empty();
-    @JsonProperty("active_apparent_power_va")
-    private final OptionalDouble activeApparentPowerVa = OptionalDouble.empty();
-    @JsonProperty("active_apparent_power_l1_va")
-    private final OptionalDouble activeApparentPowerL1Va = OptionalDouble.empty();
-    @JsonProperty("active_apparent_power_l2_va")
-    private final OptionalDouble activeApparentPowerL2Va = OptionalDouble.empty();
-    @JsonProperty("active_apparent_power_l3_va")
-    private final OptionalDouble activeApparentPowerL3Va = OptionalDouble.empty();
-    @JsonProperty("active_reactive_power_var")
-    private final OptionalDouble activeReactivePowerVar = OptionalDouble.empty();
-    @JsonProperty("active_reactive_power_l1_var")
-    private final OptionalDouble activeReactivePowerL1Var = OptionalDouble.empty();
-    @JsonProperty("active_reactive_power_l2_var")
-    private final OptionalDouble activeReactivePowerL2Var = OptionalDouble.empty();
-    @JsonProperty("active_reactive_power_l3_var")
-    private final OptionalDouble activeReactivePowerL3Var = OptionalDouble.empty();
-    @JsonProperty("active_power_factor")
-    private final OptionalDouble activePowerFactor = OptionalDouble.empty();
-    @JsonProperty("active_power_factor_l1")
-    private final OptionalDouble activePowerFactorL1 = OptionalDouble.empty();
-    @JsonProperty("active_power_factor_l2")
-    private final OptionalDouble activePowerFactorL2 = OptionalDouble.empty();
-    @JsonProperty("active_power_factor_l3")
-    private final OptionalDouble activePowerFactorL3 = OptionalDouble.empty();
-    @JsonProperty("active_frequency_hz")
-    private final OptionalDouble activeFrequencyHz = OptionalDouble.empty();
+    /**
+     * Creates the devices of the product types in {@link #PRODUCT_TYPES}.
+     */
+    static final DeviceFactory FACTORY = descriptor -> new KWhMeter(
+            descriptor.serviceName(),
+            descriptor.apiEnabled(),
+            descriptor.hostAddress(),
+            descriptor.port(),
+            descriptor.apiPath(),
+            Optional.of(descriptor.productType()),
+            descriptor.productName(),
+            descriptor.serial(),
+            descriptor.transport());
 
     KWhMeter(final Optional<String> serviceName,
                 final boolean apiEnabled,
@@ -105,7 +50,8 @@ public class KWhMeter extends Device {
                 final String apiPath,
                 final Optional<String> productType,
                 final Optional<String> productName,
-                final Optional<String> serial) {
+                final Optional<String> serial,
+                final DeviceTransport transport) {
         super(
                 serviceName,
                 apiEnabled,
@@ -114,7 +60,9 @@ public class KWhMeter extends Device {
                 apiPath,
                 productType,
                 productName,
-                serial
+                serial,
+                transport,
+                KWhMeterSnapshot.EMPTY
         );
     }
 
@@ -132,7 +80,26 @@ public class KWhMeter extends Device {
                       final String hostAddress,
                       final int port,
                       final String apiPath) {
-        super(
+        this(apiEnabled, hostAddress, port, apiPath, HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Manually create a {@link KWhMeter} that sends its requests with the provided {@link DeviceTransport},
+     * instead of the transport of {@link HttpUtils#getSharedTransport()}.
+     *
+     * @param apiEnabled whether the API is enabled on the device: you have to check this yourself!
+     * @param hostAddress host address, like {@code 192.168.1.123}
+     * @param port port, should be {@code 80}
+     * @param apiPath API path, should be {@code /api/v1}
+     * @param transport transport that sends the requests to the device
+     * @since 2.1.0
+     */
+    public KWhMeter(final boolean apiEnabled,
+                    final String hostAddress,
+                    final int port,
+                    final String apiPath,
+                    final DeviceTransport transport) {
+        this(
                 Optional.empty(),
                 apiEnabled,
                 hostAddress,
@@ -140,7 +107,8 @@ public class KWhMeter extends Device {
                 apiPath,
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty()
+                Optional.empty(),
+                transport
         );
     }
 
@@ -161,6 +129,57 @@ public class KWhMeter extends Device {
         );
     }
 
+    /**
+     * Returns the snapshot of the measurements from the latest call to {@link #updateMeasurements()}.
+     * Getters like {@link #getTotalPowerImportKwh()} read from the snapshot that is current at the moment they are called.
+     * If you need multiple values that belong together, read all of them from the same snapshot.
+     *
+     * @return the current snapshot of the measurements
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    @Override
+    public KWhMeterSnapshot getSnapshot() {
+        return (KWhMeterSnapshot) super.getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @return the current snapshot
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private KWhMeterSnapshot getJsonSnapshot() {
+        return getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @param snapshot the snapshot to publish
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private void setJsonSnapshot(final KWhMeterSnapshot snapshot) {
+        setSnapshotFromJson(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of the measurements, and first updates the measurements if they are older than
+     * {@code maxAge}. For example, {@code getSnapshot(Duration.ofSeconds(1)).getActivePowerW()} reads the value
+     * from a response that is at most 1 second old.
+     *
+     * @param maxAge the maximum age of the returned snapshot, zero to always update, must not be negative
+     * @return a snapshot of the measurements that is not older than {@code maxAge}
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @since 2.1.0
+     */
+    @Override
+    public KWhMeterSnapshot getSnapshot(final Duration maxAge) throws HomeWizardApiException {
+        return (KWhMeterSnapshot) super.getSnapshot(maxAge);
+    }
+
     /**
      * Returns the energy usage meter reading in kWh.
      * <p>
@@ -173,7 +192,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportKwh() {
-        return totalPowerImportKwh;
+        return getSnapshot().getTotalPowerImportKwh();
     }
 
     /**
@@ -188,7 +207,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportKwh() {
-        return totalPowerExportKwh;
+        return getSnapshot().getTotalPowerExportKwh();
     }
 
     /**
@@ -203,7 +222,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerW() {
-        return activePowerW;
+        return getSnapshot().getActivePowerW();
     }
 
     /**
@@ -218,7 +237,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL1W() {
-        return activePowerL1W;
+        return getSnapshot().getActivePowerL1W();
     }
 
     /**
@@ -233,7 +252,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL2W() {
-        return activePowerL2W;
+        return getSnapshot().getActivePowerL2W();
     }
 
     /**
@@ -248,7 +267,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL3W() {
-        return activePowerL3W;
+        return getSnapshot().getActivePowerL3W();
     }
 
     /**
@@ -263,7 +282,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageV() {
-        return activeVoltageV;
+        return getSnapshot().getActiveVoltageV();
     }
 
     /**
@@ -278,7 +297,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL1V() {
-        return activeVoltageL1V;
+        return getSnapshot().getActiveVoltageL1V();
     }
 
     /**
@@ -293,7 +312,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL2V() {
-        return activeVoltageL2V;
+        return getSnapshot().getActiveVoltageL2V();
     }
 
     /**
@@ -308,7 +327,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL3V() {
-        return activeVoltageL3V;
+        return getSnapshot().getActiveVoltageL3V();
     }
 
     /**
@@ -323,7 +342,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentA() {
-        return activeCurrentA;
+        return getSnapshot().getActiveCurrentA();
     }
 
     /**
@@ -338,7 +357,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL1A() {
-        return activeCurrentL1A;
+        return getSnapshot().getActiveCurrentL1A();
     }
 
     /**
@@ -353,7 +372,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL2A() {
-        return activeCurrentL2A;
+        return getSnapshot().getActiveCurrentL2A();
     }
 
     /**
@@ -368,7 +387,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL3A() {
-        return activeCurrentL3A;
+        return getSnapshot().getActiveCurrentL3A();
     }
 
     /**
@@ -383,7 +402,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentCurrentA() {
-        return activeApparentCurrentA;
+        return getSnapshot().getActiveApparentCurrentA();
     }
 
     /**
@@ -398,7 +417,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentCurrentL1A() {
-        return activeApparentCurrentL1A;
+        return getSnapshot().getActiveApparentCurrentL1A();
     }
 
     /**
@@ -413,7 +432,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentCurrentL2A() {
-        return activeApparentCurrentL2A;
+        return getSnapshot().getActiveApparentCurrentL2A();
     }
 
     /**
@@ -428,7 +447,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentCurrentL3A() {
-        return activeApparentCurrentL3A;
+        return getSnapshot().getActiveApparentCurrentL3A();
     }
 
     /**
@@ -443,7 +462,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactiveCurrentA() {
-        return activeReactiveCurrentA;
+        return getSnapshot().getActiveReactiveCurrentA();
     }
 
     /**
@@ -458,7 +477,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactiveCurrentL1A() {
-        return activeReactiveCurrentL1A;
+        return getSnapshot().getActiveReactiveCurrentL1A();
     }
 
     /**
@@ -473,7 +492,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactiveCurrentL2A() {
-        return activeReactiveCurrentL2A;
+        return getSnapshot().getActiveReactiveCurrentL2A();
     }
 
     /**
@@ -488,7 +507,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactiveCurrentL3A() {
-        return activeReactiveCurrentL3A;
+        return getSnapshot().getActiveReactiveCurrentL3A();
     }
 
     /**
@@ -503,7 +522,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentPowerVa() {
-        return activeApparentPowerVa;
+        return getSnapshot().getActiveApparentPowerVa();
     }
 
     /**
@@ -518,7 +537,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentPowerL1Va() {
-        return activeApparentPowerL1Va;
+        return getSnapshot().getActiveApparentPowerL1Va();
     }
 
     /**
@@ -533,7 +552,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentPowerL2Va() {
-        return activeApparentPowerL2Va;
+        return getSnapshot().getActiveApparentPowerL2Va();
     }
 
     /**
@@ -548,7 +567,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveApparentPowerL3Va() {
-        return activeApparentPowerL3Va;
+        return getSnapshot().getActiveApparentPowerL3Va();
     }
 
     /**
@@ -563,7 +582,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactivePowerVar() {
-        return activeReactivePowerVar;
+        return getSnapshot().getActiveReactivePowerVar();
     }
 
     /**
@@ -578,7 +597,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactivePowerL1Var() {
-        return activeReactivePowerL1Var;
+        return getSnapshot().getActiveReactivePowerL1Var();
     }
 
     /**
@@ -593,7 +612,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactivePowerL2Var() {
-        return activeReactivePowerL2Var;
+        return getSnapshot().getActiveReactivePowerL2Var();
     }
 
     /**
@@ -608,7 +627,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveReactivePowerL3Var() {
-        return activeReactivePowerL3Var;
+        return getSnapshot().getActiveReactivePowerL3Var();
     }
 
     /**
@@ -623,7 +642,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerFactor() {
-        return activePowerFactor;
+        return getSnapshot().getActivePowerFactor();
     }
 
     /**
@@ -638,7 +657,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerFactorL1() {
-        return activePowerFactorL1;
+        return getSnapshot().getActivePowerFactorL1();
     }
 
     /**
@@ -653,7 +672,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerFactorL2() {
-        return activePowerFactorL2;
+        return getSnapshot().getActivePowerFactorL2();
     }
 
     /**
@@ -668,7 +687,7 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerFactorL3() {
-        return activePowerFactorL3;
+        return getSnapshot().getActivePowerFactorL3();
     }
 
     /**
@@ -683,6 +702,6 @@ public class KWhMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveFrequencyHz() {
-        return activeFrequencyHz;
+        return getSnapshot().getActiveFrequencyHz();
     }
 }
@@ -0,0 +1,582 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.OptionalDouble;
+
+/**
+ * An immutable snapshot of the measurements of a {@link KWhMeter},
+ * taken by one call to {@link KWhMeter#updateMeasurements()}.
+ * All values in a snapshot come from the same response of the kWh meter.
+ *
+ * @author Thijzert123
+ * @see KWhMeter#getSnapshot()
+ * @since 2.1.0
+ */
+public final class KWhMeterSnapshot extends MeasurementSnapshot {
+    static final SnapshotLayout<KWhMeterSnapshot> LAYOUT = new SnapshotLayout<>(
+            KWhMeterSnapshot::new,
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_KWH),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L1_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L2_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L3_W),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_V),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L1_V),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L2_V),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L3_V),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_A),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L1_A),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L2_A),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L3_A),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_CURRENT_A),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_CURRENT_L1_A),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_CURRENT_L2_A),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_CURRENT_L3_A),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_CURRENT_A),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_CURRENT_L1_A),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_CURRENT_L2_A),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_CURRENT_L3_A),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_POWER_VA),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_POWER_L1_VA),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_POWER_L2_VA),
+            SnapshotLayout.metric(Metric.ACTIVE_APPARENT_POWER_L3_VA),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_POWER_VAR),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_POWER_L1_VAR),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_POWER_L2_VAR),
+            SnapshotLayout.metric(Metric.ACTIVE_REACTIVE_POWER_L3_VAR),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_FACTOR),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_FACTOR_L1),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_FACTOR_L2),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_FACTOR_L3),
+            SnapshotLayout.metric(Metric.ACTIVE_FREQUENCY_HZ));
+    static final KWhMeterSnapshot EMPTY = LAYOUT.createEmpty();
+
+    private KWhMeterSnapshot(final double[] values, final long presence, final Object[] others) {
+        super(LAYOUT, values, presence, others);
+    }
+
+    /**
+     * Returns the energy usage meter reading in kWh.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading in kWh
+     * @see KWhMeter#getTotalPowerImportKwh()
+     */
+    public OptionalDouble getTotalPowerImportKwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading in kWh.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading in kWh
+     * @see KWhMeter#getTotalPowerExportKwh()
+     */
+    public OptionalDouble getTotalPowerExportKwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_KWH);
+    }
+
+    /**
+     * Returns the total active usage in watt.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return total active usage in watt
+     * @see KWhMeter#getActivePowerW()
+     */
+    public OptionalDouble getActivePowerW() {
+        return optional(Metric.ACTIVE_POWER_W);
+    }
+
+    /**
+     * Returns the active usage for phase 1 in watt, same as {@code active_power_w} for the 1-phase variant.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 1 in watt
+     * @see KWhMeter#getActivePowerL1W()
+     */
+    public OptionalDouble getActivePowerL1W() {
+        return optional(Metric.ACTIVE_POWER_L1_W);
+    }
+
+    /**
+     * Returns the active usage for phase 2 in watt.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 2 in watt
+     * @see KWhMeter#getActivePowerL2W()
+     */
+    public OptionalDouble getActivePowerL2W() {
+        return optional(Metric.ACTIVE_POWER_L2_W);
+    }
+
+    /**
+     * Returns the active usage for phase 3 in watt.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 3 in watt
+     * @see KWhMeter#getActivePowerL3W()
+     */
+    public OptionalDouble getActivePowerL3W() {
+        return optional(Metric.ACTIVE_POWER_L3_W);
+    }
+
+    /**
+     * Returns the active voltage in volts.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 1-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active voltage in volts
+     * @see KWhMeter#getActiveVoltageV()
+     */
+    public OptionalDouble getActiveVoltageV() {
+        return optional(Metric.ACTIVE_VOLTAGE_V);
+    }
+
+    /**
+     * Returns the active voltage for phase 1 in volts.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 1 in volts
+     * @see KWhMeter#getActiveVoltageL1V()
+     */
+    public OptionalDouble getActiveVoltageL1V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L1_V);
+    }
+
+    /**
+     * Returns the active voltage for phase 2 in volts.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 2 in volts
+     * @see KWhMeter#getActiveVoltageL2V()
+     */
+    public OptionalDouble getActiveVoltageL2V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L2_V);
+    }
+
+    /**
+     * Returns the active voltage for phase 3 in volts.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 3 in volts
+     * @see KWhMeter#getActiveVoltageL3V()
+     */
+    public OptionalDouble getActiveVoltageL3V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L3_V);
+    }
+
+    /**
+     * Returns the active current in amperes, the sum of all phases for the 3-phase variant.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active current in amperes
+     * @see KWhMeter#getActiveCurrentA()
+     */
+    public OptionalDouble getActiveCurrentA() {
+        return optional(Metric.ACTIVE_CURRENT_A);
+    }
+
+    /**
+     * Returns the active current for phase 1 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 1 in amperes
+     * @see KWhMeter#getActiveCurrentL1A()
+     */
+    public OptionalDouble getActiveCurrentL1A() {
+        return optional(Metric.ACTIVE_CURRENT_L1_A);
+    }
+
+    /**
+     * Returns the active current for phase 2 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 2 in amperes
+     * @see KWhMeter#getActiveCurrentL2A()
+     */
+    public OptionalDouble getActiveCurrentL2A() {
+        return optional(Metric.ACTIVE_CURRENT_L2_A);
+    }
+
+    /**
+     * Returns the active current for phase 3 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 3 in amperes
+     * @see KWhMeter#getActiveCurrentL3A()
+     */
+    public OptionalDouble getActiveCurrentL3A() {
+        return optional(Metric.ACTIVE_CURRENT_L3_A);
+    }
+
+    /**
+     * Returns the apparent current in amperes, the sum of all phases for the 3-phase variant.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent current in amperes
+     * @see KWhMeter#getActiveApparentCurrentA()
+     */
+    public OptionalDouble getActiveApparentCurrentA() {
+        return optional(Metric.ACTIVE_APPARENT_CURRENT_A);
+    }
+
+    /**
+     * Returns the apparent current for phase 1 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent current for phase 1 in amperes
+     * @see KWhMeter#getActiveApparentCurrentL1A()
+     */
+    public OptionalDouble getActiveApparentCurrentL1A() {
+        return optional(Metric.ACTIVE_APPARENT_CURRENT_L1_A);
+    }
+
+    /**
+     * Returns the apparent current for phase 2 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent current for phase 2 in amperes
+     * @see KWhMeter#getActiveApparentCurrentL2A()
+     */
+    public OptionalDouble getActiveApparentCurrentL2A() {
+        return optional(Metric.ACTIVE_APPARENT_CURRENT_L2_A);
+    }
+
+    /**
+     * Returns the apparent current for phase 3 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent current for phase 3 in amperes
+     * @see KWhMeter#getActiveApparentCurrentL3A()
+     */
+    public OptionalDouble getActiveApparentCurrentL3A() {
+        return optional(Metric.ACTIVE_APPARENT_CURRENT_L3_A);
+    }
+
+    /**
+     * Returns the reactive current in amperes, the sum of all phases for the 3-phase variant.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive current in amperes
+     * @see KWhMeter#getActiveReactiveCurrentA()
+     */
+    public OptionalDouble getActiveReactiveCurrentA() {
+        return optional(Metric.ACTIVE_REACTIVE_CURRENT_A);
+    }
+
+    /**
+     * Returns the reactive current for phase 1 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive current for phase 1 in amperes
+     * @see KWhMeter#getActiveReactiveCurrentL1A()
+     */
+    public OptionalDouble getActiveReactiveCurrentL1A() {
+        return optional(Metric.ACTIVE_REACTIVE_CURRENT_L1_A);
+    }
+
+    /**
+     * Returns the reactive current for phase 2 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive current for phase 2 in amperes
+     * @see KWhMeter#getActiveReactiveCurrentL2A()
+     */
+    public OptionalDouble getActiveReactiveCurrentL2A() {
+        return optional(Metric.ACTIVE_REACTIVE_CURRENT_L2_A);
+    }
+
+    /**
+     * Returns the reactive current for phase 3 in amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive current for phase 3 in amperes
+     * @see KWhMeter#getActiveReactiveCurrentL3A()
+     */
+    public OptionalDouble getActiveReactiveCurrentL3A() {
+        return optional(Metric.ACTIVE_REACTIVE_CURRENT_L3_A);
+    }
+
+    /**
+     * Returns the apparent power in volt-amperes, the sum of all phases for the 3-phase variants.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent power in volt-amperes
+     * @see KWhMeter#getActiveApparentPowerVa()
+     */
+    public OptionalDouble getActiveApparentPowerVa() {
+        return optional(Metric.ACTIVE_APPARENT_POWER_VA);
+    }
+
+    /**
+     * Returns the apparent power for phase 1 in volt-amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent power for phase 1 in volt-amperes
+     * @see KWhMeter#getActiveApparentPowerL1Va()
+     */
+    public OptionalDouble getActiveApparentPowerL1Va() {
+        return optional(Metric.ACTIVE_APPARENT_POWER_L1_VA);
+    }
+
+    /**
+     * Returns the apparent power for phase 2 in volt-amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent power for phase 2 in volt-amperes
+     * @see KWhMeter#getActiveApparentPowerL2Va()
+     */
+    public OptionalDouble getActiveApparentPowerL2Va() {
+        return optional(Metric.ACTIVE_APPARENT_POWER_L2_VA);
+    }
+
+    /**
+     * Returns the apparent power for phase 3 in volt-amperes.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return apparent power for phase 3 in volt-amperes
+     * @see KWhMeter#getActiveApparentPowerL3Va()
+     */
+    public OptionalDouble getActiveApparentPowerL3Va() {
+        return optional(Metric.ACTIVE_APPARENT_POWER_L3_VA);
+    }
+
+    /**
+     * Returns the reactive power in volt-amperes reactive, the sum of all phases for the 3-phase variant.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive power in volt-amperes reactive
+     * @see KWhMeter#getActiveReactivePowerVar()
+     */
+    public OptionalDouble getActiveReactivePowerVar() {
+        return optional(Metric.ACTIVE_REACTIVE_POWER_VAR);
+    }
+
+    /**
+     * Returns the reactive power for phase 1 in volt-amperes reactive.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive power for phase 1 in volt-amperes reactive
+     * @see KWhMeter#getActiveReactivePowerL1Var()
+     */
+    public OptionalDouble getActiveReactivePowerL1Var() {
+        return optional(Metric.ACTIVE_REACTIVE_POWER_L1_VAR);
+    }
+
+    /**
+     * Returns the reactive power for phase 2 in volt-amperes reactive.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive power for phase 2 in volt-amperes reactive
+     * @see KWhMeter#getActiveReactivePowerL2Var()
+     */
+    public OptionalDouble getActiveReactivePowerL2Var() {
+        return optional(Metric.ACTIVE_REACTIVE_POWER_L2_VAR);
+    }
+
+    /**
+     * Returns the reactive power for phase 3 in volt-amperes reactive.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return reactive power for phase 3 in volt-amperes reactive
+     * @see KWhMeter#getActiveReactivePowerL3Var()
+     */
+    public OptionalDouble getActiveReactivePowerL3Var() {
+        return optional(Metric.ACTIVE_REACTIVE_POWER_L3_VAR);
+    }
+
+    /**
+     * Returns the power factor.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 1-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return power factor
+     * @see KWhMeter#getActivePowerFactor()
+     */
+    public OptionalDouble getActivePowerFactor() {
+        return optional(Metric.ACTIVE_POWER_FACTOR);
+    }
+
+    /**
+     * Returns the power factor for phase 1.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return power factor for phase 1
+     * @see KWhMeter#getActivePowerFactorL1()
+     */
+    public OptionalDouble getActivePowerFactorL1() {
+        return optional(Metric.ACTIVE_POWER_FACTOR_L1);
+    }
+
+    /**
+     * Returns the power factor for phase 2.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return power factor for phase 2
+     * @see KWhMeter#getActivePowerFactorL2()
+     */
+    public OptionalDouble getActivePowerFactorL2() {
+        return optional(Metric.ACTIVE_POWER_FACTOR_L2);
+    }
+
+    /**
+     * Returns the power factor for phase 3.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It is only available for the 3-phase variant.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return power factor for phase 3
+     * @see KWhMeter#getActivePowerFactorL3()
+     */
+    public OptionalDouble getActivePowerFactorL3() {
+        return optional(Metric.ACTIVE_POWER_FACTOR_L3);
+    }
+
+    /**
+     * Returns the frequency in hertz.
+     * <p>
+     * In order to get this information, you must first call {@link #updateMeasurements()}.
+     * It available for both the 1-phase and 3-phase variants.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-2">Official API documentation related to this method</a>
+     *
+     * @return frequency in hertz
+     * @see KWhMeter#getActiveFrequencyHz()
+     */
+    public OptionalDouble getActiveFrequencyHz() {
+        return optional(Metric.ACTIVE_FREQUENCY_HZ);
+    }
+}
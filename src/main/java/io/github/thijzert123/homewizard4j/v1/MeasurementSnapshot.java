@@ -0,0 +1,174 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the measurements of a {@link Device}. Every call to {@link Device#updateMeasurements()}
+ * creates a new snapshot and publishes it atomically, so all values in a snapshot come from the same response.
+ * Because a snapshot never changes, you can keep previous snapshots and share them between threads without locking.
+ * <p>
+ * Every type of device has its own snapshot with the values that are specific to that device,
+ * for example {@link P1Snapshot} for the {@link P1Meter}.
+ * <p>
+ * The numeric values are stored as primitive {@code double} values. {@link #get(Metric)} and {@link #has(Metric)}
+ * read them without allocating anything, which is useful if you read many values often.
+ * Getters like {@link P1Snapshot#getActivePowerW()} wrap the value in an {@link OptionalDouble}.
+ *
+ * @author Thijzert123
+ * @see Device#getSnapshot()
+ * @since 2.1.0
+ */
+public abstract class MeasurementSnapshot {
+    private static final int WIFI_SSID = 0;
+
+    private final SnapshotLayout<?> layout;
+    private final double[] values;
+    private final long presence;
+    private final Object[] others;
+
+    /**
+     * Creates a snapshot. The arrays are not copied, so they must not be changed afterward.
+     *
+     * @param layout   the layout of the snapshot
+     * @param values   the values of the metrics, by slot
+     * @param presence bitmask with a bit for every slot that has a value
+     * @param others   the values that are not metrics, by slot
+     */
+    MeasurementSnapshot(final SnapshotLayout<?> layout,
+                        final double[] values,
+                        final long presence,
+                        final Object[] others) {
+        this.layout = layout;
+        this.values = values;
+        this.presence = presence;
+        this.others = others;
+    }
+
+    /**
+     * Returns the value of a metric. This method does not allocate any objects.
+     *
+     * @param metric the metric to get the value of
+     * @return the value of the metric, or {@link Double#NaN} if this snapshot has no value for the metric
+     * @see #has(Metric)
+     */
+    public double get(final Metric metric) {
+        final int slot = layout.slotOf(metric);
+        return isPresent(slot) ? values[slot] : Double.NaN;
+    }
+
+    /**
+     * Returns whether this snapshot has a value for the metric. A metric has no value if the device doesn't
+     * measure it, or if the device didn't return it in the response.
+     *
+     * @param metric the metric to check
+     * @return {@code true} if this snapshot has a value for the metric
+     */
+    public boolean has(final Metric metric) {
+        return isPresent(layout.slotOf(metric));
+    }
+
+    /**
+     * Returns all metrics that the type of device of this snapshot can measure.
+     * Use {@link #has(Metric)} to check whether this snapshot actually has a value for a metric.
+     *
+     * @return unmodifiable set of metrics
+     */
+    public Set<Metric> getMetrics() {
+        return layout.getMetrics();
+    }
+
+    /**
+     * Returns whether this snapshot has no values at all, for example when it has been read from a response
+     * without measurements.
+     *
+     * @return {@code true} if no value is present
+     */
+    boolean isEmpty() {
+        if (presence != 0) {
+            return false;
+        }
+        for (final Object other : others) {
+            if (other != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the SSID of the Wi-Fi network the device is connected to.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/api#parameters">Official API documentation related to this method</a>
+     *
+     * @return the SSID of the Wi-Fi network the device is connected to
+     * @see Device#getWifiSsid()
+     */
+    public Optional<String> getWifiSsid() {
+        return other(WIFI_SSID);
+    }
+
+    /**
+     * Returns the strength of the Wi-Fi the device is connected to.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/api#parameters">Official API documentation related to this method</a>
+     *
+     * @return the Wi-Fi strength
+     * @see Device#getWifiStrength()
+     */
+    public OptionalDouble getWifiStrength() {
+        return optional(Metric.WIFI_STRENGTH);
+    }
+
+    /**
+     * Returns the value of a metric as {@link OptionalDouble}, for the getters of the subclasses.
+     *
+     * @param metric the metric to get the value of
+     * @return the value of the metric, or an empty {@link OptionalDouble} if this snapshot has no value for the metric
+     */
+    OptionalDouble optional(final Metric metric) {
+        final int slot = layout.slotOf(metric);
+        return isPresent(slot) ? OptionalDouble.of(values[slot]) : OptionalDouble.empty();
+    }
+
+    /**
+     * Returns a value that is not a metric, for the getters of the subclasses.
+     *
+     * @param slot the slot of the value
+     * @param <V>  the type of the value
+     * @return the value, or an empty {@link Optional} if this snapshot has no value
+     */
+    @SuppressWarnings("unchecked")
+    <V> Optional<V> other(final int slot) {
+        return Optional.ofNullable((V) others[slot]);
+    }
+
+    SnapshotLayout<?> getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the raw value of a metric slot, for serialization.
+     *
+     * @param slot the slot of the metric
+     * @return the value, only meaningful if {@link #isPresent(int)} returns {@code true}
+     */
+    double valueAt(final int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Returns the raw value of a slot that is not a metric, for serialization.
+     *
+     * @param slot the slot of the value
+     * @return the value, or {@code null} if this snapshot has no value
+     */
+    Object otherAt(final int slot) {
+        return others[slot];
+    }
+
+    boolean isPresent(final int slot) {
+        return slot >= 0 && (presence & (1L << slot)) != 0;
+    }
+}
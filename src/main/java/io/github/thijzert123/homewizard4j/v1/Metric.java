@@ -0,0 +1,359 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Numeric values that are measured by devices. Use {@link Device#get(Metric)} to read the value of a metric without
+ * creating an {@link java.util.OptionalDouble} for it. Not every device measures every metric;
+ * {@link Device#has(Metric)} tells you whether the latest measurements contain a value.
+ *
+ * @author Thijzert123
+ * @see MeasurementSnapshot#get(Metric)
+ * @since 2.1.0
+ */
+public enum Metric {
+    /**
+     * The Wi-Fi strength of the device in percent.
+     */
+    WIFI_STRENGTH("wifi_strength"),
+
+    /**
+     * DSMR version of the smart meter.
+     */
+    SMR_VERSION("smr_version"),
+
+    /**
+     * Energy usage meter reading for all tariffs in kWh.
+     */
+    TOTAL_POWER_IMPORT_KWH("total_power_import_kwh"),
+
+    /**
+     * Energy usage meter reading for tariff 1 in kWh.
+     */
+    TOTAL_POWER_IMPORT_T1_KWH("total_power_import_t1_kwh"),
+
+    /**
+     * Energy usage meter reading for tariff 2 in kWh.
+     */
+    TOTAL_POWER_IMPORT_T2_KWH("total_power_import_t2_kwh"),
+
+    /**
+     * Energy usage meter reading for tariff 3 in kWh.
+     */
+    TOTAL_POWER_IMPORT_T3_KWH("total_power_import_t3_kwh"),
+
+    /**
+     * Energy usage meter reading for tariff 4 in kWh.
+     */
+    TOTAL_POWER_IMPORT_T4_KWH("total_power_import_t4_kwh"),
+
+    /**
+     * Energy feed-in meter reading for all tariffs in kWh.
+     */
+    TOTAL_POWER_EXPORT_KWH("total_power_export_kwh"),
+
+    /**
+     * Energy feed-in meter reading for tariff 1 in kWh.
+     */
+    TOTAL_POWER_EXPORT_T1_KWH("total_power_export_t1_kwh"),
+
+    /**
+     * Energy feed-in meter reading for tariff 2 in kWh.
+     */
+    TOTAL_POWER_EXPORT_T2_KWH("total_power_export_t2_kwh"),
+
+    /**
+     * Energy feed-in meter reading for tariff 3 in kWh.
+     */
+    TOTAL_POWER_EXPORT_T3_KWH("total_power_export_t3_kwh"),
+
+    /**
+     * Energy feed-in meter reading for tariff 4 in kWh.
+     */
+    TOTAL_POWER_EXPORT_T4_KWH("total_power_export_t4_kwh"),
+
+    /**
+     * Total active usage in watt.
+     */
+    ACTIVE_POWER_W("active_power_w"),
+
+    /**
+     * Active usage for phase 1 in watt.
+     */
+    ACTIVE_POWER_L1_W("active_power_l1_w"),
+
+    /**
+     * Active usage for phase 2 in watt.
+     */
+    ACTIVE_POWER_L2_W("active_power_l2_w"),
+
+    /**
+     * Active usage for phase 3 in watt.
+     */
+    ACTIVE_POWER_L3_W("active_power_l3_w"),
+
+    /**
+     * Active voltage for phase 1 in volt.
+     */
+    ACTIVE_VOLTAGE_L1_V("active_voltage_l1_v"),
+
+    /**
+     * Active voltage for phase 2 in volt.
+     */
+    ACTIVE_VOLTAGE_L2_V("active_voltage_l2_v"),
+
+    /**
+     * Active voltage for phase 3 in volt.
+     */
+    ACTIVE_VOLTAGE_L3_V("active_voltage_l3_v"),
+
+    /**
+     * Active current for phase 1 in ampere.
+     */
+    ACTIVE_CURRENT_L1_A("active_current_l1_a"),
+
+    /**
+     * Active current for phase 2 in ampere.
+     */
+    ACTIVE_CURRENT_L2_A("active_current_l2_a"),
+
+    /**
+     * Active current for phase 3 in ampere.
+     */
+    ACTIVE_CURRENT_L3_A("active_current_l3_a"),
+
+    /**
+     * Line frequency in hertz.
+     */
+    ACTIVE_FREQUENCY_HZ("active_frequency_hz"),
+
+    /**
+     * Number of voltage sags detected by meter for phase 1.
+     */
+    VOLTAGE_SAG_L1_COUNT("voltage_sag_l1_count"),
+
+    /**
+     * Number of voltage sags detected by meter for phase 2.
+     */
+    VOLTAGE_SAG_L2_COUNT("voltage_sag_l2_count"),
+
+    /**
+     * Number of voltage sags detected by meter for phase 3.
+     */
+    VOLTAGE_SAG_L3_COUNT("voltage_sag_l3_count"),
+
+    /**
+     * Number of voltage swells detected by meter for phase 1.
+     */
+    VOLTAGE_SWELL_L1_COUNT("voltage_swell_l1_count"),
+
+    /**
+     * Number of voltage swells detected by meter for phase 2.
+     */
+    VOLTAGE_SWELL_L2_COUNT("voltage_swell_l2_count"),
+
+    /**
+     * Number of voltage swells detected by meter for phase 3.
+     */
+    VOLTAGE_SWELL_L3_COUNT("voltage_swell_l3_count"),
+
+    /**
+     * Number of power failures detected by meter.
+     */
+    ANY_POWER_FAIL_COUNT("any_power_fail_count"),
+
+    /**
+     * Number of 'long' power fails detected by meter.
+     */
+    LONG_POWER_FAIL_COUNT("long_power_fail_count"),
+
+    /**
+     * Active average demand.
+     */
+    ACTIVE_POWER_AVERAGE_W("active_power_average_w"),
+
+    /**
+     * Peak average demand of this month.
+     */
+    MONTHLY_POWER_PEAK_W("montly_power_peak_w"),
+
+    /**
+     * Timestamp when peak demand was registered.
+     */
+    MONTHLY_POWER_PEAK_TIMESTAMP("montly_power_peak_timestamp"),
+
+    /**
+     * Gas meter reading in m3 for the first detected gas meter.
+     */
+    TOTAL_GAS_M3("total_gas_m3"),
+
+    /**
+     * Most recent gas update time stamp.
+     */
+    GAS_TIMESTAMP("gas_timestamp"),
+
+    /**
+     * Unique identifier for the gas meter.
+     */
+    UNIQUE_GAS_ID("unique_gas_id"),
+
+    /**
+     * Active voltage in volts.
+     */
+    ACTIVE_VOLTAGE_V("active_voltage_v"),
+
+    /**
+     * Active current in amperes.
+     */
+    ACTIVE_CURRENT_A("active_current_a"),
+
+    /**
+     * Apparent current in amperes.
+     */
+    ACTIVE_APPARENT_CURRENT_A("active_apparent_current_a"),
+
+    /**
+     * Apparent current for phase 1 in amperes.
+     */
+    ACTIVE_APPARENT_CURRENT_L1_A("active_apparent_current_l1_a"),
+
+    /**
+     * Apparent current for phase 2 in amperes.
+     */
+    ACTIVE_APPARENT_CURRENT_L2_A("active_apparent_current_l2_a"),
+
+    /**
+     * Apparent current for phase 3 in amperes.
+     */
+    ACTIVE_APPARENT_CURRENT_L3_A("active_apparent_current_l3_a"),
+
+    /**
+     * Reactive current in amperes.
+     */
+    ACTIVE_REACTIVE_CURRENT_A("active_reactive_current_a"),
+
+    /**
+     * Reactive current for phase 1 in amperes.
+     */
+    ACTIVE_REACTIVE_CURRENT_L1_A("active_reactive_current_l1_a"),
+
+    /**
+     * Reactive current for phase 2 in amperes.
+     */
+    ACTIVE_REACTIVE_CURRENT_L2_A("active_reactive_current_l2_a"),
+
+    /**
+     * Reactive current for phase 3 in amperes.
+     */
+    ACTIVE_REACTIVE_CURRENT_L3_A("active_reactive_current_l3_a"),
+
+    /**
+     * Apparent power in volt-amperes.
+     */
+    ACTIVE_APPARENT_POWER_VA("active_apparent_power_va"),
+
+    /**
+     * Apparent power for phase 1 in volt-amperes.
+     */
+    ACTIVE_APPARENT_POWER_L1_VA("active_apparent_power_l1_va"),
+
+    /**
+     * Apparent power for phase 2 in volt-amperes.
+     */
+    ACTIVE_APPARENT_POWER_L2_VA("active_apparent_power_l2_va"),
+
+    /**
+     * Apparent power for phase 3 in volt-amperes.
+     */
+    ACTIVE_APPARENT_POWER_L3_VA("active_apparent_power_l3_va"),
+
+    /**
+     * Reactive power in volt-amperes reactive.
+     */
+    ACTIVE_REACTIVE_POWER_VAR("active_reactive_power_var"),
+
+    /**
+     * Reactive power for phase 1 in volt-amperes reactive.
+     */
+    ACTIVE_REACTIVE_POWER_L1_VAR("active_reactive_power_l1_var"),
+
+    /**
+     * Reactive power for phase 2 in volt-amperes reactive.
+     */
+    ACTIVE_REACTIVE_POWER_L2_VAR("active_reactive_power_l2_var"),
+
+    /**
+     * Reactive power for phase 3 in volt-amperes reactive.
+     */
+    ACTIVE_REACTIVE_POWER_L3_VAR("active_reactive_power_l3_var"),
+
+    /**
+     * Power factor.
+     */
+    ACTIVE_POWER_FACTOR("active_power_factor"),
+
+    /**
+     * Power factor for phase 1.
+     */
+    ACTIVE_POWER_FACTOR_L1("active_power_factor_l1"),
+
+    /**
+     * Power factor for phase 2.
+     */
+    ACTIVE_POWER_FACTOR_L2("active_power_factor_l2"),
+
+    /**
+     * Power factor for phase 3.
+     */
+    ACTIVE_POWER_FACTOR_L3("active_power_factor_l3"),
+
+    /**
+     * Total water usage in cubic meters since installation.
+     */
+    TOTAL_LITER_M3("total_liter_m3"),
+
+    /**
+     * Active water usage in liters per minute.
+     */
+    ACTIVE_LITER_LPM("active_liter_lpm"),
+
+    /**
+     * Total liter offset.
+     */
+    TOTAL_LITER_OFFSET_M3("total_liter_offset_m3");
+
+    private static final Map<String, Metric> METRICS_BY_JSON_NAME = new HashMap<>();
+
+    static {
+        for (final Metric metric : values()) {
+            METRICS_BY_JSON_NAME.put(metric.jsonName, metric);
+        }
+    }
+
+    private final String jsonName;
+
+    Metric(final String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    /**
+     * Returns the name of this metric in the responses of the devices.
+     *
+     * @return the name of this metric in JSON
+     */
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Returns the metric with the specified name in the responses of the devices.
+     *
+     * @param jsonName the name of the metric in JSON, like {@code active_power_w}
+     * @return the metric, or an empty {@link Optional} if no metric has this name
+     */
+    public static Optional<Metric> fromJsonName(final String jsonName) {
+        return Optional.ofNullable(METRICS_BY_JSON_NAME.get(jsonName));
+    }
+}
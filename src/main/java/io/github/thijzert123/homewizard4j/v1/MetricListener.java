@@ -0,0 +1,27 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+/**
+ * Receives the changes of a {@link Metric} of a device that are larger than the {@link Deadband} it was added with.
+ * It is called on the thread that completed the update of the measurements, so it should return quickly.
+ *
+ * <pre>
+ * p1Meter.addMetricListener(Metric.ACTIVE_POWER_W, Deadband.absolute(20),
+ *         (device, metric, previousValue, value) -&gt; System.out.println("Active power is now " + value + " W"));
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see Device#addMetricListener(Metric, Deadband, MetricListener)
+ * @since 2.1.0
+ */
+@FunctionalInterface
+public interface MetricListener {
+    /**
+     * Called when the value of the metric has moved past the deadband.
+     *
+     * @param device        the device that measured the value
+     * @param metric        the metric that changed
+     * @param previousValue the value of the previous call to this listener, {@link Double#NaN} if there was none
+     * @param value         the new value, {@link Double#NaN} if the measurements no longer contain the metric
+     */
+    void onChange(Device device, Metric metric, double previousValue, double value);
+}
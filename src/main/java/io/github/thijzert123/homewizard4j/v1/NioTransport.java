@@ -0,0 +1,647 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends requests over plain HTTP/1.1 with one selector thread for all devices, instead of the threads and buffers
+ * a {@link java.net.http.HttpClient} uses per connection. This makes a difference for fleets of thousands of devices.
+ * <p>
+ * The transport keeps the connections to every device open between requests and reuses them. It opens at most
+ * {@link #getMaxConnectionsPerHost()} connections per device; requests above that wait for a free connection.
+ * Connections that have been idle for longer than {@link #DEFAULT_IDLE_TIMEOUT} are closed. When the device closed
+ * a reused connection before the response, the request fails with a {@link StaleConnectionException}.
+ * All responses are read with one direct buffer that the selector thread reuses.
+ * <p>
+ * Responses are completed on the completion executor, so parsing the response doesn't block the selector thread.
+ * The transport only supports what the v1 API needs: {@code http} URIs, without proxies, redirects or compression.
+ * Close the transport when you don't need it anymore, so its thread and connections are released.
+ *
+ * <pre>
+ * try (final NioTransport transport = new NioTransport()) {
+ *     final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(transport);
+ *     // ...
+ * }
+ * </pre>
+ *
+ * @author Thijzert123
+ * @see DeviceTransport
+ * @since 2.1.0
+ */
+public final class NioTransport implements DeviceTransport, AutoCloseable {
+    /**
+     * The default maximum amount of open connections per device.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
+    /**
+     * The time after which an idle connection is closed.
+     */
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final AtomicInteger TRANSPORT_COUNT = new AtomicInteger();
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long IDLE_CHECK_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final int maxConnectionsPerHost;
+    private final Executor completionExecutor;
+    private final Selector selector;
+    private final Thread selectorThread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+    private volatile boolean terminated;
+
+    // Only used by the selector thread
+    private final Map<String, Host> hosts = new HashMap<>();
+    private final PriorityQueue<Exchange> deadlines = new PriorityQueue<>(Comparator.comparingLong(Exchange::getDeadlineNanos));
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private long nextIdleCheckNanos = System.nanoTime();
+
+    /**
+     * Creates a transport with at most {@link #DEFAULT_MAX_CONNECTIONS_PER_HOST} connections per device,
+     * which completes responses on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @throws IOException when the selector can't be opened
+     */
+    public NioTransport() throws IOException {
+        this(DEFAULT_MAX_CONNECTIONS_PER_HOST, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a transport.
+     *
+     * @param maxConnectionsPerHost the maximum amount of open connections per device, at least 1
+     * @param completionExecutor    the executor to complete responses on. Use {@code Runnable::run} to complete
+     *                              them on the selector thread, which only makes sense if the work after a response
+     *                              is cheap
+     * @throws IOException when the selector can't be opened
+     */
+    public NioTransport(final int maxConnectionsPerHost, final Executor completionExecutor) throws IOException {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("Max connections per host must be at least 1, but was " + maxConnectionsPerHost);
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.completionExecutor = completionExecutor;
+        selector = Selector.open();
+        selectorThread = new Thread(this::run, "homewizard4j-nio-" + TRANSPORT_COUNT.incrementAndGet());
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+    }
+
+    /**
+     * Returns the maximum amount of open connections per device.
+     *
+     * @return the maximum amount of connections per device
+     */
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    @Override
+    public CompletableFuture<Response> send(final Request request) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Transport is closed"));
+        }
+        final URI uri = request.uri();
+        final InetSocketAddress address;
+        try {
+            address = resolve(uri);
+        } catch (final IOException ioException) {
+            return CompletableFuture.failedFuture(ioException);
+        }
+
+        final Exchange exchange = new Exchange(request, address, encode(request, uri));
+        exchange.result.whenComplete((response, throwable) -> {
+            if (exchange.result.isCancelled()) {
+                submit(() -> abort(exchange));
+            }
+        });
+        submit(() -> start(exchange));
+        return exchange.result;
+    }
+
+    /**
+     * Opens a connection to the device, unless a connection to it is already open or the maximum amount of
+     * connections has been reached. The connection stays open until it is used, or until it has been idle for
+     * {@link #DEFAULT_IDLE_TIMEOUT}.
+     *
+     * @param uri the address of the device, like {@code http://192.168.1.123:80}
+     * @return future that completes when the connection is open, or exceptionally when the device can't be reached
+     */
+    @Override
+    public CompletableFuture<Void> preconnect(final URI uri) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("Transport is closed"));
+        }
+        final InetSocketAddress address;
+        try {
+            address = resolve(uri);
+        } catch (final IOException ioException) {
+            return CompletableFuture.failedFuture(ioException);
+        }
+
+        final CompletableFuture<Void> connected = new CompletableFuture<>();
+        submit(() -> {
+            if (closed) {
+                completionExecutor.execute(() -> connected.completeExceptionally(new IOException("Transport is closed")));
+                return;
+            }
+            final Host host = hosts.computeIfAbsent(hostKey(address), key -> new Host());
+            if (host.open > 0) {
+                completionExecutor.execute(() -> connected.complete(null));
+            } else {
+                connect(host, address, null, connected);
+            }
+        });
+        return connected;
+    }
+
+    /**
+     * Closes all connections and stops the selector thread. Requests that are still running fail.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        selector.wakeup();
+        if (Thread.currentThread() != selectorThread) {
+            try {
+                selectorThread.join();
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static InetSocketAddress resolve(final URI uri) throws IOException {
+        if (!"http".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+            throw new IOException("Only http URIs with a host are supported: " + uri);
+        }
+        final InetSocketAddress address = new InetSocketAddress(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort());
+        if (address.isUnresolved()) {
+            throw new UnknownHostException(uri.getHost());
+        }
+        return address;
+    }
+
+    private static String hostKey(final InetSocketAddress address) {
+        return address.getHostString() + ":" + address.getPort();
+    }
+
+    private static ByteBuffer encode(final Request request, final URI uri) {
+        final String path = (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath())
+                + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+        final StringBuilder head = new StringBuilder(128)
+                .append(request.method()).append(' ').append(path).append(" HTTP/1.1\r\n")
+                .append("Host: ").append(uri.getHost());
+        if (uri.getPort() != -1) {
+            head.append(':').append(uri.getPort());
+        }
+        head.append("\r\n");
+        final byte[] body = request.body();
+        if (body.length > 0 || !request.method().equals("GET")) {
+            head.append("Content-Type: application/json\r\n")
+                    .append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        head.append("\r\n");
+
+        final byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        final ByteBuffer buffer = ByteBuffer.allocate(headBytes.length + body.length);
+        buffer.put(headBytes).put(body).flip();
+        return buffer;
+    }
+
+    private void submit(final Runnable task) {
+        tasks.add(task);
+        if (terminated) {
+            // The selector thread is gone, so the task fails the exchange on this thread
+            runTasks();
+        } else {
+            selector.wakeup();
+        }
+    }
+
+    private void run() {
+        LOGGER.debug("Selector thread started");
+        while (!closed) {
+            try {
+                selector.select(selectTimeoutMillis());
+                final Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    final SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    handle(key);
+                }
+                runTasks();
+                expireDeadlines();
+                closeIdleConnections();
+            } catch (final IOException | RuntimeException exception) {
+                LOGGER.error("Unexpected error in selector thread", exception);
+            }
+        }
+        shutDown();
+        LOGGER.debug("Selector thread stopped");
+    }
+
+    private long selectTimeoutMillis() {
+        long timeoutNanos = Math.max(0, nextIdleCheckNanos - System.nanoTime());
+        final Exchange first = deadlines.peek();
+        if (first != null) {
+            timeoutNanos = Math.min(timeoutNanos, first.deadlineNanos - System.nanoTime());
+        }
+        // 0 would block forever
+        return Math.max(1, Duration.ofNanos(timeoutNanos).toMillis());
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void start(final Exchange exchange) {
+        if (exchange.result.isDone()) return; // cancelled before it was started
+        if (closed) {
+            fail(exchange, new IOException("Transport is closed"));
+            return;
+        }
+        deadlines.add(exchange);
+        final Host host = hosts.computeIfAbsent(exchange.hostKey, key -> new Host());
+        host.waiting.add(exchange);
+        dispatch(host);
+    }
+
+    private void dispatch(final Host host) {
+        while (!host.waiting.isEmpty() && !closed) {
+            final Connection idle = host.idle.pollLast(); // the most recently used connection is most likely still open
+            if (idle != null) {
+                assign(idle, host.waiting.poll());
+            } else if (host.open < maxConnectionsPerHost) {
+                final Exchange exchange = host.waiting.poll();
+                connect(host, exchange.address, exchange, null);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Opens a connection for an exchange, or an idle connection if there is no exchange.
+     *
+     * @param host      the host to connect to
+     * @param address   the address of the host
+     * @param exchange  the exchange to send on the connection, if any
+     * @param connected the future to complete when an idle connection is open, if any
+     */
+    private void connect(final Host host,
+                         final InetSocketAddress address,
+                         final Exchange exchange,
+                         final CompletableFuture<Void> connected) {
+        LOGGER.trace("Opening connection to {}", address);
+        final SocketChannel channel;
+        try {
+            channel = SocketChannel.open();
+        } catch (final IOException ioException) {
+            if (exchange != null) {
+                fail(exchange, ioException);
+            } else {
+                completionExecutor.execute(() -> connected.completeExceptionally(ioException));
+            }
+            return;
+        }
+
+        final Connection connection = new Connection(channel, host);
+        host.open++;
+        connection.exchange = exchange;
+        connection.connected = connected;
+        if (exchange != null) {
+            exchange.connection = connection;
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            final boolean connectedNow = channel.connect(address);
+            connection.key = channel.register(selector, connectedNow ? 0 : SelectionKey.OP_CONNECT, connection);
+            if (connectedNow) {
+                onConnected(connection);
+            }
+        } catch (final IOException ioException) {
+            failConnection(connection, ioException);
+        }
+    }
+
+    private void onConnected(final Connection connection) {
+        if (connection.exchange != null) {
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            final CompletableFuture<Void> connected = connection.connected;
+            connection.connected = null;
+            completionExecutor.execute(() -> connected.complete(null));
+            makeIdle(connection);
+        }
+    }
+
+    private void makeIdle(final Connection connection) {
+        connection.idleSinceNanos = System.nanoTime();
+        connection.key.interestOps(SelectionKey.OP_READ); // to notice when the device closes the connection
+        connection.host.idle.addLast(connection);
+        dispatch(connection.host);
+    }
+
+    private void assign(final Connection connection, final Exchange exchange) {
+        connection.exchange = exchange;
+        connection.reused = true;
+        exchange.connection = connection;
+        connection.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    private void handle(final SelectionKey key) {
+        final Connection connection = (Connection) key.attachment();
+        try {
+            if (!key.isValid()) return;
+            if (key.isConnectable()) {
+                connection.channel.finishConnect();
+                onConnected(connection);
+            } else if (key.isWritable()) {
+                final ByteBuffer requestBytes = connection.exchange.requestBytes;
+                connection.channel.write(requestBytes);
+                if (!requestBytes.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            } else if (key.isReadable()) {
+                read(connection);
+            }
+        } catch (final IOException ioException) {
+            failConnection(connection, staleIfReused(connection, ioException));
+        } catch (final CancelledKeyException cancelledKeyException) {
+            failConnection(connection, cancelledKeyException);
+        } catch (final RuntimeException runtimeException) {
+            // A bug or a response the parser didn't expect, the connection can't be used anymore
+            LOGGER.warn("Unexpected exception on connection to {}", connection.host, runtimeException);
+            failConnection(connection, runtimeException);
+        }
+    }
+
+    private void read(final Connection connection) throws IOException {
+        readBuffer.clear();
+        final int count = connection.channel.read(readBuffer);
+        final Exchange exchange = connection.exchange;
+        if (exchange == null) {
+            // An idle connection was closed by the device, or the device sent something it shouldn't have
+            LOGGER.trace("Idle connection to {} closed", connection.host);
+            closeConnection(connection);
+            return;
+        }
+
+        final HttpResponseParser parser = exchange.parser;
+        if (count == -1) {
+            if (parser.onEndOfStream()) {
+                complete(connection, exchange);
+            } else {
+                failConnection(connection, staleIfReused(connection, new IOException(parser.isEmpty()
+                        ? "Connection closed before the response"
+                        : "Connection closed during the response")));
+            }
+            return;
+        }
+        readBuffer.flip();
+        if (parser.feed(readBuffer)) {
+            complete(connection, exchange);
+        }
+    }
+
+    private void complete(final Connection connection, final Exchange exchange) {
+        final HttpResponseParser parser = exchange.parser;
+        exchange.finished = true;
+        exchange.connection = null;
+        connection.exchange = null;
+
+        final Response response = new Response(parser.getStatusCode(), List.of(parser.getBody()));
+        completionExecutor.execute(() -> exchange.result.complete(response));
+
+        if (parser.isKeepAlive() && !closed) {
+            makeIdle(connection);
+        } else {
+            closeConnection(connection);
+        }
+    }
+
+    /**
+     * Converts the error of a reused connection that failed before any part of the response arrived to a
+     * {@link StaleConnectionException}, so the request can be retried. The device probably closed the other idle
+     * connections as well, because they have been idle for longer, so these are closed too.
+     *
+     * @param connection the connection that failed
+     * @param exception  the error of the connection
+     * @return the error to fail the request with
+     */
+    private IOException staleIfReused(final Connection connection, final IOException exception) {
+        final Exchange exchange = connection.exchange;
+        if (!connection.reused || exchange == null || !exchange.parser.isEmpty()) {
+            return exception;
+        }
+        final List<Connection> idle = new ArrayList<>(connection.host.idle);
+        connection.host.idle.clear();
+        for (final Connection idleConnection : idle) {
+            closeConnection(idleConnection);
+        }
+        return new StaleConnectionException("Connection closed by the device before the response", exception);
+    }
+
+    private void fail(final Exchange exchange, final Throwable throwable) {
+        if (exchange.finished) return;
+        exchange.finished = true;
+        exchange.connection = null;
+        completionExecutor.execute(() -> exchange.result.completeExceptionally(throwable));
+    }
+
+    private void failConnection(final Connection connection, final Throwable throwable) {
+        final Exchange exchange = connection.exchange;
+        final CompletableFuture<Void> connected = connection.connected;
+        connection.exchange = null;
+        connection.connected = null;
+        if (exchange != null) {
+            fail(exchange, throwable);
+        } else if (connected != null) {
+            completionExecutor.execute(() -> connected.completeExceptionally(throwable));
+        }
+        closeConnection(connection);
+    }
+
+    private void closeConnection(final Connection connection) {
+        if (connection.closed) return;
+        connection.closed = true;
+        connection.host.open--;
+        connection.host.idle.remove(connection);
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        try {
+            connection.channel.close();
+        } catch (final IOException ioException) {
+            LOGGER.trace("Error while closing connection", ioException);
+        }
+        // A connection is free now, so a waiting request can open a new one
+        dispatch(connection.host);
+    }
+
+    private void abort(final Exchange exchange) {
+        if (exchange.finished) return;
+        exchange.finished = true;
+        detach(exchange);
+    }
+
+    private void detach(final Exchange exchange) {
+        final Host host = hosts.get(exchange.hostKey);
+        if (host != null) {
+            host.waiting.remove(exchange);
+        }
+        final Connection connection = exchange.connection;
+        if (connection != null) {
+            // The response of the request could still arrive, so the connection can't be reused
+            exchange.connection = null;
+            connection.exchange = null;
+            closeConnection(connection);
+        }
+    }
+
+    private void expireDeadlines() {
+        final long now = System.nanoTime();
+        Exchange exchange;
+        while ((exchange = deadlines.peek()) != null && (exchange.finished || exchange.deadlineNanos - now <= 0)) {
+            deadlines.poll();
+            if (exchange.finished) continue;
+
+            final boolean waitingForConnection = exchange.connection == null;
+            detach(exchange);
+            fail(exchange, new HttpTimeoutException("Request timed out after " + exchange.request.timeout().toMillis()
+                    + " ms" + (waitingForConnection ? " while waiting for a connection" : "")));
+        }
+    }
+
+    private void closeIdleConnections() {
+        final long now = System.nanoTime();
+        if (now - nextIdleCheckNanos < 0) return;
+        nextIdleCheckNanos = now + IDLE_CHECK_INTERVAL_NANOS;
+
+        final long idleTimeoutNanos = DEFAULT_IDLE_TIMEOUT.toNanos();
+        final Iterator<Host> iterator = hosts.values().iterator();
+        while (iterator.hasNext()) {
+            final Host host = iterator.next();
+            Connection oldest;
+            while ((oldest = host.idle.peekFirst()) != null && now - oldest.idleSinceNanos >= idleTimeoutNanos) {
+                closeConnection(oldest);
+            }
+            if (host.open == 0 && host.waiting.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void shutDown() {
+        final IOException closedException = new IOException("Transport is closed");
+        for (final SelectionKey key : new ArrayList<>(selector.keys())) {
+            failConnection((Connection) key.attachment(), closedException);
+        }
+        for (final Host host : hosts.values()) {
+            Exchange waiting;
+            while ((waiting = host.waiting.poll()) != null) {
+                fail(waiting, closedException);
+            }
+        }
+        hosts.clear();
+        deadlines.clear();
+        try {
+            selector.close();
+        } catch (final IOException ioException) {
+            LOGGER.debug("Error while closing selector", ioException);
+        }
+        terminated = true;
+        runTasks();
+    }
+
+    /**
+     * A request and its response.
+     */
+    private static final class Exchange {
+        private final Request request;
+        private final InetSocketAddress address;
+        private final String hostKey;
+        private final ByteBuffer requestBytes;
+        private final long deadlineNanos;
+        private final HttpResponseParser parser = new HttpResponseParser();
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private Connection connection;
+        private boolean finished;
+
+        private Exchange(final Request request, final InetSocketAddress address, final ByteBuffer requestBytes) {
+            this.request = request;
+            this.address = address;
+            this.hostKey = hostKey(address);
+            this.requestBytes = requestBytes;
+            this.deadlineNanos = System.nanoTime() + request.timeout().toNanos();
+        }
+
+        private long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+    }
+
+    /**
+     * The connections to one device and the requests that wait for a connection.
+     */
+    private static final class Host {
+        private final ArrayDeque<Connection> idle = new ArrayDeque<>();
+        private final ArrayDeque<Exchange> waiting = new ArrayDeque<>();
+        private int open;
+    }
+
+    /**
+     * A connection to a device, with the request it is busy with, if any.
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final Host host;
+        private SelectionKey key;
+        private Exchange exchange;
+        private long idleSinceNanos;
+        private CompletableFuture<Void> connected;
+        private boolean reused;
+        private boolean closed;
+
+        private Connection(final SocketChannel channel, final Host host) {
+            this.channel = channel;
+            this.host = host;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package io.github.thijzert123.homewizard4j.v1;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A device to measure mainly electricity and gas use.
@@ -23,84 +26,19 @@ public class P1Meter extends Device {
      */
     public static final List<String> PRODUCT_TYPES = List.of("HWE-P1");
 
-    @JsonProperty("unique_id")
-    private final Optional<String> uniqueId = Optional.empty();
-    @JsonProperty("smr_version")
-    private final OptionalDouble smrVersion = OptionalDouble.empty();
-    @JsonProperty("meter_model")
-    private final Optional<String> meterModel = Optional.empty();
-    @JsonProperty("total_power_import_kwh")
-    private final OptionalDouble totalPowerImportKwh = OptionalDouble.empty();
-    @JsonProperty("total_power_import_t1_kwh")
-    private final OptionalDouble totalPowerImportT1Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_import_t2_kwh")
-    private final OptionalDouble totalPowerImportT2Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_import_t3_kwh")
-    private final OptionalDouble totalPowerImportT3Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_import_t4_kwh")
-    private final OptionalDouble totalPowerImportT4Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_kwh")
-    private final OptionalDouble totalPowerExportKwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_t1_kwh")
-    private final OptionalDouble totalPowerExportT1Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_t2_kwh")
-    private final OptionalDouble totalPowerExportT2Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_t3_kwh")
-    private final OptionalDouble totalPowerExportT3Kwh = OptionalDouble.empty();
-    @JsonProperty("total_power_export_t4_kwh")
-    private final OptionalDouble totalPowerExportT4Kwh = OptionalDouble.empty();
-    @JsonProperty("active_power_w")
-    private final OptionalDouble activePowerW = OptionalDouble.empty();
-    @JsonProperty("active_power_l1_w")
-    private final OptionalDouble activePowerL1W = OptionalDouble.empty();
-    @JsonProperty("active_power_l2_w")
-    private final OptionalDouble activePowerL2W = OptionalDouble.empty();
-    @JsonProperty("active_power_l3_w")
-    private final OptionalDouble activePowerL3W = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l1_v")
-    private final OptionalDouble activeVoltageL1V = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l2_v")
-    private final OptionalDouble activeVoltageL2V = OptionalDouble.empty();
-    @JsonProperty("active_voltage_l3_v")
-    private final OptionalDouble activeVoltageL3V = OptionalDouble.empty();
-    @JsonProperty("active_current_l1_a")
-    private final OptionalDouble activeCurrentL1A = OptionalDouble.empty();
-    @JsonProperty("active_current_l2_a")
-    private final OptionalDouble activeCurrentL2A = OptionalDouble.empty();
-    @JsonProperty("active_current_l3_a")
-    private final OptionalDouble activeCurrentL3A = OptionalDouble.empty();
-    @JsonProperty("active_frequency_hz")
-    private final OptionalDouble activeFrequencyHz = OptionalDouble.empty();
-    @JsonProperty("voltage_sag_l1_count")
-    private final OptionalDouble voltageSagL1Count = OptionalDouble.empty();
-    @JsonProperty("voltage_sag_l2_count")
-    private final OptionalDouble voltageSagL2Count = OptionalDouble.empty();
-    @JsonProperty("voltage_sag_l3_count")
-    private final OptionalDouble voltageSagL3Count = OptionalDouble.empty();
-    @JsonProperty("voltage_swell_l1_count")
-    private final OptionalDouble voltageSwellL1Count = OptionalDouble.empty();
-    @JsonProperty("voltage_swell_l2_count")
-    private final OptionalDouble voltageSwellL2Count = OptionalDouble.empty();
-    @JsonProperty("voltage_swell_l3_count")
-    private final OptionalDouble voltageSwellL3Count = OptionalDouble.empty();
-    @JsonProperty("any_power_fail_count")
-    private final OptionalDouble anyPowerFailCount = OptionalDouble.empty();
-    @JsonProperty("long_power_fail_count")
-    private final OptionalDouble longPowerFailCount = OptionalDouble.empty();
-    @JsonProperty("active_power_average_w")
-    private final OptionalDouble activePowerAverageW = OptionalDouble.empty();
-    @JsonProperty("montly_power_peak_w")
-    private final OptionalDouble monthlyPowerPeakW = OptionalDouble.empty();
-    @JsonProperty("montly_power_peak_timestamp")
-    private final OptionalDouble monthlyPowerPeakTimestamp = OptionalDouble.empty();
-    @JsonProperty("total_gas_m3")
-    private final OptionalDouble totalGasM3 = OptionalDouble.empty();
-    @JsonProperty("gas_timestamp")
-    private final OptionalDouble gasTimestamp = OptionalDouble.empty();
-    @JsonProperty("unique_gas_id")
-    private final OptionalDouble uniqueGasId = OptionalDouble.empty();
-    @JsonProperty("external")
-    private final Optional<List<ExternalP1Device>> externalP1Devices = Optional.empty();
+    /**
+     * Creates the devices of the product types in {@link #PRODUCT_TYPES}.
+     */
+    static final DeviceFactory FACTORY = descriptor -> new P1Meter(
+            descriptor.serviceName(),
+            descriptor.apiEnabled(),
+            descriptor.hostAddress(),
+            descriptor.port(),
+            descriptor.apiPath(),
+            Optional.of(descriptor.productType()),
+            descriptor.productName(),
+            descriptor.serial(),
+            descriptor.transport());
 
     P1Meter(final Optional<String> serviceName,
                 final boolean apiEnabled,
@@ -109,7 +47,8 @@ public class P1Meter extends Device {
                 final String apiPath,
                 final Optional<String> productType,
                 final Optional<String> productName,
-                final Optional<String> serial) {
+                final Optional<String> serial,
+                final DeviceTransport transport) {
         super(
                 serviceName,
                 apiEnabled,
@@ -118,7 +57,9 @@ public class P1Meter extends Device {
                 apiPath,
                 productType,
                 productName,
-                serial
+                serial,
+                transport,
+                P1Snapshot.EMPTY
         );
     }
 
@@ -136,7 +77,26 @@ public class P1Meter extends Device {
                       final String hostAddress,
                       final int port,
                       final String apiPath) {
-        super(
+        this(apiEnabled, hostAddress, port, apiPath, HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Manually create a {@link P1Meter} that sends its requests with the provided {@link DeviceTransport},
+     * instead of the transport of {@link HttpUtils#getSharedTransport()}.
+     *
+     * @param apiEnabled whether the API is enabled on the device: you have to check this yourself!
+     * @param hostAddress host address, like {@code 192.168.1.123}
+     * @param port port, should be {@code 80}
+     * @param apiPath API path, should be {@code /api/v1}
+     * @param transport transport that sends the requests to the device
+     * @since 2.1.0
+     */
+    public P1Meter(final boolean apiEnabled,
+                   final String hostAddress,
+                   final int port,
+                   final String apiPath,
+                   final DeviceTransport transport) {
+        this(
                 Optional.empty(),
                 apiEnabled,
                 hostAddress,
@@ -144,7 +104,8 @@ public class P1Meter extends Device {
                 apiPath,
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty()
+                Optional.empty(),
+                transport
         );
     }
 
@@ -176,7 +137,73 @@ public class P1Meter extends Device {
      * @throws HomeWizardApiException when something has gone wrong while retrieving the telegram
      */
     public String retrieveLastTelegram() throws HomeWizardApiException {
-        return HttpUtils.getBody("GET", getFullApiAddress() + "/telegram");
+        return HttpUtils.getBody(this, "GET", getFullApiAddress() + "/telegram",
+                getTimeouts().getRequestTimeout());
+    }
+
+    /**
+     * Asynchronous version of {@link #retrieveLastTelegram()}. The returned future completes exceptionally with a
+     * {@link HomeWizardApiException} when something has gone wrong while retrieving the telegram.
+     * Cancelling the future aborts the request.
+     *
+     * @return future of the telegram by the P1 meter
+     * @see #retrieveLastTelegram()
+     * @since 2.1.0
+     */
+    public CompletableFuture<String> retrieveLastTelegramAsync() {
+        return HttpUtils.getBodyAsync(this, "GET", getFullApiAddress() + "/telegram",
+                getTimeouts().getRequestTimeout());
+    }
+
+    /**
+     * Returns the snapshot of the measurements from the latest call to {@link #updateMeasurements()}.
+     * Getters like {@link #getActivePowerW()} read from the snapshot that is current at the moment they are called.
+     * If you need multiple values that belong together, read all of them from the same snapshot.
+     *
+     * @return the current snapshot of the measurements
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    @Override
+    public P1Snapshot getSnapshot() {
+        return (P1Snapshot) super.getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @return the current snapshot
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private P1Snapshot getJsonSnapshot() {
+        return getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @param snapshot the snapshot to publish
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private void setJsonSnapshot(final P1Snapshot snapshot) {
+        setSnapshotFromJson(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of the measurements, and first updates the measurements if they are older than
+     * {@code maxAge}. For example, {@code getSnapshot(Duration.ofSeconds(1)).getActivePowerW()} reads the value
+     * from a response that is at most 1 second old.
+     *
+     * @param maxAge the maximum age of the returned snapshot, zero to always update, must not be negative
+     * @return a snapshot of the measurements that is not older than {@code maxAge}
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @since 2.1.0
+     */
+    @Override
+    public P1Snapshot getSnapshot(final Duration maxAge) throws HomeWizardApiException {
+        return (P1Snapshot) super.getSnapshot(maxAge);
     }
 
     /**
@@ -190,7 +217,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public Optional<String> getUniqueId() {
-        return uniqueId;
+        return getSnapshot().getUniqueId();
     }
 
     /**
@@ -204,7 +231,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getSmrVersion() {
-        return smrVersion;
+        return getSnapshot().getSmrVersion();
     }
 
     /**
@@ -218,7 +245,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public Optional<String> getMeterModel() {
-        return meterModel;
+        return getSnapshot().getMeterModel();
     }
 
     /**
@@ -232,7 +259,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportKwh() {
-        return totalPowerImportKwh;
+        return getSnapshot().getTotalPowerImportKwh();
     }
 
     /**
@@ -246,7 +273,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportT1Kwh() {
-        return totalPowerImportT1Kwh;
+        return getSnapshot().getTotalPowerImportT1Kwh();
     }
 
     /**
@@ -260,7 +287,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportT2Kwh() {
-        return totalPowerImportT2Kwh;
+        return getSnapshot().getTotalPowerImportT2Kwh();
     }
 
     /**
@@ -274,7 +301,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportT3Kwh() {
-        return totalPowerImportT3Kwh;
+        return getSnapshot().getTotalPowerImportT3Kwh();
     }
 
     /**
@@ -288,7 +315,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerImportT4Kwh() {
-        return totalPowerImportT4Kwh;
+        return getSnapshot().getTotalPowerImportT4Kwh();
     }
 
     /**
@@ -302,7 +329,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportKwh() {
-        return totalPowerExportKwh;
+        return getSnapshot().getTotalPowerExportKwh();
     }
 
     /**
@@ -316,7 +343,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportT1Kwh() {
-        return totalPowerExportT1Kwh;
+        return getSnapshot().getTotalPowerExportT1Kwh();
     }
 
     /**
@@ -330,7 +357,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportT2Kwh() {
-        return totalPowerExportT2Kwh;
+        return getSnapshot().getTotalPowerExportT2Kwh();
     }
 
     /**
@@ -344,7 +371,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportT3Kwh() {
-        return totalPowerExportT3Kwh;
+        return getSnapshot().getTotalPowerExportT3Kwh();
     }
 
     /**
@@ -358,7 +385,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalPowerExportT4Kwh() {
-        return totalPowerExportT4Kwh;
+        return getSnapshot().getTotalPowerExportT4Kwh();
     }
 
     /**
@@ -372,7 +399,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerW() {
-        return activePowerW;
+        return getSnapshot().getActivePowerW();
     }
 
     /**
@@ -386,7 +413,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL1W() {
-        return activePowerL1W;
+        return getSnapshot().getActivePowerL1W();
     }
 
     /**
@@ -400,7 +427,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL2W() {
-        return activePowerL2W;
+        return getSnapshot().getActivePowerL2W();
     }
 
     /**
@@ -414,7 +441,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerL3W() {
-        return activePowerL3W;
+        return getSnapshot().getActivePowerL3W();
     }
 
     /**
@@ -428,7 +455,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL1V() {
-        return activeVoltageL1V;
+        return getSnapshot().getActiveVoltageL1V();
     }
 
     /**
@@ -442,7 +469,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL2V() {
-        return activeVoltageL2V;
+        return getSnapshot().getActiveVoltageL2V();
     }
 
     /**
@@ -456,7 +483,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveVoltageL3V() {
-        return activeVoltageL3V;
+        return getSnapshot().getActiveVoltageL3V();
     }
 
     /**
@@ -470,7 +497,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL1A() {
-        return activeCurrentL1A;
+        return getSnapshot().getActiveCurrentL1A();
     }
 
     /**
@@ -484,7 +511,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL2A() {
-        return activeCurrentL2A;
+        return getSnapshot().getActiveCurrentL2A();
     }
 
     /**
@@ -498,7 +525,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveCurrentL3A() {
-        return activeCurrentL3A;
+        return getSnapshot().getActiveCurrentL3A();
     }
 
     /**
@@ -512,7 +539,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveFrequencyHz() {
-        return activeFrequencyHz;
+        return getSnapshot().getActiveFrequencyHz();
     }
 
     /**
@@ -526,7 +553,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSagL1Count() {
-        return voltageSagL1Count;
+        return getSnapshot().getVoltageSagL1Count();
     }
 
     /**
@@ -540,7 +567,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSagL2Count() {
-        return voltageSagL2Count;
+        return getSnapshot().getVoltageSagL2Count();
     }
 
     /**
@@ -554,7 +581,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSagL3Count() {
-        return voltageSagL3Count;
+        return getSnapshot().getVoltageSagL3Count();
     }
 
     /**
@@ -568,7 +595,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSwellL1Count() {
-        return voltageSwellL1Count;
+        return getSnapshot().getVoltageSwellL1Count();
     }
 
     /**
@@ -582,7 +609,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSwellL2Count() {
-        return voltageSwellL2Count;
+        return getSnapshot().getVoltageSwellL2Count();
     }
 
     /**
@@ -596,7 +623,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getVoltageSwellL3Count() {
-        return voltageSwellL3Count;
+        return getSnapshot().getVoltageSwellL3Count();
     }
 
     /**
@@ -610,7 +637,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getAnyPowerFailCount() {
-        return anyPowerFailCount;
+        return getSnapshot().getAnyPowerFailCount();
     }
 
     /**
@@ -624,7 +651,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getLongPowerFailCount() {
-        return longPowerFailCount;
+        return getSnapshot().getLongPowerFailCount();
     }
 
     /**
@@ -638,7 +665,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActivePowerAverageW() {
-        return activePowerAverageW;
+        return getSnapshot().getActivePowerAverageW();
     }
 
     /**
@@ -653,7 +680,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getMonthlyPowerPeakW() {
-        return monthlyPowerPeakW;
+        return getSnapshot().getMonthlyPowerPeakW();
     }
 
     /**
@@ -668,7 +695,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getMonthlyPowerPeakTimestamp() {
-        return monthlyPowerPeakTimestamp;
+        return getSnapshot().getMonthlyPowerPeakTimestamp();
     }
 
     /**
@@ -682,7 +709,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalGasM3() {
-        return totalGasM3;
+        return getSnapshot().getTotalGasM3();
     }
 
     /**
@@ -696,7 +723,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getGasTimestamp() {
-        return gasTimestamp;
+        return getSnapshot().getGasTimestamp();
     }
 
     /**
@@ -710,7 +737,7 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getUniqueGasId() {
-        return uniqueGasId;
+        return getSnapshot().getUniqueGasId();
     }
 
     /**
@@ -724,6 +751,6 @@ public class P1Meter extends Device {
      * @see #updateMeasurements()
      */
     public Optional<List<ExternalP1Device>> getExternalP1Devices() {
-        return externalP1Devices;
+        return getSnapshot().getExternalP1Devices();
     }
 }
@@ -0,0 +1,537 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalDouble;
+
+/**
+ * An immutable snapshot of the measurements of a {@link P1Meter},
+ * taken by one call to {@link P1Meter#updateMeasurements()}.
+ * All values in a snapshot come from the same response of the P1 meter.
+ *
+ * @author Thijzert123
+ * @see P1Meter#getSnapshot()
+ * @since 2.1.0
+ */
+public final class P1Snapshot extends MeasurementSnapshot {
+    static final SnapshotLayout<P1Snapshot> LAYOUT = new SnapshotLayout<>(
+            P1Snapshot::new,
+            SnapshotLayout.text("unique_id"),
+            SnapshotLayout.metric(Metric.SMR_VERSION),
+            SnapshotLayout.text("meter_model"),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_T1_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_T2_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_T3_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_IMPORT_T4_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_T1_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_T2_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_T3_KWH),
+            SnapshotLayout.metric(Metric.TOTAL_POWER_EXPORT_T4_KWH),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L1_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L2_W),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_L3_W),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L1_V),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L2_V),
+            SnapshotLayout.metric(Metric.ACTIVE_VOLTAGE_L3_V),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L1_A),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L2_A),
+            SnapshotLayout.metric(Metric.ACTIVE_CURRENT_L3_A),
+            SnapshotLayout.metric(Metric.ACTIVE_FREQUENCY_HZ),
+            SnapshotLayout.metric(Metric.VOLTAGE_SAG_L1_COUNT),
+            SnapshotLayout.metric(Metric.VOLTAGE_SAG_L2_COUNT),
+            SnapshotLayout.metric(Metric.VOLTAGE_SAG_L3_COUNT),
+            SnapshotLayout.metric(Metric.VOLTAGE_SWELL_L1_COUNT),
+            SnapshotLayout.metric(Metric.VOLTAGE_SWELL_L2_COUNT),
+            SnapshotLayout.metric(Metric.VOLTAGE_SWELL_L3_COUNT),
+            SnapshotLayout.metric(Metric.ANY_POWER_FAIL_COUNT),
+            SnapshotLayout.metric(Metric.LONG_POWER_FAIL_COUNT),
+            SnapshotLayout.metric(Metric.ACTIVE_POWER_AVERAGE_W),
+            SnapshotLayout.metric(Metric.MONTHLY_POWER_PEAK_W),
+            SnapshotLayout.metric(Metric.MONTHLY_POWER_PEAK_TIMESTAMP),
+            SnapshotLayout.metric(Metric.TOTAL_GAS_M3),
+            SnapshotLayout.metric(Metric.GAS_TIMESTAMP),
+            SnapshotLayout.metric(Metric.UNIQUE_GAS_ID),
+            SnapshotLayout.externalP1Devices("external"));
+    static final P1Snapshot EMPTY = LAYOUT.createEmpty();
+
+    private static final int UNIQUE_ID = LAYOUT.otherSlotOf("unique_id");
+    private static final int METER_MODEL = LAYOUT.otherSlotOf("meter_model");
+    private static final int EXTERNAL_P1_DEVICES = LAYOUT.otherSlotOf("external");
+
+    private P1Snapshot(final double[] values, final long presence, final Object[] others) {
+        super(LAYOUT, values, presence, others);
+    }
+
+    /**
+     * Returns the unique identifier from the smart meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return unique identifier from the smart meter
+     * @see P1Meter#getUniqueId()
+     */
+    public Optional<String> getUniqueId() {
+        return other(UNIQUE_ID);
+    }
+
+    /**
+     * Returns the DSMR version of the smart meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return DSMR version of the smart meter
+     * @see P1Meter#getSmrVersion()
+     */
+    public OptionalDouble getSmrVersion() {
+        return optional(Metric.SMR_VERSION);
+    }
+
+    /**
+     * Returns the brand identification the smart meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return brand identification the smart meter
+     * @see P1Meter#getMeterModel()
+     */
+    public Optional<String> getMeterModel() {
+        return other(METER_MODEL);
+    }
+
+    /**
+     * Returns the energy usage meter reading for all tariffs in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading for all tariffs in kWh
+     * @see P1Meter#getTotalPowerImportKwh()
+     */
+    public OptionalDouble getTotalPowerImportKwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_KWH);
+    }
+
+    /**
+     * Returns the energy usage meter reading for tariff 1 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading for tariff 1 in kWh
+     * @see P1Meter#getTotalPowerImportT1Kwh()
+     */
+    public OptionalDouble getTotalPowerImportT1Kwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_T1_KWH);
+    }
+
+    /**
+     * Returns the energy usage meter reading for tariff 2 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading for tariff 2 in kWh
+     * @see P1Meter#getTotalPowerImportT2Kwh()
+     */
+    public OptionalDouble getTotalPowerImportT2Kwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_T2_KWH);
+    }
+
+    /**
+     * Returns the energy usage meter reading for tariff 3 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading for tariff 3 in kWh
+     * @see P1Meter#getTotalPowerImportT3Kwh()
+     */
+    public OptionalDouble getTotalPowerImportT3Kwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_T3_KWH);
+    }
+
+    /**
+     * Returns the energy usage meter reading for tariff 4 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy usage meter reading for tariff 4 in kWh
+     * @see P1Meter#getTotalPowerImportT4Kwh()
+     */
+    public OptionalDouble getTotalPowerImportT4Kwh() {
+        return optional(Metric.TOTAL_POWER_IMPORT_T4_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading for all tariffs in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading for all tariffs in kWh
+     * @see P1Meter#getTotalPowerExportKwh()
+     */
+    public OptionalDouble getTotalPowerExportKwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading for tariff 1 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading for tariff 1 in kWh
+     * @see P1Meter#getTotalPowerExportT1Kwh()
+     */
+    public OptionalDouble getTotalPowerExportT1Kwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_T1_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading for tariff 2 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading for tariff 2 in kWh
+     * @see P1Meter#getTotalPowerExportT2Kwh()
+     */
+    public OptionalDouble getTotalPowerExportT2Kwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_T2_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading for tariff 3 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading for tariff 3 in kWh
+     * @see P1Meter#getTotalPowerExportT3Kwh()
+     */
+    public OptionalDouble getTotalPowerExportT3Kwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_T3_KWH);
+    }
+
+    /**
+     * Returns the energy feed-in meter reading for tariff 4 in kWh.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return energy feed-in meter reading for tariff 4 in kWh
+     * @see P1Meter#getTotalPowerExportT4Kwh()
+     */
+    public OptionalDouble getTotalPowerExportT4Kwh() {
+        return optional(Metric.TOTAL_POWER_EXPORT_T4_KWH);
+    }
+
+    /**
+     * Returns the total active usage in watt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return total active usage in watt
+     * @see P1Meter#getActivePowerW()
+     */
+    public OptionalDouble getActivePowerW() {
+        return optional(Metric.ACTIVE_POWER_W);
+    }
+
+    /**
+     * Returns the active usage for phase 1 in watt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 1 in watt
+     * @see P1Meter#getActivePowerL1W()
+     */
+    public OptionalDouble getActivePowerL1W() {
+        return optional(Metric.ACTIVE_POWER_L1_W);
+    }
+
+    /**
+     * Returns the active usage for phase 2 in watt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 2 in watt
+     * @see P1Meter#getActivePowerL2W()
+     */
+    public OptionalDouble getActivePowerL2W() {
+        return optional(Metric.ACTIVE_POWER_L2_W);
+    }
+
+    /**
+     * Returns the active usage for phase 3 in watt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active usage for phase 3 in watt
+     * @see P1Meter#getActivePowerL3W()
+     */
+    public OptionalDouble getActivePowerL3W() {
+        return optional(Metric.ACTIVE_POWER_L3_W);
+    }
+
+    /**
+     * Returns the active voltage for phase 1 in volt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 1 in volt
+     * @see P1Meter#getActiveVoltageL1V()
+     */
+    public OptionalDouble getActiveVoltageL1V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L1_V);
+    }
+
+    /**
+     * Returns the active voltage for phase 2 in volt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 2 in volt
+     * @see P1Meter#getActiveVoltageL2V()
+     */
+    public OptionalDouble getActiveVoltageL2V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L2_V);
+    }
+
+    /**
+     * Returns the active voltage for phase 3 in volt.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active voltage for phase 3 in volt
+     * @see P1Meter#getActiveVoltageL3V()
+     */
+    public OptionalDouble getActiveVoltageL3V() {
+        return optional(Metric.ACTIVE_VOLTAGE_L3_V);
+    }
+
+    /**
+     * Returns the active current for phase 1 in ampere.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 1 in ampere
+     * @see P1Meter#getActiveCurrentL1A()
+     */
+    public OptionalDouble getActiveCurrentL1A() {
+        return optional(Metric.ACTIVE_CURRENT_L1_A);
+    }
+
+    /**
+     * Returns the active current for phase 2 in ampere.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 2 in ampere
+     * @see P1Meter#getActiveCurrentL2A()
+     */
+    public OptionalDouble getActiveCurrentL2A() {
+        return optional(Metric.ACTIVE_CURRENT_L2_A);
+    }
+
+    /**
+     * Returns the active current for phase 3 in ampere.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active current for phase 3 in ampere
+     * @see P1Meter#getActiveCurrentL3A()
+     */
+    public OptionalDouble getActiveCurrentL3A() {
+        return optional(Metric.ACTIVE_CURRENT_L3_A);
+    }
+
+    /**
+     * Returns the line frequency in hertz.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return line frequency in hertz
+     * @see P1Meter#getActiveFrequencyHz()
+     */
+    public OptionalDouble getActiveFrequencyHz() {
+        return optional(Metric.ACTIVE_FREQUENCY_HZ);
+    }
+
+    /**
+     * Returns the number of voltage sags detected by meter for phase 1.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage sags detected by meter for phase 1
+     * @see P1Meter#getVoltageSagL1Count()
+     */
+    public OptionalDouble getVoltageSagL1Count() {
+        return optional(Metric.VOLTAGE_SAG_L1_COUNT);
+    }
+
+    /**
+     * Returns the number of voltage sags detected by meter for phase 2.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage sags detected by meter for phase 2
+     * @see P1Meter#getVoltageSagL2Count()
+     */
+    public OptionalDouble getVoltageSagL2Count() {
+        return optional(Metric.VOLTAGE_SAG_L2_COUNT);
+    }
+
+    /**
+     * Returns the number of voltage sags detected by meter for phase 3.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage sags detected by meter for phase 3
+     * @see P1Meter#getVoltageSagL3Count()
+     */
+    public OptionalDouble getVoltageSagL3Count() {
+        return optional(Metric.VOLTAGE_SAG_L3_COUNT);
+    }
+
+    /**
+     * Returns the number of voltage swells detected by meter for phase 1.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage swells detected by meter for phase 1
+     * @see P1Meter#getVoltageSwellL1Count()
+     */
+    public OptionalDouble getVoltageSwellL1Count() {
+        return optional(Metric.VOLTAGE_SWELL_L1_COUNT);
+    }
+
+    /**
+     * Returns the number of voltage swells detected by meter for phase 2.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage swells detected by meter for phase 2
+     * @see P1Meter#getVoltageSwellL2Count()
+     */
+    public OptionalDouble getVoltageSwellL2Count() {
+        return optional(Metric.VOLTAGE_SWELL_L2_COUNT);
+    }
+
+    /**
+     * Returns the number of voltage swells detected by meter for phase 3.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of voltage swells detected by meter for phase 3
+     * @see P1Meter#getVoltageSwellL3Count()
+     */
+    public OptionalDouble getVoltageSwellL3Count() {
+        return optional(Metric.VOLTAGE_SWELL_L3_COUNT);
+    }
+
+    /**
+     * Returns the number of power failures detected by meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of power failures detected by meter
+     * @see P1Meter#getAnyPowerFailCount()
+     */
+    public OptionalDouble getAnyPowerFailCount() {
+        return optional(Metric.ANY_POWER_FAIL_COUNT);
+    }
+
+    /**
+     * Returns the number of 'long' power fails detected by meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return number of 'long' power fails detected by meter
+     * @see P1Meter#getLongPowerFailCount()
+     */
+    public OptionalDouble getLongPowerFailCount() {
+        return optional(Metric.LONG_POWER_FAIL_COUNT);
+    }
+
+    /**
+     * Returns the active average demand.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return active average demand
+     * @see P1Meter#getActivePowerAverageW()
+     */
+    public OptionalDouble getActivePowerAverageW() {
+        return optional(Metric.ACTIVE_POWER_AVERAGE_W);
+    }
+
+    /**
+     * Returns the peak average demand of this month.
+     * There is a spelling mistake with this data point in the official API, but in this Java API, it is fixed.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return peak average demand of this month
+     * @see P1Meter#getMonthlyPowerPeakW()
+     */
+    public OptionalDouble getMonthlyPowerPeakW() {
+        return optional(Metric.MONTHLY_POWER_PEAK_W);
+    }
+
+    /**
+     * Returns the timestamp when peak demand was registered, formatted as <code>YYMMDDhhmmss</code>.
+     * There is a spelling mistake with this data point in the official API, but in this Java API, it is fixed.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return timestamp when peak demand was registered
+     * @see P1Meter#getMonthlyPowerPeakTimestamp()
+     */
+    public OptionalDouble getMonthlyPowerPeakTimestamp() {
+        return optional(Metric.MONTHLY_POWER_PEAK_TIMESTAMP);
+    }
+
+    /**
+     * Returns the gas meter reading in m3 for the first detected gas meter.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return gas meter reading in m3 for the first detected gas meter
+     * @see P1Meter#getTotalGasM3()
+     */
+    public OptionalDouble getTotalGasM3() {
+        return optional(Metric.TOTAL_GAS_M3);
+    }
+
+    /**
+     * Returns the most recent gas update time stamp structured as <code>YYMMDDhhmmss</code>.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return most recent gas update time stamp
+     * @see P1Meter#getGasTimestamp()
+     */
+    public OptionalDouble getGasTimestamp() {
+        return optional(Metric.GAS_TIMESTAMP);
+    }
+
+    /**
+     * Returns the unique identifier for the gas meter, can be used to migrate to the 'external' data point.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return unique identifier for the gas meter
+     * @see P1Meter#getUniqueGasId()
+     */
+    public OptionalDouble getUniqueGasId() {
+        return optional(Metric.UNIQUE_GAS_ID);
+    }
+
+    /**
+     * Returns a list of externally connected utility meters.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters">Official API documentation related to this method</a>
+     *
+     * @return a list of externally connected utility meters
+     * @see P1Meter#getExternalP1Devices()
+     */
+    public Optional<List<ExternalP1Device>> getExternalP1Devices() {
+        return other(EXTERNAL_P1_DEVICES);
+    }
+}
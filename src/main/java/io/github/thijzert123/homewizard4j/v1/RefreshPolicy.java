@@ -0,0 +1,97 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * How old the data of each {@link Endpoint} of a {@link Device} may get before {@link Device#updateAll()} reads it
+ * again. Every device has its own policy, which you can get with {@link Device#getRefreshPolicy()}.
+ * <p>
+ * By default, the maximum age of every endpoint is zero, so {@link Device#updateAll()} reads all endpoints on every call.
+ * The device info and system configuration rarely change, so they can get a long maximum age, while the measurements
+ * keep a short one. {@link Device#updateAll()} and {@link Device#updateAllConcurrently()} then skip the endpoints
+ * that have been read recently enough, which saves about half of the requests:
+ *
+ * <pre>
+ * p1Meter.getRefreshPolicy().setTiered(Duration.ofHours(1), Duration.ZERO);
+ * p1Meter.updateAll(); // Reads all endpoints
+ * p1Meter.updateAll(); // Only reads the measurements
+ * </pre>
+ * <p>
+ * Methods that update one endpoint, like {@link Device#updateMeasurements()}, always send a request.
+ * Use {@link Device#getSnapshot(Duration)} to only read the measurements when they are older than a maximum age.
+ *
+ * @author Thijzert123
+ * @see Device#getRefreshPolicy()
+ * @see Device#getAge(Endpoint)
+ * @since 2.1.0
+ */
+public final class RefreshPolicy {
+    private final Map<Endpoint, Duration> maxAges = new EnumMap<>(Endpoint.class);
+
+    RefreshPolicy() {
+        for (final Endpoint endpoint : Endpoint.values()) {
+            maxAges.put(endpoint, Duration.ZERO);
+        }
+    }
+
+    /**
+     * Returns how old the data of an endpoint may get before {@link Device#updateAll()} reads it again.
+     *
+     * @param endpoint the endpoint
+     * @return the maximum age of the endpoint, zero if it is read on every call
+     */
+    public synchronized Duration getMaxAge(final Endpoint endpoint) {
+        return maxAges.get(endpoint);
+    }
+
+    /**
+     * Sets how old the data of an endpoint may get before {@link Device#updateAll()} reads it again.
+     *
+     * @param endpoint the endpoint
+     * @param maxAge   the maximum age, zero to read the endpoint on every call, must not be negative
+     */
+    public synchronized void setMaxAge(final Endpoint endpoint, final Duration maxAge) {
+        requireNotNegative(maxAge);
+        maxAges.put(endpoint, maxAge);
+    }
+
+    /**
+     * Sets the maximum age of the endpoints that rarely change, the device info and the system configuration,
+     * and of the endpoints that change often, the measurements and the state of an energy socket.
+     *
+     * @param staticMaxAge  the maximum age of the device info and the system configuration, must not be negative
+     * @param dynamicMaxAge the maximum age of the measurements and the energy socket state, must not be negative
+     */
+    public synchronized void setTiered(final Duration staticMaxAge, final Duration dynamicMaxAge) {
+        requireNotNegative(staticMaxAge);
+        requireNotNegative(dynamicMaxAge);
+        maxAges.put(Endpoint.DEVICE_INFO, staticMaxAge);
+        maxAges.put(Endpoint.SYSTEM_CONFIGURATION, staticMaxAge);
+        maxAges.put(Endpoint.MEASUREMENTS, dynamicMaxAge);
+        maxAges.put(Endpoint.ENERGY_SOCKET_STATE, dynamicMaxAge);
+    }
+
+    /**
+     * Returns whether data of the provided age doesn't have to be read again.
+     *
+     * @param endpoint the endpoint of the data
+     * @param age      the age of the data, empty if it has never been read
+     * @return {@code true} if the data is fresh enough
+     */
+    boolean isFresh(final Endpoint endpoint, final Optional<Duration> age) {
+        return age.isPresent() && isFresh(age.get(), getMaxAge(endpoint));
+    }
+
+    static boolean isFresh(final Duration age, final Duration maxAge) {
+        return age.compareTo(maxAge) < 0;
+    }
+
+    static void requireNotNegative(final Duration maxAge) {
+        if (maxAge.isNegative()) {
+            throw new IllegalArgumentException("Maximum age must not be negative, but was " + maxAge);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The body of an HTTP response, kept as the {@link ByteBuffer}s the {@link DeviceTransport} delivered.
+ * The bytes can be fed straight into a JSON parser with {@link #asInputStream()},
+ * so no {@link String} has to be built for every response.
+ *
+ * @author Thijzert123
+ */
+final class ResponseBody {
+    private final List<ByteBuffer> buffers;
+
+    private ResponseBody(final List<ByteBuffer> buffers) {
+        this.buffers = buffers;
+    }
+
+    /**
+     * Wraps the provided buffers, without copying them.
+     *
+     * @param buffers the buffers of the body
+     * @return the body
+     */
+    static ResponseBody of(final List<ByteBuffer> buffers) {
+        return new ResponseBody(buffers);
+    }
+
+    /**
+     * Returns a new {@link InputStream} that reads this body from the start.
+     * Every call returns an independent stream, so the body can be read more than once.
+     *
+     * @return stream of the bytes of this body
+     */
+    InputStream asInputStream() {
+        return new BuffersInputStream(buffers);
+    }
+
+    /**
+     * Decodes this body as UTF-8. Only use this when you actually need the text, for example for logging.
+     *
+     * @return the body as {@link String}
+     */
+    String asString() {
+        final byte[] bytes = new byte[length()];
+        int offset = 0;
+        for (final ByteBuffer buffer : buffers) {
+            final int remaining = buffer.remaining();
+            buffer.duplicate().get(bytes, offset, remaining);
+            offset += remaining;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the length of this body in bytes.
+     *
+     * @return the length in bytes
+     */
+    int length() {
+        int length = 0;
+        for (final ByteBuffer buffer : buffers) {
+            length += buffer.remaining();
+        }
+        return length;
+    }
+
+    private static final class BuffersInputStream extends InputStream {
+        private final List<ByteBuffer> buffers;
+        private int index = 0;
+        private ByteBuffer current;
+
+        private BuffersInputStream(final List<ByteBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public int read() {
+            final ByteBuffer buffer = nextReadableBuffer();
+            return buffer == null ? -1 : buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) return 0;
+
+            final ByteBuffer buffer = nextReadableBuffer();
+            if (buffer == null) return -1;
+
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return current == null ? 0 : current.remaining();
+        }
+
+        private ByteBuffer nextReadableBuffer() {
+            while (current == null || !current.hasRemaining()) {
+                if (index >= buffers.size()) return null;
+                // duplicate, so reading doesn't change the position of the original buffer
+                current = buffers.get(index++).duplicate();
+            }
+            return current;
+        }
+    }
+}
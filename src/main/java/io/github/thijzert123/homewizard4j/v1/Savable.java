@@ -5,7 +5,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
-import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Thijzert123
@@ -20,17 +21,40 @@ abstract class Savable extends Updatable {
      * @throws HomeWizardApiException when something goes wrong while saving
      */
     void save(final String fullAddress) throws HomeWizardApiException {
+        HttpUtils.await(saveAsync(fullAddress));
+    }
+
+    /**
+     * Saves all the changed data asynchronously.
+     * <p>
+     * The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something goes wrong while saving. Cancelling it aborts the request.
+     *
+     * @param fullAddress the address to make a request to
+     * @return future that completes when the data has been saved
+     */
+    CompletableFuture<Void> saveAsync(final String fullAddress) {
         LOGGER.debug("Saving fields...");
 
+        final byte[] requestBody;
         try {
-            final String requestBody = objectMapper.writeValueAsString(this);
-            LOGGER.trace("Requesting with body: '{}'", requestBody);
-            final String responseBody = HttpUtils.getBody("PUT", fullAddress,
-                    HttpRequest.BodyPublishers.ofString(requestBody));
-            LOGGER.trace("Response with body: '{}'", responseBody);
+            requestBody = JsonMappers.writerFor(getClass()).writeValueAsBytes(this);
         } catch (final JsonProcessingException jsonProcessingException) {
-            throw new HomeWizardApiException(jsonProcessingException, LOGGER);
+            return CompletableFuture.failedFuture(new HomeWizardApiException(jsonProcessingException, LOGGER));
         }
+
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Requesting with body: '{}'", new String(requestBody, StandardCharsets.UTF_8));
+        }
+        // Sending the same values twice has the same effect as sending them once
+        final CompletableFuture<ResponseBody> responseFuture = HttpUtils.requestAsync(getDevice(), "PUT", fullAddress,
+                requestBody, getDevice().getTimeouts().getRequestTimeout(),
+                getDevice().getHealth().isRetryIdempotentPuts());
+        return HttpUtils.cancelling(responseFuture.thenAccept(responseBody -> {
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Response with body: '{}'", responseBody.asString());
+            }
+        }), responseFuture);
     }
 
     /**
@@ -39,4 +63,14 @@ abstract class Savable extends Updatable {
      * @throws HomeWizardApiException when something goes wrong while saving
      */
     public abstract void save() throws HomeWizardApiException;
+
+    /**
+     * Saves all the changed data to the device asynchronously.
+     * The returned future completes exceptionally with a {@link HomeWizardApiException} when something goes wrong
+     * while saving. Cancelling the future aborts the request.
+     *
+     * @return future that completes when the data has been saved
+     * @since 2.1.0
+     */
+    public abstract CompletableFuture<Void> saveAsync();
 }
@@ -0,0 +1,169 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Makes sure that only one request per key is in flight at the same time. Callers that arrive while a request
+ * is in flight don't start their own request, but wait for the one in flight and share its result.
+ * <p>
+ * Every caller gets its own future. Cancelling it only cancels the request when no other caller is waiting for it
+ * anymore, so one caller that gives up doesn't abort the request for the others. The same goes for timeouts:
+ * a caller that joins a request in flight stops waiting after its own timeout, without aborting the request.
+ * The caller that starts the request is expected to give the request itself that timeout.
+ *
+ * @author Thijzert123
+ */
+final class SingleFlight {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final ConcurrentMap<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Joins the request that is in flight for the key, or starts a new one if there is none.
+     *
+     * @param key     identifies the request, for example the address
+     * @param timeout how long this caller waits when it joins a request in flight
+     * @param request starts the request
+     * @param <T>     the type of the result
+     * @return future for this caller that completes with the result of the shared request
+     */
+    <T> CompletableFuture<T> run(final String key, final Duration timeout, final Supplier<CompletableFuture<T>> request) {
+        while (true) {
+            @SuppressWarnings("unchecked")
+            final Flight<T> current = (Flight<T>) flights.get(key);
+            if (current != null) {
+                final CompletableFuture<T> joined = current.join();
+                if (joined != null) {
+                    current.timeOut(joined, key, timeout);
+                    LOGGER.debug("Joined request in flight for '{}'", key);
+                    return joined;
+                }
+                // All callers of the current flight have cancelled it, so it can't be joined anymore
+                flights.remove(key, current);
+                continue;
+            }
+
+            final Flight<T> flight = new Flight<>();
+            if (flights.putIfAbsent(key, flight) != null) {
+                continue;
+            }
+            final CompletableFuture<T> joined = flight.join();
+            flight.start(request);
+            // Removed before the callers are completed, so callers that react to the result start a new request
+            flight.result.whenComplete((value, throwable) -> flights.remove(key, flight));
+            return joined;
+        }
+    }
+
+    /**
+     * One shared request and the callers that wait for it.
+     *
+     * @param <T> the type of the result
+     */
+    private static final class Flight<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+        private volatile CompletableFuture<T> source;
+
+        /**
+         * Adds a caller to this flight.
+         *
+         * @return future for the caller, or {@code null} if all previous callers have cancelled this flight
+         */
+        CompletableFuture<T> join() {
+            int count;
+            do {
+                count = waiters.get();
+                if (count < 0) {
+                    return null;
+                }
+            } while (!waiters.compareAndSet(count, count + 1));
+
+            final CompletableFuture<T> caller = new CompletableFuture<>();
+            result.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    caller.complete(value);
+                } else {
+                    caller.completeExceptionally(throwable);
+                }
+            });
+            caller.whenComplete((value, throwable) -> {
+                if (caller.isCancelled()) {
+                    leave();
+                }
+            });
+            return caller;
+        }
+
+        void start(final Supplier<CompletableFuture<T>> request) {
+            final CompletableFuture<T> started;
+            try {
+                started = request.get();
+            } catch (final RuntimeException runtimeException) {
+                result.completeExceptionally(runtimeException);
+                return;
+            }
+            source = started;
+            started.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(throwable);
+                }
+            });
+            // A caller might have cancelled before the request was started
+            if (waiters.get() < 0) {
+                started.cancel(true);
+            }
+        }
+
+        /**
+         * Stops waiting for the result when it isn't there within the timeout.
+         *
+         * @param caller  the future of the caller, returned by {@link #join()}
+         * @param key     the key of this flight, for the message
+         * @param timeout how long the caller waits
+         */
+        void timeOut(final CompletableFuture<T> caller, final String key, final Duration timeout) {
+            // Unlike a task of a delayed executor, this timeout is cancelled when it is cancelled itself,
+            // so a caller that is done isn't referenced until the timeout would have passed
+            final CompletableFuture<Void> timeoutFuture = new CompletableFuture<Void>()
+                    .completeOnTimeout(null, timeout.toNanos(), TimeUnit.NANOSECONDS);
+            timeoutFuture.thenRun(() -> {
+                final HttpTimeoutException timeoutException = new HttpTimeoutException(
+                        "Request in flight for '" + key + "' timed out after " + timeout.toMillis() + " ms");
+                if (caller.completeExceptionally(new HomeWizardApiException(timeoutException, LOGGER))) {
+                    leave();
+                }
+            });
+            caller.whenComplete((value, throwable) -> timeoutFuture.cancel(false));
+        }
+
+        private void leave() {
+            // When the last caller leaves, the count is set to -1, so nobody can join a cancelled flight
+            int count;
+            do {
+                count = waiters.get();
+            } while (!waiters.compareAndSet(count, count == 1 ? -1 : count - 1));
+
+            if (count == 1) {
+                final CompletableFuture<T> started = source;
+                if (started != null) {
+                    started.cancel(true);
+                }
+                result.cancel(true);
+            }
+        }
+    }
+}
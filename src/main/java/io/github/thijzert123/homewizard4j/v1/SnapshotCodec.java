@@ -0,0 +1,231 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads and writes {@link MeasurementSnapshot} instances directly, based on their {@link SnapshotLayout}.
+ * Numbers are read straight into the {@code double[]} of the snapshot, so no {@link java.util.OptionalDouble}
+ * is created for every value in a response.
+ *
+ * @author Thijzert123
+ */
+final class SnapshotCodec {
+    private SnapshotCodec() {
+    }
+
+    /**
+     * Creates a module with a deserializer for every type of snapshot and a serializer for all snapshots.
+     *
+     * @return the module
+     */
+    static SimpleModule module() {
+        return new SimpleModule("MeasurementSnapshots")
+                .addDeserializer(P1Snapshot.class, new Deserializer<>(P1Snapshot.LAYOUT))
+                .addDeserializer(KWhMeterSnapshot.class, new Deserializer<>(KWhMeterSnapshot.LAYOUT))
+                .addDeserializer(EnergySocketSnapshot.class, new Deserializer<>(EnergySocketSnapshot.LAYOUT))
+                .addDeserializer(WaterMeterSnapshot.class, new Deserializer<>(WaterMeterSnapshot.LAYOUT))
+                .addSerializer(MeasurementSnapshot.class, new Serializer(NameTransformer.NOP, false));
+    }
+
+    /**
+     * Reads the properties of one snapshot one by one.
+     *
+     * @param <T> the type of snapshot
+     */
+    private static final class Reader<T extends MeasurementSnapshot> {
+        private static final JavaType EXTERNAL_P1_DEVICES_TYPE = TypeFactory.defaultInstance()
+                .constructCollectionType(List.class, ExternalP1Device.class);
+        // There is only one mapper with this codec, so its deserializer can be shared
+        private static volatile JsonDeserializer<Object> externalP1DevicesDeserializer;
+
+        private final SnapshotLayout<T> layout;
+        private final double[] values;
+        private final Object[] others;
+        private long presence;
+
+        Reader(final SnapshotLayout<T> layout) {
+            this.layout = layout;
+            values = new double[layout.getMetricCount()];
+            others = new Object[layout.getOtherCount()];
+        }
+
+        /**
+         * Reads the value of a property, if it is part of the layout.
+         *
+         * @param name    the name of the property
+         * @param parser  parser, positioned at the value of the property
+         * @param context context for reading nested values
+         * @return {@code true} if the property is part of the layout and has been read
+         * @throws IOException when the value cannot be read
+         */
+        boolean readProperty(final String name, final JsonParser parser, final DeserializationContext context)
+                throws IOException {
+            final SnapshotLayout.Property property = layout.getProperty(name);
+            if (property == null) {
+                return false;
+            }
+            final JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return true;
+            }
+            switch (property.kind()) {
+                case METRIC -> {
+                    values[property.slot()] = readDouble(parser, context, token);
+                    presence |= 1L << property.slot();
+                }
+                case TEXT -> {
+                    others[property.slot()] = parser.getValueAsString();
+                    parser.skipChildren();
+                }
+                case EXTERNAL_P1_DEVICES -> {
+                    @SuppressWarnings("unchecked")
+                    final List<ExternalP1Device> externalP1Devices =
+                            (List<ExternalP1Device>) externalP1DevicesDeserializer(context).deserialize(parser, context);
+                    others[property.slot()] = Collections.unmodifiableList(externalP1Devices);
+                }
+            }
+            return true;
+        }
+
+        T create() {
+            return layout.create(values, presence, others);
+        }
+
+        /**
+         * Finds the deserializer of the list of external devices only once, because looking it up for every response
+         * costs about as much as reading the list.
+         */
+        private static JsonDeserializer<Object> externalP1DevicesDeserializer(final DeserializationContext context)
+                throws IOException {
+            JsonDeserializer<Object> deserializer = externalP1DevicesDeserializer;
+            if (deserializer == null) {
+                deserializer = context.findRootValueDeserializer(EXTERNAL_P1_DEVICES_TYPE);
+                externalP1DevicesDeserializer = deserializer;
+            }
+            return deserializer;
+        }
+
+        private static double readDouble(final JsonParser parser,
+                                         final DeserializationContext context,
+                                         final JsonToken token) throws IOException {
+            if (token.isNumeric()) {
+                return parser.getDoubleValue();
+            }
+            if (token == JsonToken.VALUE_STRING) {
+                try {
+                    return Double.parseDouble(parser.getText().trim());
+                } catch (final NumberFormatException numberFormatException) {
+                    return (double) context.handleWeirdStringValue(double.class, parser.getText(),
+                            "not a valid number");
+                }
+            }
+            return (double) context.handleUnexpectedToken(double.class, parser);
+        }
+    }
+
+    /**
+     * Reads a snapshot from a JSON object. Properties that are not part of the layout are skipped.
+     *
+     * @param <T> the type of snapshot
+     */
+    private static final class Deserializer<T extends MeasurementSnapshot> extends JsonDeserializer<T> {
+        private final SnapshotLayout<T> layout;
+
+        private Deserializer(final SnapshotLayout<T> layout) {
+            this.layout = layout;
+        }
+
+        @Override
+        public T deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            final Reader<T> reader = new Reader<>(layout);
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            }
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                final String name = parser.currentName();
+                parser.nextToken();
+                if (!reader.readProperty(name, parser, context)) {
+                    parser.skipChildren();
+                }
+            }
+            return reader.create();
+        }
+
+        @Override
+        public JsonDeserializer<T> unwrappingDeserializer(final NameTransformer unwrapper) {
+            // Jackson only treats the property as unwrapped if a different instance is returned
+            return new Deserializer<>(layout);
+        }
+
+        @Override
+        public T getNullValue(final DeserializationContext context) {
+            return layout.createEmpty();
+        }
+    }
+
+    /**
+     * Writes the properties of a snapshot in the order of its layout, with {@code null} for missing values.
+     * The Wi-Fi values are not written, because the device writes those itself.
+     */
+    private static final class Serializer extends JsonSerializer<MeasurementSnapshot> {
+        private final NameTransformer nameTransformer;
+        private final boolean unwrapping;
+
+        private Serializer(final NameTransformer nameTransformer, final boolean unwrapping) {
+            this.nameTransformer = nameTransformer;
+            this.unwrapping = unwrapping;
+        }
+
+        @Override
+        public void serialize(final MeasurementSnapshot snapshot,
+                              final JsonGenerator generator,
+                              final SerializerProvider provider) throws IOException {
+            if (!unwrapping) {
+                generator.writeStartObject(snapshot);
+            }
+            for (final SnapshotLayout.Property property : snapshot.getLayout().getProperties()) {
+                if (!property.serialized()) {
+                    continue;
+                }
+                generator.writeFieldName(nameTransformer.transform(property.jsonName()));
+                if (property.kind() == SnapshotLayout.Kind.METRIC) {
+                    if (snapshot.isPresent(property.slot())) {
+                        generator.writeNumber(snapshot.valueAt(property.slot()));
+                    } else {
+                        generator.writeNull();
+                    }
+                } else {
+                    provider.defaultSerializeValue(snapshot.otherAt(property.slot()), generator);
+                }
+            }
+            if (!unwrapping) {
+                generator.writeEndObject();
+            }
+        }
+
+        @Override
+        public boolean isUnwrappingSerializer() {
+            return unwrapping;
+        }
+
+        @Override
+        public JsonSerializer<MeasurementSnapshot> unwrappingSerializer(final NameTransformer unwrapper) {
+            return new Serializer(NameTransformer.chainedTransformer(unwrapper, nameTransformer), true);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes how the values of one type of {@link MeasurementSnapshot} are stored and in which order they appear in JSON.
+ * Every {@link Metric} of the snapshot gets a slot in a {@code double[]} and a bit in the presence bitmask.
+ * Values that are not numbers, like the meter model of a P1 meter, get a slot in an {@code Object[]}.
+ *
+ * @param <T> the type of snapshot
+ * @author Thijzert123
+ */
+final class SnapshotLayout<T extends MeasurementSnapshot> {
+    /**
+     * Creates a snapshot from the values that have been read.
+     *
+     * @param <T> the type of snapshot
+     */
+    @FunctionalInterface
+    interface Factory<T extends MeasurementSnapshot> {
+        T create(double[] values, long presence, Object[] others);
+    }
+
+    /**
+     * The kind of value of a property.
+     */
+    enum Kind {
+        METRIC,
+        TEXT,
+        EXTERNAL_P1_DEVICES
+    }
+
+    /**
+     * A property of a snapshot.
+     *
+     * @param jsonName   the name in JSON
+     * @param kind       the kind of value
+     * @param metric     the metric, only if the kind is {@link Kind#METRIC}
+     * @param slot       index in the values or the others
+     * @param serialized whether the property is written as part of the snapshot
+     */
+    record Property(String jsonName, Kind kind, Metric metric, int slot, boolean serialized) {
+        private Property withSlot(final int slot) {
+            return new Property(jsonName, kind, metric, slot, serialized);
+        }
+    }
+
+    /**
+     * Maximum amount of metrics per snapshot, because the presence of every metric is stored as a bit in a {@code long}.
+     */
+    private static final int MAX_METRIC_COUNT = Long.SIZE;
+
+    private final Factory<T> factory;
+    private final List<Property> properties;
+    private final Map<String, Property> propertiesByName = new HashMap<>();
+    private final int[] slotsByMetric = new int[Metric.values().length];
+    private final Set<Metric> metrics = EnumSet.noneOf(Metric.class);
+    private final int metricCount;
+    private final int otherCount;
+
+    /**
+     * Creates a layout. The Wi-Fi values, which every device returns, are added automatically.
+     * They are only read, because the device writes them itself.
+     *
+     * @param factory    creates a snapshot from the values that have been read
+     * @param properties the properties in the order they appear in JSON
+     */
+    SnapshotLayout(final Factory<T> factory, final Property... properties) {
+        this.factory = factory;
+        Arrays.fill(slotsByMetric, -1);
+
+        final List<Property> allProperties = new ArrayList<>();
+        allProperties.add(new Property("wifi_ssid", Kind.TEXT, null, -1, false));
+        allProperties.add(new Property(Metric.WIFI_STRENGTH.getJsonName(), Kind.METRIC, Metric.WIFI_STRENGTH, -1, false));
+        allProperties.addAll(Arrays.asList(properties));
+
+        final List<Property> slottedProperties = new ArrayList<>();
+        int metricSlot = 0;
+        int otherSlot = 0;
+        for (final Property property : allProperties) {
+            final Property slottedProperty;
+            if (property.kind() == Kind.METRIC) {
+                slottedProperty = property.withSlot(metricSlot++);
+                slotsByMetric[property.metric().ordinal()] = slottedProperty.slot();
+                metrics.add(property.metric());
+            } else {
+                slottedProperty = property.withSlot(otherSlot++);
+            }
+            slottedProperties.add(slottedProperty);
+            propertiesByName.put(slottedProperty.jsonName(), slottedProperty);
+        }
+
+        if (metricSlot > MAX_METRIC_COUNT) {
+            throw new IllegalArgumentException("A snapshot can have at most " + MAX_METRIC_COUNT + " metrics");
+        }
+        this.properties = Collections.unmodifiableList(slottedProperties);
+        metricCount = metricSlot;
+        otherCount = otherSlot;
+    }
+
+    static Property metric(final Metric metric) {
+        return new Property(metric.getJsonName(), Kind.METRIC, metric, -1, true);
+    }
+
+    static Property text(final String jsonName) {
+        return new Property(jsonName, Kind.TEXT, null, -1, true);
+    }
+
+    static Property externalP1Devices(final String jsonName) {
+        return new Property(jsonName, Kind.EXTERNAL_P1_DEVICES, null, -1, true);
+    }
+
+    /**
+     * Creates a snapshot from the values that have been read.
+     *
+     * @param values   the values of the metrics, by slot
+     * @param presence bitmask with a bit for every slot that has a value
+     * @param others   the values that are not metrics, by slot
+     * @return the new snapshot
+     */
+    T create(final double[] values, final long presence, final Object[] others) {
+        return factory.create(values, presence, others);
+    }
+
+    /**
+     * Creates a snapshot without any values.
+     *
+     * @return the new, empty snapshot
+     */
+    T createEmpty() {
+        return create(new double[metricCount], 0, new Object[otherCount]);
+    }
+
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    Property getProperty(final String jsonName) {
+        return propertiesByName.get(jsonName);
+    }
+
+    /**
+     * Returns the slot of the metric.
+     *
+     * @param metric the metric
+     * @return the slot of the metric, or {@code -1} if the metric is not part of this layout
+     */
+    int slotOf(final Metric metric) {
+        return slotsByMetric[metric.ordinal()];
+    }
+
+    /**
+     * Returns the slot of a property that is not a metric.
+     *
+     * @param jsonName the name of the property in JSON
+     * @return the slot of the property
+     */
+    int otherSlotOf(final String jsonName) {
+        final Property property = propertiesByName.get(jsonName);
+        if (property == null || property.kind() == Kind.METRIC) {
+            throw new IllegalArgumentException("No property that is not a metric with name " + jsonName);
+        }
+        return property.slot();
+    }
+
+    Set<Metric> getMetrics() {
+        return Collections.unmodifiableSet(metrics);
+    }
+
+    int getMetricCount() {
+        return metricCount;
+    }
+
+    int getOtherCount() {
+        return otherCount;
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.io.IOException;
+
+/**
+ * Signals that a request failed because the connection it was sent on had been closed by the device, before any
+ * part of the response arrived. HomeWizard devices quietly close connections that were idle for a while,
+ * so this happens to the first request on a kept-alive connection after a pause.
+ * <p>
+ * A {@link DeviceTransport} fails a request with this exception when it knows the connection went stale.
+ * Idempotent requests that fail this way are retried once, see {@link DeviceHealth#getRetryCount()}.
+ *
+ * @author Thijzert123
+ * @see DeviceHealth#setRetryIdempotentPuts(boolean)
+ * @since 2.1.0
+ */
+public class StaleConnectionException extends IOException {
+    /**
+     * Creates the exception.
+     *
+     * @param message the detail message
+     */
+    public StaleConnectionException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Creates the exception with the error the connection failed with.
+     *
+     * @param message the detail message
+     * @param cause   the error the connection failed with
+     */
+    public StaleConnectionException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,362 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds HomeWizard devices by sending a request to the <code>/api</code> endpoint of every address in a range,
+ * for networks where mDNS doesn't work, for example because the access points drop multicast traffic.
+ * Every address that responds with the device info of a known product type becomes a device of the matching class,
+ * like {@link P1Meter} for <code>HWE-P1</code>. Addresses that don't respond within the timeout are skipped.
+ * <p>
+ * No threads are used for waiting: at most {@link #getParallelism()} requests are sent at the same time, and the next
+ * address is requested as soon as another one is done. With the default timeout and parallelism,
+ * a <code>/22</code> of 1022 addresses takes about 2 seconds when most addresses don't respond.
+ * <p>
+ * This code example scans a <code>/24</code> and prints the P1 meters it finds:
+ *
+ * <pre>
+ * final SubnetScanner scanner = new SubnetScanner(new NioTransport());
+ * for (final Device device : scanner.scan("192.168.1.0/24")) {
+ *     if (device instanceof P1Meter p1Meter) {
+ *         System.out.println(p1Meter.getHostAddress());
+ *     }
+ * }
+ * </pre>
+ * <p>
+ * Devices that are found by the scanner don't have a service name. To combine them with the devices that mDNS finds,
+ * use {@link HomeWizardDiscoverer#scanSubnetAsync(String)}.
+ *
+ * @author Thijzert123
+ * @since 2.1.0
+ */
+public final class SubnetScanner {
+    /**
+     * The default timeout of a request, including connecting. Devices on the local network respond much faster.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(500);
+    /**
+     * The default maximum amount of requests at the same time.
+     */
+    public static final int DEFAULT_PARALLELISM = 256;
+    /**
+     * The smallest prefix length that can be scanned, so a typo can't start a scan of millions of addresses.
+     */
+    public static final int MINIMUM_PREFIX_LENGTH = 16;
+    private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final DeviceTransport transport;
+    private Duration timeout = DEFAULT_TIMEOUT;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int port = 80;
+
+    /**
+     * Creates a scanner that sends its requests with the shared transport.
+     *
+     * @see HttpUtils#getSharedTransport()
+     */
+    public SubnetScanner() {
+        this(HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Creates a scanner that sends its requests with the provided transport. The found devices also use this transport.
+     * A transport that doesn't need a thread per request, like {@link NioTransport}, handles a high parallelism best.
+     *
+     * @param transport transport that sends the requests
+     */
+    public SubnetScanner(final DeviceTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Returns the timeout of a request to an address, including connecting.
+     *
+     * @return the timeout of a request
+     */
+    public synchronized Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout of a request to an address, including connecting.
+     *
+     * @param timeout the timeout of a request, must be positive
+     */
+    public synchronized void setTimeout(final Duration timeout) {
+        DeviceTimeouts.requirePositive(timeout);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the maximum amount of requests at the same time.
+     *
+     * @return the maximum amount of requests at the same time
+     */
+    public synchronized int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the maximum amount of requests at the same time.
+     *
+     * @param parallelism the maximum amount of requests at the same time, at least 1
+     */
+    public synchronized void setParallelism(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Returns the port that is requested on every address.
+     *
+     * @return the port
+     */
+    public synchronized int getPort() {
+        return port;
+    }
+
+    /**
+     * Sets the port that is requested on every address. HomeWizard devices use port 80.
+     *
+     * @param port the port
+     */
+    public synchronized void setPort(final int port) {
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Port must be between 1 and 65535, but was " + port);
+        }
+        this.port = port;
+    }
+
+    /**
+     * Scans all addresses of an IPv4 range and blocks until all of them are done.
+     *
+     * @param cidr the range in CIDR notation, for example <code>192.168.1.0/24</code>,
+     *             with a prefix length of at least {@link #MINIMUM_PREFIX_LENGTH}
+     * @return the found devices, in the order of their addresses
+     * @throws HomeWizardApiException only when the current thread was interrupted while waiting
+     */
+    public List<Device> scan(final String cidr) throws HomeWizardApiException {
+        return HttpUtils.await(scanAsync(cidr));
+    }
+
+    /**
+     * Asynchronous version of {@link #scan(String)}. The returned future completes when all addresses are done.
+     * Cancelling it skips the addresses that haven't been requested yet.
+     *
+     * @param cidr the range in CIDR notation, for example <code>192.168.1.0/24</code>,
+     *             with a prefix length of at least {@link #MINIMUM_PREFIX_LENGTH}
+     * @return future of the found devices, in the order of their addresses
+     */
+    public CompletableFuture<List<Device>> scanAsync(final String cidr) {
+        final List<String> hostAddresses = getHostAddresses(cidr);
+        final Scan scan;
+        synchronized (this) {
+            scan = new Scan(hostAddresses, timeout, port);
+        }
+        LOGGER.debug("Scanning {} addresses of {}, {} at a time", hostAddresses.size(), cidr, scan.parallelism(parallelism));
+        scan.start(parallelism);
+        return scan.result;
+    }
+
+    /**
+     * Returns the host addresses of an IPv4 range. The network and broadcast addresses are left out, unless the range
+     * is too small to have them.
+     *
+     * @param cidr the range in CIDR notation
+     * @return the host addresses, in ascending order
+     */
+    static List<String> getHostAddresses(final String cidr) {
+        final int slash = cidr.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Not a range in CIDR notation: '" + cidr + "'");
+        }
+        final int prefixLength;
+        final byte[] addressBytes;
+        try {
+            prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+            final InetAddress address = InetAddress.getByName(cidr.substring(0, slash));
+            if (!(address instanceof Inet4Address)) {
+                throw new IllegalArgumentException("Only IPv4 ranges can be scanned, but was '" + cidr + "'");
+            }
+            addressBytes = address.getAddress();
+        } catch (final NumberFormatException | UnknownHostException exception) {
+            throw new IllegalArgumentException("Not a range in CIDR notation: '" + cidr + "'", exception);
+        }
+        if (prefixLength < MINIMUM_PREFIX_LENGTH || prefixLength > 32) {
+            throw new IllegalArgumentException("Prefix length must be between " + MINIMUM_PREFIX_LENGTH
+                    + " and 32, but was " + prefixLength);
+        }
+
+        final long size = 1L << (32 - prefixLength);
+        final long network = toLong(addressBytes) & ~(size - 1) & 0xFFFFFFFFL;
+        // A /31 and /32 have no network and broadcast address
+        final long first = size > 2 ? network + 1 : network;
+        final long last = size > 2 ? network + size - 2 : network + size - 1;
+        final List<String> hostAddresses = new ArrayList<>((int) (last - first + 1));
+        for (long address = first; address <= last; address++) {
+            hostAddresses.add(((address >> 24) & 0xFF) + "." + ((address >> 16) & 0xFF) + "."
+                    + ((address >> 8) & 0xFF) + "." + (address & 0xFF));
+        }
+        return hostAddresses;
+    }
+
+    private static long toLong(final byte[] addressBytes) {
+        long value = 0;
+        for (final byte addressByte : addressBytes) {
+            value = (value << 8) | (addressByte & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * One run of {@link #scanAsync(String)}. Every address that is done starts the next one.
+     */
+    private final class Scan {
+        private final List<String> hostAddresses;
+        private final Duration timeout;
+        private final int port;
+        private final CompletableFuture<List<Device>> result = new CompletableFuture<>();
+        // Every address has its own slot, so the devices are in the order of their addresses
+        private final Device[] devices;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger done = new AtomicInteger();
+        private final AtomicInteger pendingStarts = new AtomicInteger();
+
+        private Scan(final List<String> hostAddresses, final Duration timeout, final int port) {
+            this.hostAddresses = hostAddresses;
+            this.timeout = timeout;
+            this.port = port;
+            devices = new Device[hostAddresses.size()];
+        }
+
+        private int parallelism(final int maximum) {
+            return Math.min(maximum, hostAddresses.size());
+        }
+
+        private void start(final int maximum) {
+            for (int i = 0; i < parallelism(maximum); i++) {
+                startNext();
+            }
+        }
+
+        /**
+         * Starts the next address. When a request completes on the thread that started it, the next address is
+         * started by the loop of the first call instead of recursively, so a large range can't overflow the stack.
+         */
+        private void startNext() {
+            if (pendingStarts.getAndIncrement() != 0) return;
+            do {
+                startOne();
+            } while (pendingStarts.decrementAndGet() != 0);
+        }
+
+        private void startOne() {
+            final int index = nextIndex.getAndIncrement();
+            if (index >= hostAddresses.size()) return;
+            if (result.isDone()) {
+                onDone();
+                return;
+            }
+            final String hostAddress = hostAddresses.get(index);
+            CompletableFuture<DeviceTransport.Response> future;
+            try {
+                future = transport.send(new DeviceTransport.Request("GET",
+                        URI.create("http://" + hostAddress + ":" + port + "/api"), HttpUtils.NO_BODY, timeout));
+            } catch (final RuntimeException runtimeException) {
+                future = CompletableFuture.failedFuture(runtimeException);
+            }
+            future.whenComplete((response, throwable) -> {
+                try {
+                    if (throwable == null) {
+                        toDevice(hostAddress, response).ifPresent(device -> devices[index] = device);
+                    } else {
+                        LOGGER.trace("No device at '{}'", hostAddress, throwable);
+                    }
+                } catch (final RuntimeException runtimeException) {
+                    LOGGER.debug("Could not create device at '{}'", hostAddress, runtimeException);
+                } finally {
+                    // Every address must be counted, or the scan never completes
+                    onDone();
+                }
+            });
+        }
+
+        private void onDone() {
+            if (done.incrementAndGet() == hostAddresses.size()) {
+                complete();
+            } else {
+                startNext();
+            }
+        }
+
+        /**
+         * Creates a device from the response of the <code>/api</code> endpoint.
+         */
+        private Optional<Device> toDevice(final String hostAddress, final DeviceTransport.Response response) {
+            if (response.statusCode() != 200) return Optional.empty();
+            final JsonNode deviceInfo;
+            try {
+                deviceInfo = JsonMappers.OBJECT_MAPPER.readTree(ResponseBody.of(response.body()).asInputStream());
+            } catch (final IOException ioException) {
+                LOGGER.trace("Response of '{}' isn't JSON", hostAddress, ioException);
+                return Optional.empty();
+            }
+            if (deviceInfo == null) return Optional.empty();
+            final String productType = deviceInfo.path("product_type").asText();
+            final Optional<DeviceFactory> factory = DeviceFactoryRegistry.get(productType);
+            if (factory.isEmpty()) {
+                LOGGER.trace("Address '{}' responded with unknown product type '{}'", hostAddress, productType);
+                return Optional.empty();
+            }
+            LOGGER.debug("Found device with product type '{}' at '{}'", productType, hostAddress);
+            final Optional<Device> device = DeviceFactoryRegistry.create(factory.get(), new DeviceDescriptor(
+                    Optional.empty(),
+                    // The device info is only available when the API is enabled
+                    true,
+                    hostAddress,
+                    port,
+                    "/api/" + deviceInfo.path("api_version").asText("v1"),
+                    productType,
+                    JsonMappers.optionalText(deviceInfo, "product_name"),
+                    JsonMappers.optionalText(deviceInfo, "serial"),
+                    transport));
+            if (device.isEmpty()) return Optional.empty();
+            // Also sets the firmware and API version, so the device info doesn't have to be requested again
+            try {
+                JsonMappers.readerForUpdating(device.get()).readValue(deviceInfo);
+            } catch (final IOException ioException) {
+                LOGGER.debug("Could not read device info of '{}'", hostAddress, ioException);
+            }
+            device.get().markUpdated(Endpoint.DEVICE_INFO);
+            return device;
+        }
+
+        private void complete() {
+            final List<Device> found = new ArrayList<>();
+            for (final Device device : devices) {
+                if (device != null) {
+                    found.add(device);
+                }
+            }
+            LOGGER.debug("Scanned {} addresses, found {} device(s)", hostAddresses.size(), found.size());
+            result.complete(List.copyOf(found));
+        }
+    }
+}
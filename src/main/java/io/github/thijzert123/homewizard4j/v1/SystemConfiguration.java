@@ -5,7 +5,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The configuration for a HomeWizard device.
@@ -21,15 +23,12 @@ import java.util.Optional;
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SystemConfiguration extends Savable {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    private String apiAddress;
+
+    private volatile String apiAddress;
+    private volatile Device device;
     @JsonProperty("cloud_enabled")
     private Optional<Boolean> cloudEnabled = Optional.empty();
 
-    /**
-     * For Jackson
-     */
-    private SystemConfiguration() {}
-
     SystemConfiguration(final Device device) {
         updatePrivateFields(device);
     }
@@ -42,6 +41,17 @@ public class SystemConfiguration extends Savable {
      */
     void updatePrivateFields(final Device device) {
         apiAddress = device.getFullApiAddress() + "/system";
+        this.device = device;
+    }
+
+    @Override
+    Device getDevice() {
+        return device;
+    }
+
+    @Override
+    Endpoint getUpdateEndpoint() {
+        return Endpoint.SYSTEM_CONFIGURATION;
     }
 
     /**
@@ -53,11 +63,38 @@ public class SystemConfiguration extends Savable {
         update(apiAddress);
     }
 
+    /**
+     * Updates all the data asynchronously. If you previously made changes, they will be discarded!
+     * The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something goes wrong while updating.
+     *
+     * @return future that completes when the data has been updated
+     * @since 2.1.0
+     */
+    public CompletableFuture<Void> updateAsync() {
+        return updateAsync(apiAddress);
+    }
+
+    /**
+     * Updates all the data asynchronously with the provided timeout, for {@link Device#updateAll(Duration)}.
+     *
+     * @param timeout the timeout of the request
+     * @return future that completes when the data has been updated
+     */
+    CompletableFuture<Void> updateAsync(final Duration timeout) {
+        return updateAsync(apiAddress, timeout);
+    }
+
     @Override
     public void save() throws HomeWizardApiException {
         save(apiAddress);
     }
 
+    @Override
+    public CompletableFuture<Void> saveAsync() {
+        return saveAsync(apiAddress);
+    }
+
     /**
      * Gets if the cloud is enabled.
      * <p>
@@ -1,15 +1,16 @@
 package io.github.thijzert123.homewizard4j.v1;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * @author Thijzert123
@@ -17,19 +18,30 @@ import java.lang.invoke.MethodHandles;
 @JsonIgnoreProperties(ignoreUnknown = true)
 abstract class Updatable {
     private static final Logger LOGGER = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    final ObjectMapper objectMapper;
-
-    Updatable() {
-        // Only (de)serialize annotated fields (@JsonProperty)
-        objectMapper = JsonMapper.builder()
-                .disable(MapperFeature.AUTO_DETECT_CREATORS,
-                        MapperFeature.AUTO_DETECT_FIELDS,
-                        MapperFeature.AUTO_DETECT_GETTERS,
-                        MapperFeature.AUTO_DETECT_IS_GETTERS)
-                .build();
-
-        // Makes sure Optional is supported
-        objectMapper.registerModule(new Jdk8Module());
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    /**
+     * Returns the device the requests are made to. Its transport, health and timeouts are used for the requests.
+     *
+     * @return the device
+     */
+    abstract Device getDevice();
+
+    /**
+     * Returns the endpoint that {@link #updateAsync(String, Duration)} reads, so the device can keep track of its age.
+     *
+     * @return the endpoint of this instance
+     * @see Device#getAge(Endpoint)
+     */
+    abstract Endpoint getUpdateEndpoint();
+
+    /**
+     * Called after {@link #updateAsync(String, Duration)} has updated this instance with the response of the device.
+     * Subclasses that override it must call this implementation, which records the age of the endpoint.
+     */
+    void onUpdated() {
+        getDevice().markUpdated(getUpdateEndpoint());
     }
 
     /**
@@ -40,15 +52,93 @@ abstract class Updatable {
      * @throws HomeWizardApiException when something has gone wrong while updating data
      */
     void update(final String fullAddress) throws HomeWizardApiException {
-        LOGGER.debug("Updating fields...");
+        HttpUtils.await(updateAsync(fullAddress));
+    }
+
+    /**
+     * Updates the data from the device asynchronously.
+     * If you have made changes without saving them using {@link Savable#save(String)}, they will be discarded!
+     * <p>
+     * If a request to the same address is already in flight, no new request is made.
+     * Instead, the returned future completes together with the request in flight.
+     * <p>
+     * The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something has gone wrong while updating data. Cancelling it aborts the request,
+     * unless other callers are still waiting for it.
+     *
+     * @param fullAddress the address to make a request to
+     * @return future that completes when this instance has been updated
+     */
+    CompletableFuture<Void> updateAsync(final String fullAddress) {
+        return updateAsync(fullAddress, getDevice().getTimeouts().getRequestTimeout());
+    }
+
+    /**
+     * Updates the data from the device asynchronously, like {@link #updateAsync(String)}, with the provided timeout.
+     * When a request to the same address is already in flight, the returned future completes exceptionally
+     * if that request isn't done within the timeout.
+     *
+     * @param fullAddress the address to make a request to
+     * @param timeout     the timeout of the request
+     * @return future that completes when this instance has been updated
+     */
+    CompletableFuture<Void> updateAsync(final String fullAddress, final Duration timeout) {
+        return singleFlight.run(fullAddress, timeout, () -> {
+            LOGGER.debug("Updating fields...");
+
+            final CompletableFuture<ResponseBody> bodyFuture =
+                    HttpUtils.requestAsync(getDevice(), "GET", fullAddress, timeout);
+            return HttpUtils.cancelling(bodyFuture.thenAccept(responseBody -> {
+                map(responseBody, JsonMappers.readerForUpdating(this));
+                onUpdated();
+            }), bodyFuture);
+        });
+    }
+
+    /**
+     * Reads the data from the device into a new instance of the specified type, instead of updating this instance.
+     * Concurrent reads of the same address share one request, like {@link #updateAsync(String, Duration)}.
+     * The read instance is passed to {@code onRead} once per request, not once per caller that shares it.
+     * <p>
+     * The returned future completes exceptionally with a {@link HomeWizardApiException}
+     * when something has gone wrong while reading data. Cancelling it aborts the request,
+     * unless other callers are still waiting for it.
+     *
+     * @param fullAddress the address to make a request to
+     * @param type        the type to read
+     * @param timeout     the timeout of the request
+     * @param onRead      called with the new instance before the returned future completes
+     * @param <T>         the type to read
+     * @return future of the new instance
+     */
+    <T> CompletableFuture<T> readAsync(final String fullAddress,
+                                       final Class<T> type,
+                                       final Duration timeout,
+                                       final Consumer<? super T> onRead) {
+        return singleFlight.run(fullAddress, timeout, () -> {
+            LOGGER.debug("Reading {}...", type.getSimpleName());
+
+            final CompletableFuture<ResponseBody> bodyFuture =
+                    HttpUtils.requestAsync(getDevice(), "GET", fullAddress, timeout);
+            return HttpUtils.cancelling(bodyFuture.thenApply(responseBody -> {
+                final T value = map(responseBody, JsonMappers.readerFor(type));
+                onRead.accept(value);
+                return value;
+            }), bodyFuture);
+        });
+    }
 
-        final String responseBody = HttpUtils.getBody("GET", fullAddress);
+    private static <T> T map(final ResponseBody responseBody, final ObjectReader objectReader) {
         try {
-            LOGGER.trace("Mapping body '{}' with ObjectMapper, updating this instance...", responseBody);
-            objectMapper.readerForUpdating(this).readValue(responseBody);
-            LOGGER.trace("Mapping body with ObjectMapper, updating this instance, done");
-        } catch (final JsonProcessingException jsonProcessingException) {
-            throw new HomeWizardApiException(jsonProcessingException, LOGGER);
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Mapping body '{}' with ObjectMapper...", responseBody.asString());
+            }
+            // The parser reads the bytes of the response directly, without building a String first
+            final T value = objectReader.readValue(responseBody.asInputStream());
+            LOGGER.trace("Mapping body with ObjectMapper, done");
+            return value;
+        } catch (final IOException ioException) {
+            throw new CompletionException(new HomeWizardApiException(ioException, LOGGER));
         }
     }
 }
@@ -0,0 +1,96 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The outcome of {@link Device#updateAllConcurrently()}: which endpoints have been updated and why the others failed.
+ * One failing endpoint doesn't stop the others, so the device can have fresh measurements while, for example,
+ * its system configuration couldn't be read.
+ *
+ * <pre>
+ * final UpdateResult result = p1Meter.updateAllConcurrently();
+ * if (!result.isSuccessful()) {
+ *     result.getFailures().forEach((endpoint, exception) -&gt; System.out.println(endpoint + " failed"));
+ * }
+ * </pre>
+ *
+ * @author Thijzert123
+ * @since 2.1.0
+ */
+public final class UpdateResult {
+    private final Set<Endpoint> updated;
+    private final Map<Endpoint, HomeWizardApiException> failures;
+
+    UpdateResult(final Set<Endpoint> updated, final Map<Endpoint, HomeWizardApiException> failures) {
+        this.updated = Collections.unmodifiableSet(updated.isEmpty() ? EnumSet.noneOf(Endpoint.class) : EnumSet.copyOf(updated));
+        this.failures = Collections.unmodifiableMap(failures.isEmpty() ? new EnumMap<>(Endpoint.class) : new EnumMap<>(failures));
+    }
+
+    /**
+     * Returns whether all endpoints have been updated.
+     *
+     * @return {@code true} if no endpoint failed
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * Returns the endpoints that have been updated.
+     *
+     * @return the updated endpoints
+     */
+    public Set<Endpoint> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Returns the endpoints that failed, with the reason they failed.
+     *
+     * @return the failed endpoints and their exceptions
+     */
+    public Map<Endpoint, HomeWizardApiException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns why an endpoint failed.
+     *
+     * @param endpoint the endpoint
+     * @return the exception of the endpoint, or {@link Optional#empty()} if it didn't fail
+     */
+    public Optional<HomeWizardApiException> getFailure(final Endpoint endpoint) {
+        return Optional.ofNullable(failures.get(endpoint));
+    }
+
+    /**
+     * Throws the exception of the first endpoint that failed, with the exceptions of the other failed endpoints
+     * added as suppressed. Does nothing if all endpoints have been updated.
+     *
+     * @throws HomeWizardApiException the exception of the first endpoint that failed
+     */
+    public void throwIfFailed() throws HomeWizardApiException {
+        HomeWizardApiException first = null;
+        for (final HomeWizardApiException exception : failures.values()) {
+            if (first == null) {
+                first = exception;
+            } else if (!Arrays.asList(first.getSuppressed()).contains(exception)) { // when called more than once
+                first.addSuppressed(exception);
+            }
+        }
+        if (first != null) {
+            throw first;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UpdateResult{updated=" + updated + ", failures=" + failures.keySet() + "}";
+    }
+}
@@ -1,7 +1,9 @@
 package io.github.thijzert123.homewizard4j.v1;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalDouble;
@@ -23,12 +25,19 @@ public class WaterMeter extends Device {
      */
     public static final List<String> PRODUCT_TYPES = List.of("HWE-WTR");
 
-    @JsonProperty("total_liter_m3")
-    private final OptionalDouble totalLiterM3 = OptionalDouble.empty();
-    @JsonProperty("active_liter_lpm")
-    private final OptionalDouble activeLiterLpm = OptionalDouble.empty();
-    @JsonProperty("total_liter_offset_m3")
-    private final OptionalDouble totalLiterOffsetM3 = OptionalDouble.empty();
+    /**
+     * Creates the devices of the product types in {@link #PRODUCT_TYPES}.
+     */
+    static final DeviceFactory FACTORY = descriptor -> new WaterMeter(
+            descriptor.serviceName(),
+            descriptor.apiEnabled(),
+            descriptor.hostAddress(),
+            descriptor.port(),
+            descriptor.apiPath(),
+            Optional.of(descriptor.productType()),
+            descriptor.productName(),
+            descriptor.serial(),
+            descriptor.transport());
 
     WaterMeter(final Optional<String> serviceName,
                 final boolean apiEnabled,
@@ -37,7 +46,8 @@ public class WaterMeter extends Device {
                 final String apiPath,
                 final Optional<String> productType,
                 final Optional<String> productName,
-                final Optional<String> serial) {
+                final Optional<String> serial,
+                final DeviceTransport transport) {
         super(
                 serviceName,
                 apiEnabled,
@@ -46,7 +56,9 @@ public class WaterMeter extends Device {
                 apiPath,
                 productType,
                 productName,
-                serial
+                serial,
+                transport,
+                WaterMeterSnapshot.EMPTY
         );
     }
 
@@ -64,7 +76,26 @@ public class WaterMeter extends Device {
                       final String hostAddress,
                       final int port,
                       final String apiPath) {
-        super(
+        this(apiEnabled, hostAddress, port, apiPath, HttpUtils.getSharedTransport());
+    }
+
+    /**
+     * Manually create a {@link WaterMeter} that sends its requests with the provided {@link DeviceTransport},
+     * instead of the transport of {@link HttpUtils#getSharedTransport()}.
+     *
+     * @param apiEnabled whether the API is enabled on the device: you have to check this yourself!
+     * @param hostAddress host address, like {@code 192.168.1.123}
+     * @param port port, should be {@code 80}
+     * @param apiPath API path, should be {@code /api/v1}
+     * @param transport transport that sends the requests to the device
+     * @since 2.1.0
+     */
+    public WaterMeter(final boolean apiEnabled,
+                      final String hostAddress,
+                      final int port,
+                      final String apiPath,
+                      final DeviceTransport transport) {
+        this(
                 Optional.empty(),
                 apiEnabled,
                 hostAddress,
@@ -72,7 +103,8 @@ public class WaterMeter extends Device {
                 apiPath,
                 Optional.empty(),
                 Optional.empty(),
-                Optional.empty()
+                Optional.empty(),
+                transport
         );
     }
 
@@ -93,6 +125,57 @@ public class WaterMeter extends Device {
         );
     }
 
+    /**
+     * Returns the snapshot of the measurements from the latest call to {@link #updateMeasurements()}.
+     * Getters like {@link #getTotalLiterM3()} read from the snapshot that is current at the moment they are called.
+     * If you need multiple values that belong together, read all of them from the same snapshot.
+     *
+     * @return the current snapshot of the measurements
+     * @see #updateMeasurements()
+     * @since 2.1.0
+     */
+    @Override
+    public WaterMeterSnapshot getSnapshot() {
+        return (WaterMeterSnapshot) super.getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @return the current snapshot
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private WaterMeterSnapshot getJsonSnapshot() {
+        return getSnapshot();
+    }
+
+    /**
+     * For Jackson, the values of the snapshot are (de)serialized as part of this device.
+     *
+     * @param snapshot the snapshot to publish
+     */
+    @JsonProperty("measurements")
+    @JsonUnwrapped
+    private void setJsonSnapshot(final WaterMeterSnapshot snapshot) {
+        setSnapshotFromJson(snapshot);
+    }
+
+    /**
+     * Returns the snapshot of the measurements, and first updates the measurements if they are older than
+     * {@code maxAge}. For example, {@code getSnapshot(Duration.ofSeconds(1)).getActiveLiterLpm()} reads the value
+     * from a response that is at most 1 second old.
+     *
+     * @param maxAge the maximum age of the returned snapshot, zero to always update, must not be negative
+     * @return a snapshot of the measurements that is not older than {@code maxAge}
+     * @throws HomeWizardApiException when the measurements had to be updated and something has gone wrong
+     * @since 2.1.0
+     */
+    @Override
+    public WaterMeterSnapshot getSnapshot(final Duration maxAge) throws HomeWizardApiException {
+        return (WaterMeterSnapshot) super.getSnapshot(maxAge);
+    }
+
     /**
      * Returns the total water usage in cubic meters (m^3) since the installation of the device.
      * <p>
@@ -104,7 +187,7 @@ public class WaterMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getTotalLiterM3() {
-        return totalLiterM3;
+        return getSnapshot().getTotalLiterM3();
     }
 
     /**
@@ -118,7 +201,7 @@ public class WaterMeter extends Device {
      * @see #updateMeasurements()
      */
     public OptionalDouble getActiveLiterLpm() {
-        return activeLiterLpm;
+        return getSnapshot().getActiveLiterLpm();
     }
 
     /**
@@ -134,6 +217,6 @@ public class WaterMeter extends Device {
      */
     @Deprecated
     public OptionalDouble getTotalLiterOffsetM3() {
-        return totalLiterOffsetM3;
+        return getSnapshot().getTotalLiterOffsetM3();
     }
 }
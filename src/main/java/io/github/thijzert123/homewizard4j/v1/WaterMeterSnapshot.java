@@ -0,0 +1,64 @@
+package io.github.thijzert123.homewizard4j.v1;
+
+import java.util.OptionalDouble;
+
+/**
+ * An immutable snapshot of the measurements of a {@link WaterMeter},
+ * taken by one call to {@link WaterMeter#updateMeasurements()}.
+ * All values in a snapshot come from the same response of the water meter.
+ *
+ * @author Thijzert123
+ * @see WaterMeter#getSnapshot()
+ * @since 2.1.0
+ */
+public final class WaterMeterSnapshot extends MeasurementSnapshot {
+    static final SnapshotLayout<WaterMeterSnapshot> LAYOUT = new SnapshotLayout<>(
+            WaterMeterSnapshot::new,
+            SnapshotLayout.metric(Metric.TOTAL_LITER_M3),
+            SnapshotLayout.metric(Metric.ACTIVE_LITER_LPM),
+            SnapshotLayout.metric(Metric.TOTAL_LITER_OFFSET_M3));
+    static final WaterMeterSnapshot EMPTY = LAYOUT.createEmpty();
+
+    private WaterMeterSnapshot(final double[] values, final long presence, final Object[] others) {
+        super(LAYOUT, values, presence, others);
+    }
+
+    /**
+     * Returns the total water usage in cubic meters (m^3) since the installation of the device.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-3">Official API documentation related to this method</a>
+     *
+     * @return total water usage in cubic meters since installation
+     * @see WaterMeter#getTotalLiterM3()
+     */
+    public OptionalDouble getTotalLiterM3() {
+        return optional(Metric.TOTAL_LITER_M3);
+    }
+
+    /**
+     * Returns the active water usage in liters per minute.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-3">Official API documentation related to this method</a>
+     *
+     * @return active water usage in liters per minute
+     * @see WaterMeter#getActiveLiterLpm()
+     */
+    public OptionalDouble getActiveLiterLpm() {
+        return optional(Metric.ACTIVE_LITER_LPM);
+    }
+
+    /**
+     * Returns total liter offset.
+     * According to the official API documentation, this value is in development and should not be used.
+     * <p>
+     * <a href="https://api-documentation.homewizard.com/docs/v1/measurement#parameters-3">Official API documentation related to this method</a>
+     *
+     * @return total liter offset
+     * @deprecated value is in development and should not be used, annotation is used as a warning for IDEs
+     * @see WaterMeter#getTotalLiterOffsetM3()
+     */
+    @Deprecated
+    public OptionalDouble getTotalLiterOffsetM3() {
+        return optional(Metric.TOTAL_LITER_OFFSET_M3);
+    }
+}
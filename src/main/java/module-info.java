@@ -19,4 +19,6 @@ module io.github.thijzert123.homewizard4j {
     opens io.github.thijzert123.homewizard4j.v1 to com.fasterxml.jackson.databind;
 
     exports io.github.thijzert123.homewizard4j.v1;
+
+    uses io.github.thijzert123.homewizard4j.v1.DeviceFactoryProvider;
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package io.github.thijzert123.homewizard4j.benchmark.v1;
+
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Measures the cost of {@link P1Meter#updateMeasurements()} without sockets, by answering the requests with an
+ * {@link InMemoryTransport}. What is left is the cost of the library itself: building the request, checking the
+ * health of the device, sharing the request between callers, parsing the response and publishing the snapshot.
+ * <p>
+ * The first transport answers on the calling thread, so it only measures parsing. The second one answers on another
+ * thread, like a real transport does, so the difference between both is the cost of scheduling.
+ * The first argument is the number of measured updates, which defaults to 200000.
+ *
+ * @author Thijzert123
+ */
+public class InMemoryUpdateBenchmark {
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    public static void main(final String[] args) throws IOException, HomeWizardApiException {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        final String json = readResource("/p1Meter/measurements.json");
+
+        final P1Meter callerThread = new P1Meter(true, "localhost", Device.DEFAULT_PORT, Device.DEFAULT_API_PATH,
+                new InMemoryTransport().respond(Device.DEFAULT_API_PATH + "/data", json));
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final P1Meter otherThread = new P1Meter(true, "localhost", Device.DEFAULT_PORT, Device.DEFAULT_API_PATH,
+                    new InMemoryTransport(executor).respond(Device.DEFAULT_API_PATH + "/data", json));
+
+            // Run both twice, so the second round shows the numbers after the JIT compiler has settled
+            for (int round = 0; round < 2; round++) {
+                run("Caller thread", callerThread, iterations);
+                run("Other thread", otherThread, iterations);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void run(final String name, final P1Meter p1Meter, final int iterations)
+            throws HomeWizardApiException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            p1Meter.updateMeasurements();
+        }
+
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            p1Meter.updateMeasurements();
+        }
+        final long nanos = System.nanoTime() - startNanos;
+
+        System.out.printf("%-15s %,8d ns/update%n", name, nanos / iterations);
+    }
+
+    private static String readResource(final String name) throws IOException {
+        try (final InputStream inputStream = InMemoryUpdateBenchmark.class.getResourceAsStream(name)) {
+            if (inputStream == null) {
+                throw new IOException("Resource not found: " + name);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
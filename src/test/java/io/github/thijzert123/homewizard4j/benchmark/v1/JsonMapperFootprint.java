@@ -0,0 +1,92 @@
+package io.github.thijzert123.homewizard4j.benchmark.v1;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.EnergySocket;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the heap footprint and startup time of a large synthetic fleet with the shared mapper
+ * against the same fleet with one mapper per object, like before the mappers were shared.
+ * <p>
+ * Run with a fixed heap for stable numbers, for example: {@code -Xms1g -Xmx1g}.
+ * The first argument is the fleet size, which defaults to 2000.
+ *
+ * @author Thijzert123
+ */
+public class JsonMapperFootprint {
+    public static void main(final String[] args) throws HomeWizardApiException {
+        final int fleetSize = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        // Load all classes and warm the shared mapper, so it isn't counted as part of the fleet
+        createFleet(10).get(0).updateFromJson("{}");
+
+        final long baselineHeap = usedHeap();
+        long startNanos = System.nanoTime();
+        final List<Device> fleet = createFleet(fleetSize);
+        for (final Device device : fleet) {
+            device.updateFromJson("{\"wifi_strength\":100}");
+        }
+        final long sharedNanos = System.nanoTime() - startNanos;
+        final long sharedHeap = usedHeap() - baselineHeap;
+
+        // One mapper per Updatable: the device itself, its system configuration and the state of energy sockets
+        startNanos = System.nanoTime();
+        final List<ObjectMapper> legacyMappers = new ArrayList<>();
+        for (final Device device : fleet) {
+            final int mapperCount = device instanceof EnergySocket ? 3 : 2;
+            for (int i = 0; i < mapperCount; i++) {
+                final ObjectMapper objectMapper = createLegacyMapper();
+                try {
+                    objectMapper.readerForUpdating(device).readValue("{\"wifi_strength\":100}");
+                } catch (final Exception exception) {
+                    throw new IllegalStateException(exception);
+                }
+                legacyMappers.add(objectMapper);
+            }
+        }
+        final long legacyNanos = System.nanoTime() - startNanos + sharedNanos;
+        final long legacyHeap = usedHeap() - baselineHeap;
+
+        System.out.printf("Fleet size: %d devices%n", fleet.size());
+        System.out.printf("Shared mapper:     %,12d bytes (%,d bytes per device), %,d ms%n",
+                sharedHeap, sharedHeap / fleetSize, sharedNanos / 1_000_000);
+        System.out.printf("Mapper per object: %,12d bytes (%,d bytes per device), %,d ms, %d mappers%n",
+                legacyHeap, legacyHeap / fleetSize, legacyNanos / 1_000_000, legacyMappers.size());
+    }
+
+    private static List<Device> createFleet(final int size) {
+        final List<Device> fleet = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String hostAddress = "10.0." + (i / 256) + "." + (i % 256);
+            fleet.add(i % 2 == 0 ? new P1Meter(hostAddress) : new EnergySocket(hostAddress));
+        }
+        return fleet;
+    }
+
+    private static ObjectMapper createLegacyMapper() {
+        final ObjectMapper objectMapper = JsonMapper.builder()
+                .disable(MapperFeature.AUTO_DETECT_CREATORS,
+                        MapperFeature.AUTO_DETECT_FIELDS,
+                        MapperFeature.AUTO_DETECT_GETTERS,
+                        MapperFeature.AUTO_DETECT_IS_GETTERS)
+                .build();
+        objectMapper.registerModule(new Jdk8Module());
+        return objectMapper;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.thijzert123.homewizard4j.benchmark.v1;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.HttpClientTransport;
+import io.github.thijzert123.homewizard4j.v1.NioTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares {@link HttpClientTransport} with {@link NioTransport} for a fleet of devices that is updated at once.
+ * Every device is a local {@link HttpServer} with its own port, so every device needs its own connection.
+ * <p>
+ * Each round updates the measurements of all devices concurrently. The program prints the time per update and how
+ * many threads the transport added while updating.
+ * The first argument is the number of devices, which defaults to 200, the second one the number of rounds,
+ * which defaults to 50.
+ *
+ * @author Thijzert123
+ */
+public class NioTransportComparison {
+    private static final int WARMUP_ROUNDS = 20;
+
+    public static void main(final String[] args) throws IOException {
+        final int deviceCount = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        final byte[] json = readResource("/p1Meter/measurements.json");
+
+        final ExecutorService serverExecutor = Executors.newFixedThreadPool(8);
+        final List<HttpServer> servers = new ArrayList<>();
+        try {
+            for (int i = 0; i < deviceCount; i++) {
+                final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+                server.createContext("/api/v1/data", httpExchange -> {
+                    httpExchange.sendResponseHeaders(200, json.length);
+                    httpExchange.getResponseBody().write(json);
+                    httpExchange.close();
+                });
+                server.setExecutor(serverExecutor);
+                server.start();
+                servers.add(server);
+            }
+
+            // Run both twice, so the second round shows the numbers after the JIT compiler has settled
+            for (int run = 0; run < 2; run++) {
+                run("HttpClientTransport", new HttpClientTransport(), servers, rounds);
+                try (final NioTransport transport = new NioTransport()) {
+                    run("NioTransport", transport, servers, rounds);
+                }
+            }
+        } finally {
+            for (final HttpServer server : servers) {
+                server.stop(0);
+            }
+            serverExecutor.shutdown();
+        }
+    }
+
+    private static void run(final String name, final DeviceTransport transport, final List<HttpServer> servers,
+                            final int rounds) {
+        // Threads of an earlier run can still be alive, so only count the threads this run adds
+        final int baseThreads = Thread.getAllStackTraces().size();
+        final List<P1Meter> p1Meters = new ArrayList<>();
+        for (final HttpServer server : servers) {
+            p1Meters.add(new P1Meter(true, "localhost", server.getAddress().getPort(), "/api/v1", transport));
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            updateAll(p1Meters);
+        }
+
+        int maxThreads = 0;
+        final long startNanos = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            updateAll(p1Meters);
+            maxThreads = Math.max(maxThreads, Thread.getAllStackTraces().size() - baseThreads);
+        }
+        final long nanos = System.nanoTime() - startNanos;
+
+        System.out.printf("%-20s %,8d ns/update %4d extra threads%n",
+                name, nanos / ((long) rounds * p1Meters.size()), maxThreads);
+    }
+
+    private static void updateAll(final List<P1Meter> p1Meters) {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(p1Meters.size());
+        for (final P1Meter p1Meter : p1Meters) {
+            futures.add(p1Meter.updateMeasurementsAsync());
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private static byte[] readResource(final String name) throws IOException {
+        try (final InputStream inputStream = NioTransportComparison.class.getResourceAsStream(name)) {
+            if (inputStream == null) {
+                throw new IOException("Resource not found: " + name);
+            }
+            return inputStream.readAllBytes();
+        }
+    }
+}
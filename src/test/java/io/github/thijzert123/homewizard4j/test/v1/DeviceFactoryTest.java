@@ -0,0 +1,90 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.DeviceDescriptor;
+import io.github.thijzert123.homewizard4j.v1.DeviceFactory;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardDiscoverer;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.KWhMeter;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.SubnetScanner;
+import io.github.thijzert123.homewizard4j.v1.WaterMeter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Thijzert123
+ */
+public class DeviceFactoryTest {
+    @Test
+    public void testDefaultFactories() {
+        final DeviceDescriptor descriptor = new DeviceDescriptor(Optional.empty(), true, "192.0.2.1", 80, "/api/v1",
+                "HWE-KWH1", Optional.of("kWh meter"), Optional.of("5c2faf001122"), new InMemoryTransport());
+        final Device kWhMeter = DeviceFactory.forProductType("HWE-KWH1").orElseThrow().create(descriptor);
+        Assertions.assertInstanceOf(KWhMeter.class, kWhMeter);
+        Assertions.assertEquals("HWE-KWH1", kWhMeter.getProductType().orElseThrow());
+        Assertions.assertEquals("5c2faf001122", kWhMeter.getSerial().orElseThrow());
+        Assertions.assertEquals("192.0.2.1", kWhMeter.getHostAddress());
+
+        Assertions.assertInstanceOf(WaterMeter.class,
+                DeviceFactory.of(HomeWizardDiscoverer.DeviceType.WATER_METER).create(descriptor));
+        Assertions.assertTrue(DeviceFactory.forProductType("HWE-UNKNOWN").isEmpty());
+        Assertions.assertTrue(DeviceFactory.forProductType(null).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> DeviceFactory.of(HomeWizardDiscoverer.DeviceType.ALL));
+    }
+
+    @Test
+    public void testProvidedFactory() {
+        // Registered by TestDeviceFactoryProvider, which is listed in META-INF/services
+        final DeviceDescriptor descriptor = new DeviceDescriptor(Optional.empty(), true, "192.0.2.1", 80, "/api/v1",
+                "HWE-P1-PROVIDED", Optional.empty(), Optional.of("3c39e7aabbcc"), new InMemoryTransport());
+        Assertions.assertInstanceOf(P1Meter.class,
+                DeviceFactory.forProductType("HWE-P1-PROVIDED").orElseThrow().create(descriptor));
+    }
+
+    @Test
+    public void testRegisteredFactory() throws HomeWizardApiException {
+        final AtomicInteger createdCount = new AtomicInteger();
+        final DeviceFactory p1MeterFactory = DeviceFactory.of(HomeWizardDiscoverer.DeviceType.P1_METER);
+        DeviceFactory.register("HWE-P1-TEST", descriptor -> {
+            createdCount.incrementAndGet();
+            return p1MeterFactory.create(descriptor);
+        });
+
+        try {
+            // A product type this library doesn't know is found like any other
+            final InMemoryTransport transport = new InMemoryTransport().respond("/api",
+                    "{\"product_type\": \"HWE-P1-TEST\", \"serial\": \"3c39e7ddeeff\", \"api_version\": \"v1\"}");
+            final List<Device> devices = new SubnetScanner(transport).scan("192.0.2.1/32");
+            Assertions.assertEquals(1, devices.size());
+            Assertions.assertInstanceOf(P1Meter.class, devices.get(0));
+            Assertions.assertEquals("HWE-P1-TEST", devices.get(0).getProductType().orElseThrow());
+            Assertions.assertEquals(1, createdCount.get());
+        } finally {
+            DeviceFactory.unregister("HWE-P1-TEST");
+        }
+        Assertions.assertTrue(DeviceFactory.forProductType("HWE-P1-TEST").isEmpty());
+    }
+
+    @Test
+    public void testMismatchingFactory() throws HomeWizardApiException {
+        final DeviceFactory p1MeterFactory = DeviceFactory.of(HomeWizardDiscoverer.DeviceType.P1_METER);
+        DeviceFactory.register("HWE-P1-MISMATCH", descriptor -> p1MeterFactory.create(new DeviceDescriptor(
+                descriptor.serviceName(), descriptor.apiEnabled(), descriptor.hostAddress(), descriptor.port(),
+                descriptor.apiPath(), descriptor.productType(), descriptor.productName(), Optional.of("000000000000"),
+                descriptor.transport())));
+        try {
+            // The device isn't the one that was found, so it would be added again under its own serial
+            final InMemoryTransport transport = new InMemoryTransport().respond("/api",
+                    "{\"product_type\": \"HWE-P1-MISMATCH\", \"serial\": \"3c39e7ddeeff\", \"api_version\": \"v1\"}");
+            Assertions.assertTrue(new SubnetScanner(transport).scan("192.0.2.1/32").isEmpty());
+        } finally {
+            DeviceFactory.unregister("HWE-P1-MISMATCH");
+        }
+    }
+}
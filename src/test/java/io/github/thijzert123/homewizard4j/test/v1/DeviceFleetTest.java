@@ -0,0 +1,118 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.BulkUpdateReport;
+import io.github.thijzert123.homewizard4j.v1.DeviceFleet;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.Endpoint;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author Thijzert123
+ */
+public class DeviceFleetTest {
+    private static InMemoryTransport createTransport(final InMemoryTransport transport,
+                                                     final Function<DeviceTransport.Request, DeviceTransport.Response> dataHandler)
+            throws IOException {
+        return transport
+                .respond("/api", Utils.getResourceAsString("p1Meter/deviceInfo.json"))
+                .handle("/test/data", dataHandler)
+                .respond("/test/system", Utils.getResourceAsString("p1Meter/systemConfiguration.json"));
+    }
+
+    @Test
+    public void testFailuresDontStopOthers() throws IOException, HomeWizardApiException {
+        final String measurements = Utils.getResourceAsString("p1Meter/measurements.json");
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            final InMemoryTransport transport = createTransport(new InMemoryTransport(executor), request -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                inFlight.decrementAndGet();
+                return DeviceTransport.Response.of(200, measurements);
+            });
+            final InMemoryTransport brokenTransport = new InMemoryTransport()
+                    .respond("/api", Utils.getResourceAsString("p1Meter/deviceInfo.json"));
+
+            final List<P1Meter> p1Meters = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                p1Meters.add(new P1Meter(true, "localhost", 80, "/test", i % 10 == 0 ? brokenTransport : transport));
+            }
+            final BulkUpdateReport report = new DeviceFleet(p1Meters).updateAll(8, Duration.ofSeconds(10));
+
+            Assertions.assertFalse(report.isSuccessful());
+            Assertions.assertEquals(90, report.getSucceeded().size());
+            Assertions.assertEquals(10, report.getFailures().size());
+            Assertions.assertEquals(100, report.getLatencies().size());
+            Assertions.assertTrue(report.getSkipped().isEmpty());
+            Assertions.assertTrue(maxInFlight.get() <= 8);
+
+            // The broken devices failed at their measurements, but their device info was updated anyway
+            final P1Meter broken = p1Meters.get(0);
+            Assertions.assertTrue(report.getFailures().containsKey(broken));
+            Assertions.assertTrue(report.getResult(broken).orElseThrow().getFailure(Endpoint.MEASUREMENTS).isPresent());
+            Assertions.assertTrue(broken.getFirmwareVersion().isPresent());
+            Assertions.assertEquals(-543, p1Meters.get(1).getActivePowerW().getAsDouble());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDeadlineSkipsDevices() throws IOException, HomeWizardApiException {
+        final String measurements = Utils.getResourceAsString("p1Meter/measurements.json");
+        final InMemoryTransport transport = createTransport(new InMemoryTransport(), request -> {
+            try {
+                Thread.sleep(300);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return DeviceTransport.Response.of(200, measurements);
+        });
+        final List<P1Meter> p1Meters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            p1Meters.add(new P1Meter(true, "localhost", 80, "/test", transport));
+        }
+
+        final BulkUpdateReport report = new DeviceFleet(p1Meters).updateAll(1, Duration.ofMillis(500));
+        Assertions.assertFalse(report.getSucceeded().isEmpty());
+        Assertions.assertFalse(report.getSkipped().isEmpty());
+        Assertions.assertEquals(5, report.getSucceeded().size() + report.getFailures().size() + report.getSkipped().size());
+        Assertions.assertTrue(report.getElapsed().compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    public void testLargeFleetOnCallerThread() throws IOException, HomeWizardApiException {
+        final String measurements = Utils.getResourceAsString("p1Meter/measurements.json");
+        final InMemoryTransport transport =
+                createTransport(new InMemoryTransport(), request -> DeviceTransport.Response.of(200, measurements));
+        final List<P1Meter> p1Meters = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            p1Meters.add(new P1Meter(true, "localhost", 80, "/test", transport));
+        }
+
+        // Every update completes on the calling thread, which must not overflow the stack
+        final BulkUpdateReport report = new DeviceFleet(p1Meters).updateAll(4, Duration.ofSeconds(30));
+        Assertions.assertTrue(report.isSuccessful());
+        Assertions.assertEquals(5000, report.getSucceeded().size());
+    }
+}
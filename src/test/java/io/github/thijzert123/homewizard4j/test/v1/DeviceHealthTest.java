@@ -0,0 +1,105 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.DeviceHealth;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.DeviceUnavailableException;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Thijzert123
+ */
+public class DeviceHealthTest {
+    @Test
+    public void testFailFast() throws InterruptedException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8399, "/test");
+        final DeviceHealth health = p1Meter.getHealth();
+        health.setFailureThreshold(2);
+        health.setBackoff(Duration.ofMillis(200), Duration.ofSeconds(1));
+
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(DeviceHealth.State.CLOSED, health.getState());
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(DeviceHealth.State.OPEN, health.getState());
+        Assertions.assertEquals(2, health.getConsecutiveFailures());
+
+        // No request is sent while the device is unreachable, also not for the system configuration
+        Assertions.assertThrows(DeviceUnavailableException.class, p1Meter::updateMeasurements);
+        Assertions.assertThrows(DeviceUnavailableException.class, p1Meter.getSystemConfiguration()::update);
+        Assertions.assertEquals(2, health.getConsecutiveFailures());
+
+        // After the backoff, one probe is sent; it fails, so the backoff is doubled
+        Thread.sleep(250);
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(DeviceHealth.State.OPEN, health.getState());
+        Assertions.assertEquals(3, health.getConsecutiveFailures());
+        Assertions.assertTrue(health.getRetryIn().compareTo(Duration.ofMillis(200)) > 0);
+        Assertions.assertEquals(2, health.getTransitionCount(DeviceHealth.State.OPEN));
+        Assertions.assertEquals(1, health.getTransitionCount(DeviceHealth.State.HALF_OPEN));
+
+        health.reset();
+        Assertions.assertEquals(DeviceHealth.State.CLOSED, health.getState());
+        Assertions.assertEquals(0, health.getConsecutiveFailures());
+    }
+
+    @Test
+    public void testRecovery() throws IOException, InterruptedException, HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8327, "/test");
+        final DeviceHealth health = p1Meter.getHealth();
+        health.setFailureThreshold(1);
+        health.setBackoff(Duration.ofMillis(100), Duration.ofMillis(100));
+
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(DeviceHealth.State.OPEN, health.getState());
+
+        final HttpServer httpServer = Utils.initializeServer(8327, "p1Meter");
+        httpServer.start();
+        try {
+            Assertions.assertThrows(DeviceUnavailableException.class, p1Meter::updateMeasurements);
+            Thread.sleep(150);
+            p1Meter.updateMeasurements();
+            Assertions.assertEquals(DeviceHealth.State.CLOSED, health.getState());
+            Assertions.assertTrue(p1Meter.getActivePowerW().isPresent());
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
+    @Test
+    public void testCancelledProbe() throws InterruptedException {
+        final AtomicInteger requestCount = new AtomicInteger();
+        // The first request fails, every request after that never gets an answer
+        final DeviceTransport transport = request -> requestCount.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(new ConnectException("Connection refused"))
+                : new CompletableFuture<>();
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 80, "/test", transport);
+        final DeviceHealth health = p1Meter.getHealth();
+        health.setFailureThreshold(1);
+        health.setBackoff(Duration.ofMillis(100), Duration.ofMillis(100));
+
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(DeviceHealth.State.OPEN, health.getState());
+
+        Thread.sleep(150);
+        final CompletableFuture<Void> probe = p1Meter.updateMeasurementsAsync();
+        Assertions.assertEquals(DeviceHealth.State.HALF_OPEN, health.getState());
+        probe.cancel(true);
+
+        // The cancelled probe didn't count as failure, and the next request probes again
+        Assertions.assertEquals(DeviceHealth.State.OPEN, health.getState());
+        Assertions.assertEquals(1, health.getConsecutiveFailures());
+        p1Meter.updateMeasurementsAsync();
+        Assertions.assertEquals(3, requestCount.get());
+        Assertions.assertEquals(DeviceHealth.State.HALF_OPEN, health.getState());
+    }
+}
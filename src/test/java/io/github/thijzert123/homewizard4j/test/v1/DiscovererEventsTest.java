@@ -0,0 +1,197 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardDiscoverer;
+import io.github.thijzert123.homewizard4j.v1.HttpUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.jmdns.JmDNS;
+import javax.jmdns.ServiceInfo;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author Thijzert123
+ */
+public class DiscovererEventsTest {
+    static JmDNS jmDNS;
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        jmDNS = JmDNS.create(Inet4Address.getLocalHost());
+        jmDNS.registerService(generateServiceInfo("HWE-P1", "EventsP1Meter", 7710, "3e8Abc2f9c50"));
+        jmDNS.registerService(generateServiceInfo("HWE-SKT", "EventsEnergySocket", 7711, "3e8Abc2f9c51"));
+    }
+
+    private static ServiceInfo generateServiceInfo(final String productType,
+                                                   final String name,
+                                                   final int port,
+                                                   final String serial) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("api_enabled", "1");
+        properties.put("path", "/api/v1");
+        properties.put("serial", serial);
+        properties.put("product_type", productType);
+        properties.put("product_name", name);
+
+        return ServiceInfo.create(HomeWizardDiscoverer.SERVICE_TYPE, name, port, 0, 0, properties);
+    }
+
+    @Test
+    public void testDiscoverAsync() throws IOException, ExecutionException, InterruptedException, TimeoutException {
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer()) {
+            // A chained stage doesn't hold up discovery: other threads can still add a listener while it runs
+            final List<Device> devices = discoverer.discoverAsync(HomeWizardDiscoverer.DeviceType.ALL, 2,
+                    Duration.ofSeconds(10)).thenApply(foundDevices -> {
+                CompletableFuture.runAsync(() -> discoverer.addListener(new HomeWizardDiscoverer.Listener() {
+                })).orTimeout(5, TimeUnit.SECONDS).join();
+                return foundDevices;
+            }).get(15, TimeUnit.SECONDS);
+            Assertions.assertTrue(devices.size() >= 2);
+            Assertions.assertTrue(discoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 2, Duration.ofSeconds(1)));
+
+            // The timeout completes the future with the devices found so far
+            final long startNanos = System.nanoTime();
+            final List<Device> allDevices = discoverer.discoverAsync(HomeWizardDiscoverer.DeviceType.ALL, 1000,
+                    Duration.ofMillis(200)).get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(System.nanoTime() - startNanos >= TimeUnit.MILLISECONDS.toNanos(200));
+            Assertions.assertTrue(allDevices.size() >= 2);
+            Assertions.assertFalse(discoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 1000,
+                    Duration.ofMillis(100)));
+        }
+    }
+
+    @Test
+    public void testInterruptedWait() throws IOException {
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer()) {
+            Thread.currentThread().interrupt();
+            discoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 1000);
+            // Returned instead of spinning, and kept the interrupt status
+            Assertions.assertTrue(Thread.interrupted());
+        }
+    }
+
+    @Test
+    public void testInterruptedCreation() {
+        Thread.currentThread().interrupt();
+        // The mDNS discoverers that are still created after the interrupt are closed
+        Assertions.assertThrows(IOException.class, () -> new HomeWizardDiscoverer(HttpUtils.getSharedTransport(),
+                HomeWizardDiscoverer.WarmUp.NONE, List.of(Inet4Address.getLocalHost())));
+        Assertions.assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void testListener() throws IOException, InterruptedException {
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer()) {
+            discoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 2);
+
+            final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+            discoverer.addListener(new HomeWizardDiscoverer.Listener() {
+                @Override
+                public void onDeviceAdded(final Device device) {
+                    events.add("added " + device.getSerial().orElseThrow());
+                }
+
+                @Override
+                public void onDeviceRemoved(final Device device) {
+                    events.add("removed " + device.getSerial().orElseThrow());
+                }
+
+                @Override
+                public void onAddressChanged(final Device device, final String previousHostAddress, final int previousPort) {
+                    events.add("moved " + device.getSerial().orElseThrow() + " from " + previousPort + " to "
+                            + device.getPort());
+                }
+            });
+            // Devices that had already been discovered are replayed
+            Assertions.assertTrue(events.contains("added 3e8Abc2f9c50"));
+            Assertions.assertTrue(events.contains("added 3e8Abc2f9c51"));
+            events.clear();
+
+            final ServiceInfo newDevice = generateServiceInfo("HWE-WTR", "EventsWaterMeter", 7712, "3e8Abc2f9c52");
+            jmDNS.registerService(newDevice);
+            Assertions.assertEquals("added 3e8Abc2f9c52", events.poll(10, TimeUnit.SECONDS));
+
+            // The same device, announced with another port
+            final ServiceInfo movedDevice = generateServiceInfo("HWE-WTR", "EventsWaterMeterMoved", 7713, "3e8Abc2f9c52");
+            jmDNS.registerService(movedDevice);
+            Assertions.assertEquals("moved 3e8Abc2f9c52 from 7712 to 7713", events.poll(10, TimeUnit.SECONDS));
+            jmDNS.unregisterService(movedDevice);
+
+            jmDNS.unregisterService(newDevice);
+            Assertions.assertEquals("removed 3e8Abc2f9c52", events.poll(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(discoverer.getDeviceBySerial("3e8Abc2f9c52").isEmpty());
+        }
+    }
+
+    @Test
+    public void testMultipleInterfaces() throws IOException, InterruptedException {
+        final InetAddress localHost = Inet4Address.getLocalHost();
+        final List<InetAddress> interfaceAddresses = HomeWizardDiscoverer.findInterfaceAddresses().stream()
+                .filter(address -> !address.equals(localHost))
+                .toList();
+        Assumptions.assumeFalse(interfaceAddresses.isEmpty(), "No network interface besides the one of the local host");
+        final InetAddress interfaceAddress = interfaceAddresses.get(0);
+
+        // The same device is announced on two network interfaces, with another address on each
+        try (final JmDNS otherJmDNS = JmDNS.create(interfaceAddress);
+             final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(HttpUtils.getSharedTransport(),
+                     HomeWizardDiscoverer.WarmUp.NONE, List.of(localHost, interfaceAddress))) {
+            final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+            discoverer.addListener(new HomeWizardDiscoverer.Listener() {
+                @Override
+                public void onDeviceAdded(final Device device) {
+                    events.add("added " + device.getSerial().orElseThrow());
+                }
+
+                @Override
+                public void onDeviceRemoved(final Device device) {
+                    events.add("removed " + device.getSerial().orElseThrow());
+                }
+
+                @Override
+                public void onAddressChanged(final Device device, final String previousHostAddress, final int previousPort) {
+                    events.add("moved " + device.getSerial().orElseThrow() + " to " + device.getHostAddress());
+                }
+            });
+            discoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 2, Duration.ofSeconds(10));
+            events.clear();
+
+            final ServiceInfo device = generateServiceInfo("HWE-KWH1", "EventsMultiHomed", 7714, "3e8Abc2f9c53");
+            final ServiceInfo otherDevice = generateServiceInfo("HWE-KWH1", "EventsMultiHomed", 7714, "3e8Abc2f9c53");
+            jmDNS.registerService(device);
+            Assertions.assertEquals("added 3e8Abc2f9c53", events.poll(10, TimeUnit.SECONDS));
+            // Seeing the device on the other interface isn't a move
+            otherJmDNS.registerService(otherDevice);
+            Assertions.assertNull(events.poll(2, TimeUnit.SECONDS));
+
+            // The device is still seen on the other interface, so it stays, with the address it has there
+            jmDNS.unregisterService(device);
+            Assertions.assertEquals("moved 3e8Abc2f9c53 to " + interfaceAddress.getHostAddress(),
+                    events.poll(20, TimeUnit.SECONDS));
+
+            otherJmDNS.unregisterService(otherDevice);
+            Assertions.assertEquals("removed 3e8Abc2f9c53", events.poll(20, TimeUnit.SECONDS));
+        }
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+        jmDNS.close();
+    }
+}
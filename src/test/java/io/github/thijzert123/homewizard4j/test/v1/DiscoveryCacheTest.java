@@ -0,0 +1,148 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.DeviceSnapshot;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardDiscoverer;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.KWhMeter;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Thijzert123
+ */
+public class DiscoveryCacheTest {
+    private static final String CACHE = """
+            {"version": 1, "devices": [
+              {"serial": "3c39e7aabbcc", "product_type": "HWE-P1", "product_name": "P1 Meter",
+               "service_name": "p1meter-aabbcc._hwenergy._tcp.local.", "host_address": "192.0.2.10", "port": 80,
+               "api_path": "/api/v1", "api_enabled": true},
+              {"serial": "5c2faf001122", "product_type": "SDM230-wifi", "product_name": "kWh meter",
+               "service_name": null, "host_address": "192.0.2.11", "port": 80,
+               "api_path": "/api/v1", "api_enabled": true},
+              {"serial": "000000000000", "product_type": "HWE-UNKNOWN", "host_address": "192.0.2.12"}
+            ]}
+            """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testLoadAndRevalidate() throws IOException, InterruptedException {
+        final Path file = directory.resolve("devices.json");
+        Files.writeString(file, CACHE);
+        // Both addresses respond with the serial of the P1 meter
+        final InMemoryTransport transport = new InMemoryTransport()
+                .respond("/api", Utils.getResourceAsString("p1Meter/deviceInfo.json"));
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(transport)) {
+            final List<Device> devices = discoverer.loadCache(file);
+            Assertions.assertEquals(2, devices.size());
+            final P1Meter p1Meter = (P1Meter) discoverer.getDeviceBySerial("3c39e7aabbcc").orElseThrow();
+            Assertions.assertEquals("192.0.2.10", p1Meter.getHostAddress());
+            Assertions.assertEquals("/api/v1", p1Meter.getApiPath());
+            Assertions.assertTrue(devices.stream().anyMatch(KWhMeter.class::isInstance));
+
+            // Another device is at the address of the kWh meter
+            for (int i = 0; i < 50 && discoverer.getDeviceBySerial("5c2faf001122").isPresent(); i++) {
+                Thread.sleep(100);
+            }
+            Assertions.assertTrue(discoverer.getDeviceBySerial("5c2faf001122").isEmpty());
+            Assertions.assertTrue(discoverer.getDeviceBySerial("3c39e7aabbcc").isPresent());
+
+            // Loading again doesn't add the same devices twice
+            Assertions.assertTrue(discoverer.loadCache(file).stream()
+                    .noneMatch(device -> device.getSerial().orElseThrow().equals("3c39e7aabbcc")));
+        }
+    }
+
+    @Test
+    public void testRemovedDeviceIsNotPublished() throws IOException, InterruptedException, HomeWizardApiException {
+        final Path file = directory.resolve("devices.json");
+        Files.writeString(file, CACHE);
+        final InMemoryTransport transport = new InMemoryTransport()
+                .respond("/api", Utils.getResourceAsString("p1Meter/deviceInfo.json"))
+                .respond("/api/v1/data", Utils.getResourceAsString("p1Meter/measurements.json"));
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(transport)) {
+            final KWhMeter kWhMeter = discoverer.loadCache(file).stream()
+                    .filter(KWhMeter.class::isInstance).map(KWhMeter.class::cast).findFirst().orElseThrow();
+            final P1Meter p1Meter = (P1Meter) discoverer.getDeviceBySerial("3c39e7aabbcc").orElseThrow();
+            for (int i = 0; i < 50 && discoverer.getDeviceBySerial("5c2faf001122").isPresent(); i++) {
+                Thread.sleep(100);
+            }
+            Assertions.assertTrue(discoverer.getDeviceBySerial("5c2faf001122").isEmpty());
+
+            final BlockingQueue<DeviceSnapshot> deviceSnapshots = new LinkedBlockingQueue<>();
+            discoverer.getSnapshotPublisher().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(final Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(final DeviceSnapshot deviceSnapshot) {
+                    deviceSnapshots.add(deviceSnapshot);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            // The removed device still works on its own, but no longer publishes to the discoverer
+            kWhMeter.updateMeasurements();
+            Assertions.assertNull(deviceSnapshots.poll(200, TimeUnit.MILLISECONDS));
+            p1Meter.updateMeasurements();
+            final DeviceSnapshot deviceSnapshot = deviceSnapshots.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(deviceSnapshot);
+            Assertions.assertSame(p1Meter, deviceSnapshot.device());
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        final Path file = directory.resolve("devices.json");
+        Files.writeString(file, CACHE);
+        final Path savedFile = directory.resolve("saved.json");
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(new InMemoryTransport())) {
+            discoverer.loadCache(file);
+            discoverer.saveCache(savedFile);
+        }
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(new InMemoryTransport())) {
+            final List<Device> devices = discoverer.loadCache(savedFile);
+            Assertions.assertEquals(2, devices.size());
+            final Device p1Meter = discoverer.getDeviceBySerial("3c39e7aabbcc").orElseThrow();
+            Assertions.assertEquals("p1meter-aabbcc._hwenergy._tcp.local.", p1Meter.getServiceName().orElseThrow());
+            Assertions.assertEquals(80, p1Meter.getPort());
+            Assertions.assertTrue(p1Meter.isApiEnabled());
+            Assertions.assertTrue(discoverer.getDeviceBySerial("5c2faf001122").orElseThrow().getServiceName().isEmpty());
+        }
+    }
+
+    @Test
+    public void testMissingAndInvalidFiles() throws IOException {
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(new InMemoryTransport())) {
+            Assertions.assertTrue(discoverer.loadCache(directory.resolve("missing.json")).isEmpty());
+
+            final Path invalidFile = directory.resolve("invalid.json");
+            Files.writeString(invalidFile, "{\"version\": 2}");
+            Assertions.assertThrows(IOException.class, () -> discoverer.loadCache(invalidFile));
+        }
+    }
+}
@@ -3,13 +3,16 @@ package io.github.thijzert123.homewizard4j.test.v1;
 import com.sun.net.httpserver.HttpServer;
 import io.github.thijzert123.homewizard4j.test.TestHttpHandler;
 import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.Endpoint;
 import io.github.thijzert123.homewizard4j.v1.EnergySocket;
 import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.UpdateResult;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.EnumSet;
 
 /**
  * @author Thijzert123
@@ -34,6 +37,24 @@ public class EnergySocketTest {
         Assertions.assertEquals(expectedJson, energySocket.toJson());
     }
 
+    @Test
+    public void testUpdateAllAsync() throws HomeWizardApiException {
+        final EnergySocket energySocket = new EnergySocket(true, "localhost", 8323, "/test");
+        energySocket.updateAllAsync().join();
+
+        Assertions.assertEquals(expectedJson, energySocket.toJson());
+    }
+
+    @Test
+    public void testUpdateAllConcurrently() throws HomeWizardApiException {
+        final EnergySocket energySocket = new EnergySocket(true, "localhost", 8323, "/test");
+        final UpdateResult result = energySocket.updateAllConcurrently();
+
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(EnumSet.allOf(Endpoint.class), result.getUpdated());
+        Assertions.assertEquals(expectedJson, energySocket.toJson());
+    }
+
     @Test
     public void testFromJson() throws HomeWizardApiException {
         final EnergySocket energySocket = new EnergySocket(true, "localhost", 8323, "/test");
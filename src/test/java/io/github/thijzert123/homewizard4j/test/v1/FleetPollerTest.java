@@ -0,0 +1,93 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.FleetPoller;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Thijzert123
+ */
+public class FleetPollerTest {
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        Utils.initializeServer(8325, "p1Meter").start();
+    }
+
+    @Test
+    public void testPolling() throws InterruptedException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8325, "/test");
+        final CountDownLatch pollLatch = new CountDownLatch(3);
+
+        try (final FleetPoller poller = new FleetPoller(2)) {
+            poller.addListener(new FleetPoller.Listener() {
+                @Override
+                public void onPoll(final Device device) {
+                    pollLatch.countDown();
+                }
+            });
+            poller.add(p1Meter, Duration.ofMillis(50));
+
+            Assertions.assertTrue(pollLatch.await(5, TimeUnit.SECONDS));
+        }
+        Assertions.assertTrue(p1Meter.getActivePowerW().isPresent());
+    }
+
+    @Test
+    public void testPollFailed() throws InterruptedException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8399, "/test");
+        final CountDownLatch failureLatch = new CountDownLatch(1);
+
+        try (final FleetPoller poller = new FleetPoller(1)) {
+            poller.addListener(new FleetPoller.Listener() {
+                @Override
+                public void onPollFailed(final Device device, final HomeWizardApiException exception) {
+                    failureLatch.countDown();
+                }
+            });
+            poller.add(p1Meter, Duration.ofMillis(50));
+
+            Assertions.assertTrue(failureLatch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testThrowingListener() throws InterruptedException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8325, "/test");
+        final CountDownLatch pollLatch = new CountDownLatch(3);
+
+        try (final FleetPoller poller = new FleetPoller(1)) {
+            poller.addListener(new FleetPoller.Listener() {
+                @Override
+                public void onPoll(final Device device) {
+                    throw new IllegalStateException("Listener failure");
+                }
+            });
+            poller.addListener(new FleetPoller.Listener() {
+                @Override
+                public void onPoll(final Device device) {
+                    pollLatch.countDown();
+                }
+            });
+            poller.add(p1Meter, Duration.ofMillis(50));
+
+            // The other listener is still called, and the only worker thread keeps polling
+            Assertions.assertTrue(pollLatch.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testDefaultInterval() {
+        Assertions.assertEquals(FleetPoller.P1_METER_INTERVAL,
+                FleetPoller.getDefaultInterval(new P1Meter("localhost")));
+    }
+}
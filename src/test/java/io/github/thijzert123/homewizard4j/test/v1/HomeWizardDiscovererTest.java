@@ -1,5 +1,6 @@
 package io.github.thijzert123.homewizard4j.test.v1;
 
+import io.github.thijzert123.homewizard4j.test.Utils;
 import io.github.thijzert123.homewizard4j.v1.*;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
@@ -10,8 +11,22 @@ import javax.jmdns.JmDNS;
 import javax.jmdns.ServiceInfo;
 import java.io.IOException;
 import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Thijzert123
@@ -105,6 +120,122 @@ public class HomeWizardDiscovererTest {
         Assertions.assertTrue(discoverer.getAllDevices().size() >= 4);
     }
 
+    @Test
+    public void testLookups() {
+        final Device p1Meter = discoverer.getDeviceByServiceName("P1Meter._hwenergy._tcp.local.").orElseThrow();
+        Assertions.assertInstanceOf(P1Meter.class, p1Meter);
+        Assertions.assertSame(p1Meter, discoverer.getDeviceBySerial(p1Meter.getSerial().orElseThrow()).orElseThrow());
+        Assertions.assertTrue(discoverer.getDevicesByProductType("HWE-P1").contains(p1Meter));
+        Assertions.assertTrue(discoverer.getDeviceByHostAddress(p1Meter.getHostAddress()).isPresent());
+        Assertions.assertTrue(discoverer.getDeviceBySerial("000000000000").isEmpty());
+        Assertions.assertTrue(discoverer.getDevicesByProductType("HWE-UNKNOWN").isEmpty());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> discoverer.getAllDevices().clear());
+    }
+
+    @Test
+    public void testMerge() throws IOException {
+        try (final HomeWizardDiscoverer mergedDiscoverer = new HomeWizardDiscoverer(discoverer)) {
+            // All types of devices are merged, and devices that are discovered again aren't added twice
+            mergedDiscoverer.waitForMillis(1000);
+            Assertions.assertEquals(discoverer.getAllDevices().size(), mergedDiscoverer.getAllDevices().size());
+            Assertions.assertEquals(discoverer.getKWhMeters(), mergedDiscoverer.getKWhMeters());
+        }
+    }
+
+    @Test
+    public void testMultipleInterfaces() throws IOException {
+        for (final InetAddress address : HomeWizardDiscoverer.findInterfaceAddresses()) {
+            Assertions.assertFalse(address.isLoopbackAddress());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new HomeWizardDiscoverer(HttpUtils.getSharedTransport(), HomeWizardDiscoverer.WarmUp.NONE, List.of()));
+
+        // Both instances see the same devices, which are only added once
+        final InetAddress localHost = Inet4Address.getLocalHost();
+        try (final HomeWizardDiscoverer multiDiscoverer = new HomeWizardDiscoverer(HttpUtils.getSharedTransport(),
+                HomeWizardDiscoverer.WarmUp.NONE, List.of(localHost, localHost))) {
+            Assertions.assertTrue(multiDiscoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.ALL, 4, Duration.ofSeconds(30)));
+            Assertions.assertEquals(1, multiDiscoverer.getAllDevices().stream()
+                    .filter(device -> device.getServiceName().orElseThrow().equals("P1Meter._hwenergy._tcp.local."))
+                    .count());
+        }
+    }
+
+    @Test
+    public void testWarmUpDeviceInfo() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        final String deviceInfo = Utils.getResourceAsString("p1Meter/deviceInfo.json");
+        final AtomicInteger p1MeterRequestCount = new AtomicInteger();
+        final CountDownLatch requested = new CountDownLatch(1);
+        final CountDownLatch released = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final InMemoryTransport transport = new InMemoryTransport(executor).handle("/api", request -> {
+            if (request.uri().getPort() == 7701) {
+                p1MeterRequestCount.incrementAndGet();
+                requested.countDown();
+                try {
+                    released.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return DeviceTransport.Response.of(200, deviceInfo);
+        });
+        try (final HomeWizardDiscoverer warmUpDiscoverer =
+                     new HomeWizardDiscoverer(transport, HomeWizardDiscoverer.WarmUp.DEVICE_INFO)) {
+            Assertions.assertEquals(HomeWizardDiscoverer.WarmUp.DEVICE_INFO, warmUpDiscoverer.getWarmUp());
+            warmUpDiscoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.P1_METER, 1);
+
+            // The device info is requested without calling an update method
+            Assertions.assertTrue(requested.await(5, TimeUnit.SECONDS));
+            final P1Meter p1Meter = warmUpDiscoverer.getP1Meters().get(0);
+            // Joins the request of the warm-up, which is still in flight
+            final CompletableFuture<Void> update = p1Meter.updateDeviceInfoAsync();
+            released.countDown();
+            update.get(5, TimeUnit.SECONDS);
+            Assertions.assertTrue(p1Meter.getFirmwareVersion().isPresent());
+            Assertions.assertEquals(1, p1MeterRequestCount.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSnapshotPublisher() throws IOException, InterruptedException, HomeWizardApiException {
+        final InMemoryTransport transport = new InMemoryTransport()
+                .respond("/api/v1/data", Utils.getResourceAsString("p1Meter/measurements.json"));
+        try (final HomeWizardDiscoverer publishingDiscoverer = new HomeWizardDiscoverer(transport)) {
+            final BlockingQueue<DeviceSnapshot> deviceSnapshots = new LinkedBlockingQueue<>();
+            publishingDiscoverer.getSnapshotPublisher().subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(final Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(final DeviceSnapshot deviceSnapshot) {
+                    deviceSnapshots.add(deviceSnapshot);
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+            publishingDiscoverer.waitForDevices(HomeWizardDiscoverer.DeviceType.P1_METER, 1);
+
+            // Devices that are discovered after subscribing are published as well
+            final P1Meter p1Meter = publishingDiscoverer.getP1Meters().get(0);
+            p1Meter.updateMeasurements();
+            final DeviceSnapshot deviceSnapshot = deviceSnapshots.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(deviceSnapshot);
+            Assertions.assertSame(p1Meter, deviceSnapshot.device());
+            Assertions.assertEquals(-543, deviceSnapshot.snapshot().get(Metric.ACTIVE_POWER_W));
+        }
+    }
+
     @AfterAll
     public static void afterAll() throws IOException {
         jmDNS.close();
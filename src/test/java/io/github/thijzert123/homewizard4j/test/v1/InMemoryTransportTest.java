@@ -0,0 +1,73 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.DeviceHealth;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.SystemConfiguration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Thijzert123
+ */
+public class InMemoryTransportTest {
+    private static InMemoryTransport createTransport() throws IOException {
+        return new InMemoryTransport()
+                .respond("/api", Utils.getResourceAsString("p1Meter/deviceInfo.json"))
+                .respond("/test/data", Utils.getResourceAsString("p1Meter/measurements.json"))
+                .respond("/test/system", Utils.getResourceAsString("p1Meter/systemConfiguration.json"));
+    }
+
+    @Test
+    public void testUpdateAll() throws IOException {
+        final InMemoryTransport transport = createTransport();
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 80, "/test", transport);
+        Assertions.assertSame(transport, p1Meter.getTransport());
+
+        p1Meter.updateAll();
+        Assertions.assertEquals(3, transport.getRequestCount());
+        Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+        Assertions.assertTrue(p1Meter.getFirmwareVersion().isPresent());
+        Assertions.assertTrue(p1Meter.getSystemConfiguration().isCloudEnabled().isPresent());
+    }
+
+    @Test
+    public void testSave() throws IOException {
+        final AtomicReference<String> savedBody = new AtomicReference<>();
+        final InMemoryTransport transport = createTransport();
+        transport.handle("/test/system", request -> {
+            savedBody.set(new String(request.body(), StandardCharsets.UTF_8));
+            return DeviceTransport.Response.of(200, "{}");
+        });
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 80, "/test", transport);
+
+        final SystemConfiguration systemConfiguration = p1Meter.getSystemConfiguration();
+        systemConfiguration.setCloudEnabled(false);
+        systemConfiguration.save();
+        Assertions.assertEquals("{\"cloud_enabled\":false}", savedBody.get());
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        final InMemoryTransport transport = createTransport();
+        transport.handle("/test/data", request -> {
+            throw new UncheckedIOException(new ConnectException("Connection refused"));
+        });
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 80, "/test", transport);
+
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::retrieveLastTelegram); // no response, so 404
+        Assertions.assertEquals(0, p1Meter.getHealth().getConsecutiveFailures());
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertEquals(1, p1Meter.getHealth().getConsecutiveFailures());
+        Assertions.assertEquals(DeviceHealth.State.CLOSED, p1Meter.getHealth().getState());
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.v1.Deadband;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.EnergySocket;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.Metric;
+import io.github.thijzert123.homewizard4j.v1.MetricListener;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.WaterMeter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Thijzert123
+ */
+public class MetricListenerTest {
+    private static P1Meter createP1Meter(final AtomicReference<String> body) {
+        final InMemoryTransport transport = new InMemoryTransport()
+                .handle("/test/data", request -> DeviceTransport.Response.of(200, body.get()));
+        return new P1Meter(true, "localhost", 80, "/test", transport);
+    }
+
+    @Test
+    public void testAbsoluteDeadband() throws HomeWizardApiException {
+        final AtomicReference<String> body = new AtomicReference<>();
+        final P1Meter p1Meter = createP1Meter(body);
+        final List<double[]> changes = new ArrayList<>();
+        p1Meter.addMetricListener(Metric.ACTIVE_POWER_W, Deadband.absolute(20),
+                (device, metric, previousValue, value) -> changes.add(new double[]{previousValue, value}));
+
+        // The first value, small steps that add up past the deadband, and a value that disappears
+        for (final String activePowerW : new String[]{"100", "110", "119", "121", "125", "80"}) {
+            body.set("{\"active_power_w\": " + activePowerW + "}");
+            p1Meter.updateMeasurements();
+        }
+        body.set("{}");
+        p1Meter.updateMeasurements();
+
+        Assertions.assertEquals(4, changes.size());
+        Assertions.assertTrue(Double.isNaN(changes.get(0)[0]));
+        Assertions.assertEquals(100, changes.get(0)[1]);
+        Assertions.assertArrayEquals(new double[]{100, 121}, changes.get(1));
+        Assertions.assertArrayEquals(new double[]{121, 80}, changes.get(2));
+        Assertions.assertEquals(80, changes.get(3)[0]);
+        Assertions.assertTrue(Double.isNaN(changes.get(3)[1]));
+    }
+
+    @Test
+    public void testRelativeDeadbandAndRemoval() throws HomeWizardApiException {
+        final AtomicReference<String> body = new AtomicReference<>();
+        final P1Meter p1Meter = createP1Meter(body);
+        final List<Double> values = new ArrayList<>();
+        final MetricListener listener = (device, metric, previousValue, value) -> values.add(value);
+        p1Meter.addMetricListener(Metric.ACTIVE_POWER_W, Deadband.relative(0.1), listener);
+
+        for (final String activePowerW : new String[]{"1000", "1050", "1101", "1150"}) {
+            body.set("{\"active_power_w\": " + activePowerW + "}");
+            p1Meter.updateMeasurements();
+        }
+        Assertions.assertEquals(List.of(1000.0, 1101.0), values);
+
+        p1Meter.removeMetricListener(listener);
+        body.set("{\"active_power_w\": 5000}");
+        p1Meter.updateMeasurements();
+        Assertions.assertEquals(2, values.size());
+    }
+
+    @Test
+    public void testInvalidListeners() {
+        final WaterMeter waterMeter = new WaterMeter("localhost");
+        final MetricListener listener = (device, metric, previousValue, value) -> {
+        };
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> waterMeter.addMetricListener(Metric.ACTIVE_POWER_W, Deadband.ANY_CHANGE, listener));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Deadband.absolute(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Deadband.relative(Double.NaN));
+    }
+
+    @Test
+    public void testPowerOnListener() throws HomeWizardApiException {
+        final AtomicReference<String> body = new AtomicReference<>();
+        final InMemoryTransport transport = new InMemoryTransport()
+                .handle("/test/state", request -> DeviceTransport.Response.of(200, body.get()));
+        final EnergySocket energySocket = new EnergySocket(true, "localhost", 80, "/test", transport);
+        final List<Boolean> changes = new ArrayList<>();
+        energySocket.addPowerOnListener((socket, powerOn) -> changes.add(powerOn));
+
+        for (final String powerOn : new String[]{"true", "true", "false", "false", "true"}) {
+            body.set("{\"power_on\": " + powerOn + ", \"brightness\": 255}");
+            energySocket.getEnergySocketState().update();
+        }
+        Assertions.assertEquals(List.of(true, false, true), changes);
+    }
+}
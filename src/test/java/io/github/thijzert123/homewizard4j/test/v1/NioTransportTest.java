@@ -0,0 +1,193 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.NioTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.SystemConfiguration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Thijzert123
+ */
+public class NioTransportTest {
+    private static final AtomicReference<String> SAVED_BODY = new AtomicReference<>();
+    private static NioTransport transport;
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        final HttpServer httpServer = Utils.initializeServer(8329, "p1Meter");
+        final byte[] measurements = Utils.getResourceAsString("p1Meter/measurements.json").getBytes(StandardCharsets.UTF_8);
+        httpServer.createContext("/chunked/data", httpExchange -> {
+            httpExchange.sendResponseHeaders(200, 0);
+            final OutputStream outputStream = httpExchange.getResponseBody();
+            outputStream.write(measurements, 0, 10);
+            outputStream.flush();
+            outputStream.write(measurements, 10, measurements.length - 10);
+            outputStream.close();
+        });
+        httpServer.createContext("/slow/data", httpExchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            httpExchange.sendResponseHeaders(200, measurements.length);
+            httpExchange.getResponseBody().write(measurements);
+            httpExchange.close();
+        });
+        httpServer.createContext("/save/system", httpExchange -> {
+            SAVED_BODY.set(httpExchange.getRequestMethod() + " "
+                    + new String(httpExchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            httpExchange.sendResponseHeaders(200, 2);
+            httpExchange.getResponseBody().write("{}".getBytes(StandardCharsets.UTF_8));
+            httpExchange.close();
+        });
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+
+        transport = new NioTransport(1, Runnable::run);
+    }
+
+    @AfterAll
+    public static void afterAll() {
+        transport.close();
+    }
+
+    @Test
+    public void testUpdateAll() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/test", transport);
+        p1Meter.updateAll();
+        Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+        Assertions.assertTrue(p1Meter.getFirmwareVersion().isPresent());
+        Assertions.assertTrue(p1Meter.getSystemConfiguration().isCloudEnabled().isPresent());
+    }
+
+    @Test
+    public void testSave() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/save", transport);
+        final SystemConfiguration systemConfiguration = p1Meter.getSystemConfiguration();
+        systemConfiguration.setCloudEnabled(false);
+        systemConfiguration.save();
+        Assertions.assertEquals("PUT {\"cloud_enabled\":false}", SAVED_BODY.get());
+    }
+
+    @Test
+    public void testChunkedResponse() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/chunked", transport);
+        p1Meter.updateMeasurements();
+        Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+    }
+
+    @Test
+    public void testManyRequestsOnOneConnection() {
+        final List<P1Meter> p1Meters = new ArrayList<>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/test", transport);
+            p1Meters.add(p1Meter);
+            futures.add(p1Meter.updateMeasurementsAsync());
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        for (final P1Meter p1Meter : p1Meters) {
+            Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+        }
+    }
+
+    @Test
+    public void testPreconnect() throws HomeWizardApiException {
+        transport.preconnect(URI.create("http://localhost:8329")).join();
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/test", transport);
+        p1Meter.updateMeasurements();
+        Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class,
+                () -> transport.preconnect(URI.create("http://localhost:8399")).join());
+        Assertions.assertInstanceOf(ConnectException.class, exception.getCause());
+    }
+
+    @Test
+    public void testTimeout() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8329, "/slow", transport);
+        final long startNanos = System.nanoTime();
+        final HomeWizardApiException exception = Assertions.assertThrows(HomeWizardApiException.class,
+                () -> p1Meter.updateMeasurements(Duration.ofMillis(200)));
+        Assertions.assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    public void testConnectionRefused() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8399, "/test", transport);
+        final HomeWizardApiException exception =
+                Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+        Assertions.assertInstanceOf(ConnectException.class, exception.getCause());
+    }
+
+    @Test
+    public void testInvalidBodySizes() throws IOException {
+        assertRejected("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n-1\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: -5\r\n\r\n");
+        assertRejected("HTTP/1.1 200 OK\r\nContent-Length: 2000000000\r\n\r\n");
+    }
+
+    @Test
+    public void testOverlongLines() throws IOException {
+        final String chunkedHeaders = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n";
+        assertRejected("HTTP/1.1 200 OK\r\nX-Long: " + "a".repeat(20000));
+        assertRejected(chunkedHeaders + "0".repeat(20000));
+        assertRejected(chunkedHeaders + "0\r\nX-Trailer: " + "a".repeat(20000));
+        assertRejected(chunkedHeaders + "0\r\n" + "X-Trailer: a\r\n".repeat(2000));
+    }
+
+    /**
+     * Answers one request with the response, and keeps the connection open.
+     * The request must fail because of the response, long before its timeout.
+     */
+    private static void assertRejected(final String response) throws IOException {
+        try (final ServerSocket serverSocket = new ServerSocket(0)) {
+            final Thread serverThread = new Thread(() -> {
+                try (final Socket socket = serverSocket.accept()) {
+                    socket.getInputStream().read();
+                    socket.getOutputStream().write(response.getBytes(StandardCharsets.ISO_8859_1));
+                    socket.getOutputStream().flush();
+                    // Reads the rest of the request, then waits until the client closes the connection
+                    while (socket.getInputStream().read() != -1) {
+                        // ignored
+                    }
+                } catch (final IOException ioException) {
+                    // the client closed the connection
+                }
+            });
+            serverThread.setDaemon(true);
+            serverThread.start();
+
+            final P1Meter p1Meter = new P1Meter(true, "localhost", serverSocket.getLocalPort(), "/test", transport);
+            final long startNanos = System.nanoTime();
+            final HomeWizardApiException exception = Assertions.assertThrows(HomeWizardApiException.class,
+                    () -> p1Meter.updateMeasurements(Duration.ofSeconds(10)));
+            Assertions.assertInstanceOf(IOException.class, exception.getCause());
+            Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(5)) < 0);
+        }
+    }
+}
@@ -2,12 +2,15 @@ package io.github.thijzert123.homewizard4j.test.v1;
 
 import io.github.thijzert123.homewizard4j.test.Utils;
 import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.Metric;
 import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.P1Snapshot;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.concurrent.CompletionException;
 
 /**
  * @author Thijzert123
@@ -30,6 +33,63 @@ public class P1MeterTest {
         Assertions.assertEquals(expectedJson, p1Meter.toJson());
     }
 
+    @Test
+    public void testUpdateAllAsync() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8322, "/test");
+        p1Meter.updateAllAsync().join();
+
+        Assertions.assertEquals(expectedJson, p1Meter.toJson());
+    }
+
+    @Test
+    public void testUpdateAsyncFailure() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8399, "/test");
+        final CompletionException completionException = Assertions.assertThrows(CompletionException.class,
+                () -> p1Meter.updateMeasurementsAsync().join());
+
+        Assertions.assertInstanceOf(HomeWizardApiException.class, completionException.getCause());
+    }
+
+    @Test
+    public void testSnapshot() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8322, "/test");
+        final P1Snapshot emptySnapshot = p1Meter.getSnapshot();
+        p1Meter.updateMeasurements();
+        final P1Snapshot snapshot = p1Meter.getSnapshot();
+
+        Assertions.assertNotSame(emptySnapshot, snapshot);
+        Assertions.assertTrue(emptySnapshot.getActivePowerW().isEmpty());
+        Assertions.assertEquals(-543, snapshot.getActivePowerW().getAsDouble());
+        Assertions.assertEquals(p1Meter.getWifiSsid(), snapshot.getWifiSsid());
+    }
+
+    @Test
+    public void testMetrics() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8322, "/test");
+        Assertions.assertFalse(p1Meter.has(Metric.ACTIVE_POWER_W));
+        Assertions.assertTrue(Double.isNaN(p1Meter.get(Metric.ACTIVE_POWER_W)));
+
+        p1Meter.updateMeasurements();
+
+        Assertions.assertTrue(p1Meter.has(Metric.ACTIVE_POWER_W));
+        Assertions.assertEquals(-543, p1Meter.get(Metric.ACTIVE_POWER_W));
+        Assertions.assertEquals(p1Meter.getWifiStrength().getAsDouble(), p1Meter.get(Metric.WIFI_STRENGTH));
+        // Only kWh meters measure the apparent current
+        Assertions.assertFalse(p1Meter.has(Metric.ACTIVE_APPARENT_CURRENT_A));
+        Assertions.assertTrue(Double.isNaN(p1Meter.get(Metric.ACTIVE_APPARENT_CURRENT_A)));
+    }
+
+    @Test
+    public void testUpdateDeviceInfoKeepsMeasurements() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8322, "/test");
+        p1Meter.updateMeasurements();
+        final P1Snapshot snapshot = p1Meter.getSnapshot();
+        p1Meter.updateDeviceInfo();
+
+        Assertions.assertSame(snapshot, p1Meter.getSnapshot());
+        Assertions.assertEquals("HWE-P1", p1Meter.getProductType().orElseThrow());
+    }
+
     @Test
     public void testFromJson() throws HomeWizardApiException {
         final P1Meter p1Meter = new P1Meter(true, "localhost", 8322, "/test");
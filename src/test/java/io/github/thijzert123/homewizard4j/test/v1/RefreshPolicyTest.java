@@ -0,0 +1,93 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.Endpoint;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.Metric;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.UpdateResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Thijzert123
+ */
+public class RefreshPolicyTest {
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private P1Meter p1Meter;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        final InMemoryTransport transport = new InMemoryTransport();
+        for (final String[] response : new String[][]{
+                {"/api", "p1Meter/deviceInfo.json"},
+                {"/test/data", "p1Meter/measurements.json"},
+                {"/test/system", "p1Meter/systemConfiguration.json"}}) {
+            final String body = Utils.getResourceAsString(response[1]);
+            transport.handle(response[0], request -> {
+                requestCounts.computeIfAbsent(response[0], path -> new AtomicInteger()).incrementAndGet();
+                return DeviceTransport.Response.of(200, body);
+            });
+        }
+        p1Meter = new P1Meter(true, "localhost", 80, "/test", transport);
+    }
+
+    private int getRequestCount(final String path) {
+        return requestCounts.getOrDefault(path, new AtomicInteger()).get();
+    }
+
+    @Test
+    public void testDefaultReadsEverything() throws HomeWizardApiException {
+        Assertions.assertEquals(Duration.ZERO, p1Meter.getRefreshPolicy().getMaxAge(Endpoint.DEVICE_INFO));
+        Assertions.assertTrue(p1Meter.getAge(Endpoint.MEASUREMENTS).isEmpty());
+
+        p1Meter.updateAll();
+        p1Meter.updateAll();
+        Assertions.assertEquals(2, getRequestCount("/api"));
+        Assertions.assertEquals(2, getRequestCount("/test/data"));
+        Assertions.assertEquals(2, getRequestCount("/test/system"));
+        Assertions.assertTrue(p1Meter.getAge(Endpoint.SYSTEM_CONFIGURATION).isPresent());
+    }
+
+    @Test
+    public void testTieredSkipsFreshEndpoints() throws HomeWizardApiException {
+        p1Meter.getRefreshPolicy().setTiered(Duration.ofHours(1), Duration.ZERO);
+        p1Meter.updateAll();
+        p1Meter.updateAll();
+        Assertions.assertEquals(1, getRequestCount("/api"));
+        Assertions.assertEquals(2, getRequestCount("/test/data"));
+        Assertions.assertEquals(1, getRequestCount("/test/system"));
+
+        final UpdateResult result = p1Meter.updateAllConcurrently();
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(Set.of(Endpoint.MEASUREMENTS), result.getUpdated());
+
+        // Updating an endpoint directly always sends a request
+        p1Meter.getSystemConfiguration().update();
+        Assertions.assertEquals(2, getRequestCount("/test/system"));
+    }
+
+    @Test
+    public void testReadThrough() throws HomeWizardApiException {
+        Assertions.assertEquals(-543, p1Meter.getSnapshot(Duration.ofHours(1)).getActivePowerW().getAsDouble());
+        Assertions.assertEquals(-543, p1Meter.get(Metric.ACTIVE_POWER_W, Duration.ofHours(1)));
+        Assertions.assertEquals(1, getRequestCount("/test/data"));
+
+        p1Meter.getSnapshot(Duration.ZERO);
+        Assertions.assertEquals(2, getRequestCount("/test/data"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> p1Meter.getSnapshot(Duration.ofSeconds(-1)));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> p1Meter.getRefreshPolicy().setMaxAge(Endpoint.MEASUREMENTS, Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.thijzert123.homewizard4j.test.TestHttpHandler;
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.MeasurementSnapshot;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Thijzert123
+ */
+public class RequestCoalescingTest {
+    private static final AtomicInteger REQUEST_COUNT = new AtomicInteger();
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        final HttpServer httpServer = Utils.initializeServer(8326, "p1Meter");
+        final TestHttpHandler measurementsHandler =
+                new TestHttpHandler(Utils.getResourceAsString("p1Meter/measurements.json"));
+        httpServer.removeContext("/test/data");
+        httpServer.createContext("/test/data", httpExchange -> {
+            REQUEST_COUNT.incrementAndGet();
+            try {
+                // Slow device, so all callers arrive while the request is in flight
+                Thread.sleep(300);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            measurementsHandler.handle(httpExchange);
+        });
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        REQUEST_COUNT.set(0);
+    }
+
+    @Test
+    public void testConcurrentUpdatesShareRequest() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8326, "/test");
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(p1Meter.updateMeasurementsAsync());
+        }
+        p1Meter.updateMeasurements();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        Assertions.assertEquals(1, REQUEST_COUNT.get());
+        Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+
+        // The request is no longer in flight, so the next update makes a new one
+        p1Meter.updateMeasurements();
+        Assertions.assertEquals(2, REQUEST_COUNT.get());
+    }
+
+    @Test
+    public void testSharedRequestPublishesOnce() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8326, "/test");
+        final AtomicInteger publishCount = new AtomicInteger();
+        // Delivers on the publishing thread, so every publish is counted instead of conflated
+        p1Meter.getSnapshotPublisher(Runnable::run).subscribe(new Flow.Subscriber<MeasurementSnapshot>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final MeasurementSnapshot snapshot) {
+                publishCount.incrementAndGet();
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(p1Meter.updateMeasurementsAsync());
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        Assertions.assertEquals(1, REQUEST_COUNT.get());
+        Assertions.assertEquals(1, publishCount.get());
+    }
+
+    @Test
+    public void testCancelDoesNotAbortOtherCallers() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8326, "/test");
+        final CompletableFuture<Void> cancelled = p1Meter.updateMeasurementsAsync();
+        final CompletableFuture<Void> waiting = p1Meter.updateMeasurementsAsync();
+        cancelled.cancel(true);
+
+        waiting.join();
+        Assertions.assertTrue(cancelled.isCancelled());
+        Assertions.assertEquals(1, REQUEST_COUNT.get());
+        Assertions.assertTrue(p1Meter.getActivePowerW().isPresent());
+    }
+
+    @Test
+    public void testJoinedCallerTimesOut() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8326, "/test");
+        final CompletableFuture<Void> waiting = p1Meter.updateMeasurementsAsync();
+        final CompletableFuture<Void> impatient = p1Meter.updateMeasurementsAsync(Duration.ofMillis(100));
+
+        final CompletionException exception = Assertions.assertThrows(CompletionException.class, impatient::join);
+        Assertions.assertInstanceOf(HomeWizardApiException.class, exception.getCause());
+        waiting.join();
+        Assertions.assertEquals(1, REQUEST_COUNT.get());
+        Assertions.assertTrue(p1Meter.getActivePowerW().isPresent());
+    }
+}
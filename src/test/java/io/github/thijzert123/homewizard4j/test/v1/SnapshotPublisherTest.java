@@ -0,0 +1,159 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.MeasurementSnapshot;
+import io.github.thijzert123.homewizard4j.v1.Metric;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author Thijzert123
+ */
+public class SnapshotPublisherTest {
+    private static P1Meter createP1Meter() {
+        final AtomicInteger activePowerW = new AtomicInteger();
+        final InMemoryTransport transport = new InMemoryTransport().handle("/test/data", request ->
+                DeviceTransport.Response.of(200, "{\"active_power_w\": " + activePowerW.incrementAndGet() + "}"));
+        return new P1Meter(true, "localhost", 80, "/test", transport);
+    }
+
+    /**
+     * Requests one snapshot at a time and takes some time for every snapshot.
+     */
+    private static class SlowSubscriber implements Flow.Subscriber<MeasurementSnapshot> {
+        final List<Double> values = new CopyOnWriteArrayList<>();
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        final CountDownLatch errorLatch = new CountDownLatch(1);
+        final long delayMillis;
+        final long initialRequest;
+        volatile Flow.Subscription subscription;
+
+        SlowSubscriber(final long delayMillis, final long initialRequest) {
+            this.delayMillis = delayMillis;
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest != 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(final MeasurementSnapshot snapshot) {
+            values.add(snapshot.get(Metric.ACTIVE_POWER_W));
+            try {
+                Thread.sleep(delayMillis);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+            errorLatch.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static void waitFor(final List<Double> values, final double value) throws InterruptedException {
+        for (int i = 0; i < 100 && (values.isEmpty() || values.get(values.size() - 1) != value); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void testSlowSubscriberGetsLatestSnapshot() throws HomeWizardApiException, InterruptedException {
+        final P1Meter p1Meter = createP1Meter();
+        p1Meter.updateMeasurements();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final SlowSubscriber slowSubscriber = new SlowSubscriber(200, 1);
+            final SlowSubscriber fastSubscriber = new SlowSubscriber(0, 1);
+            p1Meter.getSnapshotPublisher(executor).subscribe(slowSubscriber);
+            p1Meter.getSnapshotPublisher(executor).subscribe(fastSubscriber);
+
+            // The updates don't wait for the slow subscriber, which would take 4 seconds for all snapshots
+            final long startNanos = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                p1Meter.updateMeasurements();
+                Thread.sleep(5);
+            }
+            Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(1)) < 0);
+
+            waitFor(slowSubscriber.values, 21);
+            waitFor(fastSubscriber.values, 21);
+            // The slow subscriber skipped the snapshots that were replaced before it could receive them
+            Assertions.assertTrue(slowSubscriber.values.size() < 10);
+            Assertions.assertEquals(21, slowSubscriber.values.get(slowSubscriber.values.size() - 1));
+            Assertions.assertEquals(21, fastSubscriber.values.get(fastSubscriber.values.size() - 1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws HomeWizardApiException, InterruptedException {
+        final P1Meter p1Meter = createP1Meter();
+        p1Meter.updateMeasurements();
+
+        // A new subscriber first gets the current snapshot
+        final SlowSubscriber subscriber = new SlowSubscriber(0, 0) {
+            @Override
+            public void onNext(final MeasurementSnapshot snapshot) {
+                values.add(snapshot.get(Metric.ACTIVE_POWER_W));
+            }
+        };
+        p1Meter.getSnapshotPublisher().subscribe(subscriber);
+        for (int i = 0; i < 100 && subscriber.subscription == null; i++) {
+            Thread.sleep(10);
+        }
+        subscriber.subscription.request(1);
+        waitFor(subscriber.values, 1);
+        Assertions.assertEquals(List.of(1.0), subscriber.values);
+
+        // Without demand, nothing is delivered
+        p1Meter.updateMeasurements();
+        p1Meter.updateMeasurements();
+        Thread.sleep(100);
+        Assertions.assertEquals(List.of(1.0), subscriber.values);
+
+        subscriber.subscription.request(5);
+        waitFor(subscriber.values, 3);
+        Assertions.assertEquals(List.of(1.0, 3.0), subscriber.values);
+
+        subscriber.subscription.cancel();
+        p1Meter.updateMeasurements();
+        Thread.sleep(100);
+        Assertions.assertEquals(2, subscriber.values.size());
+    }
+
+    @Test
+    public void testNonPositiveRequest() throws InterruptedException {
+        final SlowSubscriber subscriber = new SlowSubscriber(0, -1);
+        createP1Meter().getSnapshotPublisher().subscribe(subscriber);
+        Assertions.assertTrue(subscriber.errorLatch.await(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(IllegalArgumentException.class, subscriber.error.get());
+    }
+}
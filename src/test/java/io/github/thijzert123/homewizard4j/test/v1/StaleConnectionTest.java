@@ -0,0 +1,135 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.HttpClientTransport;
+import io.github.thijzert123.homewizard4j.v1.NioTransport;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.StaleConnectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Uses a server that answers one request per connection and then quietly closes the connection
+ * when the next request arrives, like a device that closed an idle connection.
+ *
+ * @author Thijzert123
+ */
+public class StaleConnectionTest {
+    private static String measurements;
+
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        measurements = Utils.getResourceAsString("p1Meter/measurements.json");
+        final ServerSocket serverSocket = new ServerSocket(8330);
+        final Thread acceptThread = new Thread(() -> {
+            while (true) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    final Thread connectionThread = new Thread(() -> serve(socket));
+                    connectionThread.setDaemon(true);
+                    connectionThread.start();
+                } catch (final IOException ioException) {
+                    return;
+                }
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    private static void serve(final Socket socket) {
+        try (socket) {
+            final InputStream inputStream = socket.getInputStream();
+            final String path = readRequest(inputStream);
+            final byte[] body = (path.endsWith("/data") ? measurements : "{}").getBytes(StandardCharsets.UTF_8);
+            final OutputStream outputStream = socket.getOutputStream();
+            outputStream.write(("HTTP/1.1 200 OK\r\nContent-Length: " + body.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            outputStream.write(body);
+            outputStream.flush();
+
+            // Close the connection as soon as the next request arrives, without answering it
+            inputStream.read();
+        } catch (final IOException ioException) {
+            // the client closed the connection
+        }
+    }
+
+    private static String readRequest(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int next;
+        while ((next = inputStream.read()) != -1) {
+            head.write(next);
+            if (head.toString(StandardCharsets.ISO_8859_1).endsWith("\r\n\r\n")) break;
+        }
+        final String[] lines = head.toString(StandardCharsets.ISO_8859_1).split("\r\n");
+        for (final String line : lines) {
+            if (line.toLowerCase().startsWith("content-length:")) {
+                inputStream.readNBytes(Integer.parseInt(line.substring(15).trim()));
+            }
+        }
+        return lines[0].split(" ")[1];
+    }
+
+    @Test
+    public void testGetIsRetried() throws IOException, HomeWizardApiException {
+        try (final NioTransport transport = new NioTransport(1, Runnable::run)) {
+            final P1Meter p1Meter = new P1Meter(true, "localhost", 8330, "/test", transport);
+            p1Meter.updateMeasurements();
+            p1Meter.updateMeasurements();
+            Assertions.assertEquals(-543, p1Meter.getActivePowerW().getAsDouble());
+            Assertions.assertEquals(1, p1Meter.getHealth().getRetryCount());
+            Assertions.assertEquals(0, p1Meter.getHealth().getConsecutiveFailures());
+        }
+    }
+
+    @Test
+    public void testPutIsRetriedWhenEnabled() throws IOException, HomeWizardApiException {
+        try (final NioTransport transport = new NioTransport(1, Runnable::run)) {
+            final P1Meter p1Meter = new P1Meter(true, "localhost", 8330, "/test", transport);
+            p1Meter.updateMeasurements();
+            p1Meter.getSystemConfiguration().setCloudEnabled(false);
+            final HomeWizardApiException exception =
+                    Assertions.assertThrows(HomeWizardApiException.class, p1Meter.getSystemConfiguration()::save);
+            Assertions.assertInstanceOf(StaleConnectionException.class, exception.getCause());
+            Assertions.assertEquals(0, p1Meter.getHealth().getRetryCount());
+
+            p1Meter.updateMeasurements();
+            p1Meter.getHealth().setRetryIdempotentPuts(true);
+            p1Meter.getSystemConfiguration().save();
+            Assertions.assertEquals(1, p1Meter.getHealth().getRetryCount());
+        }
+    }
+
+    @Test
+    public void testIdentifyIsNotRetried() throws IOException, HomeWizardApiException {
+        try (final NioTransport transport = new NioTransport(1, Runnable::run)) {
+            final P1Meter p1Meter = new P1Meter(true, "localhost", 8330, "/test", transport);
+            p1Meter.getHealth().setRetryIdempotentPuts(true);
+            p1Meter.updateMeasurements();
+            Assertions.assertThrows(HomeWizardApiException.class, p1Meter::identify);
+            Assertions.assertEquals(0, p1Meter.getHealth().getRetryCount());
+        }
+    }
+
+    @Test
+    public void testHttpClientTransport() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8330, "/test", new HttpClientTransport());
+        p1Meter.getHealth().setRetryIdempotentPuts(true);
+        p1Meter.updateMeasurements();
+        p1Meter.updateMeasurements();
+        p1Meter.getSystemConfiguration().setCloudEnabled(false);
+        p1Meter.getSystemConfiguration().save();
+        Assertions.assertEquals(0, p1Meter.getHealth().getConsecutiveFailures());
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.Device;
+import io.github.thijzert123.homewizard4j.v1.DeviceFactory;
+import io.github.thijzert123.homewizard4j.v1.DeviceTransport;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardDiscoverer;
+import io.github.thijzert123.homewizard4j.v1.InMemoryTransport;
+import io.github.thijzert123.homewizard4j.v1.KWhMeter;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.SubnetScanner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Thijzert123
+ */
+public class SubnetScannerTest {
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private InMemoryTransport transport;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+        final String p1MeterDeviceInfo = Utils.getResourceAsString("p1Meter/deviceInfo.json");
+        transport = new InMemoryTransport().handle("/api", request -> {
+            requestCount.incrementAndGet();
+            Assertions.assertEquals(80, request.uri().getPort());
+            return switch (request.uri().getHost()) {
+                case "192.0.2.7" -> DeviceTransport.Response.of(200, p1MeterDeviceInfo);
+                case "192.0.2.9" -> DeviceTransport.Response.of(200,
+                        "{\"product_type\": \"SDM230-wifi\", \"serial\": \"5c2faf001122\", \"api_version\": \"v1\"}");
+                case "192.0.2.11" -> DeviceTransport.Response.of(200, "{\"product_type\": \"HWE-UNKNOWN\"}");
+                case "192.0.2.12" -> DeviceTransport.Response.of(200, "<html></html>");
+                case "192.0.2.13" -> DeviceTransport.Response.of(200, "{\"product_type\": \"HWE-BROKEN-TEST\"}");
+                default -> DeviceTransport.Response.of(404, "");
+            };
+        });
+    }
+
+    @Test
+    public void testScan() throws HomeWizardApiException {
+        final SubnetScanner scanner = new SubnetScanner(transport);
+        scanner.setParallelism(16);
+        final List<Device> devices = scanner.scan("192.0.2.0/24");
+
+        // Every address except the network and broadcast address
+        Assertions.assertEquals(254, requestCount.get());
+        Assertions.assertEquals(2, devices.size());
+        final P1Meter p1Meter = Assertions.assertInstanceOf(P1Meter.class, devices.get(0));
+        Assertions.assertEquals("192.0.2.7", p1Meter.getHostAddress());
+        Assertions.assertEquals("/api/v1", p1Meter.getApiPath());
+        Assertions.assertEquals("3c39e7aabbcc", p1Meter.getSerial().orElseThrow());
+        Assertions.assertEquals("5.18", p1Meter.getFirmwareVersion().orElseThrow());
+        Assertions.assertTrue(p1Meter.getServiceName().isEmpty());
+        Assertions.assertInstanceOf(KWhMeter.class, devices.get(1));
+
+        // A single address
+        Assertions.assertEquals(1, scanner.scan("192.0.2.9/32").size());
+    }
+
+    @Test
+    public void testFailingFactory() throws HomeWizardApiException {
+        DeviceFactory.register("HWE-BROKEN-TEST", descriptor -> {
+            throw new IllegalStateException("Factory failure");
+        });
+        final SubnetScanner scanner = new SubnetScanner(transport);
+        // The address of the failing factory is skipped, and the scan still completes
+        Assertions.assertEquals(2, scanner.scan("192.0.2.0/28").size());
+    }
+
+    @Test
+    public void testInvalidRanges() {
+        final SubnetScanner scanner = new SubnetScanner(transport);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.scanAsync("192.0.2.0"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.scanAsync("10.0.0.0/8"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.scanAsync("192.0.2.0/33"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.scanAsync("::1/120"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.setParallelism(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> scanner.setTimeout(Duration.ZERO));
+    }
+
+    @Test
+    public void testDiscovererScan() throws IOException, ExecutionException, InterruptedException, TimeoutException {
+        try (final HomeWizardDiscoverer discoverer = new HomeWizardDiscoverer(transport)) {
+            final List<Device> devices = discoverer.scanSubnetAsync("192.0.2.0/28").get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, devices.size());
+            Assertions.assertSame(devices.get(0), discoverer.getDeviceBySerial("3c39e7aabbcc").orElseThrow());
+
+            // Scanning again returns the devices that were added the first time
+            final List<Device> devicesAgain = discoverer.scanSubnetAsync("192.0.2.0/28").get(10, TimeUnit.SECONDS);
+            Assertions.assertSame(devices.get(1), devicesAgain.get(1));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import io.github.thijzert123.homewizard4j.v1.DeviceFactory;
+import io.github.thijzert123.homewizard4j.v1.DeviceFactoryProvider;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardDiscoverer;
+
+import java.util.Map;
+
+/**
+ * Registered in <code>META-INF/services</code>, so {@link DeviceFactoryTest} can check that providers are loaded.
+ *
+ * @author Thijzert123
+ */
+public class TestDeviceFactoryProvider implements DeviceFactoryProvider {
+    @Override
+    public Map<String, DeviceFactory> getFactories() {
+        return Map.of("HWE-P1-PROVIDED", DeviceFactory.of(HomeWizardDiscoverer.DeviceType.P1_METER));
+    }
+}
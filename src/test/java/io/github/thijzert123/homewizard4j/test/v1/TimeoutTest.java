@@ -0,0 +1,122 @@
+package io.github.thijzert123.homewizard4j.test.v1;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.thijzert123.homewizard4j.test.TestHttpHandler;
+import io.github.thijzert123.homewizard4j.test.Utils;
+import io.github.thijzert123.homewizard4j.v1.Endpoint;
+import io.github.thijzert123.homewizard4j.v1.HomeWizardApiException;
+import io.github.thijzert123.homewizard4j.v1.P1Meter;
+import io.github.thijzert123.homewizard4j.v1.UpdateResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.concurrent.Executors;
+
+/**
+ * @author Thijzert123
+ */
+public class TimeoutTest {
+    @BeforeAll
+    public static void beforeAll() throws IOException {
+        final HttpServer httpServer = Utils.initializeServer(8328, "p1Meter");
+        final TestHttpHandler measurementsHandler =
+                new TestHttpHandler(Utils.getResourceAsString("p1Meter/measurements.json"));
+        httpServer.removeContext("/test/data");
+        httpServer.createContext("/test/data", httpExchange -> {
+            try {
+                // Hung device
+                Thread.sleep(2000);
+            } catch (final InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            measurementsHandler.handle(httpExchange);
+        });
+        httpServer.setExecutor(Executors.newCachedThreadPool());
+        httpServer.start();
+    }
+
+    @Test
+    public void testPerCallTimeout() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        final long startNanos = System.nanoTime();
+        final HomeWizardApiException exception = Assertions.assertThrows(HomeWizardApiException.class,
+                () -> p1Meter.updateMeasurements(Duration.ofMillis(200)));
+        Assertions.assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    public void testDeviceTimeout() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        p1Meter.getTimeouts().setRequestTimeout(Duration.ofMillis(200));
+        Assertions.assertEquals(Duration.ofMillis(200), p1Meter.getTimeouts().getRequestTimeout());
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+    }
+
+    @Test
+    public void testDeadline() {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        final long startNanos = System.nanoTime();
+        Assertions.assertThrows(HomeWizardApiException.class, () -> p1Meter.updateAll(Duration.ofMillis(600)));
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(1)) < 0);
+        // The device info was updated within its share of the deadline, the measurements weren't
+        Assertions.assertTrue(p1Meter.getFirmwareVersion().isPresent());
+        Assertions.assertFalse(p1Meter.getActivePowerW().isPresent());
+    }
+
+    @Test
+    public void testDeadlineConcurrently() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        final long startNanos = System.nanoTime();
+        final UpdateResult result = p1Meter.updateAllConcurrently(Duration.ofMillis(600));
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - startNanos).compareTo(Duration.ofSeconds(1)) < 0);
+
+        // Only the slow endpoint failed, the others were updated anyway
+        Assertions.assertFalse(result.isSuccessful());
+        Assertions.assertEquals(EnumSet.of(Endpoint.DEVICE_INFO, Endpoint.SYSTEM_CONFIGURATION), result.getUpdated());
+        Assertions.assertInstanceOf(HttpTimeoutException.class,
+                result.getFailure(Endpoint.MEASUREMENTS).orElseThrow().getCause());
+        Assertions.assertThrows(HomeWizardApiException.class, result::throwIfFailed);
+        Assertions.assertTrue(p1Meter.getFirmwareVersion().isPresent());
+        Assertions.assertTrue(p1Meter.getSystemConfiguration().isCloudEnabled().isPresent());
+    }
+
+    @Test
+    public void testPassedDeadlineConcurrently() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        // The deadline has passed before the requests would be sent
+        final UpdateResult result = p1Meter.updateAllConcurrently(Duration.ofNanos(1));
+
+        Assertions.assertTrue(result.getUpdated().isEmpty());
+        Assertions.assertEquals(EnumSet.of(Endpoint.DEVICE_INFO, Endpoint.MEASUREMENTS, Endpoint.SYSTEM_CONFIGURATION),
+                result.getFailures().keySet());
+        Assertions.assertNull(result.getFailure(Endpoint.MEASUREMENTS).orElseThrow().getCause());
+        // Nothing was sent, so the device isn't blamed
+        Assertions.assertEquals(0, p1Meter.getHealth().getConsecutiveFailures());
+    }
+
+    @Test
+    public void testAdaptiveTimeout() throws HomeWizardApiException {
+        final P1Meter p1Meter = new P1Meter(true, "localhost", 8328, "/test");
+        p1Meter.getTimeouts().enableAdaptive(0.9, 2, Duration.ofMillis(100), Duration.ofMillis(300));
+        // Too few requests to know the latency, so the fixed timeout is used
+        Assertions.assertEquals(Duration.ofSeconds(10), p1Meter.getTimeouts().getRequestTimeout());
+
+        for (int i = 0; i < 10; i++) {
+            p1Meter.updateDeviceInfo();
+        }
+        Assertions.assertTrue(p1Meter.getHealth().getLatencyPercentile(0.9).isPresent());
+        final Duration timeout = p1Meter.getTimeouts().getRequestTimeout();
+        Assertions.assertTrue(timeout.compareTo(Duration.ofMillis(100)) >= 0);
+        Assertions.assertTrue(timeout.compareTo(Duration.ofMillis(300)) <= 0);
+        Assertions.assertThrows(HomeWizardApiException.class, p1Meter::updateMeasurements);
+
+        p1Meter.getTimeouts().disableAdaptive();
+        Assertions.assertEquals(Duration.ofSeconds(10), p1Meter.getTimeouts().getRequestTimeout());
+    }
+}